@@ -0,0 +1,116 @@
+-- ============================================
+-- MODULE ABSENCES : index et tables techniques
+-- ============================================
+
+-- Pagination par curseur : lecture par clé (date_absence, id) sans OFFSET
+CREATE INDEX idx_absences_date_id ON absences (date_absence, id);
+CREATE INDEX idx_absences_employe_date_id ON absences (employe_id, date_absence, id);
+
+-- Totaux mensuels par employé et par type, tenus à jour par deltas (TotalMensuelService).
+-- Remplissage initial / correction : POST /api/absences/totaux/reconstruction?debut=YYYY-MM&fin=YYYY-MM
+CREATE TABLE IF NOT EXISTS absences_totaux_mensuels (
+    employe_id BIGINT NOT NULL,
+    mois DATE NOT NULL,
+    type_absence_id BIGINT NOT NULL,
+    nombre BIGINT NOT NULL DEFAULT 0,
+    heures DECIMAL(10,2) NOT NULL DEFAULT 0,
+    nombre_justifiees BIGINT NOT NULL DEFAULT 0,
+    heures_justifiees DECIMAL(10,2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (employe_id, mois, type_absence_id),
+    INDEX idx_totaux_mois (mois)
+);
+
+-- Journal des changements (ajout seul) pour GET /api/absences/changes?since=
+CREATE TABLE IF NOT EXISTS absences_changements (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    absence_id BIGINT NOT NULL,
+    employe_id BIGINT NOT NULL,
+    operation VARCHAR(20) NOT NULL,
+    -- Heure de la base à l'écriture : le flux ne sert que les lignes plus anciennes que
+    -- absences.changements.delai-ms, toutes validées (ChangementAbsenceService)
+    date_changement DATETIME(3) NOT NULL
+);
+
+-- Absences archivées (ArchivageAbsenceService) : mêmes colonnes et mêmes ID que absences.
+-- Chaque nuit, les absences closes de plus de 2 ans y sont déplacées par lots.
+CREATE TABLE IF NOT EXISTS absences_archive (
+    id BIGINT PRIMARY KEY,
+    employe_id BIGINT NOT NULL,
+    type_absence_id BIGINT NOT NULL,
+    date_absence DATE NOT NULL,
+    heure_debut TIME NULL,
+    heure_fin TIME NULL,
+    duree_heures DECIMAL(4,2) NULL,
+    motif TEXT NULL,
+    statut VARCHAR(20) NULL,
+    justifiee BOOLEAN NOT NULL,
+    document_justificatif VARCHAR(255) NULL,
+    enregistre_par BIGINT NULL,
+    date_creation DATETIME NULL,
+    date_archivage DATETIME NOT NULL,
+    INDEX idx_archive_date_id (date_absence, id),
+    INDEX idx_archive_employe_date_id (employe_id, date_absence, id)
+);
+
+-- Absences non justifiées relevées par la clôture mensuelle (job cloture-mensuelle).
+-- Une ligne par mois et par absence : une clôture reprise ou relancée n'ajoute pas de doublon.
+CREATE TABLE IF NOT EXISTS absences_cloture_non_justifiees (
+    mois DATE NOT NULL,
+    absence_id BIGINT NOT NULL,
+    employe_id BIGINT NOT NULL,
+    date_absence DATE NOT NULL,
+    PRIMARY KEY (mois, absence_id),
+    INDEX idx_cloture_employe (employe_id, mois)
+);
+
+-- Boîte d'envoi des notifications (NotificationOutbox) : écrite dans la transaction de l'absence,
+-- vidée vers NotificationQueue après le commit. Une ligne n'est supprimée qu'une fois envoyée.
+CREATE TABLE IF NOT EXISTS notifications_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    destinataire_id BIGINT NOT NULL,
+    expediteur_id BIGINT NULL,
+    type VARCHAR(50) NOT NULL,
+    sujet VARCHAR(255) NOT NULL,
+    message TEXT NOT NULL,
+    reference_id BIGINT NULL,
+    type_reference VARCHAR(50) NULL,
+    date_creation DATETIME NOT NULL
+);
+
+-- Une ligne par employé, verrouillée (INSERT ... ON DUPLICATE KEY UPDATE) par la transaction qui écrit
+-- une de ses absences : la vérification des chevauchements (IntervalleAbsenceService) est sérialisée
+-- par employé, sur tous les nœuds.
+CREATE TABLE IF NOT EXISTS absences_verrous_employes (
+    employe_id BIGINT PRIMARY KEY
+);
+
+-- Révisions des collections servies avec ETag (RevisionService), communes à tous les nœuds.
+-- Incrémentées dans la transaction de chaque écriture, juste avant son commit.
+CREATE TABLE IF NOT EXISTS absences_revisions (
+    cle VARCHAR(120) PRIMARY KEY,
+    revision BIGINT NOT NULL
+);
+
+-- Heure écrite chaque seconde sur le primaire (RoutageLectureService) ; son âge sur la réplique
+-- donne le retard de réplication. Sans mesure récente, les lectures restent sur le primaire.
+CREATE TABLE IF NOT EXISTS absences_replication_battement (
+    id TINYINT PRIMARY KEY,
+    battement DATETIME(3) NOT NULL
+);
+
+-- Suivi des imports CSV (ImportAbsenceService) : écrit par le nœud qui exécute l'import,
+-- lu par GET /api/absences/imports/{jobId} sur n'importe quel nœud. Purgé 24 h après la fin.
+CREATE TABLE IF NOT EXISTS absences_imports (
+    id CHAR(36) PRIMARY KEY,
+    nom_fichier VARCHAR(255) NULL,
+    lance_par BIGINT NULL,
+    statut VARCHAR(20) NOT NULL,
+    lignes_traitees BIGINT NOT NULL,
+    lignes_en_erreur BIGINT NOT NULL,
+    erreurs TEXT NULL,
+    message TEXT NULL,
+    date_creation DATETIME NOT NULL,
+    date_debut DATETIME NULL,
+    date_fin DATETIME NULL,
+    INDEX idx_imports_date_fin (date_fin)
+);
@@ -24,3 +24,22 @@ VALUES ('manager', '$2a$10$8.Xy.n.u.p.x.v.z.t.y.u.v.w.x.y.z.t.u.v.w.x.y.z.t.u.v.
 -- Employé: employe / password
 INSERT IGNORE INTO utilisateurs (nom_utilisateur, mot_de_passe, email, role, actif) 
 VALUES ('employe', '$2a$10$8.Xy.n.u.p.x.v.z.t.y.u.v.w.x.y.z.t.u.v.w.x.y.z.t.u.v.w', 'employe@hrsolide.com', 'EMPLOYE', TRUE);
+
+-- ============================================
+-- TABLE: BATTEMENT DE RÉPLICATION (RoutageLectureService)
+-- ============================================
+-- Heure écrite chaque seconde sur le primaire ; son âge sur la réplique donne le retard de réplication.
+CREATE TABLE IF NOT EXISTS auth_replication_battement (
+    id TINYINT PRIMARY KEY,
+    battement DATETIME(3) NOT NULL
+);
+
+-- ============================================
+-- TABLE: RÉVISIONS (RoutageLectureService)
+-- ============================================
+-- Incrémentée dans la transaction de chaque écriture sur les utilisateurs ; répliquée avec elles,
+-- elle indique si la réplique a reçu toutes les écritures validées.
+CREATE TABLE IF NOT EXISTS auth_revisions (
+    cle VARCHAR(100) PRIMARY KEY,
+    revision BIGINT NOT NULL
+);
@@ -0,0 +1,32 @@
+package com.plateforme.absences.cloture;
+
+import com.plateforme.absences.dto.AbsenceDTO;
+
+/**
+ * Résultat de la clôture d'une absence, passé du processor au writer.
+ */
+public class ClotureAbsence {
+    
+    private final AbsenceDTO avant;
+    private final AbsenceDTO apres;
+    private final boolean nonJustifiee;
+    
+    /**
+     * @param avant        absence telle que lue
+     * @param apres        absence clôturée, ou null si la clôture ne la modifie pas
+     * @param nonJustifiee vrai si l'absence est à signaler (justificatif requis et absent)
+     */
+    public ClotureAbsence(AbsenceDTO avant, AbsenceDTO apres, boolean nonJustifiee) {
+        this.avant = avant;
+        this.apres = apres;
+        this.nonJustifiee = nonJustifiee;
+    }
+    
+    public boolean estModifiee() {
+        return apres != null;
+    }
+    
+    public AbsenceDTO getAvant() { return avant; }
+    public AbsenceDTO getApres() { return apres; }
+    public boolean estNonJustifiee() { return nonJustifiee; }
+}
@@ -0,0 +1,75 @@
+package com.plateforme.absences.cloture;
+
+import java.time.LocalDateTime;
+
+/**
+ * État d'une exécution de la clôture mensuelle, tel que le dépôt de jobs le connaît.
+ */
+public class ClotureExecution {
+    
+    private final long executionId;
+    private final String mois;
+    private final String statut;
+    private final String statutSortie;
+    private final LocalDateTime dateDebut;
+    private final LocalDateTime dateFin;
+    
+    // Métriques de l'étape (cumulées sur les partitions)
+    private long absencesLues;
+    private long absencesEcrites;
+    private long absencesInchangees;
+    private long commits;
+    private long rollbacks;
+    private long absencesNonJustifiees;
+    
+    public ClotureExecution(long executionId, String mois, String statut, String statutSortie,
+                            LocalDateTime dateDebut, LocalDateTime dateFin) {
+        this.executionId = executionId;
+        this.mois = mois;
+        this.statut = statut;
+        this.statutSortie = statutSortie;
+        this.dateDebut = dateDebut;
+        this.dateFin = dateFin;
+    }
+    
+    void setMetriques(long lues, long ecrites, long inchangees, long commits, long rollbacks) {
+        this.absencesLues = lues;
+        this.absencesEcrites = ecrites;
+        this.absencesInchangees = inchangees;
+        this.commits = commits;
+        this.rollbacks = rollbacks;
+    }
+    
+    void setAbsencesNonJustifiees(long absencesNonJustifiees) {
+        this.absencesNonJustifiees = absencesNonJustifiees;
+    }
+    
+    // Getters
+    public long getExecutionId() { return executionId; }
+    
+    public String getMois() { return mois; }
+    
+    /** STARTING, STARTED, COMPLETED, FAILED, STOPPED... (BatchStatus) */
+    public String getStatut() { return statut; }
+    
+    public String getStatutSortie() { return statutSortie; }
+    
+    public LocalDateTime getDateDebut() { return dateDebut; }
+    
+    public LocalDateTime getDateFin() { return dateFin; }
+    
+    public long getAbsencesLues() { return absencesLues; }
+    
+    /** Absences modifiées ou signalées (transmises au writer). */
+    public long getAbsencesEcrites() { return absencesEcrites; }
+    
+    /** Absences déjà clôturées et justifiées (filtrées par le processor). */
+    public long getAbsencesInchangees() { return absencesInchangees; }
+    
+    public long getCommits() { return commits; }
+    
+    public long getRollbacks() { return rollbacks; }
+    
+    /** Absences signalées pour le mois (toutes exécutions confondues). */
+    public long getAbsencesNonJustifiees() { return absencesNonJustifiees; }
+}
@@ -0,0 +1,153 @@
+package com.plateforme.absences.cloture;
+
+import jakarta.batch.operations.JobOperator;
+import jakarta.batch.operations.JobRestartException;
+import jakarta.batch.operations.NoSuchJobException;
+import jakarta.batch.operations.NoSuchJobExecutionException;
+import jakarta.batch.runtime.BatchRuntime;
+import jakarta.batch.runtime.JobExecution;
+import jakarta.batch.runtime.Metric;
+import jakarta.batch.runtime.StepExecution;
+import jakarta.ejb.Lock;
+import jakarta.ejb.LockType;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * Clôture mensuelle des absences, en job Jakarta Batch (cloture-mensuelle.xml).
+ * 
+ * Le mois est découpé en partitions par tranche d'employés, traitées en
+ * parallèle par chunks de 500 absences (une transaction par chunk). Après un
+ * échec, reprendre() relance l'exécution à partir du dernier chunk validé de
+ * chaque partition ; relancer un mois déjà clôturé ne change rien.
+ * 
+ * Voir ClotureProcessor pour les règles de clôture.
+ */
+@Singleton
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class ClotureMensuelleService {
+    
+    private static final Logger LOGGER = Logger.getLogger(ClotureMensuelleService.class.getName());
+    
+    public static final String JOB = "cloture-mensuelle";
+    
+    @PersistenceContext(unitName = "absencesPU")
+    private EntityManager em;
+    
+    /**
+     * Démarre la clôture d'un mois (un seul passage à la fois par mois).
+     * 
+     * @return ID de l'exécution, à suivre avec trouver(id)
+     * @throws IllegalArgumentException si le mois n'est pas encore commencé
+     * @throws IllegalStateException si la clôture de ce mois est déjà en cours
+     */
+    public long demarrer(YearMonth mois, Long lancePar) {
+        if (mois.isAfter(YearMonth.now())) {
+            throw new IllegalArgumentException("Le mois " + mois + " n'est pas commencé");
+        }
+        JobOperator operateur = BatchRuntime.getJobOperator();
+        for (Long enCours : executionsEnCours(operateur)) {
+            if (mois.toString().equals(operateur.getParameters(enCours).getProperty("mois"))) {
+                throw new IllegalStateException("Clôture de " + mois + " déjà en cours (exécution " + enCours + ")");
+            }
+        }
+        
+        Properties parametres = new Properties();
+        parametres.setProperty("mois", mois.toString());
+        long executionId = operateur.start(JOB, parametres);
+        LOGGER.info("Clôture " + mois + " démarrée (exécution " + executionId + ", par " + lancePar + ")");
+        return executionId;
+    }
+    
+    /**
+     * Relance une exécution en échec ou arrêtée, à partir de ses derniers points de reprise.
+     * 
+     * @return ID de la nouvelle exécution, ou null si l'exécution est inconnue
+     * @throws IllegalStateException si l'exécution ne peut pas être reprise
+     *         (terminée, en cours, ou déjà reprise)
+     */
+    public Long reprendre(long executionId) {
+        JobOperator operateur = BatchRuntime.getJobOperator();
+        if (trouver(operateur, executionId) == null) {
+            return null;
+        }
+        try {
+            long reprise = operateur.restart(executionId, new Properties());
+            LOGGER.info("Clôture : exécution " + executionId + " reprise (exécution " + reprise + ")");
+            return reprise;
+        } catch (JobRestartException e) {
+            throw new IllegalStateException("Exécution " + executionId + " non reprenable : " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * État d'une exécution, ou null si elle est inconnue.
+     */
+    @Lock(LockType.READ)
+    public ClotureExecution trouver(long executionId) {
+        JobOperator operateur = BatchRuntime.getJobOperator();
+        JobExecution execution = trouver(operateur, executionId);
+        if (execution == null) {
+            return null;
+        }
+        
+        String mois = execution.getJobParameters().getProperty("mois");
+        ClotureExecution etat = new ClotureExecution(executionId, mois, execution.getBatchStatus().name(),
+                                                     execution.getExitStatus(), date(execution.getStartTime()),
+                                                     date(execution.getEndTime()));
+        for (StepExecution etape : operateur.getStepExecutions(executionId)) {
+            etat.setMetriques(metrique(etape, Metric.MetricType.READ_COUNT),
+                              metrique(etape, Metric.MetricType.WRITE_COUNT),
+                              metrique(etape, Metric.MetricType.FILTER_COUNT),
+                              metrique(etape, Metric.MetricType.COMMIT_COUNT),
+                              metrique(etape, Metric.MetricType.ROLLBACK_COUNT));
+        }
+        Number signalees = (Number) em.createNativeQuery(
+                "SELECT COUNT(*) FROM absences_cloture_non_justifiees WHERE mois = ?")
+            .setParameter(1, YearMonth.parse(mois).atDay(1))
+            .getSingleResult();
+        etat.setAbsencesNonJustifiees(signalees.longValue());
+        return etat;
+    }
+    
+    private static JobExecution trouver(JobOperator operateur, long executionId) {
+        try {
+            JobExecution execution = operateur.getJobExecution(executionId);
+            return JOB.equals(execution.getJobName()) ? execution : null;
+        } catch (NoSuchJobExecutionException e) {
+            return null;
+        }
+    }
+    
+    private static List<Long> executionsEnCours(JobOperator operateur) {
+        try {
+            return operateur.getRunningExecutions(JOB);
+        } catch (NoSuchJobException e) {
+            // Job jamais lancé sur ce dépôt
+            return List.of();
+        }
+    }
+    
+    private static long metrique(StepExecution etape, Metric.MetricType type) {
+        for (Metric metrique : etape.getMetrics()) {
+            if (metrique.getType() == type) {
+                return metrique.getValue();
+            }
+        }
+        return 0;
+    }
+    
+    private static LocalDateTime date(Date date) {
+        return date != null ? LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()) : null;
+    }
+}
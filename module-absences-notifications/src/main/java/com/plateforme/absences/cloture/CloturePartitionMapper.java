@@ -0,0 +1,68 @@
+package com.plateforme.absences.cloture;
+
+import jakarta.batch.api.BatchProperty;
+import jakarta.batch.api.partition.PartitionMapper;
+import jakarta.batch.api.partition.PartitionPlan;
+import jakarta.batch.api.partition.PartitionPlanImpl;
+import jakarta.enterprise.context.Dependent;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.YearMonth;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * Découpe les employés ayant des absences dans le mois en tranches d'ID
+ * contiguës de même largeur, une partition (et un thread) par tranche.
+ */
+@Named
+@Dependent
+public class CloturePartitionMapper implements PartitionMapper {
+    
+    private static final Logger LOGGER = Logger.getLogger(CloturePartitionMapper.class.getName());
+    
+    @PersistenceContext(unitName = "absencesPU")
+    private EntityManager em;
+    
+    @Inject
+    @BatchProperty
+    private String mois;
+    
+    @Inject
+    @BatchProperty
+    private String partitions;
+    
+    @Override
+    public PartitionPlan mapPartitions() {
+        YearMonth periode = YearMonth.parse(mois);
+        Object[] bornes = em.createQuery("SELECT MIN(a.employeId), MAX(a.employeId) FROM Absence a "
+                                         + "WHERE a.dateAbsence BETWEEN :debut AND :fin", Object[].class)
+                            .setParameter("debut", periode.atDay(1))
+                            .setParameter("fin", periode.atEndOfMonth())
+                            .getSingleResult();
+        
+        long min = bornes[0] != null ? (Long) bornes[0] : 0;
+        long max = bornes[1] != null ? (Long) bornes[1] : -1;
+        int demandees = partitions != null ? Math.max(1, Integer.parseInt(partitions)) : 4;
+        // Pas plus de tranches que d'ID possibles, et une tranche vide si le mois n'a aucune absence
+        int n = (int) Math.max(1, Math.min(demandees, max - min + 1));
+        long largeur = (max - min + 1 + n - 1) / n;
+        
+        Properties[] proprietes = new Properties[n];
+        for (int i = 0; i < n; i++) {
+            long debut = min + i * largeur;
+            proprietes[i] = new Properties();
+            proprietes[i].setProperty("employeMin", Long.toString(debut));
+            proprietes[i].setProperty("employeMax", Long.toString(i == n - 1 ? max : debut + largeur - 1));
+        }
+        
+        LOGGER.info("Clôture " + mois + " : employés " + min + " à " + max + " en " + n + " partition(s)");
+        PartitionPlanImpl plan = new PartitionPlanImpl();
+        plan.setPartitions(n);
+        plan.setThreads(n);
+        plan.setPartitionProperties(proprietes);
+        return plan;
+    }
+}
@@ -0,0 +1,80 @@
+package com.plateforme.absences.cloture;
+
+import com.plateforme.absences.dto.AbsenceDTO;
+import com.plateforme.absences.entities.TypeAbsence;
+import com.plateforme.absences.services.AbsenceService;
+import com.plateforme.absences.services.TypeAbsenceService;
+
+import jakarta.batch.api.chunk.ItemProcessor;
+import jakarta.ejb.EJB;
+import jakarta.enterprise.context.Dependent;
+import jakarta.inject.Named;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.Objects;
+
+/**
+ * Clôture d'une absence :
+ * - EN_ATTENTE → VERROUILLE (plus de décision possible sur le mois clos) ;
+ * - dureeHeures recalculée à partir des heures de début et de fin, si les deux sont saisies ;
+ * - absence signalée si son type exige un justificatif qu'elle n'a pas (hors absences rejetées).
+ * 
+ * Les absences que la clôture ne modifie pas et qui ne sont pas à signaler
+ * sont filtrées (null) et n'atteignent pas le writer.
+ */
+@Named
+@Dependent
+public class ClotureProcessor implements ItemProcessor {
+    
+    private static final String REJETE = "REJETE";
+    
+    @EJB
+    private TypeAbsenceService typeAbsenceService;
+    
+    @Override
+    public Object processItem(Object item) {
+        AbsenceDTO avant = (AbsenceDTO) item;
+        
+        String statut = AbsenceService.EN_ATTENTE.equals(avant.getStatut()) ? AbsenceService.VERROUILLE : avant.getStatut();
+        BigDecimal duree = duree(avant.getHeureDebut(), avant.getHeureFin(), avant.getDureeHeures());
+        boolean modifiee = !Objects.equals(statut, avant.getStatut()) || !memeDuree(duree, avant.getDureeHeures());
+        boolean nonJustifiee = nonJustifiee(avant);
+        
+        if (!modifiee && !nonJustifiee) {
+            return null;
+        }
+        AbsenceDTO apres = modifiee
+            ? new AbsenceDTO(avant.getId(), avant.getEmployeId(), avant.getTypeAbsenceId(), avant.getTypeAbsenceNom(),
+                             avant.getDateAbsence(), avant.getHeureDebut(), avant.getHeureFin(), duree, avant.getMotif(),
+                             avant.getJustifiee(), avant.getDocumentJustificatif(), avant.getEnregistrePar(), statut,
+                             avant.getDateCreation())
+            : null;
+        return new ClotureAbsence(avant, apres, nonJustifiee);
+    }
+    
+    private boolean nonJustifiee(AbsenceDTO absence) {
+        if (Boolean.TRUE.equals(absence.getJustifiee()) || REJETE.equals(absence.getStatut())) {
+            return false;
+        }
+        TypeAbsence type = typeAbsenceService.findById(absence.getTypeAbsenceId());
+        return type != null && Boolean.TRUE.equals(type.getJustificationRequise());
+    }
+    
+    /**
+     * Durée en heures (2 décimales) entre début et fin ; la durée saisie si l'une
+     * des heures manque ou si la fin ne suit pas le début.
+     */
+    static BigDecimal duree(LocalTime heureDebut, LocalTime heureFin, BigDecimal saisie) {
+        if (heureDebut == null || heureFin == null || !heureFin.isAfter(heureDebut)) {
+            return saisie;
+        }
+        long minutes = Duration.between(heureDebut, heureFin).toMinutes();
+        return BigDecimal.valueOf(minutes).divide(BigDecimal.valueOf(60), 2, RoundingMode.HALF_UP);
+    }
+    
+    static boolean memeDuree(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+}
@@ -0,0 +1,137 @@
+package com.plateforme.absences.cloture;
+
+import com.plateforme.absences.dto.AbsenceDTO;
+
+import jakarta.batch.api.BatchProperty;
+import jakarta.batch.api.chunk.AbstractItemReader;
+import jakarta.enterprise.context.Dependent;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Lit les absences du mois d'une tranche d'employés, dans l'ordre
+ * (employé, date, id), par pages lues par clé (sans OFFSET).
+ * 
+ * Le point de reprise est la position de la dernière absence lue : après
+ * un échec, la partition reprend juste après le dernier chunk validé.
+ */
+@Named
+@Dependent
+public class ClotureReader extends AbstractItemReader {
+    
+    @PersistenceContext(unitName = "absencesPU")
+    private EntityManager em;
+    
+    @Inject
+    @BatchProperty
+    private String mois;
+    
+    @Inject
+    @BatchProperty
+    private String employeMin;
+    
+    @Inject
+    @BatchProperty
+    private String employeMax;
+    
+    @Inject
+    @BatchProperty
+    private String taillePage;
+    
+    private LocalDate debut;
+    private LocalDate fin;
+    private int page;
+    
+    private Position position;
+    private List<AbsenceDTO> lot = List.of();
+    private int suivante;
+    private boolean epuise;
+    
+    /**
+     * Dernière absence lue, avec la tranche d'employés de la partition.
+     * 
+     * La tranche est gardée dans le point de reprise : au redémarrage, la
+     * partition relit la même tranche même si les bornes recalculées par
+     * CloturePartitionMapper ont changé entre-temps.
+     */
+    static final class Position implements Serializable {
+        private static final long serialVersionUID = 1L;
+        
+        private final long employeMin;
+        private final long employeMax;
+        private final Long employeId;
+        private final LocalDate date;
+        private final Long id;
+        
+        Position(long employeMin, long employeMax, Long employeId, LocalDate date, Long id) {
+            this.employeMin = employeMin;
+            this.employeMax = employeMax;
+            this.employeId = employeId;
+            this.date = date;
+            this.id = id;
+        }
+        
+        Position apres(AbsenceDTO absence) {
+            return new Position(employeMin, employeMax, absence.getEmployeId(), absence.getDateAbsence(), absence.getId());
+        }
+    }
+    
+    @Override
+    public void open(Serializable checkpoint) {
+        YearMonth periode = YearMonth.parse(mois);
+        debut = periode.atDay(1);
+        fin = periode.atEndOfMonth();
+        page = taillePage != null ? Integer.parseInt(taillePage) : 500;
+        position = checkpoint != null
+            ? (Position) checkpoint
+            : new Position(Long.parseLong(employeMin), Long.parseLong(employeMax), null, null, null);
+    }
+    
+    @Override
+    public Object readItem() {
+        if (suivante == lot.size()) {
+            if (epuise) {
+                return null;
+            }
+            lot = charger();
+            suivante = 0;
+            epuise = lot.size() < page;
+            if (lot.isEmpty()) {
+                return null;
+            }
+        }
+        AbsenceDTO absence = lot.get(suivante++);
+        position = position.apres(absence);
+        return absence;
+    }
+    
+    @Override
+    public Serializable checkpointInfo() {
+        return position;
+    }
+    
+    private List<AbsenceDTO> charger() {
+        TypedQuery<AbsenceDTO> query;
+        if (position.id == null) {
+            query = em.createNamedQuery("AbsenceDTO.cloture", AbsenceDTO.class);
+        } else {
+            query = em.createNamedQuery("AbsenceDTO.clotureApres", AbsenceDTO.class)
+                      .setParameter("employeId", position.employeId)
+                      .setParameter("date", position.date)
+                      .setParameter("id", position.id);
+        }
+        return query.setParameter("employeMin", position.employeMin)
+                    .setParameter("employeMax", position.employeMax)
+                    .setParameter("debut", debut)
+                    .setParameter("fin", fin)
+                    .setMaxResults(page)
+                    .getResultList();
+    }
+}
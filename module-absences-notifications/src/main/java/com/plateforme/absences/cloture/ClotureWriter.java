@@ -0,0 +1,180 @@
+package com.plateforme.absences.cloture;
+
+import com.plateforme.absences.dto.AbsenceDTO;
+import com.plateforme.absences.entities.Absence;
+import com.plateforme.absences.events.AbsenceEvent;
+import com.plateforme.absences.services.ChangementAbsenceService;
+import com.plateforme.absences.services.TotalMensuelService;
+
+import jakarta.annotation.Resource;
+import jakarta.batch.api.BatchProperty;
+import jakarta.batch.api.chunk.AbstractItemWriter;
+import jakarta.ejb.EJB;
+import jakarta.enterprise.context.Dependent;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.PersistenceUnit;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * Écrit un chunk de clôture dans la transaction du chunk, en deux batchs JDBC :
+ * - mise à jour des absences modifiées, conditionnée à l'état lu (une absence
+ *   modifiée entre la lecture et l'écriture est laissée telle quelle) ;
+ * - signalement des absences non justifiées (INSERT IGNORE : sans doublon à la reprise).
+ * 
+ * Les absences effectivement mises à jour suivent le même chemin qu'une
+ * modification par AbsenceService : totaux mensuels, journal des changements,
+ * AbsenceEvent (index et révisions après commit) et éviction du cache de second niveau.
+ */
+@Named
+@Dependent
+public class ClotureWriter extends AbstractItemWriter {
+    
+    private static final Logger LOGGER = Logger.getLogger(ClotureWriter.class.getName());
+    
+    private static final String UPDATE_ABSENCE =
+        "UPDATE absences SET statut = ?, duree_heures = ? WHERE id = ? AND statut <=> ? AND duree_heures <=> ?";
+    
+    private static final String INSERT_SIGNALEMENT =
+        "INSERT IGNORE INTO absences_cloture_non_justifiees (mois, absence_id, employe_id, date_absence) VALUES (?, ?, ?, ?)";
+    
+    @Resource(lookup = "java:/gestion_rh_jeeDS")
+    private DataSource dataSource;
+    
+    @Resource
+    private TransactionSynchronizationRegistry registre;
+    
+    @PersistenceUnit(unitName = "absencesPU")
+    private EntityManagerFactory emf;
+    
+    @EJB
+    private TotalMensuelService totalMensuelService;
+    
+    @EJB
+    private ChangementAbsenceService changementAbsenceService;
+    
+    @Inject
+    private Event<AbsenceEvent> absenceEvents;
+    
+    @Inject
+    @BatchProperty
+    private String mois;
+    
+    @Override
+    public void writeItems(List<Object> items) {
+        List<ClotureAbsence> modifiees = new ArrayList<>();
+        List<AbsenceDTO> signalees = new ArrayList<>();
+        for (Object item : items) {
+            ClotureAbsence cloture = (ClotureAbsence) item;
+            if (cloture.estModifiee()) {
+                modifiees.add(cloture);
+            }
+            if (cloture.estNonJustifiee()) {
+                signalees.add(cloture.getAvant());
+            }
+        }
+        
+        List<AbsenceEvent> events = new ArrayList<>(modifiees.size());
+        try (Connection connection = dataSource.getConnection()) {
+            if (!modifiees.isEmpty()) {
+                int[] lignes = mettreAJour(connection, modifiees);
+                for (int i = 0; i < lignes.length; i++) {
+                    // SUCCESS_NO_INFO (-2) si le driver réécrit le batch : compté comme une mise à jour
+                    if (lignes[i] != 0) {
+                        ClotureAbsence cloture = modifiees.get(i);
+                        events.add(AbsenceEvent.modification(cloture.getAvant(), cloture.getApres()));
+                    } else {
+                        LOGGER.info("Absence " + modifiees.get(i).getAvant().getId()
+                                    + " modifiée pendant la clôture : laissée en l'état");
+                    }
+                }
+            }
+            if (!signalees.isEmpty()) {
+                signaler(connection, signalees);
+            }
+        } catch (SQLException e) {
+            throw new PersistenceException("Erreur lors de l'écriture d'un lot de clôture", e);
+        }
+        
+        if (!events.isEmpty()) {
+            totalMensuelService.appliquer(events);
+            changementAbsenceService.journaliser(events);
+            for (AbsenceEvent event : events) {
+                absenceEvents.fire(event);
+            }
+            evincerApresCommit(events);
+        }
+    }
+    
+    private static int[] mettreAJour(Connection connection, List<ClotureAbsence> modifiees) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(UPDATE_ABSENCE)) {
+            for (ClotureAbsence cloture : modifiees) {
+                AbsenceDTO avant = cloture.getAvant();
+                AbsenceDTO apres = cloture.getApres();
+                ps.setString(1, apres.getStatut());
+                ps.setObject(2, apres.getDureeHeures(), Types.DECIMAL);
+                ps.setLong(3, avant.getId());
+                ps.setString(4, avant.getStatut());
+                ps.setObject(5, avant.getDureeHeures(), Types.DECIMAL);
+                ps.addBatch();
+            }
+            return ps.executeBatch();
+        }
+    }
+    
+    private void signaler(Connection connection, List<AbsenceDTO> signalees) throws SQLException {
+        LocalDate premierJour = YearMonth.parse(mois).atDay(1);
+        try (PreparedStatement ps = connection.prepareStatement(INSERT_SIGNALEMENT)) {
+            for (AbsenceDTO absence : signalees) {
+                ps.setObject(1, premierJour);
+                ps.setLong(2, absence.getId());
+                ps.setLong(3, absence.getEmployeId());
+                ps.setObject(4, absence.getDateAbsence());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+    
+    /**
+     * Retire les absences mises à jour du cache de second niveau (écrites en JDBC,
+     * à l'insu de JPA), après le commit du chunk.
+     */
+    private void evincerApresCommit(List<AbsenceEvent> events) {
+        List<Long> ids = new ArrayList<>(events.size());
+        for (AbsenceEvent event : events) {
+            ids.add(event.getApres().getId());
+        }
+        registre.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+            
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    Cache cache = emf.getCache();
+                    for (Long id : ids) {
+                        cache.evict(Absence.class, id);
+                    }
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,27 @@
+package com.plateforme.absences.documents;
+
+import jakarta.ejb.ApplicationException;
+
+/**
+ * Levée quand un document justificatif téléversé est refusé (vide, trop
+ * volumineux ou d'un type non autorisé).
+ * 
+ * Exception applicative : elle remonte telle quelle jusqu'à la ressource REST
+ * (pas d'EJBException).
+ */
+@ApplicationException(rollback = true)
+public class DocumentRefuseException extends RuntimeException {
+    
+    public enum Motif { VIDE, TROP_VOLUMINEUX, TYPE_NON_AUTORISE }
+    
+    private final Motif motif;
+    
+    public DocumentRefuseException(Motif motif, String message) {
+        super(message);
+        this.motif = motif;
+    }
+    
+    public Motif getMotif() {
+        return motif;
+    }
+}
@@ -0,0 +1,29 @@
+package com.plateforme.absences.documents;
+
+/**
+ * Document justificatif enregistré dans le magasin de documents.
+ */
+public class DocumentStocke {
+    
+    private final String reference;
+    private final String typeMime;
+    private final long taille;
+    private final boolean dejaPresent;
+
+    public DocumentStocke(String reference, String typeMime, long taille, boolean dejaPresent) {
+        this.reference = reference;
+        this.typeMime = typeMime;
+        this.taille = taille;
+        this.dejaPresent = dejaPresent;
+    }
+
+    /** Référence à enregistrer dans Absence.documentJustificatif ("sha256:<empreinte>"). */
+    public String getReference() { return reference; }
+    
+    public String getTypeMime() { return typeMime; }
+    
+    public long getTaille() { return taille; }
+    
+    /** true si un document identique était déjà stocké (aucun nouveau fichier écrit). */
+    public boolean isDejaPresent() { return dejaPresent; }
+}
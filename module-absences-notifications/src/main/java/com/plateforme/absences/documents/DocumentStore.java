@@ -0,0 +1,212 @@
+package com.plateforme.absences.documents;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.Singleton;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Magasin local des documents justificatifs, adressé par contenu.
+ * 
+ * Un document est rangé sous son empreinte SHA-256 (racine/ab/abcdef...) :
+ * deux téléversements identiques ne produisent qu'un fichier. Le contenu est
+ * recopié par tampon de {@value #TAILLE_TAMPON} octets vers un fichier
+ * temporaire, l'empreinte étant calculée au passage ; la mémoire utilisée ne
+ * dépend donc pas de la taille du document.
+ * 
+ * Racine : propriété système absences.documents.dir, sinon
+ * ${jboss.server.data.dir}/absences-documents.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class DocumentStore {
+    
+    private static final Logger LOGGER = Logger.getLogger(DocumentStore.class.getName());
+    
+    public static final String PREFIXE_REFERENCE = "sha256:";
+    
+    /** Taille maximale d'un document (scan de certificat médical, photo...). */
+    public static final long TAILLE_MAX = 25L * 1024 * 1024;
+    
+    private static final int TAILLE_TAMPON = 64 * 1024;
+    
+    // Octets nécessaires pour reconnaître les types autorisés
+    private static final int TAILLE_SIGNATURE = 8;
+    
+    private Path racine;
+    private Path temporaires;
+    
+    @PostConstruct
+    public void initialiser() {
+        String dossier = System.getProperty("absences.documents.dir");
+        if (dossier == null) {
+            dossier = System.getProperty("jboss.server.data.dir", System.getProperty("java.io.tmpdir"))
+                      + "/absences-documents";
+        }
+        racine = Paths.get(dossier).toAbsolutePath();
+        temporaires = racine.resolve("tmp");
+        try {
+            Files.createDirectories(temporaires);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Impossible de créer le magasin de documents " + racine, e);
+        }
+        LOGGER.info("Magasin de documents justificatifs : " + racine);
+    }
+    
+    /**
+     * Enregistre un document lu en flux.
+     * 
+     * @param contenu Contenu du document (lu jusqu'au bout, non fermé)
+     * @return Le document stocké (référence à conserver sur l'absence)
+     * @throws DocumentRefuseException si le document est vide, trop volumineux ou d'un type non autorisé
+     */
+    public DocumentStocke enregistrer(InputStream contenu) throws IOException {
+        MessageDigest sha256 = sha256();
+        Path temporaire = Files.createTempFile(temporaires, "televersement-", ".part");
+        try {
+            ByteBuffer tampon = ByteBuffer.allocate(TAILLE_TAMPON);
+            String typeMime = null;
+            long taille = 0;
+            
+            ReadableByteChannel source = Channels.newChannel(contenu);
+            try (FileChannel cible = FileChannel.open(temporaire, StandardOpenOption.WRITE)) {
+                boolean fin = false;
+                while (!fin) {
+                    fin = source.read(tampon) == -1;
+                    if (typeMime == null) {
+                        if (tampon.position() < TAILLE_SIGNATURE && !fin) {
+                            continue;
+                        }
+                        typeMime = verifierType(tampon.array(), tampon.position());
+                    }
+                    
+                    tampon.flip();
+                    taille += tampon.remaining();
+                    if (taille > TAILLE_MAX) {
+                        throw new DocumentRefuseException(DocumentRefuseException.Motif.TROP_VOLUMINEUX,
+                            "Le document dépasse la taille maximale de " + TAILLE_MAX / (1024 * 1024) + " Mo");
+                    }
+                    sha256.update(tampon.array(), 0, tampon.limit());
+                    while (tampon.hasRemaining()) {
+                        cible.write(tampon);
+                    }
+                    tampon.clear();
+                }
+            }
+            
+            String empreinte = HexFormat.of().formatHex(sha256.digest());
+            Path fichier = chemin(empreinte);
+            boolean dejaPresent = Files.exists(fichier);
+            if (!dejaPresent) {
+                Files.createDirectories(fichier.getParent());
+                try {
+                    Files.move(temporaire, fichier, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    dejaPresent = true; // téléversement concurrent du même document
+                }
+            }
+            
+            LOGGER.info("Document " + empreinte + " (" + typeMime + ", " + taille + " octets)"
+                        + (dejaPresent ? " déjà présent" : " enregistré"));
+            return new DocumentStocke(PREFIXE_REFERENCE + empreinte, typeMime, taille, dejaPresent);
+            
+        } finally {
+            try {
+                Files.deleteIfExists(temporaire);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Impossible de supprimer le fichier temporaire " + temporaire, e);
+            }
+        }
+    }
+    
+    /**
+     * Fichier d'un document à partir de sa référence, ou null si la référence
+     * ne désigne pas un document du magasin (ancien chemin saisi à la main).
+     */
+    public Path trouver(String reference) {
+        if (reference == null || !reference.startsWith(PREFIXE_REFERENCE)) {
+            return null;
+        }
+        String empreinte = reference.substring(PREFIXE_REFERENCE.length());
+        if (empreinte.length() != 64 || !empreinte.chars().allMatch(c -> Character.digit(c, 16) >= 0)) {
+            return null;
+        }
+        Path fichier = chemin(empreinte);
+        return Files.isRegularFile(fichier) ? fichier : null;
+    }
+    
+    private Path chemin(String empreinte) {
+        return racine.resolve(empreinte.substring(0, 2)).resolve(empreinte);
+    }
+    
+    /**
+     * Type du document d'après ses premiers octets (PDF, JPEG ou PNG).
+     * 
+     * @throws DocumentRefuseException si le document est vide ou d'un autre type
+     */
+    static String verifierType(byte[] debut, int longueur) {
+        if (longueur == 0) {
+            throw new DocumentRefuseException(DocumentRefuseException.Motif.VIDE, "Le document est vide");
+        }
+        String type = typeMime(debut, longueur);
+        if (type == null) {
+            throw new DocumentRefuseException(DocumentRefuseException.Motif.TYPE_NON_AUTORISE,
+                "Type de document non autorisé (PDF, JPEG ou PNG attendu)");
+        }
+        return type;
+    }
+    
+    /**
+     * Type MIME reconnu d'après les premiers octets, ou null.
+     */
+    public static String typeMime(byte[] debut, int longueur) {
+        if (commencePar(debut, longueur, 0x25, 0x50, 0x44, 0x46)) {
+            return "application/pdf";
+        }
+        if (commencePar(debut, longueur, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        if (commencePar(debut, longueur, 0x89, 0x50, 0x4E, 0x47, 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return "image/png";
+        }
+        return null;
+    }
+    
+    private static boolean commencePar(byte[] debut, int longueur, int... signature) {
+        if (longueur < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((debut[i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
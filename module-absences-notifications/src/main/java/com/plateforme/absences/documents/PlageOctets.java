@@ -0,0 +1,78 @@
+package com.plateforme.absences.documents;
+
+/**
+ * Plage d'octets demandée par un en-tête HTTP Range (une seule plage).
+ * 
+ * Formes reconnues : bytes=debut-fin, bytes=debut- et bytes=-suffixe.
+ * Une demande de plusieurs plages, ou mal formée, est ignorée (document
+ * entier), comme le permet la RFC 9110.
+ */
+public final class PlageOctets {
+    
+    /** Plage hors du document : réponse 416. */
+    public static final PlageOctets INSATISFAISABLE = new PlageOctets(-1, -1);
+    
+    private final long debut;
+    private final long fin;
+    
+    private PlageOctets(long debut, long fin) {
+        this.debut = debut;
+        this.fin = fin;
+    }
+    
+    /**
+     * Lit l'en-tête Range pour un document de {@code taille} octets.
+     * 
+     * @return La plage (bornes incluses), INSATISFAISABLE, ou null pour envoyer tout le document
+     */
+    public static PlageOctets lire(String entete, long taille) {
+        if (entete == null || !entete.startsWith("bytes=") || entete.indexOf(',') >= 0) {
+            return null;
+        }
+        String plage = entete.substring("bytes=".length()).trim();
+        int tiret = plage.indexOf('-');
+        if (tiret < 0) {
+            return null;
+        }
+        
+        try {
+            String debutStr = plage.substring(0, tiret).trim();
+            String finStr = plage.substring(tiret + 1).trim();
+            
+            if (debutStr.isEmpty()) {
+                // bytes=-500 : les 500 derniers octets
+                long suffixe = Long.parseLong(finStr);
+                if (suffixe <= 0 || taille == 0) {
+                    return INSATISFAISABLE;
+                }
+                return new PlageOctets(Math.max(0, taille - suffixe), taille - 1);
+            }
+            
+            long debut = Long.parseLong(debutStr);
+            long fin = finStr.isEmpty() ? taille - 1 : Math.min(Long.parseLong(finStr), taille - 1);
+            if (debut < 0 || (!finStr.isEmpty() && Long.parseLong(finStr) < debut)) {
+                return null;
+            }
+            if (debut >= taille) {
+                return INSATISFAISABLE;
+            }
+            return new PlageOctets(debut, fin);
+            
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    public long getDebut() { return debut; }
+    
+    public long getFin() { return fin; }
+    
+    public long getLongueur() { return fin - debut + 1; }
+    
+    /**
+     * Valeur de l'en-tête Content-Range correspondant.
+     */
+    public String contentRange(long taille) {
+        return this == INSATISFAISABLE ? "bytes */" + taille : "bytes " + debut + "-" + fin + "/" + taille;
+    }
+}
@@ -0,0 +1,72 @@
+package com.plateforme.absences.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Curseur opaque pour la pagination par clé des absences.
+ * 
+ * Encode la position (date_absence, id) de la dernière ligne renvoyée,
+ * ce qui permet de reprendre la lecture sans OFFSET.
+ */
+public final class AbsenceCursor {
+    
+    private static final char SEPARATEUR = '|';
+    
+    private final LocalDate dateAbsence;
+    private final Long id;
+
+    public AbsenceCursor(LocalDate dateAbsence, Long id) {
+        this.dateAbsence = dateAbsence;
+        this.id = id;
+    }
+    
+    /**
+     * Curseur positionné sur une absence donnée.
+     */
+    public static AbsenceCursor of(AbsenceDTO absence) {
+        return new AbsenceCursor(absence.getDateAbsence(), absence.getId());
+    }
+    
+    /**
+     * Encode le curseur en chaîne opaque (Base64 URL-safe).
+     */
+    public String encode() {
+        String brut = dateAbsence.toString() + SEPARATEUR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                     .encodeToString(brut.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Décode un curseur reçu du client.
+     * 
+     * @param valeur Le curseur opaque
+     * @return Le curseur, ou null si la valeur est vide
+     * @throws IllegalArgumentException si le curseur est invalide
+     */
+    public static AbsenceCursor decode(String valeur) {
+        if (valeur == null || valeur.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            String brut = new String(Base64.getUrlDecoder().decode(valeur.trim()), StandardCharsets.UTF_8);
+            int separateur = brut.indexOf(SEPARATEUR);
+            if (separateur < 0) {
+                throw new IllegalArgumentException("Curseur invalide");
+            }
+            return new AbsenceCursor(
+                LocalDate.parse(brut.substring(0, separateur)),
+                Long.valueOf(brut.substring(separateur + 1))
+            );
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Curseur invalide", e);
+        }
+    }
+
+    // Getters
+    public LocalDate getDateAbsence() { return dateAbsence; }
+
+    public Long getId() { return id; }
+}
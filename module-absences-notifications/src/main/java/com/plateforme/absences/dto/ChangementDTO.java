@@ -0,0 +1,44 @@
+package com.plateforme.absences.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Un changement du flux de synchronisation : l'opération et, sauf pour une
+ * suppression, l'état actuel de l'absence.
+ */
+public class ChangementDTO {
+    
+    private String operation;
+    private Long absenceId;
+    private Long employeId;
+    private LocalDateTime dateChangement;
+    private AbsenceDTO absence;
+
+    // Constructeurs
+    public ChangementDTO() {
+    }
+
+    public ChangementDTO(String operation, Long absenceId, Long employeId, LocalDateTime dateChangement, AbsenceDTO absence) {
+        this.operation = operation;
+        this.absenceId = absenceId;
+        this.employeId = employeId;
+        this.dateChangement = dateChangement;
+        this.absence = absence;
+    }
+
+    // Getters et Setters
+    public String getOperation() { return operation; }
+    public void setOperation(String operation) { this.operation = operation; }
+
+    public Long getAbsenceId() { return absenceId; }
+    public void setAbsenceId(Long absenceId) { this.absenceId = absenceId; }
+
+    public Long getEmployeId() { return employeId; }
+    public void setEmployeId(Long employeId) { this.employeId = employeId; }
+
+    public LocalDateTime getDateChangement() { return dateChangement; }
+    public void setDateChangement(LocalDateTime dateChangement) { this.dateChangement = dateChangement; }
+
+    public AbsenceDTO getAbsence() { return absence; }
+    public void setAbsence(AbsenceDTO absence) { this.absence = absence; }
+}
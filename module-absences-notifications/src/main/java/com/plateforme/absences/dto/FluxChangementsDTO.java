@@ -0,0 +1,36 @@
+package com.plateforme.absences.dto;
+
+import java.util.List;
+
+/**
+ * Page du flux de changements.
+ * 
+ * token est à repasser en ?since= à l'appel suivant ; suite indique qu'il
+ * reste des changements à lire immédiatement.
+ */
+public class FluxChangementsDTO {
+    
+    private List<ChangementDTO> changements;
+    private String token;
+    private boolean suite;
+
+    // Constructeurs
+    public FluxChangementsDTO() {
+    }
+
+    public FluxChangementsDTO(List<ChangementDTO> changements, String token, boolean suite) {
+        this.changements = changements;
+        this.token = token;
+        this.suite = suite;
+    }
+
+    // Getters et Setters
+    public List<ChangementDTO> getChangements() { return changements; }
+    public void setChangements(List<ChangementDTO> changements) { this.changements = changements; }
+
+    public String getToken() { return token; }
+    public void setToken(String token) { this.token = token; }
+
+    public boolean isSuite() { return suite; }
+    public void setSuite(boolean suite) { this.suite = suite; }
+}
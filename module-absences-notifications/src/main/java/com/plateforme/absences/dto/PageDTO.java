@@ -0,0 +1,35 @@
+package com.plateforme.absences.dto;
+
+import java.util.List;
+
+/**
+ * Page de résultats pour les listes paginées par curseur.
+ * 
+ * nextCursor vaut null quand il n'y a plus de page suivante.
+ */
+public class PageDTO<T> {
+    
+    private List<T> items;
+    private String nextCursor;
+    private int limit;
+
+    // Constructeurs
+    public PageDTO() {
+    }
+
+    public PageDTO(List<T> items, String nextCursor, int limit) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+
+    // Getters et Setters
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+}
@@ -0,0 +1,40 @@
+package com.plateforme.absences.dto;
+
+import java.util.List;
+
+/**
+ * Page de résultats d'une recherche plein texte, classés par pertinence.
+ * 
+ * total compte tous les résultats trouvés (filtres compris), pas seulement la page.
+ */
+public class RechercheAbsenceDTO {
+    
+    private List<AbsenceDTO> items;
+    private int total;
+    private int offset;
+    private int limit;
+
+    // Constructeurs
+    public RechercheAbsenceDTO() {
+    }
+
+    public RechercheAbsenceDTO(List<AbsenceDTO> items, int total, int offset, int limit) {
+        this.items = items;
+        this.total = total;
+        this.offset = offset;
+        this.limit = limit;
+    }
+
+    // Getters et Setters
+    public List<AbsenceDTO> getItems() { return items; }
+    public void setItems(List<AbsenceDTO> items) { this.items = items; }
+
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+
+    public int getOffset() { return offset; }
+    public void setOffset(int offset) { this.offset = offset; }
+
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+}
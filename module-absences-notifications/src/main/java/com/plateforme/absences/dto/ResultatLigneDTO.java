@@ -0,0 +1,50 @@
+package com.plateforme.absences.dto;
+
+/**
+ * Résultat du traitement d'une ligne dans une opération en masse.
+ */
+public class ResultatLigneDTO {
+    
+    private int index;
+    private boolean success;
+    private Long id;
+    private String message;
+
+    // Constructeurs
+    public ResultatLigneDTO() {
+    }
+
+    public ResultatLigneDTO(int index, boolean success, Long id, String message) {
+        this.index = index;
+        this.success = success;
+        this.id = id;
+        this.message = message;
+    }
+    
+    /**
+     * Ligne traitée avec succès.
+     */
+    public static ResultatLigneDTO succes(int index, Long id) {
+        return new ResultatLigneDTO(index, true, id, null);
+    }
+    
+    /**
+     * Ligne rejetée.
+     */
+    public static ResultatLigneDTO erreur(int index, String message) {
+        return new ResultatLigneDTO(index, false, null, message);
+    }
+
+    // Getters et Setters
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+
+    public boolean isSuccess() { return success; }
+    public void setSuccess(boolean success) { this.success = success; }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,89 @@
+package com.plateforme.absences.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Classement des employés par facteur de Bradford ou par taux d'absentéisme sur une période.
+ */
+public class ScoresAbsenceDTO {
+    
+    private LocalDate debut;
+    private LocalDate fin;
+    private String tri;
+    private int joursOuvres;
+    private int employesAbsents;
+    private List<Score> classement;
+
+    // Constructeurs
+    public ScoresAbsenceDTO() {
+    }
+
+    public ScoresAbsenceDTO(LocalDate debut, LocalDate fin, String tri) {
+        this.debut = debut;
+        this.fin = fin;
+        this.tri = tri;
+    }
+
+    // Getters et Setters
+    public LocalDate getDebut() { return debut; }
+    public void setDebut(LocalDate debut) { this.debut = debut; }
+
+    public LocalDate getFin() { return fin; }
+    public void setFin(LocalDate fin) { this.fin = fin; }
+
+    public String getTri() { return tri; }
+    public void setTri(String tri) { this.tri = tri; }
+
+    public int getJoursOuvres() { return joursOuvres; }
+    public void setJoursOuvres(int joursOuvres) { this.joursOuvres = joursOuvres; }
+
+    public int getEmployesAbsents() { return employesAbsents; }
+    public void setEmployesAbsents(int employesAbsents) { this.employesAbsents = employesAbsents; }
+
+    public List<Score> getClassement() { return classement; }
+    public void setClassement(List<Score> classement) { this.classement = classement; }
+    
+    /**
+     * Scores d'un employé : épisodes (S), jours d'absence (D), Bradford (S² × D)
+     * et taux (D / jours ouvrés, en %).
+     */
+    public static class Score {
+        private int rang;
+        private long employeId;
+        private int episodes;
+        private int jours;
+        private long bradford;
+        private double taux;
+        
+        public Score() {
+        }
+        
+        public Score(int rang, long employeId, int episodes, int jours, long bradford, double taux) {
+            this.rang = rang;
+            this.employeId = employeId;
+            this.episodes = episodes;
+            this.jours = jours;
+            this.bradford = bradford;
+            this.taux = taux;
+        }
+        
+        public int getRang() { return rang; }
+        public void setRang(int rang) { this.rang = rang; }
+        
+        public long getEmployeId() { return employeId; }
+        public void setEmployeId(long employeId) { this.employeId = employeId; }
+        
+        public int getEpisodes() { return episodes; }
+        public void setEpisodes(int episodes) { this.episodes = episodes; }
+        
+        public int getJours() { return jours; }
+        public void setJours(int jours) { this.jours = jours; }
+        
+        public long getBradford() { return bradford; }
+        public void setBradford(long bradford) { this.bradford = bradford; }
+        
+        public double getTaux() { return taux; }
+        public void setTaux(double taux) { this.taux = taux; }
+    }
+}
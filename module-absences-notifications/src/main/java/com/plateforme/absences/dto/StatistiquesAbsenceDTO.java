@@ -0,0 +1,85 @@
+package com.plateforme.absences.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Statistiques d'absences agrégées en base pour une période (et des filtres).
+ */
+public class StatistiquesAbsenceDTO {
+    
+    private LocalDate debut;
+    private LocalDate fin;
+    private long totalAbsences;
+    private BigDecimal totalHeures;
+    private long justifiees;
+    private long nonJustifiees;
+    private List<Ligne> parType;
+    private List<Ligne> parMois;
+    private List<Ligne> parEmploye;
+
+    // Constructeurs
+    public StatistiquesAbsenceDTO() {
+    }
+
+    public StatistiquesAbsenceDTO(LocalDate debut, LocalDate fin) {
+        this.debut = debut;
+        this.fin = fin;
+    }
+
+    // Getters et Setters
+    public LocalDate getDebut() { return debut; }
+    public void setDebut(LocalDate debut) { this.debut = debut; }
+
+    public LocalDate getFin() { return fin; }
+    public void setFin(LocalDate fin) { this.fin = fin; }
+
+    public long getTotalAbsences() { return totalAbsences; }
+    public void setTotalAbsences(long totalAbsences) { this.totalAbsences = totalAbsences; }
+
+    public BigDecimal getTotalHeures() { return totalHeures; }
+    public void setTotalHeures(BigDecimal totalHeures) { this.totalHeures = totalHeures; }
+
+    public long getJustifiees() { return justifiees; }
+    public void setJustifiees(long justifiees) { this.justifiees = justifiees; }
+
+    public long getNonJustifiees() { return nonJustifiees; }
+    public void setNonJustifiees(long nonJustifiees) { this.nonJustifiees = nonJustifiees; }
+
+    public List<Ligne> getParType() { return parType; }
+    public void setParType(List<Ligne> parType) { this.parType = parType; }
+
+    public List<Ligne> getParMois() { return parMois; }
+    public void setParMois(List<Ligne> parMois) { this.parMois = parMois; }
+
+    public List<Ligne> getParEmploye() { return parEmploye; }
+    public void setParEmploye(List<Ligne> parEmploye) { this.parEmploye = parEmploye; }
+    
+    /**
+     * Une ligne d'agrégat : clé (type, mois AAAA-MM ou ID employé), nombre d'absences et heures.
+     */
+    public static class Ligne {
+        private String cle;
+        private long nombre;
+        private BigDecimal heures;
+        
+        public Ligne() {
+        }
+        
+        public Ligne(String cle, long nombre, BigDecimal heures) {
+            this.cle = cle;
+            this.nombre = nombre;
+            this.heures = heures;
+        }
+        
+        public String getCle() { return cle; }
+        public void setCle(String cle) { this.cle = cle; }
+        
+        public long getNombre() { return nombre; }
+        public void setNombre(long nombre) { this.nombre = nombre; }
+        
+        public BigDecimal getHeures() { return heures; }
+        public void setHeures(BigDecimal heures) { this.heures = heures; }
+    }
+}
@@ -0,0 +1,93 @@
+package com.plateforme.absences.dto;
+
+import java.util.List;
+
+/**
+ * Succès et défauts du cache de second niveau de absencesPU, depuis le démarrage.
+ */
+public class StatistiquesCacheDTO {
+    
+    private boolean actif;
+    private long succes;
+    private long defauts;
+    private long ajouts;
+    private long requetesSucces;
+    private long requetesDefauts;
+    private long requetesAjouts;
+    private List<Region> regions;
+
+    // Constructeurs
+    public StatistiquesCacheDTO() {
+    }
+
+    // Getters et Setters
+    public boolean isActif() { return actif; }
+    public void setActif(boolean actif) { this.actif = actif; }
+
+    public long getSucces() { return succes; }
+    public void setSucces(long succes) { this.succes = succes; }
+
+    public long getDefauts() { return defauts; }
+    public void setDefauts(long defauts) { this.defauts = defauts; }
+
+    public long getAjouts() { return ajouts; }
+    public void setAjouts(long ajouts) { this.ajouts = ajouts; }
+
+    public long getRequetesSucces() { return requetesSucces; }
+    public void setRequetesSucces(long requetesSucces) { this.requetesSucces = requetesSucces; }
+
+    public long getRequetesDefauts() { return requetesDefauts; }
+    public void setRequetesDefauts(long requetesDefauts) { this.requetesDefauts = requetesDefauts; }
+
+    public long getRequetesAjouts() { return requetesAjouts; }
+    public void setRequetesAjouts(long requetesAjouts) { this.requetesAjouts = requetesAjouts; }
+
+    public List<Region> getRegions() { return regions; }
+    public void setRegions(List<Region> regions) { this.regions = regions; }
+    
+    /**
+     * Compteurs d'une région (une entité ou le cache des requêtes).
+     * elements vaut -1 si le fournisseur de cache ne le connaît pas.
+     */
+    public static class Region {
+        private String nom;
+        private long succes;
+        private long defauts;
+        private long ajouts;
+        private long elements;
+        
+        public Region() {
+        }
+        
+        public Region(String nom, long succes, long defauts, long ajouts, long elements) {
+            this.nom = nom;
+            this.succes = succes;
+            this.defauts = defauts;
+            this.ajouts = ajouts;
+            this.elements = elements;
+        }
+        
+        public String getNom() { return nom; }
+        public void setNom(String nom) { this.nom = nom; }
+        
+        public long getSucces() { return succes; }
+        public void setSucces(long succes) { this.succes = succes; }
+        
+        public long getDefauts() { return defauts; }
+        public void setDefauts(long defauts) { this.defauts = defauts; }
+        
+        public long getAjouts() { return ajouts; }
+        public void setAjouts(long ajouts) { this.ajouts = ajouts; }
+        
+        public long getElements() { return elements; }
+        public void setElements(long elements) { this.elements = elements; }
+        
+        /**
+         * Part des lectures servies par le cache (0 à 1), 0 sans lecture.
+         */
+        public double getTauxSucces() {
+            long lectures = succes + defauts;
+            return lectures == 0 ? 0 : (double) succes / lectures;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.plateforme.absences.dto;
+
+import com.plateforme.absences.entities.TotalMensuelAbsence;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * DTO des totaux mensuels d'absences d'un employé pour un type.
+ */
+public class TotalMensuelDTO {
+    
+    private Long employeId;
+    private String mois;
+    private Long typeAbsenceId;
+    private long nombre;
+    private BigDecimal heures;
+    private long nombreJustifiees;
+    private BigDecimal heuresJustifiees;
+
+    // Constructeurs
+    public TotalMensuelDTO() {
+    }
+
+    public TotalMensuelDTO(TotalMensuelAbsence total) {
+        this.employeId = total.getEmployeId();
+        this.mois = YearMonth.from(total.getMois()).toString();
+        this.typeAbsenceId = total.getTypeAbsenceId();
+        this.nombre = total.getNombre();
+        this.heures = total.getHeures();
+        this.nombreJustifiees = total.getNombreJustifiees();
+        this.heuresJustifiees = total.getHeuresJustifiees();
+    }
+
+    // Getters et Setters
+    public Long getEmployeId() { return employeId; }
+    public void setEmployeId(Long employeId) { this.employeId = employeId; }
+
+    public String getMois() { return mois; }
+    public void setMois(String mois) { this.mois = mois; }
+
+    public Long getTypeAbsenceId() { return typeAbsenceId; }
+    public void setTypeAbsenceId(Long typeAbsenceId) { this.typeAbsenceId = typeAbsenceId; }
+
+    public long getNombre() { return nombre; }
+    public void setNombre(long nombre) { this.nombre = nombre; }
+
+    public BigDecimal getHeures() { return heures; }
+    public void setHeures(BigDecimal heures) { this.heures = heures; }
+
+    public long getNombreJustifiees() { return nombreJustifiees; }
+    public void setNombreJustifiees(long nombreJustifiees) { this.nombreJustifiees = nombreJustifiees; }
+
+    public BigDecimal getHeuresJustifiees() { return heuresJustifiees; }
+    public void setHeuresJustifiees(BigDecimal heuresJustifiees) { this.heuresJustifiees = heuresJustifiees; }
+}
@@ -10,31 +10,151 @@ import java.time.LocalDateTime;
 /**
  * Entité JPA pour les absences des employés.
  * Table : absences
+ * 
+ * En cache de second niveau (find par ID : consultation, mise à jour, suppression).
+ * Toute écriture hors JPA sur des lignes existantes doit en retirer les absences
+ * concernées (voir ArchivageAbsenceService).
  */
 @Entity
 @Table(name = "absences")
+@Cacheable
 @NamedQueries({
     @NamedQuery(
         name = "Absence.findByEmploye",
-        query = "SELECT a FROM Absence a WHERE a.employeId = :employeId ORDER BY a.dateAbsence DESC"
+        query = "SELECT a FROM Absence a WHERE a.employeId = :employeId ORDER BY a.dateAbsence DESC, a.id DESC"
     ),
     @NamedQuery(
         name = "Absence.findByPeriode",
-        query = "SELECT a FROM Absence a WHERE a.dateAbsence BETWEEN :debut AND :fin ORDER BY a.dateAbsence"
+        query = "SELECT a FROM Absence a WHERE a.dateAbsence BETWEEN :debut AND :fin ORDER BY a.dateAbsence, a.id"
     ),
     @NamedQuery(
         name = "Absence.findNonJustifiees",
-        query = "SELECT a FROM Absence a WHERE a.justifiee = false AND a.typeAbsence.justificationRequise = true"
+        query = "SELECT a FROM Absence a WHERE a.justifiee = false AND a.typeAbsence.justificationRequise = true "
+              + "ORDER BY a.dateAbsence DESC, a.id DESC"
     ),
     @NamedQuery(
         name = "Absence.findByEquipe",
-        query = "SELECT a FROM Absence a WHERE a.employeId IN :employeIds ORDER BY a.dateAbsence DESC"
+        query = "SELECT a FROM Absence a WHERE a.employeId IN :employeIds ORDER BY a.dateAbsence DESC, a.id DESC"
+    ),
+    @NamedQuery(
+        name = "Absence.calendrier",
+        query = "SELECT a.employeId, a.dateAbsence FROM Absence a"
+    ),
+    @NamedQuery(
+        name = "Absence.export",
+        query = "SELECT a.id, a.employeId, a.typeAbsence.id, a.dateAbsence, a.heureDebut, a.heureFin, a.dureeHeures, "
+              + "a.motif, a.justifiee, a.statut FROM Absence a "
+              + "WHERE a.dateAbsence BETWEEN :debut AND :fin ORDER BY a.dateAbsence, a.id"
+    ),
+    @NamedQuery(
+        name = "Absence.intervalles",
+        query = "SELECT a.id, a.employeId, a.dateAbsence, a.heureDebut, a.heureFin, a.dureeHeures FROM Absence a"
+    ),
+    @NamedQuery(
+        name = "Absence.verrouiller",
+        query = "SELECT a.id FROM Absence a WHERE a.id IN :ids"
+    ),
+    @NamedQuery(
+        name = "Absence.statut",
+        query = "SELECT a.statut FROM Absence a WHERE a.id = :id"
+    ),
+    @NamedQuery(
+        name = "Absence.changerStatut",
+        query = "UPDATE Absence a SET a.statut = :statut WHERE a.id IN :ids AND a.statut = :enAttente "
+              + "AND (:admin = true OR a.employeId <> :validateurId)"
+    ),
+    @NamedQuery(
+        name = "Absence.scores",
+        query = "SELECT a.employeId, a.dateAbsence FROM Absence a "
+              + "WHERE a.dateAbsence BETWEEN :debut AND :fin AND (a.statut IS NULL OR a.statut <> :exclu) "
+              + "ORDER BY a.employeId, a.dateAbsence"
+    ),
+    @NamedQuery(
+        name = "Absence.recherche",
+        query = "SELECT a.id, a.employeId, a.typeAbsence.id, a.dateAbsence, a.motif FROM Absence a ORDER BY a.id"
+    ),
+    
+    // Projections en lecture seule : AbsenceDTO construit directement par la requête,
+    // sans entité gérée ni instantané pour le dirty-checking.
+    // Les variantes "Apres" reprennent après un curseur (date_absence, id).
+    @NamedQuery(
+        name = "AbsenceDTO.findAll",
+        query = Absence.PROJECTION_DTO + "ORDER BY a.dateAbsence DESC, a.id DESC"
+    ),
+    @NamedQuery(
+        name = "AbsenceDTO.findAllApres",
+        query = Absence.PROJECTION_DTO
+              + "WHERE a.dateAbsence < :date OR (a.dateAbsence = :date AND a.id < :id) "
+              + "ORDER BY a.dateAbsence DESC, a.id DESC"
+    ),
+    @NamedQuery(
+        name = "AbsenceDTO.findByEmploye",
+        query = Absence.PROJECTION_DTO + "WHERE a.employeId = :employeId ORDER BY a.dateAbsence DESC, a.id DESC"
+    ),
+    @NamedQuery(
+        name = "AbsenceDTO.findByEmployeApres",
+        query = Absence.PROJECTION_DTO
+              + "WHERE a.employeId = :employeId "
+              + "AND (a.dateAbsence < :date OR (a.dateAbsence = :date AND a.id < :id)) "
+              + "ORDER BY a.dateAbsence DESC, a.id DESC"
+    ),
+    @NamedQuery(
+        name = "AbsenceDTO.findByPeriode",
+        query = Absence.PROJECTION_DTO + "WHERE a.dateAbsence BETWEEN :debut AND :fin ORDER BY a.dateAbsence, a.id"
+    ),
+    @NamedQuery(
+        name = "AbsenceDTO.findByPeriodeApres",
+        query = Absence.PROJECTION_DTO
+              + "WHERE a.dateAbsence BETWEEN :debut AND :fin "
+              + "AND (a.dateAbsence > :date OR (a.dateAbsence = :date AND a.id > :id)) "
+              + "ORDER BY a.dateAbsence, a.id"
+    ),
+    @NamedQuery(
+        name = "AbsenceDTO.findNonJustifiees",
+        query = Absence.PROJECTION_DTO
+              + "WHERE a.justifiee = false AND t.justificationRequise = true "
+              + "ORDER BY a.dateAbsence DESC, a.id DESC"
+    ),
+    @NamedQuery(
+        name = "AbsenceDTO.findNonJustifieesApres",
+        query = Absence.PROJECTION_DTO
+              + "WHERE a.justifiee = false AND t.justificationRequise = true "
+              + "AND (a.dateAbsence < :date OR (a.dateAbsence = :date AND a.id < :id)) "
+              + "ORDER BY a.dateAbsence DESC, a.id DESC"
+    ),
+    // Clôture mensuelle : une tranche d'employés, dans l'ordre de idx_absences_employe_date_id
+    @NamedQuery(
+        name = "AbsenceDTO.cloture",
+        query = Absence.PROJECTION_DTO
+              + "WHERE a.employeId BETWEEN :employeMin AND :employeMax AND a.dateAbsence BETWEEN :debut AND :fin "
+              + "ORDER BY a.employeId, a.dateAbsence, a.id"
+    ),
+    @NamedQuery(
+        name = "AbsenceDTO.clotureApres",
+        query = Absence.PROJECTION_DTO
+              + "WHERE a.employeId BETWEEN :employeMin AND :employeMax AND a.dateAbsence BETWEEN :debut AND :fin "
+              + "AND (a.employeId > :employeId OR (a.employeId = :employeId "
+              + "AND (a.dateAbsence > :date OR (a.dateAbsence = :date AND a.id > :id)))) "
+              + "ORDER BY a.employeId, a.dateAbsence, a.id"
+    ),
+    @NamedQuery(
+        name = "AbsenceDTO.findByIds",
+        query = Absence.PROJECTION_DTO + "WHERE a.id IN :ids"
     )
 })
 public class Absence implements Serializable {
     
     private static final long serialVersionUID = 1L;
     
+    /**
+     * Début commun des requêtes "AbsenceDTO.*" (ordre du constructeur complet de AbsenceDTO).
+     */
+    public static final String PROJECTION_DTO =
+        "SELECT NEW com.plateforme.absences.dto.AbsenceDTO("
+      + "a.id, a.employeId, t.id, t.nom, a.dateAbsence, a.heureDebut, a.heureFin, a.dureeHeures, "
+      + "a.motif, a.justifiee, a.documentJustificatif, a.enregistrePar, a.statut, a.dateCreation) "
+      + "FROM Absence a JOIN a.typeAbsence t ";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -0,0 +1,140 @@
+package com.plateforme.absences.entities;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Entité JPA des absences archivées (lecture seule).
+ * Table : absences_archive
+ * 
+ * Mêmes colonnes et mêmes ID que la table absences : les lignes y sont
+ * déplacées par ArchivageAbsenceService, jamais modifiées ensuite.
+ */
+@Entity
+@Table(name = "absences_archive")
+@NamedQueries({
+    @NamedQuery(
+        name = "AbsenceArchive.borne",
+        query = "SELECT MAX(a.dateAbsence) FROM AbsenceArchive a"
+    ),
+    @NamedQuery(
+        name = "AbsenceArchive.export",
+        query = "SELECT a.id, a.employeId, a.typeAbsence.id, a.dateAbsence, a.heureDebut, a.heureFin, a.dureeHeures, "
+              + "a.motif, a.justifiee, a.statut FROM AbsenceArchive a "
+              + "WHERE a.dateAbsence BETWEEN :debut AND :fin ORDER BY a.dateAbsence, a.id"
+    ),
+    @NamedQuery(
+        name = "AbsenceArchive.scores",
+        query = "SELECT a.employeId, a.dateAbsence FROM AbsenceArchive a "
+              + "WHERE a.dateAbsence BETWEEN :debut AND :fin AND (a.statut IS NULL OR a.statut <> :exclu) "
+              + "ORDER BY a.employeId, a.dateAbsence"
+    ),
+    
+    // Mêmes projections que les requêtes "AbsenceDTO.*" de Absence
+    @NamedQuery(
+        name = "AbsenceArchiveDTO.findByEmploye",
+        query = AbsenceArchive.PROJECTION_DTO + "WHERE a.employeId = :employeId ORDER BY a.dateAbsence DESC, a.id DESC"
+    ),
+    @NamedQuery(
+        name = "AbsenceArchiveDTO.findByEmployeApres",
+        query = AbsenceArchive.PROJECTION_DTO
+              + "WHERE a.employeId = :employeId "
+              + "AND (a.dateAbsence < :date OR (a.dateAbsence = :date AND a.id < :id)) "
+              + "ORDER BY a.dateAbsence DESC, a.id DESC"
+    ),
+    @NamedQuery(
+        name = "AbsenceArchiveDTO.findByPeriode",
+        query = AbsenceArchive.PROJECTION_DTO + "WHERE a.dateAbsence BETWEEN :debut AND :fin ORDER BY a.dateAbsence, a.id"
+    ),
+    @NamedQuery(
+        name = "AbsenceArchiveDTO.findByPeriodeApres",
+        query = AbsenceArchive.PROJECTION_DTO
+              + "WHERE a.dateAbsence BETWEEN :debut AND :fin "
+              + "AND (a.dateAbsence > :date OR (a.dateAbsence = :date AND a.id > :id)) "
+              + "ORDER BY a.dateAbsence, a.id"
+    ),
+    @NamedQuery(
+        name = "AbsenceArchiveDTO.findByIds",
+        query = AbsenceArchive.PROJECTION_DTO + "WHERE a.id IN :ids"
+    )
+})
+public class AbsenceArchive implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    /**
+     * Début commun des requêtes "AbsenceArchiveDTO.*" (ordre du constructeur complet de AbsenceDTO).
+     */
+    public static final String PROJECTION_DTO =
+        "SELECT NEW com.plateforme.absences.dto.AbsenceDTO("
+      + "a.id, a.employeId, t.id, t.nom, a.dateAbsence, a.heureDebut, a.heureFin, a.dureeHeures, "
+      + "a.motif, a.justifiee, a.documentJustificatif, a.enregistrePar, a.statut, a.dateCreation) "
+      + "FROM AbsenceArchive a JOIN a.typeAbsence t ";
+    
+    @Id
+    private Long id;
+    
+    @Column(name = "employe_id", nullable = false)
+    private Long employeId;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "type_absence_id", nullable = false)
+    private TypeAbsence typeAbsence;
+    
+    @Column(name = "date_absence", nullable = false)
+    private LocalDate dateAbsence;
+    
+    @Column(name = "heure_debut")
+    private LocalTime heureDebut;
+    
+    @Column(name = "heure_fin")
+    private LocalTime heureFin;
+    
+    @Column(name = "duree_heures", precision = 4, scale = 2)
+    private BigDecimal dureeHeures;
+    
+    @Column(columnDefinition = "TEXT")
+    private String motif;
+    
+    @Column(length = 20)
+    private String statut;
+    
+    @Column(nullable = false)
+    private Boolean justifiee;
+    
+    @Column(name = "document_justificatif")
+    private String documentJustificatif;
+    
+    @Column(name = "enregistre_par")
+    private Long enregistrePar;
+    
+    @Column(name = "date_creation")
+    private LocalDateTime dateCreation;
+    
+    @Column(name = "date_archivage", nullable = false)
+    private LocalDateTime dateArchivage;
+
+    // Constructeurs
+    public AbsenceArchive() {
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public Long getEmployeId() { return employeId; }
+    public TypeAbsence getTypeAbsence() { return typeAbsence; }
+    public LocalDate getDateAbsence() { return dateAbsence; }
+    public LocalTime getHeureDebut() { return heureDebut; }
+    public LocalTime getHeureFin() { return heureFin; }
+    public BigDecimal getDureeHeures() { return dureeHeures; }
+    public String getMotif() { return motif; }
+    public String getStatut() { return statut; }
+    public Boolean getJustifiee() { return justifiee; }
+    public String getDocumentJustificatif() { return documentJustificatif; }
+    public Long getEnregistrePar() { return enregistrePar; }
+    public LocalDateTime getDateCreation() { return dateCreation; }
+    public LocalDateTime getDateArchivage() { return dateArchivage; }
+}
@@ -0,0 +1,62 @@
+package com.plateforme.absences.entities;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Entité JPA du journal des changements d'absences (ajout seul).
+ * Table : absences_changements
+ * 
+ * Une ligne par création, modification ou suppression, écrite dans la
+ * transaction de l'écriture. L'ID croissant sert de jeton de synchronisation.
+ */
+@Entity
+@Table(name = "absences_changements")
+@NamedQueries({
+    @NamedQuery(
+        name = "ChangementAbsence.depuis",
+        query = "SELECT c FROM ChangementAbsence c WHERE c.id > :depuis AND c.id <= :plafond ORDER BY c.id"
+    )
+})
+public class ChangementAbsence implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "absence_id", nullable = false)
+    private Long absenceId;
+    
+    @Column(name = "employe_id", nullable = false)
+    private Long employeId;
+    
+    // CREATION, MODIFICATION ou SUPPRESSION
+    @Column(nullable = false, length = 20)
+    private String operation;
+    
+    @Column(name = "date_changement", nullable = false)
+    private LocalDateTime dateChangement;
+
+    // Constructeurs
+    public ChangementAbsence() {
+    }
+
+    // Getters et Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getAbsenceId() { return absenceId; }
+    public void setAbsenceId(Long absenceId) { this.absenceId = absenceId; }
+
+    public Long getEmployeId() { return employeId; }
+    public void setEmployeId(Long employeId) { this.employeId = employeId; }
+
+    public String getOperation() { return operation; }
+    public void setOperation(String operation) { this.operation = operation; }
+
+    public LocalDateTime getDateChangement() { return dateChangement; }
+    public void setDateChangement(LocalDateTime dateChangement) { this.dateChangement = dateChangement; }
+}
@@ -0,0 +1,131 @@
+package com.plateforme.absences.entities;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Entité JPA des totaux mensuels d'absences par employé et par type.
+ * Table : absences_totaux_mensuels
+ * 
+ * Table de synthèse tenue à jour par AbsenceService (deltas dans la même
+ * transaction que l'écriture de l'absence). Lecture seule côté JPA : les
+ * écritures passent par TotalMensuelService.
+ */
+@Entity
+@Table(name = "absences_totaux_mensuels")
+@IdClass(TotalMensuelAbsence.Cle.class)
+@NamedQueries({
+    @NamedQuery(
+        name = "TotalMensuelAbsence.findByEmploye",
+        query = "SELECT t FROM TotalMensuelAbsence t WHERE t.employeId = :employeId "
+              + "AND t.mois BETWEEN :debut AND :fin ORDER BY t.mois, t.typeAbsenceId"
+    ),
+    @NamedQuery(
+        name = "TotalMensuelAbsence.findByPeriode",
+        query = "SELECT t FROM TotalMensuelAbsence t WHERE t.mois BETWEEN :debut AND :fin"
+    )
+})
+public class TotalMensuelAbsence implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    @Id
+    @Column(name = "employe_id")
+    private Long employeId;
+    
+    // Premier jour du mois
+    @Id
+    @Column(name = "mois")
+    private LocalDate mois;
+    
+    @Id
+    @Column(name = "type_absence_id")
+    private Long typeAbsenceId;
+    
+    @Column(nullable = false)
+    private long nombre;
+    
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal heures;
+    
+    @Column(name = "nombre_justifiees", nullable = false)
+    private long nombreJustifiees;
+    
+    @Column(name = "heures_justifiees", nullable = false, precision = 10, scale = 2)
+    private BigDecimal heuresJustifiees;
+
+    // Constructeurs
+    public TotalMensuelAbsence() {
+    }
+
+    // Getters et Setters
+    public Long getEmployeId() { return employeId; }
+    public void setEmployeId(Long employeId) { this.employeId = employeId; }
+
+    public LocalDate getMois() { return mois; }
+    public void setMois(LocalDate mois) { this.mois = mois; }
+
+    public Long getTypeAbsenceId() { return typeAbsenceId; }
+    public void setTypeAbsenceId(Long typeAbsenceId) { this.typeAbsenceId = typeAbsenceId; }
+
+    public long getNombre() { return nombre; }
+    public void setNombre(long nombre) { this.nombre = nombre; }
+
+    public BigDecimal getHeures() { return heures; }
+    public void setHeures(BigDecimal heures) { this.heures = heures; }
+
+    public long getNombreJustifiees() { return nombreJustifiees; }
+    public void setNombreJustifiees(long nombreJustifiees) { this.nombreJustifiees = nombreJustifiees; }
+
+    public BigDecimal getHeuresJustifiees() { return heuresJustifiees; }
+    public void setHeuresJustifiees(BigDecimal heuresJustifiees) { this.heuresJustifiees = heuresJustifiees; }
+    
+    /**
+     * Clé composite (employé, mois, type).
+     */
+    public static class Cle implements Serializable {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private Long employeId;
+        private LocalDate mois;
+        private Long typeAbsenceId;
+        
+        public Cle() {
+        }
+        
+        public Cle(Long employeId, LocalDate mois, Long typeAbsenceId) {
+            this.employeId = employeId;
+            this.mois = mois;
+            this.typeAbsenceId = typeAbsenceId;
+        }
+        
+        public Long getEmployeId() { return employeId; }
+        public LocalDate getMois() { return mois; }
+        public Long getTypeAbsenceId() { return typeAbsenceId; }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Cle)) return false;
+            Cle autre = (Cle) o;
+            return Objects.equals(employeId, autre.employeId)
+                && Objects.equals(mois, autre.mois)
+                && Objects.equals(typeAbsenceId, autre.typeAbsenceId);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(employeId, mois, typeAbsenceId);
+        }
+        
+        @Override
+        public String toString() {
+            return "employé " + employeId + ", " + mois.getYear() + "-" + String.format("%02d", mois.getMonthValue())
+                   + ", type " + typeAbsenceId;
+        }
+    }
+}
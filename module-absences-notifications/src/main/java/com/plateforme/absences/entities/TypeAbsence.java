@@ -7,17 +7,17 @@ import java.time.LocalDateTime;
 /**
  * Entité JPA pour les types d'absences.
  * Table : types_absences
+ * 
+ * En cache de second niveau : chaque absence chargée y résout son type sans requête.
  */
 @Entity
 @Table(name = "types_absences")
+@Cacheable
 @NamedQueries({
     @NamedQuery(
         name = "TypeAbsence.findAll",
-        query = "SELECT t FROM TypeAbsence t ORDER BY t.nom"
-    ),
-    @NamedQuery(
-        name = "TypeAbsence.findByNom",
-        query = "SELECT t FROM TypeAbsence t WHERE t.nom = :nom"
+        query = "SELECT t FROM TypeAbsence t ORDER BY t.nom",
+        hints = @QueryHint(name = "org.hibernate.cacheable", value = "true")
     )
 })
 public class TypeAbsence implements Serializable {
@@ -0,0 +1,46 @@
+package com.plateforme.absences.events;
+
+import com.plateforme.absences.dto.AbsenceDTO;
+
+/**
+ * Événement CDI émis par AbsenceService à chaque écriture d'une absence.
+ * 
+ * Les observateurs qui tiennent des données en mémoire (index, caches)
+ * l'écoutent avec during = TransactionPhase.AFTER_SUCCESS, pour ne voir
+ * que les écritures validées.
+ */
+public class AbsenceEvent {
+    
+    public enum Operation { CREATION, MODIFICATION, SUPPRESSION }
+    
+    private final Operation operation;
+    private final AbsenceDTO avant;
+    private final AbsenceDTO apres;
+
+    private AbsenceEvent(Operation operation, AbsenceDTO avant, AbsenceDTO apres) {
+        this.operation = operation;
+        this.avant = avant;
+        this.apres = apres;
+    }
+    
+    public static AbsenceEvent creation(AbsenceDTO apres) {
+        return new AbsenceEvent(Operation.CREATION, null, apres);
+    }
+    
+    public static AbsenceEvent modification(AbsenceDTO avant, AbsenceDTO apres) {
+        return new AbsenceEvent(Operation.MODIFICATION, avant, apres);
+    }
+    
+    public static AbsenceEvent suppression(AbsenceDTO avant) {
+        return new AbsenceEvent(Operation.SUPPRESSION, avant, null);
+    }
+
+    // Getters
+    public Operation getOperation() { return operation; }
+
+    /** État avant l'écriture (null pour une création). */
+    public AbsenceDTO getAvant() { return avant; }
+
+    /** État après l'écriture (null pour une suppression). */
+    public AbsenceDTO getApres() { return apres; }
+}
@@ -8,8 +8,10 @@ import java.io.IOException;
 
 /**
  * Filtre CORS pour permettre les appels API depuis le frontend.
+ * 
+ * asyncSupported : les ressources REST suspendent leurs requêtes (ExecuteurRequetes).
  */
-@WebFilter("/api/*")
+@WebFilter(urlPatterns = "/api/*", asyncSupported = true)
 public class CorsFilter implements Filter {
     
     @Override
@@ -0,0 +1,378 @@
+package com.plateforme.absences.imports;
+
+import com.plateforme.absences.entities.Absence;
+import com.plateforme.absences.entities.TypeAbsence;
+import com.plateforme.absences.services.AbsenceService;
+import com.plateforme.absences.services.TypeAbsenceService;
+
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.persistence.PersistenceException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * Import asynchrone de fichiers d'absences (export CSV de la badgeuse).
+ * 
+ * Le fichier reçu est d'abord recopié sur disque, puis lu ligne par ligne
+ * sur l'executor géré du serveur. Les lignes valides sont écrites par lots,
+ * chaque lot dans sa propre transaction (AbsenceService.createBatch).
+ * 
+ * L'import s'exécute sur le nœud qui a reçu le fichier ; son état est recopié
+ * dans absences_imports au lancement, après chaque lot et à la fin, pour que
+ * le suivi réponde depuis n'importe quel nœud. Un import interrompu par
+ * l'arrêt de son nœud reste EN_COURS jusqu'à sa purge (24 h après son lancement).
+ * 
+ * Format attendu (séparateur ; ou ,, en-tête facultatif) :
+ * employeId;typeAbsence;dateAbsence;heureDebut;heureFin;dureeHeures;motif
+ * - typeAbsence : ID ou nom du type
+ * - dateAbsence : AAAA-MM-JJ ou JJ/MM/AAAA
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class ImportAbsenceService {
+    
+    private static final Logger LOGGER = Logger.getLogger(ImportAbsenceService.class.getName());
+    
+    /** Nombre de lignes écrites par transaction. */
+    private static final int TAILLE_LOT = 1000;
+    
+    /** Durée de conservation du suivi d'un import terminé. */
+    private static final long CONSERVATION_HEURES = 24;
+    
+    private static final DateTimeFormatter DATE_FR = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    
+    private static final String ENREGISTRER_JOB =
+        "INSERT INTO absences_imports (id, nom_fichier, lance_par, statut, lignes_traitees, lignes_en_erreur, "
+      + "erreurs, message, date_creation, date_debut, date_fin) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+      + "ON DUPLICATE KEY UPDATE statut = VALUES(statut), lignes_traitees = VALUES(lignes_traitees), "
+      + "lignes_en_erreur = VALUES(lignes_en_erreur), erreurs = VALUES(erreurs), message = VALUES(message), "
+      + "date_debut = VALUES(date_debut), date_fin = VALUES(date_fin)";
+    
+    private static final String CHARGER_JOB =
+        "SELECT nom_fichier, lance_par, statut, lignes_traitees, lignes_en_erreur, erreurs, message, "
+      + "date_creation, date_debut, date_fin FROM absences_imports WHERE id = ?";
+    
+    // Les imports jamais terminés (nœud arrêté) sont purgés sur leur date de création
+    private static final String PURGER_JOBS =
+        "DELETE FROM absences_imports WHERE date_fin < ? OR (date_fin IS NULL AND date_creation < ?)";
+    
+    // Imports lancés sur ce nœud (état à jour) ; ceux des autres nœuds sont relus en base
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    
+    @Resource
+    private ManagedExecutorService executor;
+    
+    @Resource(lookup = "java:/gestion_rh_jeeDS")
+    private DataSource dataSource;
+    
+    @EJB
+    private AbsenceService absenceService;
+    
+    @EJB
+    private TypeAbsenceService typeAbsenceService;
+    
+    /**
+     * Enregistre le fichier et lance son import en arrière-plan.
+     * 
+     * @param contenu Contenu du fichier (lu en flux, jamais chargé en mémoire)
+     * @param nomFichier Nom d'origine du fichier (informatif)
+     * @param lancePar ID de l'utilisateur à l'origine de l'import
+     * @return Le job créé, à suivre avec trouver(id)
+     */
+    public ImportJob soumettre(InputStream contenu, String nomFichier, Long lancePar) throws IOException {
+        purgerAnciensJobs();
+        
+        Path fichier = Files.createTempFile("import-absences-", ".csv");
+        try {
+            Files.copy(contenu, fichier, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(fichier);
+            throw e;
+        }
+        
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), nomFichier, lancePar);
+        jobs.put(job.getId(), job);
+        enregistrer(job);
+        executor.submit(() -> executer(job, fichier));
+        
+        LOGGER.info("Import " + job.getId() + " soumis (" + Files.size(fichier) + " octets)");
+        return job;
+    }
+    
+    /**
+     * Retourne l'état d'un import lancé sur ce nœud ou sur un autre, ou null s'il est inconnu.
+     */
+    public ImportJob trouver(String id) {
+        ImportJob job = jobs.get(id);
+        return job != null ? job : charger(id);
+    }
+    
+    private void purgerAnciensJobs() {
+        LocalDateTime limite = LocalDateTime.now().minusHours(CONSERVATION_HEURES);
+        jobs.values().removeIf(job -> job.estTermine() && job.getDateFin().isBefore(limite));
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(PURGER_JOBS)) {
+            ps.setObject(1, limite);
+            ps.setObject(2, limite);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Purge des imports terminés impossible", e);
+        }
+    }
+    
+    /**
+     * Recopie l'état du job en base. Un échec n'interrompt pas l'import : seul
+     * le suivi depuis les autres nœuds est en retard.
+     */
+    private void enregistrer(ImportJob job) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(ENREGISTRER_JOB)) {
+            ps.setString(1, job.getId());
+            ps.setString(2, job.getNomFichier());
+            ps.setObject(3, job.getLancePar(), Types.BIGINT);
+            ps.setString(4, job.getStatut().name());
+            ps.setLong(5, job.getLignesTraitees());
+            ps.setLong(6, job.getLignesEnErreur());
+            ps.setString(7, String.join("\n", job.getErreurs()));
+            ps.setString(8, job.getMessage());
+            ps.setObject(9, job.getDateCreation());
+            ps.setObject(10, job.getDateDebut());
+            ps.setObject(11, job.getDateFin());
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Enregistrement de l'état de l'import " + job.getId() + " impossible", e);
+        }
+    }
+    
+    private ImportJob charger(String id) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(CHARGER_JOB)) {
+            ps.setString(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                String erreurs = rs.getString("erreurs");
+                return new ImportJob(id,
+                                     rs.getString("nom_fichier"),
+                                     rs.getObject("lance_par", Long.class),
+                                     ImportJob.Statut.valueOf(rs.getString("statut")),
+                                     rs.getLong("lignes_traitees"),
+                                     rs.getLong("lignes_en_erreur"),
+                                     erreurs == null || erreurs.isEmpty()
+                                         ? Collections.emptyList() : Arrays.asList(erreurs.split("\n")),
+                                     rs.getString("message"),
+                                     rs.getObject("date_creation", LocalDateTime.class),
+                                     rs.getObject("date_debut", LocalDateTime.class),
+                                     rs.getObject("date_fin", LocalDateTime.class));
+            }
+        } catch (SQLException e) {
+            throw new PersistenceException("Erreur lors de la lecture de l'import " + id, e);
+        }
+    }
+    
+    // ========================================
+    // EXÉCUTION (thread de l'executor)
+    // ========================================
+    
+    private void executer(ImportJob job, Path fichier) {
+        job.demarrer();
+        enregistrer(job);
+        LOGGER.info("Démarrage de l'import " + job.getId());
+        
+        try (BufferedReader lecteur = Files.newBufferedReader(fichier, StandardCharsets.UTF_8)) {
+            Map<String, TypeAbsence> types = chargerTypes();
+            
+            List<Absence> lot = new ArrayList<>(TAILLE_LOT);
+            List<Long> numerosLot = new ArrayList<>(TAILLE_LOT);
+            Character separateur = null;
+            long numero = 0;
+            String ligne;
+            
+            while ((ligne = lecteur.readLine()) != null) {
+                numero++;
+                if (numero == 1 && ligne.startsWith("\uFEFF")) {
+                    ligne = ligne.substring(1);
+                }
+                if (ligne.isBlank()) {
+                    continue;
+                }
+                
+                List<String> champs;
+                if (separateur == null) {
+                    separateur = LigneCsv.detecterSeparateur(ligne);
+                    champs = LigneCsv.decouper(ligne, separateur);
+                    if (estEntete(champs)) {
+                        continue;
+                    }
+                } else {
+                    champs = LigneCsv.decouper(ligne, separateur);
+                }
+                
+                try {
+                    lot.add(lireAbsence(champs, types, job.getLancePar()));
+                    numerosLot.add(numero);
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    job.ajouterErreur(numero, e.getMessage());
+                    continue;
+                }
+                
+                if (lot.size() == TAILLE_LOT) {
+                    ecrireLot(job, lot, numerosLot);
+                    lot = new ArrayList<>(TAILLE_LOT);
+                    numerosLot = new ArrayList<>(TAILLE_LOT);
+                }
+            }
+            ecrireLot(job, lot, numerosLot);
+            
+            job.terminer(ImportJob.Statut.TERMINE, "Import terminé");
+            LOGGER.info("Import " + job.getId() + " terminé : " + job.getLignesTraitees() + " ligne(s), "
+                        + job.getLignesEnErreur() + " en erreur");
+            
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Échec de l'import " + job.getId(), e);
+            job.terminer(ImportJob.Statut.ECHEC, "Erreur : " + e.getMessage());
+        } finally {
+            enregistrer(job);
+            try {
+                Files.deleteIfExists(fichier);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Impossible de supprimer le fichier temporaire " + fichier, e);
+            }
+        }
+    }
+    
+    /**
+     * Écrit un lot dans sa propre transaction ; en cas d'échec, tout le lot est compté en erreur.
+     */
+    private void ecrireLot(ImportJob job, List<Absence> lot, List<Long> numeros) {
+        // Les lignes en chevauchement sont comptées en erreur, le reste du lot est écrit
+        Map<Integer, String> chevauchements = absenceService.verifierChevauchements(lot);
+        if (!chevauchements.isEmpty()) {
+            List<Absence> sansChevauchement = new ArrayList<>(lot.size());
+            List<Long> numerosSansChevauchement = new ArrayList<>(lot.size());
+            for (int i = 0; i < lot.size(); i++) {
+                String erreur = chevauchements.get(i);
+                if (erreur != null) {
+                    job.ajouterErreur(numeros.get(i), erreur);
+                } else {
+                    sansChevauchement.add(lot.get(i));
+                    numerosSansChevauchement.add(numeros.get(i));
+                }
+            }
+            lot = sansChevauchement;
+            numeros = numerosSansChevauchement;
+        }
+        if (!lot.isEmpty()) {
+            try {
+                absenceService.createBatch(lot);
+                job.ajouterSucces(lot.size());
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Échec d'un lot de l'import " + job.getId(), e);
+                for (Long numero : numeros) {
+                    job.ajouterErreur(numero, "Lot rejeté par la base de données");
+                }
+            }
+        }
+        enregistrer(job);
+    }
+    
+    /**
+     * Types d'absence indexés par ID et par nom (en minuscules), chargés une fois par import.
+     */
+    private Map<String, TypeAbsence> chargerTypes() {
+        Map<String, TypeAbsence> types = new HashMap<>();
+        for (TypeAbsence type : typeAbsenceService.findAll()) {
+            types.put(String.valueOf(type.getId()), type);
+            types.put(type.getNom().toLowerCase(Locale.ROOT), type);
+        }
+        return types;
+    }
+    
+    private boolean estEntete(List<String> champs) {
+        return !champs.get(0).chars().allMatch(Character::isDigit);
+    }
+    
+    private Absence lireAbsence(List<String> champs, Map<String, TypeAbsence> types, Long enregistrePar) {
+        if (champs.size() < 3) {
+            throw new IllegalArgumentException("Au moins 3 colonnes attendues (employeId, typeAbsence, dateAbsence)");
+        }
+        
+        Absence absence = new Absence();
+        try {
+            absence.setEmployeId(Long.valueOf(champs.get(0)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("ID employé invalide : " + champs.get(0));
+        }
+        
+        TypeAbsence type = types.get(champs.get(1).toLowerCase(Locale.ROOT));
+        if (type == null) {
+            throw new IllegalArgumentException("Type d'absence inconnu : " + champs.get(1));
+        }
+        absence.setTypeAbsence(type);
+        absence.setDateAbsence(lireDate(champs.get(2)));
+        absence.setHeureDebut(lireHeure(champ(champs, 3)));
+        absence.setHeureFin(lireHeure(champ(champs, 4)));
+        
+        String duree = champ(champs, 5);
+        try {
+            absence.setDureeHeures(duree != null ? new BigDecimal(duree.replace(',', '.')) : BigDecimal.valueOf(8.0));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Durée invalide : " + duree);
+        }
+        
+        absence.setMotif(champ(champs, 6));
+        absence.setJustifiee(false);
+        absence.setStatut("EN_ATTENTE");
+        absence.setEnregistrePar(enregistrePar);
+        return absence;
+    }
+    
+    private String champ(List<String> champs, int index) {
+        return index < champs.size() && !champs.get(index).isEmpty() ? champs.get(index) : null;
+    }
+    
+    private LocalDate lireDate(String valeur) {
+        return valeur.indexOf('/') >= 0 ? LocalDate.parse(valeur, DATE_FR) : LocalDate.parse(valeur);
+    }
+    
+    private LocalTime lireHeure(String valeur) {
+        return valeur != null ? LocalTime.parse(valeur) : null;
+    }
+}
@@ -0,0 +1,135 @@
+package com.plateforme.absences.imports;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * État d'un import d'absences en cours ou terminé.
+ * 
+ * Mis à jour par le thread d'import, lu par les requêtes de suivi. Recopié
+ * en base (absences_imports) par ImportAbsenceService pour être suivi depuis
+ * n'importe quel nœud.
+ */
+public class ImportJob {
+    
+    /** Nombre maximum d'erreurs détaillées conservées. */
+    private static final int ERREURS_MAX = 100;
+    
+    public enum Statut { EN_ATTENTE, EN_COURS, TERMINE, ECHEC }
+    
+    private final String id;
+    private final String nomFichier;
+    private final Long lancePar;
+    private final LocalDateTime dateCreation;
+    private final AtomicLong lignesTraitees = new AtomicLong();
+    private final AtomicLong lignesEnErreur = new AtomicLong();
+    private final List<String> erreurs = Collections.synchronizedList(new ArrayList<>());
+    
+    private volatile Statut statut = Statut.EN_ATTENTE;
+    private volatile LocalDateTime dateDebut;
+    private volatile LocalDateTime dateFin;
+    private volatile String message;
+
+    public ImportJob(String id, String nomFichier, Long lancePar) {
+        this.id = id;
+        this.nomFichier = nomFichier;
+        this.lancePar = lancePar;
+        this.dateCreation = LocalDateTime.now();
+    }
+    
+    /**
+     * État relu en base (import exécuté par un autre nœud).
+     */
+    ImportJob(String id, String nomFichier, Long lancePar, Statut statut, long lignesTraitees, long lignesEnErreur,
+              List<String> erreurs, String message, LocalDateTime dateCreation, LocalDateTime dateDebut,
+              LocalDateTime dateFin) {
+        this.id = id;
+        this.nomFichier = nomFichier;
+        this.lancePar = lancePar;
+        this.statut = statut;
+        this.lignesTraitees.set(lignesTraitees);
+        this.lignesEnErreur.set(lignesEnErreur);
+        this.erreurs.addAll(erreurs);
+        this.message = message;
+        this.dateCreation = dateCreation;
+        this.dateDebut = dateDebut;
+        this.dateFin = dateFin;
+    }
+    
+    void demarrer() {
+        dateDebut = LocalDateTime.now();
+        statut = Statut.EN_COURS;
+    }
+    
+    void terminer(Statut statutFinal, String message) {
+        this.message = message;
+        this.dateFin = LocalDateTime.now();
+        this.statut = statutFinal;
+    }
+    
+    void ajouterSucces(long nombre) {
+        lignesTraitees.addAndGet(nombre);
+    }
+    
+    void ajouterErreur(long numeroLigne, String erreur) {
+        lignesTraitees.incrementAndGet();
+        lignesEnErreur.incrementAndGet();
+        if (erreurs.size() < ERREURS_MAX) {
+            erreurs.add("Ligne " + numeroLigne + " : " + erreur);
+        }
+    }
+    
+    /**
+     * Débit moyen depuis le démarrage, en lignes par seconde.
+     */
+    public double getDebitLignesParSeconde() {
+        if (dateDebut == null) {
+            return 0;
+        }
+        LocalDateTime fin = dateFin != null ? dateFin : LocalDateTime.now();
+        long millis = Math.max(1, Duration.between(dateDebut, fin).toMillis());
+        return lignesTraitees.get() * 1000.0 / millis;
+    }
+    
+    public boolean estTermine() {
+        return statut == Statut.TERMINE || statut == Statut.ECHEC;
+    }
+    
+    /**
+     * Vrai si l'utilisateur donné a lancé cet import.
+     */
+    public boolean estLancePar(Long utilisateurId) {
+        return lancePar != null && lancePar.equals(utilisateurId);
+    }
+
+    // Getters
+    public String getId() { return id; }
+
+    public String getNomFichier() { return nomFichier; }
+
+    public Long getLancePar() { return lancePar; }
+
+    public Statut getStatut() { return statut; }
+
+    public String getMessage() { return message; }
+
+    public long getLignesTraitees() { return lignesTraitees.get(); }
+
+    public long getLignesEnErreur() { return lignesEnErreur.get(); }
+
+    public List<String> getErreurs() {
+        synchronized (erreurs) {
+            return new ArrayList<>(erreurs);
+        }
+    }
+
+    public LocalDateTime getDateCreation() { return dateCreation; }
+
+    public LocalDateTime getDateDebut() { return dateDebut; }
+
+    public LocalDateTime getDateFin() { return dateFin; }
+}
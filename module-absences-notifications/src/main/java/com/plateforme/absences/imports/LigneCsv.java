@@ -0,0 +1,56 @@
+package com.plateforme.absences.imports;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Découpage d'une ligne CSV (séparateur ; ou ,, champs éventuellement entre guillemets).
+ */
+public final class LigneCsv {
+    
+    private LigneCsv() {
+    }
+    
+    /**
+     * Détermine le séparateur à partir de la première ligne du fichier.
+     */
+    public static char detecterSeparateur(String premiereLigne) {
+        return premiereLigne.indexOf(';') >= 0 ? ';' : ',';
+    }
+    
+    /**
+     * Découpe une ligne en champs.
+     * 
+     * Les guillemets doubles protègent le séparateur ; "" représente un guillemet.
+     */
+    public static List<String> decouper(String ligne, char separateur) {
+        List<String> champs = new ArrayList<>();
+        StringBuilder champ = new StringBuilder();
+        boolean entreGuillemets = false;
+        
+        for (int i = 0; i < ligne.length(); i++) {
+            char c = ligne.charAt(i);
+            if (entreGuillemets) {
+                if (c == '"') {
+                    if (i + 1 < ligne.length() && ligne.charAt(i + 1) == '"') {
+                        champ.append('"');
+                        i++;
+                    } else {
+                        entreGuillemets = false;
+                    }
+                } else {
+                    champ.append(c);
+                }
+            } else if (c == '"') {
+                entreGuillemets = true;
+            } else if (c == separateur) {
+                champs.add(champ.toString().trim());
+                champ.setLength(0);
+            } else {
+                champ.append(c);
+            }
+        }
+        champs.add(champ.toString().trim());
+        return champs;
+    }
+}
@@ -0,0 +1,123 @@
+package com.plateforme.absences.index;
+
+import com.plateforme.absences.dto.AbsenceDTO;
+import com.plateforme.absences.events.AbsenceEvent;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.ejb.Lock;
+import jakarta.ejb.LockType;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.Startup;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Calendrier des absences en mémoire : qui est absent tel jour / telle semaine.
+ * 
+ * Construit au démarrage depuis la table absences, puis tenu à jour par les
+ * événements AbsenceEvent après chaque commit. Les lectures se font sous
+ * verrou partagé et ne touchent pas la base.
+ */
+@Singleton
+@Startup
+@Lock(LockType.READ)
+public class CalendrierAbsenceService {
+    
+    private static final Logger LOGGER = Logger.getLogger(CalendrierAbsenceService.class.getName());
+    
+    @PersistenceContext(unitName = "absencesPU")
+    private EntityManager em;
+    
+    private final CalendrierIndex index = new CalendrierIndex();
+    
+    /**
+     * Charge l'index depuis la base au démarrage de l'application.
+     */
+    @PostConstruct
+    @Lock(LockType.WRITE)
+    public void reconstruire() {
+        long debut = System.currentTimeMillis();
+        index.vider();
+        
+        try (Stream<Object[]> lignes = em.createNamedQuery("Absence.calendrier", Object[].class)
+                                         .setHint("org.hibernate.fetchSize", 1000)
+                                         .getResultStream()) {
+            Iterator<Object[]> it = lignes.iterator();
+            while (it.hasNext()) {
+                Object[] ligne = it.next();
+                index.ajouter((Long) ligne[0], (LocalDate) ligne[1]);
+            }
+        }
+        
+        LOGGER.info("Calendrier des absences chargé : " + index.getNombreEntrees() + " absence(s) sur "
+                    + index.getNombreJours() + " jour(s), ~" + index.getMemoireOctets() / 1024 + " Ko, en "
+                    + (System.currentTimeMillis() - debut) + " ms");
+    }
+    
+    /**
+     * Répercute une écriture validée sur l'index.
+     */
+    @Lock(LockType.WRITE)
+    public void surAbsenceModifiee(@Observes(during = TransactionPhase.AFTER_SUCCESS) AbsenceEvent event) {
+        AbsenceDTO avant = event.getAvant();
+        AbsenceDTO apres = event.getApres();
+        if (avant != null) {
+            index.retirer(avant.getEmployeId(), avant.getDateAbsence());
+        }
+        if (apres != null) {
+            index.ajouter(apres.getEmployeId(), apres.getDateAbsence());
+        }
+    }
+    
+    /**
+     * Retire des absences qui ont quitté la table absences (archivage validé).
+     */
+    @Lock(LockType.WRITE)
+    public void oublier(Collection<AbsenceDTO> absences) {
+        for (AbsenceDTO absence : absences) {
+            index.retirer(absence.getEmployeId(), absence.getDateAbsence());
+        }
+    }
+    
+    /**
+     * Employés absents à une date.
+     */
+    public List<Long> absentsLe(LocalDate date) {
+        return index.absentsLe(date);
+    }
+    
+    /**
+     * Employés absents au moins un jour de la période.
+     */
+    public List<Long> absentsEntre(LocalDate debut, LocalDate fin) {
+        return index.absentsEntre(debut, fin);
+    }
+    
+    /**
+     * Jours où au moins {@code seuil} membres de l'équipe sont absents en même temps.
+     */
+    public Map<LocalDate, List<Long>> chevauchements(Collection<Long> equipe, LocalDate debut, LocalDate fin, int seuil) {
+        return index.chevauchements(equipe, debut, fin, seuil);
+    }
+    
+    public int getNombreJours() {
+        return index.getNombreJours();
+    }
+    
+    public long getNombreEntrees() {
+        return index.getNombreEntrees();
+    }
+    
+    public long getMemoireOctets() {
+        return index.getMemoireOctets();
+    }
+}
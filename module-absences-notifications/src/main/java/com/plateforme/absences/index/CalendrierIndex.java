@@ -0,0 +1,170 @@
+package com.plateforme.absences.index;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Index jour → employés absents, sous forme d'un bitmap d'ID employés par jour.
+ * 
+ * Un employé peut avoir plusieurs absences le même jour : les occurrences
+ * supplémentaires sont comptées à part, pour que la suppression de l'une
+ * d'elles ne l'efface pas du jour.
+ * 
+ * Non thread-safe : l'accès concurrent est géré par CalendrierAbsenceService.
+ */
+public class CalendrierIndex {
+    
+    private final TreeMap<Long, BitSet> jours = new TreeMap<>();
+    private final Map<Long, Integer> occurrencesSupplementaires = new HashMap<>();
+    private long entrees;
+    
+    /**
+     * Ajoute une absence de l'employé à la date donnée.
+     */
+    public void ajouter(long employeId, LocalDate date) {
+        int bit = bit(employeId);
+        long jour = date.toEpochDay();
+        BitSet absents = jours.computeIfAbsent(jour, j -> new BitSet());
+        if (absents.get(bit)) {
+            occurrencesSupplementaires.merge(cle(jour, bit), 1, Integer::sum);
+        } else {
+            absents.set(bit);
+        }
+        entrees++;
+    }
+    
+    /**
+     * Retire une absence de l'employé à la date donnée (sans effet si elle n'est pas indexée).
+     */
+    public void retirer(long employeId, LocalDate date) {
+        int bit = bit(employeId);
+        long jour = date.toEpochDay();
+        BitSet absents = jours.get(jour);
+        if (absents == null || !absents.get(bit)) {
+            return;
+        }
+        
+        long cle = cle(jour, bit);
+        Integer supplementaires = occurrencesSupplementaires.get(cle);
+        if (supplementaires != null) {
+            if (supplementaires == 1) {
+                occurrencesSupplementaires.remove(cle);
+            } else {
+                occurrencesSupplementaires.put(cle, supplementaires - 1);
+            }
+        } else {
+            absents.clear(bit);
+            if (absents.isEmpty()) {
+                jours.remove(jour);
+            }
+        }
+        entrees--;
+    }
+    
+    /**
+     * Employés absents à une date (ID croissants).
+     */
+    public List<Long> absentsLe(LocalDate date) {
+        return ids(jours.get(date.toEpochDay()));
+    }
+    
+    /**
+     * Employés absents au moins un jour de la période (bornes incluses).
+     */
+    public List<Long> absentsEntre(LocalDate debut, LocalDate fin) {
+        BitSet union = new BitSet();
+        for (BitSet absents : periode(debut, fin).values()) {
+            union.or(absents);
+        }
+        return ids(union);
+    }
+    
+    /**
+     * Jours de la période où au moins {@code seuil} membres de l'équipe sont absents.
+     * 
+     * @return Pour chaque jour concerné, les membres absents (ordre chronologique)
+     */
+    public Map<LocalDate, List<Long>> chevauchements(Collection<Long> equipe, LocalDate debut, LocalDate fin, int seuil) {
+        BitSet membres = new BitSet();
+        for (Long employeId : equipe) {
+            membres.set(bit(employeId));
+        }
+        
+        Map<LocalDate, List<Long>> resultat = new LinkedHashMap<>();
+        for (Map.Entry<Long, BitSet> jour : periode(debut, fin).entrySet()) {
+            BitSet absents = (BitSet) jour.getValue().clone();
+            absents.and(membres);
+            if (absents.cardinality() >= seuil) {
+                resultat.put(LocalDate.ofEpochDay(jour.getKey()), ids(absents));
+            }
+        }
+        return resultat;
+    }
+    
+    /**
+     * Vide l'index.
+     */
+    public void vider() {
+        jours.clear();
+        occurrencesSupplementaires.clear();
+        entrees = 0;
+    }
+    
+    /** Nombre de jours ayant au moins une absence. */
+    public int getNombreJours() {
+        return jours.size();
+    }
+    
+    /** Nombre d'absences indexées. */
+    public long getNombreEntrees() {
+        return entrees;
+    }
+    
+    /**
+     * Estimation de la mémoire occupée (bitmaps, entrées de map et clés).
+     */
+    public long getMemoireOctets() {
+        long octets = 0;
+        for (BitSet absents : jours.values()) {
+            octets += absents.size() / 8 + 40 + 56; // mots du bitmap + objets BitSet/long[] + entrée TreeMap et clé
+        }
+        octets += occurrencesSupplementaires.size() * 80L;
+        return octets;
+    }
+    
+    private NavigableMap<Long, BitSet> periode(LocalDate debut, LocalDate fin) {
+        return jours.subMap(debut.toEpochDay(), true, fin.toEpochDay(), true);
+    }
+    
+    private static List<Long> ids(BitSet absents) {
+        List<Long> ids = new ArrayList<>();
+        if (absents != null) {
+            for (int i = absents.nextSetBit(0); i >= 0; i = absents.nextSetBit(i + 1)) {
+                ids.add((long) i);
+                if (i == Integer.MAX_VALUE) {
+                    break;
+                }
+            }
+        }
+        return ids;
+    }
+    
+    private static int bit(long employeId) {
+        if (employeId < 0 || employeId > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("ID employé hors de l'index : " + employeId);
+        }
+        return (int) employeId;
+    }
+    
+    private static long cle(long jour, int bit) {
+        return (jour << 32) | bit;
+    }
+}
@@ -0,0 +1,26 @@
+package com.plateforme.absences.index;
+
+import jakarta.ejb.ApplicationException;
+
+/**
+ * Levée quand une absence chevauche une absence existante du même employé.
+ * 
+ * Exception applicative : elle remonte telle quelle jusqu'à la ressource REST
+ * (pas d'EJBException) et annule la transaction en cours.
+ */
+@ApplicationException(rollback = true)
+public class ChevauchementException extends RuntimeException {
+    
+    private final Long absenceExistanteId;
+    
+    public ChevauchementException(Long absenceExistanteId) {
+        super(absenceExistanteId != null
+              ? "L'absence chevauche l'absence existante #" + absenceExistanteId + " du même employé"
+              : "L'absence chevauche une autre absence du même employé");
+        this.absenceExistanteId = absenceExistanteId;
+    }
+    
+    public Long getAbsenceExistanteId() {
+        return absenceExistanteId;
+    }
+}
@@ -0,0 +1,364 @@
+package com.plateforme.absences.index;
+
+import com.plateforme.absences.dto.AbsenceDTO;
+import com.plateforme.absences.entities.Absence;
+import com.plateforme.absences.index.IntervalleIndex.Intervalle;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.Startup;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+
+/**
+ * Détection des chevauchements d'absences d'un même employé.
+ * 
+ * Les plages sont chargées au démarrage puis réservées dans la transaction qui
+ * écrit l'absence, une fois vérifiées en base. Si la transaction est annulée,
+ * ses réservations sont retirées ; si elle est validée, les anciennes plages
+ * (modification, suppression) sont libérées.
+ * 
+ * L'index ne connaît que les écritures de ce nœud : une plage qui y figure a
+ * pu être supprimée ou déplacée depuis par un autre nœud. Il ne décide donc
+ * de rien : ce qui fait foi est la vérification en base, dans la même
+ * transaction, sous le verrou de ligne de l'employé (absences_verrous_employes) :
+ * deux nœuds, ou une écriture passée hors de AbsenceService, ne peuvent pas
+ * insérer deux absences qui se chevauchent. Une plage de l'index que la base
+ * ne confirme pas est périmée et en est retirée.
+ */
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class IntervalleAbsenceService {
+    
+    private static final Logger LOGGER = Logger.getLogger(IntervalleAbsenceService.class.getName());
+    
+    // Verrou exclusif sur la ligne de l'employé jusqu'à la fin de la transaction (créée au premier usage)
+    private static final String VERROU_EMPLOYE =
+        "INSERT INTO absences_verrous_employes (employe_id) VALUES (?) ON DUPLICATE KEY UPDATE employe_id = employe_id";
+    
+    // Une plage ne dépassant pas la journée, seules les absences du même jour peuvent chevaucher.
+    // Sous le verrou de l'employé, lecture verrouillante (FOR SHARE) : elle voit les dernières
+    // écritures validées, et non l'instantané pris au début de la transaction.
+    private static final String ABSENCES_DES_JOURS =
+        "SELECT id, employe_id, date_absence, heure_debut, heure_fin, duree_heures FROM absences "
+      + "WHERE (employe_id, date_absence) IN (";
+    
+    /** Couples (employé, jour) par requête de vérification. */
+    private static final int TAILLE_REQUETE = 500;
+    
+    @PersistenceContext(unitName = "absencesPU")
+    private EntityManager em;
+    
+    // Même DataSource que absencesPU : verrous et lectures dans la transaction de l'écriture
+    @Resource(lookup = "java:/gestion_rh_jeeDS")
+    private DataSource dataSource;
+    
+    @Resource
+    private TransactionSynchronizationRegistry registre;
+    
+    private final IntervalleIndex index = new IntervalleIndex();
+    
+    // Verrou explicite : les annulations s'exécutent en fin de transaction, hors appel EJB
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+    
+    /**
+     * Charge les plages depuis la base au démarrage de l'application.
+     */
+    @PostConstruct
+    public void reconstruire() {
+        long debut = System.currentTimeMillis();
+        verrou.writeLock().lock();
+        try (Stream<Object[]> lignes = em.createNamedQuery("Absence.intervalles", Object[].class)
+                                         .setHint("org.hibernate.fetchSize", 1000)
+                                         .getResultStream()) {
+            index.vider();
+            Iterator<Object[]> it = lignes.iterator();
+            while (it.hasNext()) {
+                Object[] ligne = it.next();
+                index.ajouter(IntervalleIndex.plage((Long) ligne[1], (LocalDate) ligne[2], (LocalTime) ligne[3],
+                                                    (LocalTime) ligne[4], (BigDecimal) ligne[5], (Long) ligne[0]));
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+        
+        LOGGER.info("Index des plages d'absence chargé : " + index.getNombreEntrees() + " plage(s) pour "
+                    + index.getNombreEmployes() + " employé(s) en " + (System.currentTimeMillis() - debut) + " ms");
+    }
+    
+    /**
+     * Vérifie qu'une absence ne chevauche aucune absence de l'employé et réserve sa plage
+     * dans la transaction courante.
+     * 
+     * @param ignorerId ID de l'absence modifiée (ignorée dans la vérification), ou null
+     * @return La plage réservée (renseigner son absenceId après l'INSERT)
+     * @throws ChevauchementException si une absence existante chevauche
+     */
+    public Intervalle reserver(Absence absence, Long ignorerId) {
+        verifierEnBase(Collections.singletonList(absence), ignorerId);
+        return reserverDansIndex(absence, ignorerId);
+    }
+    
+    /**
+     * Réserve les plages d'un lot d'absences à créer (vérification en base groupée).
+     * 
+     * @return Les plages réservées, dans l'ordre du lot
+     * @throws ChevauchementException si une absence chevauche une absence existante ou une autre du lot
+     */
+    public List<Intervalle> reserver(List<Absence> absences) {
+        verifierEnBase(absences, null);
+        List<Intervalle> plages = new ArrayList<>(absences.size());
+        for (Absence absence : absences) {
+            plages.add(reserverDansIndex(absence, null));
+        }
+        return plages;
+    }
+    
+    /**
+     * Ajoute la plage à l'index, une fois la base vérifiée : les plages de l'index qui la
+     * chevauchent encore n'existent plus en base (écriture d'un autre nœud) et sont retirées.
+     */
+    private Intervalle reserverDansIndex(Absence absence, Long ignorerId) {
+        Intervalle plage = plage(absence);
+        verrou.writeLock().lock();
+        try {
+            Intervalle perimee;
+            while ((perimee = index.chevauchement(plage, ignorerId)) != null) {
+                LOGGER.fine("Plage périmée retirée de l'index (absence " + perimee.getAbsenceId() + ")");
+                index.retirer(perimee);
+            }
+            index.ajouter(plage);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+        suivi().reservees.add(plage);
+        return plage;
+    }
+    
+    /**
+     * Verrouille les employés concernés (dans l'ordre des ID, sans interblocage entre
+     * transactions) puis compare les absences à celles de la table pour les mêmes jours,
+     * et entre elles.
+     */
+    private void verifierEnBase(List<Absence> absences, Long ignorerId) {
+        TreeSet<Long> employes = new TreeSet<>();
+        for (Absence absence : absences) {
+            employes.add(absence.getEmployeId());
+        }
+        
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement ps = connection.prepareStatement(VERROU_EMPLOYE)) {
+                for (Long employeId : employes) {
+                    ps.setLong(1, employeId);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            
+            IntervalleIndex existantes = lireExistantes(connection, absences, " FOR SHARE");
+            for (Absence absence : absences) {
+                Intervalle plage = plage(absence);
+                Intervalle existante = existantes.chevauchement(plage, ignorerId);
+                if (existante != null) {
+                    throw new ChevauchementException(existante.getAbsenceId());
+                }
+                existantes.ajouter(plage);
+            }
+        } catch (SQLException e) {
+            throw new PersistenceException("Erreur lors de la vérification des chevauchements d'absences", e);
+        }
+    }
+    
+    /**
+     * Plages des absences de la table aux mêmes jours, pour les mêmes employés.
+     */
+    private IntervalleIndex lireExistantes(Connection connection, List<Absence> absences, String verrouillage)
+            throws SQLException {
+        IntervalleIndex existantes = new IntervalleIndex();
+        for (int debut = 0; debut < absences.size(); debut += TAILLE_REQUETE) {
+            List<Absence> tranche = absences.subList(debut, Math.min(debut + TAILLE_REQUETE, absences.size()));
+            String sql = ABSENCES_DES_JOURS + String.join(", ", Collections.nCopies(tranche.size(), "(?, ?)")) + ")"
+                       + verrouillage;
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                int i = 1;
+                for (Absence absence : tranche) {
+                    ps.setLong(i++, absence.getEmployeId());
+                    ps.setObject(i++, absence.getDateAbsence());
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        existantes.ajouter(IntervalleIndex.plage(rs.getLong(2), rs.getObject(3, LocalDate.class),
+                                                                 rs.getObject(4, LocalTime.class),
+                                                                 rs.getObject(5, LocalTime.class),
+                                                                 rs.getBigDecimal(6), rs.getLong(1)));
+                    }
+                }
+            }
+        }
+        return existantes;
+    }
+    
+    /**
+     * Libère la plage d'une absence (état avant modification ou suppression) si la
+     * transaction courante est validée.
+     */
+    public void liberer(AbsenceDTO ancienne) {
+        long debut = IntervalleIndex.plage(ancienne.getEmployeId(), ancienne.getDateAbsence(), ancienne.getHeureDebut(),
+                                           ancienne.getHeureFin(), ancienne.getDureeHeures(), null).getDebut();
+        verrou.readLock().lock();
+        try {
+            Intervalle plage = index.trouver(ancienne.getEmployeId(), debut, ancienne.getId());
+            if (plage != null) {
+                suivi().liberees.add(plage);
+            }
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Retire immédiatement les plages d'absences qui ont quitté la table absences (archivage validé).
+     */
+    public void oublier(Collection<AbsenceDTO> absences) {
+        verrou.writeLock().lock();
+        try {
+            for (AbsenceDTO absence : absences) {
+                long debut = IntervalleIndex.plage(absence.getEmployeId(), absence.getDateAbsence(), absence.getHeureDebut(),
+                                                   absence.getHeureFin(), absence.getDureeHeures(), null).getDebut();
+                Intervalle plage = index.trouver(absence.getEmployeId(), debut, absence.getId());
+                if (plage != null) {
+                    index.retirer(plage);
+                }
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Chevauchements d'un lot, sans rien réserver : avec les absences de la table et
+     * entre lignes du lot. Sert à rejeter ces lignes avant l'insertion (lecture sans
+     * verrou : reserver(List) refait la vérification sous le verrou des employés).
+     * 
+     * @return Message d'erreur par position dans la liste
+     */
+    public Map<Integer, String> verifierLot(List<Absence> absences) {
+        Map<Integer, String> erreurs = new LinkedHashMap<>();
+        if (absences.isEmpty()) {
+            return erreurs;
+        }
+        
+        IntervalleIndex existantes;
+        try (Connection connection = dataSource.getConnection()) {
+            existantes = lireExistantes(connection, absences, "");
+        } catch (SQLException e) {
+            throw new PersistenceException("Erreur lors de la vérification des chevauchements d'absences", e);
+        }
+        
+        IntervalleIndex lot = new IntervalleIndex();
+        for (int i = 0; i < absences.size(); i++) {
+            Intervalle plage = plage(absences.get(i));
+            Intervalle existante = existantes.chevauchement(plage, null);
+            if (existante != null) {
+                erreurs.put(i, new ChevauchementException(existante.getAbsenceId()).getMessage());
+            } else if (lot.chevauchement(plage, null) != null) {
+                erreurs.put(i, "L'absence chevauche une autre ligne du lot pour le même employé");
+            } else {
+                lot.ajouter(plage);
+            }
+        }
+        return erreurs;
+    }
+    
+    public int getNombreEmployes() {
+        verrou.readLock().lock();
+        try {
+            return index.getNombreEmployes();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+    
+    public long getNombreEntrees() {
+        verrou.readLock().lock();
+        try {
+            return index.getNombreEntrees();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+    
+    private static Intervalle plage(Absence absence) {
+        return IntervalleIndex.plage(absence.getEmployeId(), absence.getDateAbsence(), absence.getHeureDebut(),
+                                     absence.getHeureFin(), absence.getDureeHeures(), absence.getId());
+    }
+    
+    // ========================================
+    // FIN DE TRANSACTION
+    // ========================================
+    
+    /**
+     * Réservations et libérations de la transaction courante (une synchronisation par transaction).
+     */
+    private Suivi suivi() {
+        Suivi suivi = (Suivi) registre.getResource(Suivi.class);
+        if (suivi == null) {
+            suivi = new Suivi();
+            registre.putResource(Suivi.class, suivi);
+            registre.registerInterposedSynchronization(suivi);
+        }
+        return suivi;
+    }
+    
+    private class Suivi implements Synchronization {
+        private final List<Intervalle> reservees = new ArrayList<>();
+        private final List<Intervalle> liberees = new ArrayList<>();
+        
+        @Override
+        public void beforeCompletion() {
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            List<Intervalle> aRetirer = status == Status.STATUS_COMMITTED ? liberees : reservees;
+            if (aRetirer.isEmpty()) {
+                return;
+            }
+            verrou.writeLock().lock();
+            try {
+                for (Intervalle plage : aRetirer) {
+                    index.retirer(plage);
+                }
+            } finally {
+                verrou.writeLock().unlock();
+            }
+        }
+    }
+}
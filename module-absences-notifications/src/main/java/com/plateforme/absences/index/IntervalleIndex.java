@@ -0,0 +1,156 @@
+package com.plateforme.absences.index;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Index des plages horaires d'absence par employé, pour détecter les chevauchements.
+ * 
+ * Chaque absence occupe une plage [début, fin[ exprimée en minutes depuis l'epoch
+ * (jour × 1440 + minute). Sans heure de début, la plage commence à 00:00 ; sans
+ * heure de fin, elle dure dureeHeures (ou toute la journée). Une plage ne
+ * dépassant jamais une journée, la recherche se limite aux plages commençant
+ * moins de 1440 minutes avant : O(log n) par employé.
+ * 
+ * Non thread-safe : l'accès concurrent est géré par IntervalleAbsenceService.
+ */
+public class IntervalleIndex {
+    
+    private static final long MINUTES_PAR_JOUR = 1440;
+    
+    private final Map<Long, TreeMap<Long, List<Intervalle>>> parEmploye = new HashMap<>();
+    private long entrees;
+    
+    /**
+     * Plage occupée par une absence. absenceId est null tant que l'absence n'est pas insérée.
+     */
+    public static final class Intervalle {
+        private final long employeId;
+        private final long debut;
+        private final long fin;
+        private volatile Long absenceId;
+        
+        Intervalle(long employeId, long debut, long fin, Long absenceId) {
+            this.employeId = employeId;
+            this.debut = debut;
+            this.fin = fin;
+            this.absenceId = absenceId;
+        }
+        
+        public long getEmployeId() { return employeId; }
+        public long getDebut() { return debut; }
+        public long getFin() { return fin; }
+        
+        public Long getAbsenceId() { return absenceId; }
+        public void setAbsenceId(Long absenceId) { this.absenceId = absenceId; }
+        
+        boolean chevauche(long autreDebut, long autreFin) {
+            return debut < autreFin && autreDebut < fin;
+        }
+    }
+    
+    /**
+     * Plage occupée par une absence (voir la description de la classe).
+     */
+    public static Intervalle plage(long employeId, LocalDate date, LocalTime heureDebut, LocalTime heureFin,
+                                   BigDecimal dureeHeures, Long absenceId) {
+        long jour = date.toEpochDay() * MINUTES_PAR_JOUR;
+        long debut = heureDebut != null ? heureDebut.toSecondOfDay() / 60 : 0;
+        long fin;
+        if (heureFin != null) {
+            fin = heureFin.toSecondOfDay() / 60;
+        } else if (heureDebut != null && dureeHeures != null) {
+            fin = debut + dureeHeures.multiply(BigDecimal.valueOf(60)).longValue();
+        } else {
+            fin = MINUTES_PAR_JOUR;
+        }
+        fin = Math.min(Math.max(fin, debut + 1), MINUTES_PAR_JOUR);
+        return new Intervalle(employeId, jour + debut, jour + fin, absenceId);
+    }
+    
+    /**
+     * Première plage de l'employé chevauchant la plage donnée, en ignorant l'absence
+     * {@code ignorerId} (l'absence modifiée elle-même), ou null si aucune.
+     */
+    public Intervalle chevauchement(Intervalle plage, Long ignorerId) {
+        TreeMap<Long, List<Intervalle>> plages = parEmploye.get(plage.employeId);
+        if (plages == null) {
+            return null;
+        }
+        for (List<Intervalle> candidats : plages.subMap(plage.debut - MINUTES_PAR_JOUR, false, plage.fin, false).values()) {
+            for (Intervalle candidat : candidats) {
+                if (candidat.chevauche(plage.debut, plage.fin)
+                        && (ignorerId == null || !ignorerId.equals(candidat.absenceId))) {
+                    return candidat;
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Ajoute une plage (sans vérifier les chevauchements).
+     */
+    public void ajouter(Intervalle plage) {
+        parEmploye.computeIfAbsent(plage.employeId, e -> new TreeMap<>())
+                  .computeIfAbsent(plage.debut, d -> new ArrayList<>(1))
+                  .add(plage);
+        entrees++;
+    }
+    
+    /**
+     * Retire cette plage précise (sans effet si elle n'est pas indexée).
+     */
+    public void retirer(Intervalle plage) {
+        TreeMap<Long, List<Intervalle>> plages = parEmploye.get(plage.employeId);
+        if (plages == null) {
+            return;
+        }
+        List<Intervalle> memeDebut = plages.get(plage.debut);
+        if (memeDebut == null || !memeDebut.removeIf(p -> p == plage)) {
+            return;
+        }
+        entrees--;
+        if (memeDebut.isEmpty()) {
+            plages.remove(plage.debut);
+            if (plages.isEmpty()) {
+                parEmploye.remove(plage.employeId);
+            }
+        }
+    }
+    
+    /**
+     * Plage indexée de l'absence, retrouvée par son employé, son début et son ID ; null si absente.
+     */
+    public Intervalle trouver(long employeId, long debut, Long absenceId) {
+        TreeMap<Long, List<Intervalle>> plages = parEmploye.get(employeId);
+        List<Intervalle> memeDebut = plages != null ? plages.get(debut) : null;
+        if (memeDebut != null) {
+            for (Intervalle candidat : memeDebut) {
+                if (absenceId != null && absenceId.equals(candidat.absenceId)) {
+                    return candidat;
+                }
+            }
+        }
+        return null;
+    }
+    
+    public void vider() {
+        parEmploye.clear();
+        entrees = 0;
+    }
+    
+    public int getNombreEmployes() {
+        return parEmploye.size();
+    }
+    
+    public long getNombreEntrees() {
+        return entrees;
+    }
+}
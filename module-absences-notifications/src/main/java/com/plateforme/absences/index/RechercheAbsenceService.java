@@ -0,0 +1,149 @@
+package com.plateforme.absences.index;
+
+import com.plateforme.absences.dto.AbsenceDTO;
+import com.plateforme.absences.entities.TypeAbsence;
+import com.plateforme.absences.events.AbsenceEvent;
+import com.plateforme.absences.services.TypeAbsenceService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Lock;
+import jakarta.ejb.LockType;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.Startup;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Recherche plein texte des absences par motif et nom de type (index inversé en mémoire).
+ * 
+ * Construit au démarrage depuis la table absences, puis tenu à jour par les
+ * événements AbsenceEvent après chaque commit. Les recherches se font sous
+ * verrou partagé ; seule la page demandée est ensuite relue en base.
+ */
+@Singleton
+@Startup
+@Lock(LockType.READ)
+public class RechercheAbsenceService {
+    
+    private static final Logger LOGGER = Logger.getLogger(RechercheAbsenceService.class.getName());
+    
+    @PersistenceContext(unitName = "absencesPU")
+    private EntityManager em;
+    
+    @EJB
+    private TypeAbsenceService typeAbsenceService;
+    
+    private final RechercheIndex index = new RechercheIndex();
+    
+    /**
+     * Charge l'index depuis la base au démarrage de l'application.
+     */
+    @PostConstruct
+    @Lock(LockType.WRITE)
+    public void reconstruire() {
+        long debut = System.currentTimeMillis();
+        index.vider();
+        
+        // Parcours par ID croissant : chaque absence s'ajoute en fin de liste
+        try (Stream<Object[]> lignes = em.createNamedQuery("Absence.recherche", Object[].class)
+                                         .setHint("org.hibernate.fetchSize", 1000)
+                                         .getResultStream()) {
+            Iterator<Object[]> it = lignes.iterator();
+            while (it.hasNext()) {
+                Object[] ligne = it.next();
+                index.ajouter((Long) ligne[0], (Long) ligne[1], (Long) ligne[2], (LocalDate) ligne[3], (String) ligne[4]);
+            }
+        }
+        
+        LOGGER.info("Index de recherche chargé : " + index.getNombreEntrees() + " absence(s), "
+                    + index.getNombreTermes() + " terme(s), ~" + index.getMemoireOctets() / 1024 + " Ko, en "
+                    + (System.currentTimeMillis() - debut) + " ms");
+    }
+    
+    /**
+     * Répercute une écriture validée sur l'index.
+     */
+    @Lock(LockType.WRITE)
+    public void surAbsenceModifiee(@Observes(during = TransactionPhase.AFTER_SUCCESS) AbsenceEvent event) {
+        AbsenceDTO avant = event.getAvant();
+        AbsenceDTO apres = event.getApres();
+        if (avant != null) {
+            index.retirer(avant.getId(), avant.getMotif());
+        }
+        if (apres != null) {
+            index.ajouter(apres.getId(), apres.getEmployeId(), apres.getTypeAbsenceId(), apres.getDateAbsence(),
+                          apres.getMotif());
+        }
+    }
+    
+    /**
+     * Retire des absences qui ont quitté la table absences (archivage validé).
+     */
+    @Lock(LockType.WRITE)
+    public void oublier(Collection<AbsenceDTO> absences) {
+        for (AbsenceDTO absence : absences) {
+            index.retirer(absence.getId(), absence.getMotif());
+        }
+    }
+    
+    /**
+     * Recherche les absences dont le motif ou le type contient tous les mots de la requête.
+     * 
+     * @return Page de résultats classés par pertinence, et nombre total de résultats
+     */
+    public RechercheIndex.Resultats rechercher(String requete, Long employeId, LocalDate debut, LocalDate fin,
+                                               int offset, int limite) {
+        return index.rechercher(requete, nomsTypes(), employeId, debut, fin, offset, limite);
+    }
+    
+    /**
+     * Charge les absences d'une page de résultats, dans l'ordre des résultats.
+     * Une absence supprimée entre la recherche et la lecture est omise.
+     */
+    public List<AbsenceDTO> charger(List<RechercheIndex.Resultat> resultats) {
+        if (resultats.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> ids = new ArrayList<>(resultats.size());
+        for (RechercheIndex.Resultat resultat : resultats) {
+            ids.add(resultat.getAbsenceId());
+        }
+        
+        Map<Long, AbsenceDTO> parId = new HashMap<>();
+        for (AbsenceDTO dto : em.createNamedQuery("AbsenceDTO.findByIds", AbsenceDTO.class)
+                                .setParameter("ids", ids)
+                                .getResultList()) {
+            parId.put(dto.getId(), dto);
+        }
+        
+        List<AbsenceDTO> absences = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            AbsenceDTO dto = parId.get(id);
+            if (dto != null) {
+                absences.add(dto);
+            }
+        }
+        return absences;
+    }
+    
+    // Lus à chaque recherche (instantané en mémoire) pour suivre les renommages
+    private Map<Long, String> nomsTypes() {
+        Map<Long, String> noms = new HashMap<>();
+        for (TypeAbsence type : typeAbsenceService.findAll()) {
+            noms.put(type.getId(), type.getNom());
+        }
+        return noms;
+    }
+}
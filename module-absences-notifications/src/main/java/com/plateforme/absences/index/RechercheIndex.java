@@ -0,0 +1,515 @@
+package com.plateforme.absences.index;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Index inversé plein texte sur le motif des absences et le nom de leur type.
+ * 
+ * Chaque terme (en minuscules, sans accents) pointe vers la liste triée des ID
+ * d'absence qui le contiennent, avec sa fréquence dans le motif. Les types sont
+ * indexés à part (type → absences) et leur nom est résolu à chaque recherche :
+ * renommer un type ne demande pas de réindexer.
+ * 
+ * Tous les mots de la requête doivent être trouvés, dans le motif ou dans le nom
+ * du type ; le dernier mot est aussi cherché comme préfixe (saisie en cours).
+ * Les résultats sont classés par score BM25.
+ * 
+ * L'ID d'absence sert directement de position dans les tableaux de métadonnées
+ * (employé, jour, type, longueur du motif), soit ~14 octets par ID sans objet
+ * par absence.
+ * 
+ * Non thread-safe : l'accès concurrent est géré par RechercheAbsenceService.
+ */
+public class RechercheIndex {
+    
+    /** Longueur minimale du dernier mot pour le chercher aussi comme préfixe. */
+    static final int PREFIXE_MIN = 3;
+    
+    // Paramètres BM25 usuels
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    
+    private static final Pattern DIACRITIQUES = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATEURS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    
+    private static final Set<String> MOTS_VIDES = Set.of(
+        "au", "aux", "avec", "ce", "ces", "dans", "de", "des", "du", "en", "est", "et", "la", "le", "les",
+        "leur", "ma", "mes", "mon", "ne", "ou", "par", "pas", "pour", "sa", "se", "ses", "son", "sur", "un", "une");
+    
+    /** Ordre des résultats : score décroissant, puis absences les plus récentes (ID décroissant). */
+    private static final Comparator<Resultat> ORDRE =
+        Comparator.comparingDouble(Resultat::getScore).reversed()
+                  .thenComparing(Comparator.comparingLong(Resultat::getAbsenceId).reversed());
+    
+    private final TreeMap<String, Postings> termes = new TreeMap<>();
+    private final Map<Integer, Postings> types = new HashMap<>();
+    
+    private final BitSet presents = new BitSet();
+    private int[] employes = new int[0];
+    private int[] jours = new int[0];
+    private int[] typesAbsence = new int[0];
+    private short[] longueurs = new short[0];
+    private long longueurTotale;
+    private int entrees;
+    
+    /**
+     * Une absence trouvée et son score.
+     */
+    public static final class Resultat {
+        private final long absenceId;
+        private final float score;
+        
+        Resultat(long absenceId, float score) {
+            this.absenceId = absenceId;
+            this.score = score;
+        }
+        
+        public long getAbsenceId() { return absenceId; }
+        public float getScore() { return score; }
+    }
+    
+    /**
+     * Une page de résultats et le nombre total d'absences trouvées.
+     */
+    public static final class Resultats {
+        private final int total;
+        private final List<Resultat> resultats;
+        
+        Resultats(int total, List<Resultat> resultats) {
+            this.total = total;
+            this.resultats = resultats;
+        }
+        
+        public int getTotal() { return total; }
+        public List<Resultat> getResultats() { return resultats; }
+    }
+    
+    /**
+     * Liste triée d'ID d'absence, avec la fréquence du terme pour chacune.
+     */
+    static final class Postings {
+        private final boolean parType;
+        private int[] ids = new int[4];
+        private byte[] frequences = new byte[4];
+        private int taille;
+        
+        Postings(boolean parType) {
+            this.parType = parType;
+        }
+        
+        void ajouter(int id, int frequence) {
+            // Les absences arrivent le plus souvent par ID croissant : ajout en fin sans recherche
+            int position = taille == 0 || ids[taille - 1] < id ? -(taille + 1) : Arrays.binarySearch(ids, 0, taille, id);
+            byte valeur = (byte) Math.min(frequence, Byte.MAX_VALUE);
+            if (position >= 0) {
+                frequences[position] = valeur;
+                return;
+            }
+            position = -position - 1;
+            if (taille == ids.length) {
+                int capacite = taille + (taille >> 1) + 1;
+                ids = Arrays.copyOf(ids, capacite);
+                frequences = Arrays.copyOf(frequences, capacite);
+            }
+            System.arraycopy(ids, position, ids, position + 1, taille - position);
+            System.arraycopy(frequences, position, frequences, position + 1, taille - position);
+            ids[position] = id;
+            frequences[position] = valeur;
+            taille++;
+        }
+        
+        boolean retirer(int id) {
+            int position = Arrays.binarySearch(ids, 0, taille, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, taille - position - 1);
+            System.arraycopy(frequences, position + 1, frequences, position, taille - position - 1);
+            taille--;
+            return true;
+        }
+        
+        int getTaille() {
+            return taille;
+        }
+        
+        long getMemoireOctets() {
+            return ids.length * 5L + 64; // ids + fréquences + objets tableaux et Postings
+        }
+    }
+    
+    /**
+     * Absences candidates (ID croissants) et leur score cumulé.
+     */
+    private static final class Candidats {
+        final int[] ids;
+        final float[] scores;
+        final int taille;
+        
+        Candidats(int[] ids, float[] scores, int taille) {
+            this.ids = ids;
+            this.scores = scores;
+            this.taille = taille;
+        }
+    }
+    
+    /**
+     * Découpe un texte en termes indexables : minuscules, sans accents, sans mots vides
+     * ni mots d'une lettre. Les doublons sont conservés (fréquence du terme).
+     */
+    public static List<String> termes(String texte) {
+        List<String> termes = new ArrayList<>();
+        if (texte == null || texte.isBlank()) {
+            return termes;
+        }
+        String normalise = DIACRITIQUES.matcher(Normalizer.normalize(texte, Normalizer.Form.NFD)).replaceAll("");
+        for (String mot : SEPARATEURS.split(normalise.toLowerCase(Locale.ROOT))) {
+            if (mot.length() > 1 && !MOTS_VIDES.contains(mot)) {
+                termes.add(mot);
+            }
+        }
+        return termes;
+    }
+    
+    /**
+     * Indexe une absence. Une absence déjà indexée doit d'abord être retirée.
+     */
+    public void ajouter(long absenceId, long employeId, long typeAbsenceId, LocalDate date, String motif) {
+        int id = position(absenceId, "absence");
+        if (presents.get(id)) {
+            return;
+        }
+        reserver(id + 1);
+        
+        List<String> mots = termes(motif);
+        for (Map.Entry<String, Integer> frequence : frequences(mots).entrySet()) {
+            termes.computeIfAbsent(frequence.getKey(), t -> new Postings(false)).ajouter(id, frequence.getValue());
+        }
+        int type = position(typeAbsenceId, "type");
+        types.computeIfAbsent(type, t -> new Postings(true)).ajouter(id, 1);
+        
+        employes[id] = position(employeId, "employé");
+        jours[id] = (int) date.toEpochDay();
+        typesAbsence[id] = type;
+        longueurs[id] = (short) Math.min(mots.size(), Short.MAX_VALUE);
+        longueurTotale += longueurs[id];
+        presents.set(id);
+        entrees++;
+    }
+    
+    /**
+     * Retire une absence, avec le motif sous lequel elle a été indexée
+     * (sans effet si elle n'est pas indexée).
+     */
+    public void retirer(long absenceId, String motif) {
+        int id = position(absenceId, "absence");
+        if (!presents.get(id)) {
+            return;
+        }
+        
+        for (String terme : frequences(termes(motif)).keySet()) {
+            Postings postings = termes.get(terme);
+            if (postings != null && postings.retirer(id) && postings.getTaille() == 0) {
+                termes.remove(terme);
+            }
+        }
+        Postings parType = types.get(typesAbsence[id]);
+        if (parType != null && parType.retirer(id) && parType.getTaille() == 0) {
+            types.remove(typesAbsence[id]);
+        }
+        
+        longueurTotale -= longueurs[id];
+        presents.clear(id);
+        entrees--;
+    }
+    
+    /**
+     * Recherche les absences contenant tous les mots de la requête.
+     * 
+     * @param requete Texte saisi
+     * @param nomsTypes Nom de chaque type d'absence, par ID
+     * @param employeId Filtre employé (null = tous)
+     * @param debut Première date incluse (null = sans borne)
+     * @param fin Dernière date incluse (null = sans borne)
+     * @param offset Nombre de résultats à sauter
+     * @param limite Taille de la page
+     */
+    public Resultats rechercher(String requete, Map<Long, String> nomsTypes, Long employeId,
+                                LocalDate debut, LocalDate fin, int offset, int limite) {
+        List<String> mots = new ArrayList<>(new LinkedHashSet<>(termes(requete)));
+        if (mots.isEmpty() || entrees == 0) {
+            return new Resultats(0, Collections.emptyList());
+        }
+        
+        // Pour chaque mot, les listes qui le satisfont (termes exacts ou préfixés, types)
+        List<List<Postings>> groupes = new ArrayList<>(mots.size());
+        for (int i = 0; i < mots.size(); i++) {
+            String mot = mots.get(i);
+            boolean prefixe = i == mots.size() - 1 && mot.length() >= PREFIXE_MIN;
+            List<Postings> groupe = listes(mot, prefixe, nomsTypes);
+            if (groupe.isEmpty()) {
+                return new Resultats(0, Collections.emptyList());
+            }
+            groupes.add(groupe);
+        }
+        // Du mot le plus sélectif au plus fréquent : les intersections restent petites
+        groupes.sort(Comparator.comparingLong(RechercheIndex::tailleGroupe));
+        
+        float longueurMoyenne = Math.max(1f, (float) longueurTotale / entrees);
+        Candidats candidats = evaluer(groupes.get(0), longueurMoyenne);
+        for (int i = 1; i < groupes.size() && candidats.taille > 0; i++) {
+            candidats = intersection(candidats, evaluer(groupes.get(i), longueurMoyenne));
+        }
+        
+        return page(candidats, employeId, debut, fin, offset, limite);
+    }
+    
+    /**
+     * Vide l'index.
+     */
+    public void vider() {
+        termes.clear();
+        types.clear();
+        presents.clear();
+        employes = new int[0];
+        jours = new int[0];
+        typesAbsence = new int[0];
+        longueurs = new short[0];
+        longueurTotale = 0;
+        entrees = 0;
+    }
+    
+    /** Nombre d'absences indexées. */
+    public int getNombreEntrees() {
+        return entrees;
+    }
+    
+    /** Nombre de termes distincts. */
+    public int getNombreTermes() {
+        return termes.size();
+    }
+    
+    /**
+     * Estimation de la mémoire occupée (dictionnaire, listes d'ID et métadonnées).
+     */
+    public long getMemoireOctets() {
+        long octets = 0;
+        for (Map.Entry<String, Postings> terme : termes.entrySet()) {
+            octets += terme.getKey().length() + 40 + 40 + terme.getValue().getMemoireOctets(); // String + entrée TreeMap
+        }
+        for (Postings parType : types.values()) {
+            octets += parType.getMemoireOctets() + 48;
+        }
+        octets += employes.length * 14L + presents.size() / 8;
+        return octets;
+    }
+    
+    private List<Postings> listes(String mot, boolean prefixe, Map<Long, String> nomsTypes) {
+        List<Postings> listes = new ArrayList<>();
+        if (prefixe) {
+            listes.addAll(termes.subMap(mot, true, mot + Character.MAX_VALUE, true).values());
+        } else {
+            Postings postings = termes.get(mot);
+            if (postings != null) {
+                listes.add(postings);
+            }
+        }
+        
+        for (Map.Entry<Long, String> type : nomsTypes.entrySet()) {
+            Postings parType = types.get(type.getKey().intValue());
+            if (parType != null && contient(termes(type.getValue()), mot, prefixe)) {
+                listes.add(parType);
+            }
+        }
+        return listes;
+    }
+    
+    private static boolean contient(List<String> mots, String mot, boolean prefixe) {
+        for (String candidat : mots) {
+            if (prefixe ? candidat.startsWith(mot) : candidat.equals(mot)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static long tailleGroupe(List<Postings> groupe) {
+        long taille = 0;
+        for (Postings postings : groupe) {
+            taille += postings.getTaille();
+        }
+        return taille;
+    }
+    
+    /**
+     * Union des listes d'un mot, avec le score BM25 de chaque absence.
+     */
+    private Candidats evaluer(List<Postings> groupe, float longueurMoyenne) {
+        if (groupe.size() == 1) {
+            Postings postings = groupe.get(0);
+            int[] ids = Arrays.copyOf(postings.ids, postings.taille);
+            float[] scores = new float[postings.taille];
+            float idf = idf(postings.taille);
+            for (int k = 0; k < postings.taille; k++) {
+                scores[k] = score(postings, k, idf, longueurMoyenne);
+            }
+            return new Candidats(ids, scores, postings.taille);
+        }
+        
+        // Plusieurs listes (préfixe, types) : unions deux à deux, en arbre
+        List<Candidats> unions = new ArrayList<>(groupe.size());
+        for (Postings postings : groupe) {
+            unions.add(evaluer(Collections.singletonList(postings), longueurMoyenne));
+        }
+        while (unions.size() > 1) {
+            List<Candidats> suivantes = new ArrayList<>((unions.size() + 1) / 2);
+            for (int i = 0; i + 1 < unions.size(); i += 2) {
+                suivantes.add(union(unions.get(i), unions.get(i + 1)));
+            }
+            if (unions.size() % 2 == 1) {
+                suivantes.add(unions.get(unions.size() - 1));
+            }
+            unions = suivantes;
+        }
+        return unions.get(0);
+    }
+    
+    private float idf(int frequenceDocument) {
+        return (float) Math.log(1 + (entrees - frequenceDocument + 0.5) / (frequenceDocument + 0.5));
+    }
+    
+    private float score(Postings postings, int k, float idf, float longueurMoyenne) {
+        if (postings.parType) {
+            return idf;
+        }
+        int id = postings.ids[k];
+        float frequence = postings.frequences[k];
+        float normalisation = K1 * (1 - B + B * longueurs[id] / longueurMoyenne);
+        return idf * frequence * (K1 + 1) / (frequence + normalisation);
+    }
+    
+    private static Candidats union(Candidats a, Candidats b) {
+        int[] ids = new int[a.taille + b.taille];
+        float[] scores = new float[a.taille + b.taille];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.taille || j < b.taille) {
+            if (j == b.taille || (i < a.taille && a.ids[i] < b.ids[j])) {
+                ids[n] = a.ids[i];
+                scores[n++] = a.scores[i++];
+            } else if (i == a.taille || a.ids[i] > b.ids[j]) {
+                ids[n] = b.ids[j];
+                scores[n++] = b.scores[j++];
+            } else {
+                ids[n] = a.ids[i];
+                scores[n++] = a.scores[i++] + b.scores[j++];
+            }
+        }
+        return new Candidats(ids, scores, n);
+    }
+    
+    private static Candidats intersection(Candidats a, Candidats b) {
+        int taille = Math.min(a.taille, b.taille);
+        int[] ids = new int[taille];
+        float[] scores = new float[taille];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.taille && j < b.taille) {
+            if (a.ids[i] < b.ids[j]) {
+                i++;
+            } else if (a.ids[i] > b.ids[j]) {
+                j++;
+            } else {
+                ids[n] = a.ids[i];
+                scores[n] = a.scores[i] + b.scores[j];
+                n++;
+                i++;
+                j++;
+            }
+        }
+        return new Candidats(ids, scores, n);
+    }
+    
+    /**
+     * Applique les filtres et garde les offset + limite meilleurs résultats (tas borné).
+     */
+    private Resultats page(Candidats candidats, Long employeId, LocalDate debut, LocalDate fin, int offset, int limite) {
+        if (employeId != null && (employeId < 0 || employeId >= Integer.MAX_VALUE)) {
+            return new Resultats(0, Collections.emptyList());
+        }
+        int employe = employeId != null ? employeId.intValue() : -1;
+        long jourMin = debut != null ? debut.toEpochDay() : Long.MIN_VALUE;
+        long jourMax = fin != null ? fin.toEpochDay() : Long.MAX_VALUE;
+        int capacite = offset + limite;
+        
+        PriorityQueue<Resultat> meilleurs = new PriorityQueue<>(Math.max(1, capacite), ORDRE.reversed());
+        int total = 0;
+        for (int k = 0; k < candidats.taille; k++) {
+            int id = candidats.ids[k];
+            if ((employe >= 0 && employes[id] != employe) || jours[id] < jourMin || jours[id] > jourMax) {
+                continue;
+            }
+            total++;
+            if (capacite == 0) {
+                continue;
+            }
+            float score = candidats.scores[k];
+            if (meilleurs.size() < capacite) {
+                meilleurs.add(new Resultat(id, score));
+            } else if (score > meilleurs.peek().getScore()
+                       || (score == meilleurs.peek().getScore() && id > meilleurs.peek().getAbsenceId())) {
+                meilleurs.poll();
+                meilleurs.add(new Resultat(id, score));
+            }
+        }
+        
+        List<Resultat> tries = new ArrayList<>(meilleurs);
+        tries.sort(ORDRE);
+        List<Resultat> resultats = offset < tries.size() ? tries.subList(offset, tries.size()) : Collections.emptyList();
+        return new Resultats(total, new ArrayList<>(resultats));
+    }
+    
+    private static Map<String, Integer> frequences(Collection<String> mots) {
+        Map<String, Integer> frequences = new HashMap<>();
+        for (String mot : mots) {
+            frequences.merge(mot, 1, Integer::sum);
+        }
+        return frequences;
+    }
+    
+    private void reserver(int capacite) {
+        if (capacite <= employes.length) {
+            return;
+        }
+        int nouvelle = Math.max(capacite, employes.length + (employes.length >> 1));
+        employes = Arrays.copyOf(employes, nouvelle);
+        jours = Arrays.copyOf(jours, nouvelle);
+        typesAbsence = Arrays.copyOf(typesAbsence, nouvelle);
+        longueurs = Arrays.copyOf(longueurs, nouvelle);
+    }
+    
+    private static int position(long id, String nature) {
+        if (id < 0 || id >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("ID " + nature + " hors de l'index : " + id);
+        }
+        return (int) id;
+    }
+}
@@ -0,0 +1,59 @@
+package com.plateforme.absences.jms;
+
+import com.plateforme.absences.services.ArchivageAbsenceService;
+
+import jakarta.ejb.ActivationConfigProperty;
+import jakarta.ejb.EJB;
+import jakarta.ejb.MessageDriven;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageListener;
+import jakarta.jms.TextMessage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Message-Driven Bean qui reçoit les lots d'absences archivés par un autre nœud.
+ * 
+ * Chaque nœud s'abonne au topic "ArchivageAbsencesTopic" : le message porte
+ * les ID du lot (séparés par des virgules) ; ce nœud les retire de ses index
+ * en mémoire et de son cache (voir ArchivageAbsenceService).
+ */
+@MessageDriven(
+    activationConfig = {
+        @ActivationConfigProperty(
+            propertyName = "destinationLookup",
+            propertyValue = "java:/jms/topic/ArchivageAbsencesTopic"
+        ),
+        @ActivationConfigProperty(
+            propertyName = "destinationType",
+            propertyValue = "jakarta.jms.Topic"
+        ),
+        @ActivationConfigProperty(
+            propertyName = "subscriptionDurability",
+            propertyValue = "NonDurable"
+        )
+    }
+)
+public class ArchivageInvalidationMDB implements MessageListener {
+    
+    private static final Logger LOGGER = Logger.getLogger(ArchivageInvalidationMDB.class.getName());
+    
+    @EJB
+    private ArchivageAbsenceService archivage;
+    
+    @Override
+    public void onMessage(Message message) {
+        try {
+            List<Long> ids = new ArrayList<>();
+            for (String id : ((TextMessage) message).getText().split(",")) {
+                ids.add(Long.valueOf(id));
+            }
+            archivage.oublierDepuis(message.getStringProperty(ArchivageAbsenceService.PROPRIETE_NOEUD), ids);
+        } catch (JMSException | ClassCastException | NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "Lot archivé illisible", e);
+        }
+    }
+}
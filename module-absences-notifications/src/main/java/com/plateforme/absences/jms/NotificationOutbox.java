@@ -0,0 +1,243 @@
+package com.plateforme.absences.jms;
+
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.SessionContext;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.jms.JMSException;
+import jakarta.jms.JMSRuntimeException;
+import jakarta.persistence.PersistenceException;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * Boîte d'envoi des notifications (table notifications_outbox).
+ * 
+ * Les services écrivent leurs notifications dans la transaction de l'écriture
+ * qui les déclenche (ajouter) : elles sont validées ou annulées avec elle, et
+ * la requête n'attend jamais le broker. Après le commit, le relais vide la
+ * table vers NotificationQueue par lots de {@value #TAILLE_LOT}, dans l'ordre
+ * des ID ; une ligne n'est supprimée qu'une fois son message envoyé.
+ * 
+ * Livraison au moins une fois : un lot dont l'envoi ou la suppression échoue
+ * est renvoyé en entier au passage suivant (toutes les 10 secondes, et à chaque
+ * commit). Les lots sont pris sous verrou (FOR UPDATE) : un seul relais à la
+ * fois, même sur plusieurs nœuds, ce qui garde l'ordre par destinataire
+ * jusqu'à la queue (voir NotificationProducer.transmettre).
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class NotificationOutbox {
+    
+    private static final Logger LOGGER = Logger.getLogger(NotificationOutbox.class.getName());
+    
+    /** Nombre de notifications envoyées par transaction. */
+    static final int TAILLE_LOT = 500;
+    
+    private static final String INSERT_NOTIFICATION =
+        "INSERT INTO notifications_outbox (destinataire_id, expediteur_id, type, sujet, message, reference_id, "
+      + "type_reference, date_creation) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String SELECTION_LOT =
+        "SELECT id, destinataire_id, expediteur_id, type, sujet, message, reference_id, type_reference "
+      + "FROM notifications_outbox ORDER BY id LIMIT ? FOR UPDATE";
+    
+    // Même DataSource que absencesPU : les notifications participent à la transaction JTA de l'écriture
+    @Resource(lookup = "java:/gestion_rh_jeeDS")
+    private DataSource dataSource;
+    
+    @Resource
+    private TransactionSynchronizationRegistry registre;
+    
+    @Resource
+    private SessionContext sessionContext;
+    
+    @Resource
+    private ManagedExecutorService executor;
+    
+    @EJB
+    private NotificationProducer notificationProducer;
+    
+    private final AtomicBoolean enCours = new AtomicBoolean();
+    
+    // Demande de passage arrivée pendant un passage en cours
+    private final AtomicBoolean aRelancer = new AtomicBoolean();
+    
+    // ========================================
+    // ÉCRITURE (transaction de l'appelant)
+    // ========================================
+    
+    /**
+     * Enregistre des notifications dans la transaction courante ; elles seront
+     * envoyées après son commit.
+     */
+    @TransactionAttribute(TransactionAttributeType.MANDATORY)
+    public void ajouter(List<NotificationEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        LocalDateTime maintenant = LocalDateTime.now();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(INSERT_NOTIFICATION)) {
+            for (NotificationEvent event : events) {
+                ps.setLong(1, event.getDestinataireId());
+                ps.setObject(2, event.getExpediteurId(), Types.BIGINT);
+                ps.setString(3, event.getType());
+                ps.setString(4, event.getSujet());
+                ps.setString(5, event.getMessage());
+                ps.setObject(6, event.getReferenceId(), Types.BIGINT);
+                ps.setString(7, event.getTypeReference());
+                ps.setObject(8, maintenant);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            throw new PersistenceException("Erreur lors de l'écriture des notifications à envoyer", e);
+        }
+        relayerApresCommit();
+    }
+    
+    @TransactionAttribute(TransactionAttributeType.MANDATORY)
+    public void ajouter(NotificationEvent event) {
+        ajouter(Collections.singletonList(event));
+    }
+    
+    /**
+     * Lance un passage du relais après le commit de la transaction courante (une fois par transaction).
+     */
+    private void relayerApresCommit() {
+        if (registre.getResource(NotificationOutbox.class) != null) {
+            return;
+        }
+        registre.putResource(NotificationOutbox.class, Boolean.TRUE);
+        NotificationOutbox self = sessionContext.getBusinessObject(NotificationOutbox.class);
+        registre.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+            
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    executor.submit(self::relayer);
+                }
+            }
+        });
+    }
+    
+    // ========================================
+    // RELAIS
+    // ========================================
+    
+    /**
+     * Rattrapage : notifications laissées par un envoi en échec, un arrêt du serveur ou un autre nœud.
+     */
+    @Schedule(hour = "*", minute = "*", second = "*/10", persistent = false)
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void relayerEnAttente() {
+        relayer();
+    }
+    
+    /**
+     * Vide la boîte d'envoi lot par lot. Sans effet si un passage est déjà en
+     * cours : celui-ci enchaîne un nouveau passage à la fin.
+     * 
+     * @return Nombre de notifications envoyées
+     */
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public long relayer() {
+        aRelancer.set(true);
+        long total = 0;
+        // La demande est relue après avoir rendu la main : aucune n'est perdue entre deux passages
+        while (aRelancer.get() && enCours.compareAndSet(false, true)) {
+            try {
+                aRelancer.set(false);
+                NotificationOutbox self = sessionContext.getBusinessObject(NotificationOutbox.class);
+                int envoyees;
+                do {
+                    envoyees = self.relayerLot();
+                    total += envoyees;
+                } while (envoyees == TAILLE_LOT);
+            } catch (RuntimeException e) {
+                LOGGER.warning("Relais des notifications interrompu (nouvel essai au prochain passage) : "
+                               + e.getMessage());
+                return total;
+            } finally {
+                enCours.set(false);
+            }
+        }
+        if (total > 0) {
+            LOGGER.info(total + " notification(s) relayée(s) vers NotificationQueue");
+        }
+        return total;
+    }
+    
+    /**
+     * Envoie puis supprime les plus anciennes notifications en attente, dans une transaction dédiée.
+     * 
+     * @return Nombre de notifications envoyées
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public int relayerLot() {
+        try (Connection connection = dataSource.getConnection()) {
+            List<Long> ids = new ArrayList<>(TAILLE_LOT);
+            List<NotificationEvent> events = new ArrayList<>(TAILLE_LOT);
+            try (PreparedStatement selection = connection.prepareStatement(SELECTION_LOT)) {
+                selection.setInt(1, TAILLE_LOT);
+                try (ResultSet rs = selection.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getLong(1));
+                        NotificationEvent event = new NotificationEvent();
+                        event.setDestinataireId(rs.getLong(2));
+                        event.setExpediteurId(rs.getObject(3, Long.class));
+                        event.setType(rs.getString(4));
+                        event.setSujet(rs.getString(5));
+                        event.setMessage(rs.getString(6));
+                        event.setReferenceId(rs.getObject(7, Long.class));
+                        event.setTypeReference(rs.getString(8));
+                        events.add(event);
+                    }
+                }
+            }
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            
+            notificationProducer.transmettre(events);
+            
+            try (PreparedStatement suppression = connection.prepareStatement(
+                    "DELETE FROM notifications_outbox WHERE id IN ("
+                    + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")")) {
+                for (int i = 0; i < ids.size(); i++) {
+                    suppression.setLong(i + 1, ids.get(i));
+                }
+                suppression.executeUpdate();
+            }
+            return ids.size();
+        } catch (SQLException e) {
+            throw new PersistenceException("Erreur lors de la lecture de la boîte d'envoi des notifications", e);
+        } catch (JMSException e) {
+            throw new JMSRuntimeException("Envoi des notifications impossible : " + e.getMessage(),
+                                          e.getErrorCode(), e);
+        }
+    }
+}
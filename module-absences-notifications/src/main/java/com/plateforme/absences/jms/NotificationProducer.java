@@ -1,72 +1,99 @@
 package com.plateforme.absences.jms;
 
 import jakarta.annotation.Resource;
+import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
+import com.plateforme.absences.dto.AbsenceDTO;
+
 import jakarta.jms.*;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Service pour envoyer des messages JMS vers la queue de notifications.
  * 
- * Utilisé pour déclencher l'envoi asynchrone de notifications.
+ * Seul le relais de NotificationOutbox envoie (transmettre), après le commit
+ * des écritures : aucune requête n'envoie de message JMS dans sa transaction.
+ * Les services construisent les événements (evenementAbsence, evenementStatut)
+ * et les déposent dans la boîte d'envoi.
+ * 
+ * Les anciennes méthodes envoyerNotification* restent pour les appelants
+ * existants : elles déposent désormais l'événement dans la boîte d'envoi
+ * (transaction de l'appelant, ou une nouvelle transaction à défaut).
  */
 @Stateless
 public class NotificationProducer {
     
-    private static final Logger LOGGER = Logger.getLogger(NotificationProducer.class.getName());
-    
     @Resource(lookup = "java:/ConnectionFactory")
     private ConnectionFactory connectionFactory;
     
     @Resource(lookup = "java:/jms/queue/NotificationQueue")
     private Queue notificationQueue;
     
+    @EJB
+    private NotificationOutbox notificationOutbox;
+    
     /**
-     * Envoie un événement de notification dans la queue JMS.
+     * Dépose un événement de notification dans la boîte d'envoi.
      * 
      * @param event L'événement à envoyer
+     * @deprecated utiliser NotificationOutbox.ajouter dans la transaction de l'écriture
      */
+    @Deprecated
     public void envoyerNotification(NotificationEvent event) {
-        LOGGER.info("Envoi d'un événement JMS : " + event);
-        
-        Connection connection = null;
-        Session session = null;
-        
-        try {
-            // Créer la connexion JMS
-            connection = connectionFactory.createConnection();
-            session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
-            
-            // Créer le producer
+        envoyerNotifications(Collections.singletonList(event));
+    }
+    
+    /**
+     * Dépose plusieurs événements dans la boîte d'envoi.
+     * 
+     * @param events Les événements à envoyer
+     * @deprecated utiliser NotificationOutbox.ajouter dans la transaction de l'écriture
+     */
+    @Deprecated
+    public void envoyerNotifications(List<NotificationEvent> events) {
+        notificationOutbox.ajouter(events);
+    }
+    
+    /**
+     * Envoie des événements dans l'ordre de la liste, en propageant les erreurs
+     * (utilisé par NotificationOutbox, qui réessaie le lot).
+     * 
+     * Chaque message porte le groupe JMSXGroupID de son destinataire : la queue
+     * délivre les messages d'un même destinataire à un seul consommateur, dans
+     * l'ordre d'envoi.
+     * 
+     * @throws JMSException si un envoi échoue (les messages précédents sont partis)
+     */
+    public void transmettre(List<NotificationEvent> events) throws JMSException {
+        try (Connection connection = connectionFactory.createConnection();
+             Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE)) {
             MessageProducer producer = session.createProducer(notificationQueue);
-            
-            // Créer le message
-            ObjectMessage message = session.createObjectMessage(event);
-            
-            // Envoyer le message
-            producer.send(message);
-            
-            LOGGER.info("Événement JMS envoyé avec succès");
-            
-        } catch (JMSException e) {
-            LOGGER.log(Level.SEVERE, "Erreur lors de l'envoi du message JMS", e);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (session != null) session.close();
-                if (connection != null) connection.close();
-            } catch (JMSException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources JMS", e);
+            for (NotificationEvent event : events) {
+                ObjectMessage message = session.createObjectMessage(event);
+                message.setStringProperty("JMSXGroupID", "destinataire-" + event.getDestinataireId());
+                producer.send(message);
             }
         }
     }
     
     /**
      * Envoie une notification d'absence enregistrée.
+     * 
+     * @deprecated utiliser evenementAbsence et NotificationOutbox.ajouter
      */
+    @Deprecated
     public void envoyerNotificationAbsence(Long employeId, Long managerId, Long absenceId, 
                                            String typeAbsence, String dateAbsence) {
+        envoyerNotification(evenementAbsence(employeId, managerId, absenceId, typeAbsence, dateAbsence));
+    }
+    
+    /**
+     * Construit l'événement "absence enregistrée" (utilisé aussi pour les envois groupés).
+     */
+    public static NotificationEvent evenementAbsence(Long employeId, Long managerId, Long absenceId, 
+                                                     String typeAbsence, String dateAbsence) {
         NotificationEvent event = new NotificationEvent();
         event.setDestinataireId(employeId);
         event.setExpediteurId(managerId);
@@ -76,13 +103,49 @@ public class NotificationProducer {
                                        typeAbsence, dateAbsence));
         event.setReferenceId(absenceId);
         event.setTypeReference("ABSENCE");
+        return event;
+    }
+    
+    /**
+     * Construit l'événement "absence(s) validée(s) / rejetée(s)" pour un employé
+     * (une seule notification pour toutes ses absences traitées ensemble).
+     * 
+     * @param statut "VALIDE" ou "REJETE"
+     */
+    public static NotificationEvent evenementStatut(Long employeId, Long managerId, List<AbsenceDTO> absences,
+                                                    String statut) {
+        boolean valide = "VALIDE".equals(statut);
+        AbsenceDTO premiere = absences.get(0);
         
-        envoyerNotification(event);
+        NotificationEvent event = new NotificationEvent();
+        event.setDestinataireId(employeId);
+        event.setExpediteurId(managerId);
+        event.setType("ABSENCE");
+        if (absences.size() == 1) {
+            event.setSujet(valide ? "Absence validée" : "Absence rejetée");
+            event.setMessage(String.format("Votre absence (%s) du %s a été %s.",
+                                           premiere.getTypeAbsenceNom(), premiere.getDateAbsence(),
+                                           valide ? "validée" : "rejetée"));
+        } else {
+            List<String> dates = new ArrayList<>(absences.size());
+            for (AbsenceDTO absence : absences) {
+                dates.add(absence.getDateAbsence().toString());
+            }
+            event.setSujet(valide ? "Absences validées" : "Absences rejetées");
+            event.setMessage(String.format("%d de vos absences ont été %s : %s.", absences.size(),
+                                           valide ? "validées" : "rejetées", String.join(", ", dates)));
+        }
+        event.setReferenceId(premiere.getId());
+        event.setTypeReference("ABSENCE");
+        return event;
     }
     
     /**
      * Envoie une notification de congé approuvé.
+     * 
+     * @deprecated déposer l'événement par NotificationOutbox.ajouter
      */
+    @Deprecated
     public void envoyerNotificationCongeApprouve(Long employeId, Long managerId, 
                                                  Long congeId, String periode) {
         NotificationEvent event = new NotificationEvent();
@@ -99,7 +162,10 @@ public class NotificationProducer {
     
     /**
      * Envoie une notification de congé rejeté.
+     * 
+     * @deprecated déposer l'événement par NotificationOutbox.ajouter
      */
+    @Deprecated
     public void envoyerNotificationCongeRejete(Long employeId, Long managerId, 
                                                Long congeId, String periode, String raison) {
         NotificationEvent event = new NotificationEvent();
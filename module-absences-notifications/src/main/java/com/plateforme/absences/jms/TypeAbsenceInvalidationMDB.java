@@ -0,0 +1,52 @@
+package com.plateforme.absences.jms;
+
+import com.plateforme.absences.services.TypeAbsenceService;
+
+import jakarta.ejb.ActivationConfigProperty;
+import jakarta.ejb.EJB;
+import jakarta.ejb.MessageDriven;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageListener;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Message-Driven Bean qui reçoit les invalidations de l'instantané des types d'absence.
+ * 
+ * Chaque nœud s'abonne au topic "TypesAbsenceTopic" : quand un type est créé,
+ * modifié ou supprimé sur un nœud, les autres rechargent leur instantané à la
+ * lecture suivante (voir TypeAbsenceService).
+ */
+@MessageDriven(
+    activationConfig = {
+        @ActivationConfigProperty(
+            propertyName = "destinationLookup",
+            propertyValue = "java:/jms/topic/TypesAbsenceTopic"
+        ),
+        @ActivationConfigProperty(
+            propertyName = "destinationType",
+            propertyValue = "jakarta.jms.Topic"
+        ),
+        @ActivationConfigProperty(
+            propertyName = "subscriptionDurability",
+            propertyValue = "NonDurable"
+        )
+    }
+)
+public class TypeAbsenceInvalidationMDB implements MessageListener {
+    
+    private static final Logger LOGGER = Logger.getLogger(TypeAbsenceInvalidationMDB.class.getName());
+    
+    @EJB
+    private TypeAbsenceService typeAbsenceService;
+    
+    @Override
+    public void onMessage(Message message) {
+        try {
+            typeAbsenceService.invaliderDepuis(message.getStringProperty(TypeAbsenceService.PROPRIETE_NOEUD));
+        } catch (JMSException e) {
+            LOGGER.log(Level.WARNING, "Invalidation des types d'absence illisible", e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.plateforme.absences.rest;
+
+import com.plateforme.absences.dto.AbsenceDTO;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Export CSV des absences (UTF-8, séparateur ';'), écrit ligne par ligne.
+ */
+final class AbsenceCsvWriter implements AbsenceExportWriter {
+    
+    private static final char SEPARATEUR = ';';
+    
+    private final Writer writer;
+    
+    AbsenceCsvWriter(OutputStream output) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(String.join(String.valueOf(SEPARATEUR), COLONNES));
+        writer.write("\r\n");
+    }
+    
+    @Override
+    public void ecrire(AbsenceDTO dto) {
+        try {
+            champ(dto.getEmployeId());
+            champ(dto.getTypeAbsenceNom());
+            champ(dto.getDateAbsence());
+            champ(dto.getHeureDebut());
+            champ(dto.getHeureFin());
+            champ(dto.getDureeHeures() != null ? dto.getDureeHeures().toPlainString() : null);
+            champ(dto.getMotif());
+            champ(dto.getJustifiee());
+            champ(dto.getStatut());
+            writer.write(dto.getId() != null ? dto.getId().toString() : "");
+            writer.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private void champ(Object valeur) throws IOException {
+        if (valeur != null) {
+            String texte = valeur.toString();
+            if (texte.indexOf(SEPARATEUR) >= 0 || texte.indexOf('"') >= 0
+                    || texte.indexOf('\n') >= 0 || texte.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(texte.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(texte);
+            }
+        }
+        writer.write(SEPARATEUR);
+    }
+    
+    @Override
+    public void terminer() throws IOException {
+        writer.flush();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,32 @@
+package com.plateforme.absences.rest;
+
+import com.plateforme.absences.dto.AbsenceDTO;
+import java.io.IOException;
+
+/**
+ * Écriture incrémentale d'un export d'absences (une ligne par absence).
+ */
+interface AbsenceExportWriter extends AutoCloseable {
+    
+    /**
+     * Colonnes de l'export paie. Les 7 premières reprennent l'ordre du fichier
+     * d'import : un export peut être réimporté tel quel.
+     */
+    String[] COLONNES = {
+        "employeId", "typeAbsence", "dateAbsence", "heureDebut", "heureFin", "dureeHeures",
+        "motif", "justifiee", "statut", "absenceId"
+    };
+    
+    /**
+     * Écrit une absence.
+     */
+    void ecrire(AbsenceDTO dto);
+    
+    /**
+     * Termine le document (à appeler une fois toutes les lignes écrites).
+     */
+    void terminer() throws IOException;
+    
+    @Override
+    void close() throws IOException;
+}
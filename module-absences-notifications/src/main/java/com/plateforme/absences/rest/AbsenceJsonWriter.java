@@ -0,0 +1,84 @@
+package com.plateforme.absences.rest;
+
+import com.plateforme.absences.dto.AbsenceDTO;
+
+import jakarta.json.Json;
+import jakarta.json.stream.JsonGenerator;
+import java.io.OutputStream;
+
+/**
+ * Écriture incrémentale d'une réponse ApiResponse contenant une liste d'absences.
+ * 
+ * Produit le même JSON que ApiResponse&lt;List&lt;AbsenceDTO&gt;&gt;, mais ligne par
+ * ligne, sans construire la liste en mémoire.
+ */
+final class AbsenceJsonWriter implements AutoCloseable {
+    
+    private final JsonGenerator json;
+
+    AbsenceJsonWriter(OutputStream output, String message) {
+        this.json = Json.createGenerator(output);
+        json.writeStartObject()
+            .write("success", true)
+            .write("message", message)
+            .writeStartArray("data");
+    }
+    
+    /**
+     * Écrit une absence dans le tableau "data".
+     */
+    void ecrire(AbsenceDTO dto) {
+        json.writeStartObject();
+        ecrire("id", dto.getId());
+        ecrire("employeId", dto.getEmployeId());
+        ecrire("typeAbsenceId", dto.getTypeAbsenceId());
+        ecrire("typeAbsenceNom", dto.getTypeAbsenceNom());
+        ecrire("dateAbsence", dto.getDateAbsence());
+        ecrire("heureDebut", dto.getHeureDebut());
+        ecrire("heureFin", dto.getHeureFin());
+        if (dto.getDureeHeures() != null) {
+            json.write("dureeHeures", dto.getDureeHeures());
+        } else {
+            json.writeNull("dureeHeures");
+        }
+        ecrire("motif", dto.getMotif());
+        if (dto.getJustifiee() != null) {
+            json.write("justifiee", dto.getJustifiee());
+        } else {
+            json.writeNull("justifiee");
+        }
+        ecrire("documentJustificatif", dto.getDocumentJustificatif());
+        ecrire("enregistrePar", dto.getEnregistrePar());
+        ecrire("statut", dto.getStatut());
+        ecrire("dateCreation", dto.getDateCreation());
+        json.writeEnd();
+    }
+    
+    private void ecrire(String nom, Long valeur) {
+        if (valeur != null) {
+            json.write(nom, valeur);
+        } else {
+            json.writeNull(nom);
+        }
+    }
+    
+    private void ecrire(String nom, Object valeur) {
+        if (valeur != null) {
+            json.write(nom, valeur.toString());
+        } else {
+            json.writeNull(nom);
+        }
+    }
+    
+    /**
+     * Termine le tableau "data" et l'objet racine.
+     */
+    void terminer() {
+        json.writeEnd().writeEnd();
+    }
+    
+    @Override
+    public void close() {
+        json.close();
+    }
+}
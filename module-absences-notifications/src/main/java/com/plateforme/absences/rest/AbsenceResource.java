@@ -1,24 +1,44 @@
 package com.plateforme.absences.rest;
 
+import com.plateforme.absences.documents.DocumentRefuseException;
+import com.plateforme.absences.documents.DocumentStocke;
+import com.plateforme.absences.documents.DocumentStore;
+import com.plateforme.absences.dto.AbsenceCursor;
 import com.plateforme.absences.dto.AbsenceDTO;
 import com.plateforme.absences.dto.ApiResponse;
+import com.plateforme.absences.dto.PageDTO;
+import com.plateforme.absences.dto.ResultatLigneDTO;
 import com.plateforme.absences.entities.Absence;
 import com.plateforme.absences.entities.TypeAbsence;
+import com.plateforme.absences.index.ChevauchementException;
 import com.plateforme.absences.services.AbsenceService;
+import com.plateforme.absences.services.AbsenceVerrouilleeException;
+import com.plateforme.absences.services.PeriodeArchiveeException;
+import com.plateforme.absences.services.RevisionService;
 import com.plateforme.absences.services.TypeAbsenceService;
 
 import jakarta.ejb.EJB;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityPart;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 /**
  * API REST pour gérer les absences.
@@ -29,10 +49,22 @@ import java.util.stream.Collectors;
  * - GET    /api/absences/employe/{id}       → Absences d'un employé
  * - GET    /api/absences/periode            → Absences sur une période
  * - GET    /api/absences/non-justifiees     → Absences non justifiées
+ * - GET    /api/absences/stream             → Toutes les absences, écrites en flux
+ * - GET    /api/absences/periode/stream     → Absences sur une période, écrites en flux
  * - POST   /api/absences                    → Créer une absence
+ * - POST   /api/absences/batch              → Créer un lot d'absences
+ * - POST   /api/absences/statut             → Valider ou rejeter un lot d'absences en attente
  * - PUT    /api/absences/{id}               → Modifier une absence
- * - PUT    /api/absences/{id}/justifier     → Justifier une absence
+ * - PUT    /api/absences/{id}/justifier     → Justifier une absence (chemin JSON, ou document téléversé)
  * - DELETE /api/absences/{id}               → Supprimer une absence
+ * 
+ * Les listes acceptent ?limit=N&cursor=... : la réponse contient alors une
+ * page (items, nextCursor) lue par clé sur (date_absence, id), sans OFFSET.
+ * Elles portent un ETag (RevisionService) : If-None-Match → 304 sans requête.
+ * 
+ * Les requêtes sont suspendues puis traitées par ExecuteurRequetes (thread
+ * virtuel, concurrence bornée) : droits, paramètres et If-None-Match sont
+ * vérifiés avant, sur le thread de la requête.
  */
 @Path("/absences")
 @Produces(MediaType.APPLICATION_JSON)
@@ -41,43 +73,80 @@ public class AbsenceResource {
     
     private static final Logger LOGGER = Logger.getLogger(AbsenceResource.class.getName());
     
+    private static final int LIMITE_PAR_DEFAUT = 50;
+    private static final int LIMITE_MAX = 500;
+    private static final int TAILLE_LOT_MAX = 10000;
+    private static final int TAILLE_STATUT_MAX = 1000;
+    
     @Context
     private SecurityContext securityContext;
-
+    
+    @Context
+    private Request request;
+    
     @EJB
     private AbsenceService absenceService;
     
+    @EJB
+    private RevisionService revisions;
+    
     @EJB
     private TypeAbsenceService typeAbsenceService;
     
+    @EJB
+    private DocumentStore documentStore;
+    
+    @EJB
+    private ExecuteurRequetes executeur;
+    
     /**
-     * GET /api/absences
-     * Liste toutes les absences.
+     * GET /api/absences?limit=50&cursor=...
+     * Liste toutes les absences (paginées si limit ou cursor est fourni).
      */
     @GET
-    public Response findAll() {
+    public void findAll(
+            @Suspended AsyncResponse reponse,
+            @QueryParam("cursor") String cursor,
+            @QueryParam("limit") Integer limit) {
         LOGGER.info("GET /api/absences");
-
+        
         if (!securityContext.isUserInRole("MANAGER") && !securityContext.isUserInRole("ADMIN")) {
-            return Response.status(Response.Status.FORBIDDEN)
+            reponse.resume(Response.status(Response.Status.FORBIDDEN)
                            .entity(ApiResponse.error("Accès refusé : Droits Manager/Admin requis"))
-                           .build();
+                           .build());
+            return;
         }
         
-        try {
-            List<Absence> absences = absenceService.findAll();
-            List<AbsenceDTO> dtos = absences.stream()
-                .map(AbsenceDTO::new)
-                .collect(Collectors.toList());
-            
-            return Response.ok(ApiResponse.success("Absences récupérées", dtos)).build();
-            
-        } catch (Exception e) {
-            LOGGER.severe("Erreur : " + e.getMessage());
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                .entity(ApiResponse.error("Erreur serveur"))
-                .build();
+        EntityTag etag = Revisions.etag(revisions.jeton(RevisionService.TYPES_ABSENCE, RevisionService.ABSENCES));
+        Response nonModifie = Revisions.nonModifie(request, etag);
+        if (nonModifie != null) {
+            reponse.resume(nonModifie);
+            return;
         }
+        
+        executeur.executer(reponse, () -> {
+            try {
+                if (estPagine(cursor, limit)) {
+                    int limite = limite(limit);
+                    List<AbsenceDTO> absences = absenceService.findAll(AbsenceCursor.decode(cursor), limite + 1);
+                    return page(absences, limite, "Absences récupérées", etag);
+                }
+                
+                List<AbsenceDTO> dtos = absenceService.findAllDTO();
+                
+                return Revisions.ok(ApiResponse.success("Absences récupérées", dtos), etag);
+                
+            } catch (IllegalArgumentException e) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error(e.getMessage()))
+                    .build();
+            } catch (Exception e) {
+                LOGGER.severe("Erreur : " + e.getMessage());
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ApiResponse.error("Erreur serveur"))
+                    .build();
+            }
+        });
     }
     
     /**
@@ -86,131 +155,280 @@ public class AbsenceResource {
      */
     @GET
     @Path("/{id}")
-    public Response findById(@PathParam("id") Long id) {
+    public void findById(@Suspended AsyncResponse reponse, @PathParam("id") Long id) {
         LOGGER.info("GET /api/absences/" + id);
         
-        try {
-            Absence absence = absenceService.findById(id);
-            
-            if (absence == null) {
-                return Response.status(Response.Status.NOT_FOUND)
-                    .entity(ApiResponse.error("Absence non trouvée"))
+        executeur.executer(reponse, () -> {
+            try {
+                Absence absence = absenceService.findById(id);
+                
+                if (absence == null) {
+                    return Response.status(Response.Status.NOT_FOUND)
+                        .entity(ApiResponse.error("Absence non trouvée"))
+                        .build();
+                }
+                
+                return Response.ok(ApiResponse.success("Absence trouvée", new AbsenceDTO(absence))).build();
+                
+            } catch (Exception e) {
+                LOGGER.severe("Erreur : " + e.getMessage());
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ApiResponse.error("Erreur serveur"))
                     .build();
             }
-            
-            return Response.ok(ApiResponse.success("Absence trouvée", new AbsenceDTO(absence))).build();
-            
-        } catch (Exception e) {
-            LOGGER.severe("Erreur : " + e.getMessage());
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                .entity(ApiResponse.error("Erreur serveur"))
-                .build();
-        }
+        });
     }
     
     /**
-     * GET /api/absences/employe/{employeId}
-     * Récupère les absences d'un employé.
+     * GET /api/absences/employe/{employeId}?limit=50&cursor=...&archive=true
+     * Récupère les absences d'un employé (archive=true : absences archivées comprises).
      */
     @GET
     @Path("/employe/{employeId}")
-    public Response findByEmploye(@PathParam("employeId") Long employeId) {
+    public void findByEmploye(
+            @Suspended AsyncResponse reponse,
+            @PathParam("employeId") Long employeId,
+            @QueryParam("cursor") String cursor,
+            @QueryParam("limit") Integer limit,
+            @QueryParam("archive") boolean archive) {
         LOGGER.info("GET /api/absences/employe/" + employeId);
         
-        try {
-            List<Absence> absences = absenceService.findByEmploye(employeId);
-            List<AbsenceDTO> dtos = absences.stream()
-                .map(AbsenceDTO::new)
-                .collect(Collectors.toList());
-            
-            return Response.ok(ApiResponse.success("Absences récupérées", dtos)).build();
-            
-        } catch (Exception e) {
-            LOGGER.severe("Erreur : " + e.getMessage());
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                .entity(ApiResponse.error("Erreur serveur"))
-                .build();
+        EntityTag etag = Revisions.etag(revisions.jeton(RevisionService.TYPES_ABSENCE, RevisionService.absencesEmploye(employeId)));
+        Response nonModifie = Revisions.nonModifie(request, etag);
+        if (nonModifie != null) {
+            reponse.resume(nonModifie);
+            return;
         }
+        
+        executeur.executer(reponse, () -> {
+            try {
+                if (estPagine(cursor, limit)) {
+                    int limite = limite(limit);
+                    List<AbsenceDTO> absences = absenceService.findByEmploye(employeId, AbsenceCursor.decode(cursor), limite + 1, archive);
+                    return page(absences, limite, "Absences récupérées", etag);
+                }
+                
+                List<AbsenceDTO> dtos = absenceService.findByEmployeDTO(employeId, archive);
+                
+                return Revisions.ok(ApiResponse.success("Absences récupérées", dtos), etag);
+                
+            } catch (IllegalArgumentException e) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error(e.getMessage()))
+                    .build();
+            } catch (Exception e) {
+                LOGGER.severe("Erreur : " + e.getMessage());
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ApiResponse.error("Erreur serveur"))
+                    .build();
+            }
+        });
     }
     
     /**
-     * GET /api/absences/periode?debut=2026-01-01&fin=2026-12-31
+     * GET /api/absences/periode?debut=2026-01-01&fin=2026-12-31&limit=50&cursor=...
      * Récupère les absences sur une période.
      */
     @GET
     @Path("/periode")
-    public Response findByPeriode(
+    public void findByPeriode(
+            @Suspended AsyncResponse reponse,
             @QueryParam("debut") String debutStr,
-            @QueryParam("fin") String finStr) {
+            @QueryParam("fin") String finStr,
+            @QueryParam("cursor") String cursor,
+            @QueryParam("limit") Integer limit) {
         
         LOGGER.info("GET /api/absences/periode?debut=" + debutStr + "&fin=" + finStr);
-
+        
         if (!securityContext.isUserInRole("MANAGER") && !securityContext.isUserInRole("ADMIN")) {
-            return Response.status(Response.Status.FORBIDDEN)
+            reponse.resume(Response.status(Response.Status.FORBIDDEN)
                            .entity(ApiResponse.error("Accès refusé : Droits Manager/Admin requis"))
-                           .build();
+                           .build());
+            return;
         }
         
+        // Validation des paramètres
+        if (debutStr == null || finStr == null) {
+            reponse.resume(Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error("Les paramètres debut et fin sont obligatoires"))
+                .build());
+            return;
+        }
+        
+        // Conversion des dates
+        LocalDate debut;
+        LocalDate fin;
         try {
-            // Validation des paramètres
-            if (debutStr == null || finStr == null) {
+            debut = LocalDate.parse(debutStr);
+            fin = LocalDate.parse(finStr);
+        } catch (DateTimeParseException e) {
+            reponse.resume(Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error("Format de date invalide (utiliser YYYY-MM-DD)"))
+                .build());
+            return;
+        }
+        
+        EntityTag etag = Revisions.etag(revisions.jeton(RevisionService.TYPES_ABSENCE, RevisionService.ABSENCES));
+        Response nonModifie = Revisions.nonModifie(request, etag);
+        if (nonModifie != null) {
+            reponse.resume(nonModifie);
+            return;
+        }
+        
+        executeur.executer(reponse, () -> {
+            try {
+                if (estPagine(cursor, limit)) {
+                    int limite = limite(limit);
+                    List<AbsenceDTO> absences = absenceService.findByPeriode(debut, fin, AbsenceCursor.decode(cursor), limite + 1);
+                    return page(absences, limite, "Absences récupérées", etag);
+                }
+                
+                List<AbsenceDTO> dtos = absenceService.findByPeriodeDTO(debut, fin);
+                
+                return Revisions.ok(ApiResponse.success("Absences récupérées", dtos), etag);
+                
+            } catch (IllegalArgumentException e) {
                 return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(ApiResponse.error("Les paramètres debut et fin sont obligatoires"))
+                    .entity(ApiResponse.error(e.getMessage()))
+                    .build();
+            } catch (Exception e) {
+                LOGGER.severe("Erreur : " + e.getMessage());
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ApiResponse.error("Erreur serveur"))
                     .build();
             }
-            
-            // Conversion des dates
-            LocalDate debut = LocalDate.parse(debutStr);
-            LocalDate fin = LocalDate.parse(finStr);
-            
-            List<Absence> absences = absenceService.findByPeriode(debut, fin);
-            List<AbsenceDTO> dtos = absences.stream()
-                .map(AbsenceDTO::new)
-                .collect(Collectors.toList());
-            
-            return Response.ok(ApiResponse.success("Absences récupérées", dtos)).build();
-            
+        });
+    }
+    
+    /**
+     * GET /api/absences/stream
+     * Liste toutes les absences en écrivant chaque ligne dès sa lecture.
+     * 
+     * Même format que GET /api/absences, mais la mémoire utilisée ne dépend
+     * pas du nombre d'absences.
+     */
+    @GET
+    @Path("/stream")
+    public void streamAll(@Suspended AsyncResponse reponse) {
+        LOGGER.info("GET /api/absences/stream");
+        
+        if (!securityContext.isUserInRole("MANAGER") && !securityContext.isUserInRole("ADMIN")) {
+            reponse.resume(Response.status(Response.Status.FORBIDDEN)
+                           .entity(ApiResponse.error("Accès refusé : Droits Manager/Admin requis"))
+                           .build());
+            return;
+        }
+        
+        executeur.executer(reponse, () -> {
+            StreamingOutput flux = output -> {
+                try (AbsenceJsonWriter writer = new AbsenceJsonWriter(output, "Absences récupérées")) {
+                    absenceService.parcourirTout(writer::ecrire);
+                    writer.terminer();
+                }
+            };
+            return Response.ok(flux).build();
+        });
+    }
+    
+    /**
+     * GET /api/absences/periode/stream?debut=2026-01-01&fin=2026-12-31
+     * Récupère les absences d'une période en les écrivant au fil de la lecture.
+     */
+    @GET
+    @Path("/periode/stream")
+    public void streamByPeriode(
+            @Suspended AsyncResponse reponse,
+            @QueryParam("debut") String debutStr,
+            @QueryParam("fin") String finStr) {
+        
+        LOGGER.info("GET /api/absences/periode/stream?debut=" + debutStr + "&fin=" + finStr);
+        
+        if (!securityContext.isUserInRole("MANAGER") && !securityContext.isUserInRole("ADMIN")) {
+            reponse.resume(Response.status(Response.Status.FORBIDDEN)
+                           .entity(ApiResponse.error("Accès refusé : Droits Manager/Admin requis"))
+                           .build());
+            return;
+        }
+        
+        if (debutStr == null || finStr == null) {
+            reponse.resume(Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error("Les paramètres debut et fin sont obligatoires"))
+                .build());
+            return;
+        }
+        
+        LocalDate debut;
+        LocalDate fin;
+        try {
+            debut = LocalDate.parse(debutStr);
+            fin = LocalDate.parse(finStr);
         } catch (DateTimeParseException e) {
-            return Response.status(Response.Status.BAD_REQUEST)
+            reponse.resume(Response.status(Response.Status.BAD_REQUEST)
                 .entity(ApiResponse.error("Format de date invalide (utiliser YYYY-MM-DD)"))
-                .build();
-        } catch (Exception e) {
-            LOGGER.severe("Erreur : " + e.getMessage());
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                .entity(ApiResponse.error("Erreur serveur"))
-                .build();
+                .build());
+            return;
         }
+        
+        executeur.executer(reponse, () -> {
+            StreamingOutput flux = output -> {
+                try (AbsenceJsonWriter writer = new AbsenceJsonWriter(output, "Absences récupérées")) {
+                    absenceService.parcourirPeriode(debut, fin, writer::ecrire);
+                    writer.terminer();
+                }
+            };
+            return Response.ok(flux).build();
+        });
     }
     
     /**
-     * GET /api/absences/non-justifiees
+     * GET /api/absences/non-justifiees?limit=50&cursor=...
      * Récupère les absences non justifiées.
      */
     @GET
     @Path("/non-justifiees")
-    public Response findNonJustifiees() {
+    public void findNonJustifiees(
+            @Suspended AsyncResponse reponse,
+            @QueryParam("cursor") String cursor,
+            @QueryParam("limit") Integer limit) {
         LOGGER.info("GET /api/absences/non-justifiees");
-
+        
         if (!securityContext.isUserInRole("MANAGER") && !securityContext.isUserInRole("ADMIN")) {
-            return Response.status(Response.Status.FORBIDDEN)
+            reponse.resume(Response.status(Response.Status.FORBIDDEN)
                            .entity(ApiResponse.error("Accès refusé : Droits Manager/Admin requis"))
-                           .build();
+                           .build());
+            return;
         }
         
-        try {
-            List<Absence> absences = absenceService.findNonJustifiees();
-            List<AbsenceDTO> dtos = absences.stream()
-                .map(AbsenceDTO::new)
-                .collect(Collectors.toList());
-            
-            return Response.ok(ApiResponse.success("Absences non justifiées", dtos)).build();
-            
-        } catch (Exception e) {
-            LOGGER.severe("Erreur : " + e.getMessage());
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                .entity(ApiResponse.error("Erreur serveur"))
-                .build();
+        EntityTag etag = Revisions.etag(revisions.jeton(RevisionService.TYPES_ABSENCE, RevisionService.ABSENCES));
+        Response nonModifie = Revisions.nonModifie(request, etag);
+        if (nonModifie != null) {
+            reponse.resume(nonModifie);
+            return;
         }
+        
+        executeur.executer(reponse, () -> {
+            try {
+                if (estPagine(cursor, limit)) {
+                    int limite = limite(limit);
+                    List<AbsenceDTO> absences = absenceService.findNonJustifiees(AbsenceCursor.decode(cursor), limite + 1);
+                    return page(absences, limite, "Absences non justifiées", etag);
+                }
+                
+                List<AbsenceDTO> dtos = absenceService.findNonJustifieesDTO();
+                
+                return Revisions.ok(ApiResponse.success("Absences non justifiées", dtos), etag);
+                
+            } catch (IllegalArgumentException e) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error(e.getMessage()))
+                    .build();
+            } catch (Exception e) {
+                LOGGER.severe("Erreur : " + e.getMessage());
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ApiResponse.error("Erreur serveur"))
+                    .build();
+            }
+        });
     }
     
     /**
@@ -230,64 +448,281 @@ public class AbsenceResource {
      * }
      */
     @POST
-    public Response create(AbsenceDTO dto) {
+    public void create(@Suspended AsyncResponse reponse, AbsenceDTO dto) {
         LOGGER.info("POST /api/absences");
         
-        try {
-            // Validation
-            if (dto.getEmployeId() == null) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(ApiResponse.error("L'ID de l'employé est obligatoire"))
+        executeur.executer(reponse, () -> {
+            try {
+                // Validation
+                if (dto.getEmployeId() == null) {
+                    return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(ApiResponse.error("L'ID de l'employé est obligatoire"))
+                        .build();
+                }
+                
+                if (dto.getTypeAbsenceId() == null) {
+                    return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(ApiResponse.error("Le type d'absence est obligatoire"))
+                        .build();
+                }
+                
+                if (dto.getDateAbsence() == null) {
+                    return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(ApiResponse.error("La date d'absence est obligatoire"))
+                        .build();
+                }
+                
+                // Récupérer le type d'absence
+                TypeAbsence typeAbsence = typeAbsenceService.findById(dto.getTypeAbsenceId());
+                if (typeAbsence == null) {
+                    return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(ApiResponse.error("Type d'absence invalide"))
+                        .build();
+                }
+                
+                // Créer l'entité Absence
+                Absence absence = nouvelleAbsence(dto, typeAbsence);
+                
+                // Sauvegarder (envoie aussi une notification JMS)
+                absence = absenceService.create(absence);
+                
+                return Response.status(Response.Status.CREATED)
+                    .entity(ApiResponse.success("Absence créée avec succès", new AbsenceDTO(absence)))
                     .build();
-            }
-            
-            if (dto.getTypeAbsenceId() == null) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(ApiResponse.error("Le type d'absence est obligatoire"))
+                
+            } catch (ChevauchementException | PeriodeArchiveeException e) {
+                return Response.status(Response.Status.CONFLICT)
+                    .entity(ApiResponse.error(e.getMessage()))
+                    .build();
+            } catch (Exception e) {
+                LOGGER.severe("Erreur : " + e.getMessage());
+                e.printStackTrace();
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ApiResponse.error("Erreur serveur : " + e.getMessage()))
                     .build();
             }
-            
-            if (dto.getDateAbsence() == null) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(ApiResponse.error("La date d'absence est obligatoire"))
+        });
+    }
+    
+    /**
+     * POST /api/absences/batch
+     * Crée un lot d'absences (ex : journée de grève, fermeture de site).
+     * 
+     * Body JSON : tableau d'absences au même format que POST /api/absences.
+     * Les lignes invalides sont rejetées individuellement ; les autres sont
+     * créées. La réponse donne le résultat de chaque ligne (index dans le tableau).
+     */
+    @POST
+    @Path("/batch")
+    public void createBatch(@Suspended AsyncResponse reponse, List<AbsenceDTO> dtos) {
+        LOGGER.info("POST /api/absences/batch");
+        
+        executeur.executer(reponse, () -> {
+            try {
+                if (dtos == null || dtos.isEmpty()) {
+                    return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(ApiResponse.error("Le lot d'absences est vide"))
+                        .build();
+                }
+                
+                if (dtos.size() > TAILLE_LOT_MAX) {
+                    return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(ApiResponse.error("Un lot ne peut pas dépasser " + TAILLE_LOT_MAX + " absences"))
+                        .build();
+                }
+                
+                // Récupérer tous les types d'absence du lot en une requête
+                Set<Long> typeIds = new HashSet<>();
+                for (AbsenceDTO dto : dtos) {
+                    if (dto != null && dto.getTypeAbsenceId() != null) {
+                        typeIds.add(dto.getTypeAbsenceId());
+                    }
+                }
+                Map<Long, TypeAbsence> types = typeAbsenceService.findByIds(typeIds);
+                
+                // Valider chaque ligne
+                ResultatLigneDTO[] resultats = new ResultatLigneDTO[dtos.size()];
+                List<Absence> aCreer = new ArrayList<>();
+                List<Integer> indexACreer = new ArrayList<>();
+                
+                for (int i = 0; i < dtos.size(); i++) {
+                    AbsenceDTO dto = dtos.get(i);
+                    String erreur = validerLigne(dto, types);
+                    if (erreur != null) {
+                        resultats[i] = ResultatLigneDTO.erreur(i, erreur);
+                        continue;
+                    }
+                    aCreer.add(nouvelleAbsence(dto, types.get(dto.getTypeAbsenceId())));
+                    indexACreer.add(i);
+                }
+                
+                // Écarter les lignes qui chevauchent une absence existante ou une autre ligne, ou déjà archivées
+                Map<Integer, String> chevauchements = absenceService.verifierChevauchements(aCreer);
+                if (!chevauchements.isEmpty()) {
+                    List<Absence> sansChevauchement = new ArrayList<>();
+                    List<Integer> indexSansChevauchement = new ArrayList<>();
+                    for (int k = 0; k < aCreer.size(); k++) {
+                        String erreur = chevauchements.get(k);
+                        if (erreur != null) {
+                            resultats[indexACreer.get(k)] = ResultatLigneDTO.erreur(indexACreer.get(k), erreur);
+                        } else {
+                            sansChevauchement.add(aCreer.get(k));
+                            indexSansChevauchement.add(indexACreer.get(k));
+                        }
+                    }
+                    aCreer = sansChevauchement;
+                    indexACreer = indexSansChevauchement;
+                }
+                
+                // Insérer en lot (envoie aussi les notifications JMS en un seul envoi)
+                List<Absence> creees = absenceService.createBatch(aCreer);
+                for (int k = 0; k < creees.size(); k++) {
+                    int i = indexACreer.get(k);
+                    resultats[i] = ResultatLigneDTO.succes(i, creees.get(k).getId());
+                }
+                
+                String message = creees.size() + " absence(s) créée(s), "
+                               + (dtos.size() - creees.size()) + " rejetée(s)";
+                return Response.status(Response.Status.CREATED)
+                    .entity(ApiResponse.success(message, List.of(resultats)))
+                    .build();
+                
+            } catch (ChevauchementException | PeriodeArchiveeException e) {
+                return Response.status(Response.Status.CONFLICT)
+                    .entity(ApiResponse.error(e.getMessage()))
+                    .build();
+            } catch (Exception e) {
+                LOGGER.severe("Erreur : " + e.getMessage());
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ApiResponse.error("Erreur serveur : " + e.getMessage()))
                     .build();
             }
-            
-            // Récupérer le type d'absence
-            TypeAbsence typeAbsence = typeAbsenceService.findById(dto.getTypeAbsenceId());
-            if (typeAbsence == null) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(ApiResponse.error("Type d'absence invalide"))
+        });
+    }
+    
+    /**
+     * POST /api/absences/statut
+     * Valide ou rejette un lot d'absences en attente (un seul UPDATE).
+     * 
+     * Body JSON :
+     * {
+     *   "ids": [12, 13, 27],
+     *   "statut": "VALIDE"        (ou "REJETE")
+     * }
+     * 
+     * La réponse donne le résultat de chaque ID (index dans le tableau). Une absence
+     * déjà au statut demandé compte comme un succès ; un manager ne peut pas
+     * traiter ses propres absences.
+     */
+    @POST
+    @Path("/statut")
+    public void changerStatut(@Suspended AsyncResponse reponse, StatutRequest demande) {
+        LOGGER.info("POST /api/absences/statut");
+        
+        boolean admin = securityContext.isUserInRole("ADMIN");
+        if (!securityContext.isUserInRole("MANAGER") && !admin) {
+            reponse.resume(Response.status(Response.Status.FORBIDDEN)
+                           .entity(ApiResponse.error("Accès refusé : Droits Manager/Admin requis"))
+                           .build());
+            return;
+        }
+        
+        Long validateurId = utilisateurConnecte();
+        
+        executeur.executer(reponse, () -> {
+            try {
+                if (demande == null || demande.getIds() == null || demande.getIds().isEmpty()) {
+                    return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(ApiResponse.error("La liste des IDs est obligatoire"))
+                        .build();
+                }
+                
+                if (demande.getIds().size() > TAILLE_STATUT_MAX) {
+                    return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(ApiResponse.error("Un lot ne peut pas dépasser " + TAILLE_STATUT_MAX + " absences"))
+                        .build();
+                }
+                
+                if (!AbsenceService.STATUTS_DECISION.contains(demande.getStatut())) {
+                    return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(ApiResponse.error("Statut invalide (utiliser VALIDE ou REJETE)"))
+                        .build();
+                }
+                
+                List<Long> ids = demande.getIds();
+                if (ids.contains(null)) {
+                    return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(ApiResponse.error("La liste des IDs ne doit pas contenir de valeur vide"))
+                        .build();
+                }
+                
+                Map<Long, String> refus = absenceService.changerStatut(ids, demande.getStatut(), validateurId, admin);
+                
+                List<ResultatLigneDTO> resultats = new ArrayList<>(ids.size());
+                int refusees = 0;
+                for (int i = 0; i < ids.size(); i++) {
+                    String erreur = refus.get(ids.get(i));
+                    if (erreur == null) {
+                        resultats.add(ResultatLigneDTO.succes(i, ids.get(i)));
+                    } else {
+                        resultats.add(new ResultatLigneDTO(i, false, ids.get(i), erreur));
+                        refusees++;
+                    }
+                }
+                
+                String message = (ids.size() - refusees) + " absence(s) au statut " + demande.getStatut()
+                               + ", " + refusees + " refusée(s)";
+                return Response.ok(ApiResponse.success(message, resultats)).build();
+                
+            } catch (Exception e) {
+                LOGGER.severe("Erreur : " + e.getMessage());
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ApiResponse.error("Erreur serveur"))
                     .build();
             }
-            
-            // Créer l'entité Absence
-            Absence absence = new Absence();
-            absence.setEmployeId(dto.getEmployeId());
-            absence.setTypeAbsence(typeAbsence);
-            absence.setDateAbsence(dto.getDateAbsence());
-            absence.setHeureDebut(dto.getHeureDebut());
-            absence.setHeureFin(dto.getHeureFin());
-            absence.setDureeHeures(dto.getDureeHeures() != null ? dto.getDureeHeures() : BigDecimal.valueOf(8.0));
-            absence.setMotif(dto.getMotif());
-            absence.setJustifiee(dto.getJustifiee() != null ? dto.getJustifiee() : false);
-            absence.setStatut(dto.getStatut() != null ? dto.getStatut() : "EN_ATTENTE");
-            absence.setEnregistrePar(dto.getEnregistrePar());
-            
-            // Sauvegarder (envoie aussi une notification JMS)
-            absence = absenceService.create(absence);
-            
-            return Response.status(Response.Status.CREATED)
-                .entity(ApiResponse.success("Absence créée avec succès", new AbsenceDTO(absence)))
-                .build();
-            
-        } catch (Exception e) {
-            LOGGER.severe("Erreur : " + e.getMessage());
-            e.printStackTrace();
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                .entity(ApiResponse.error("Erreur serveur : " + e.getMessage()))
-                .build();
+        });
+    }
+    
+    /**
+     * Vérifie une ligne d'un lot.
+     * 
+     * @return Le message d'erreur, ou null si la ligne est valide
+     */
+    private String validerLigne(AbsenceDTO dto, Map<Long, TypeAbsence> types) {
+        if (dto == null) {
+            return "Ligne vide";
+        }
+        if (dto.getEmployeId() == null) {
+            return "L'ID de l'employé est obligatoire";
+        }
+        if (dto.getTypeAbsenceId() == null) {
+            return "Le type d'absence est obligatoire";
+        }
+        if (dto.getDateAbsence() == null) {
+            return "La date d'absence est obligatoire";
         }
+        if (!types.containsKey(dto.getTypeAbsenceId())) {
+            return "Type d'absence invalide";
+        }
+        return null;
+    }
+    
+    /**
+     * Construit l'entité à créer à partir d'un DTO validé (valeurs par défaut incluses).
+     */
+    private Absence nouvelleAbsence(AbsenceDTO dto, TypeAbsence typeAbsence) {
+        Absence absence = new Absence();
+        absence.setEmployeId(dto.getEmployeId());
+        absence.setTypeAbsence(typeAbsence);
+        absence.setDateAbsence(dto.getDateAbsence());
+        absence.setHeureDebut(dto.getHeureDebut());
+        absence.setHeureFin(dto.getHeureFin());
+        absence.setDureeHeures(dto.getDureeHeures() != null ? dto.getDureeHeures() : BigDecimal.valueOf(8.0));
+        absence.setMotif(dto.getMotif());
+        absence.setJustifiee(dto.getJustifiee() != null ? dto.getJustifiee() : false);
+        absence.setStatut(dto.getStatut() != null ? dto.getStatut() : "EN_ATTENTE");
+        absence.setEnregistrePar(dto.getEnregistrePar());
+        return absence;
     }
     
     /**
@@ -296,61 +731,67 @@ public class AbsenceResource {
      */
     @PUT
     @Path("/{id}")
-    public Response update(@PathParam("id") Long id, AbsenceDTO dto) {
+    public void update(@Suspended AsyncResponse reponse, @PathParam("id") Long id, AbsenceDTO dto) {
         LOGGER.info("PUT /api/absences/" + id);
         
-        try {
-            Absence absence = absenceService.findById(id);
-            
-            if (absence == null) {
-                return Response.status(Response.Status.NOT_FOUND)
-                    .entity(ApiResponse.error("Absence non trouvée"))
-                    .build();
-            }
-            
-            // Mettre à jour les champs modifiables
-            if (dto.getTypeAbsenceId() != null) {
-                TypeAbsence typeAbsence = typeAbsenceService.findById(dto.getTypeAbsenceId());
-                if (typeAbsence != null) {
-                    absence.setTypeAbsence(typeAbsence);
+        executeur.executer(reponse, () -> {
+            try {
+                Absence absence = absenceService.findById(id);
+                
+                if (absence == null) {
+                    return Response.status(Response.Status.NOT_FOUND)
+                        .entity(ApiResponse.error("Absence non trouvée"))
+                        .build();
                 }
+                
+                // Mettre à jour les champs modifiables
+                if (dto.getTypeAbsenceId() != null) {
+                    TypeAbsence typeAbsence = typeAbsenceService.findById(dto.getTypeAbsenceId());
+                    if (typeAbsence != null) {
+                        absence.setTypeAbsence(typeAbsence);
+                    }
+                }
+                
+                if (dto.getDateAbsence() != null) {
+                    absence.setDateAbsence(dto.getDateAbsence());
+                }
+                
+                if (dto.getHeureDebut() != null) {
+                    absence.setHeureDebut(dto.getHeureDebut());
+                }
+                
+                if (dto.getHeureFin() != null) {
+                    absence.setHeureFin(dto.getHeureFin());
+                }
+                
+                if (dto.getDureeHeures() != null) {
+                    absence.setDureeHeures(dto.getDureeHeures());
+                }
+                
+                if (dto.getMotif() != null) {
+                    absence.setMotif(dto.getMotif());
+                }
+                
+                if (dto.getJustifiee() != null) {
+                    absence.setJustifiee(dto.getJustifiee());
+                }
+                
+                // Sauvegarder
+                absence = absenceService.update(absence);
+                
+                return Response.ok(ApiResponse.success("Absence modifiée", new AbsenceDTO(absence))).build();
+                
+            } catch (ChevauchementException | PeriodeArchiveeException | AbsenceVerrouilleeException e) {
+                return Response.status(Response.Status.CONFLICT)
+                    .entity(ApiResponse.error(e.getMessage()))
+                    .build();
+            } catch (Exception e) {
+                LOGGER.severe("Erreur : " + e.getMessage());
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ApiResponse.error("Erreur serveur"))
+                    .build();
             }
-            
-            if (dto.getDateAbsence() != null) {
-                absence.setDateAbsence(dto.getDateAbsence());
-            }
-            
-            if (dto.getHeureDebut() != null) {
-                absence.setHeureDebut(dto.getHeureDebut());
-            }
-            
-            if (dto.getHeureFin() != null) {
-                absence.setHeureFin(dto.getHeureFin());
-            }
-            
-            if (dto.getDureeHeures() != null) {
-                absence.setDureeHeures(dto.getDureeHeures());
-            }
-            
-            if (dto.getMotif() != null) {
-                absence.setMotif(dto.getMotif());
-            }
-            
-            if (dto.getJustifiee() != null) {
-                absence.setJustifiee(dto.getJustifiee());
-            }
-            
-            // Sauvegarder
-            absence = absenceService.update(absence);
-            
-            return Response.ok(ApiResponse.success("Absence modifiée", new AbsenceDTO(absence))).build();
-            
-        } catch (Exception e) {
-            LOGGER.severe("Erreur : " + e.getMessage());
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                .entity(ApiResponse.error("Erreur serveur"))
-                .build();
-        }
+        });
     }
     
     /**
@@ -364,17 +805,82 @@ public class AbsenceResource {
      */
     @PUT
     @Path("/{id}/justifier")
-    public Response justifier(@PathParam("id") Long id, JustificationRequest request) {
+    public void justifier(@Suspended AsyncResponse reponse, @PathParam("id") Long id, JustificationRequest request) {
         LOGGER.info("PUT /api/absences/" + id + "/justifier");
         
+        executeur.executer(reponse, () -> {
+            try {
+                if (request.getDocumentPath() == null || request.getDocumentPath().trim().isEmpty()) {
+                    return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(ApiResponse.error("Le chemin du document est obligatoire"))
+                        .build();
+                }
+                
+                Absence absence = absenceService.justifier(id, request.getDocumentPath());
+                
+                if (absence == null) {
+                    return Response.status(Response.Status.NOT_FOUND)
+                        .entity(ApiResponse.error("Absence non trouvée"))
+                        .build();
+                }
+                
+                return Response.ok(ApiResponse.success("Absence justifiée", new AbsenceDTO(absence))).build();
+                
+            } catch (AbsenceVerrouilleeException e) {
+                return Response.status(Response.Status.CONFLICT)
+                    .entity(ApiResponse.error(e.getMessage()))
+                    .build();
+            } catch (Exception e) {
+                LOGGER.severe("Erreur : " + e.getMessage());
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ApiResponse.error("Erreur serveur"))
+                    .build();
+            }
+        });
+    }
+    
+    /**
+     * PUT /api/absences/{id}/justifier (multipart/form-data, champ "document")
+     * Justifie une absence en téléversant le document (PDF, JPEG ou PNG).
+     */
+    @PUT
+    @Path("/{id}/justifier")
+    @Consumes(MediaType.MULTIPART_FORM_DATA)
+    public void justifierAvecFormulaire(@Suspended AsyncResponse reponse, @PathParam("id") Long id, @FormParam("document") EntityPart document) {
+        LOGGER.info("PUT /api/absences/" + id + "/justifier (formulaire)");
+        
+        if (document == null) {
+            reponse.resume(Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error("Le champ document est obligatoire"))
+                .build());
+            return;
+        }
+        executeur.executer(reponse, () -> justifierAvecDocument(id, document.getContent()));
+    }
+    
+    /**
+     * PUT /api/absences/{id}/justifier (corps binaire : application/pdf, image/jpeg, image/png)
+     * Même traitement, le document étant le corps de la requête (lu en flux, sans découpage multipart).
+     */
+    @PUT
+    @Path("/{id}/justifier")
+    @Consumes({"application/pdf", "image/jpeg", "image/png", MediaType.APPLICATION_OCTET_STREAM})
+    public void justifierAvecFichier(@Suspended AsyncResponse reponse, @PathParam("id") Long id, InputStream contenu) {
+        LOGGER.info("PUT /api/absences/" + id + "/justifier (fichier)");
+        executeur.executer(reponse, () -> justifierAvecDocument(id, contenu));
+    }
+    
+    private Response justifierAvecDocument(Long id, InputStream contenu) {
         try {
-            if (request.getDocumentPath() == null || request.getDocumentPath().trim().isEmpty()) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(ApiResponse.error("Le chemin du document est obligatoire"))
+            // Vérifier l'absence avant de recevoir le document
+            if (absenceService.findById(id) == null) {
+                return Response.status(Response.Status.NOT_FOUND)
+                    .entity(ApiResponse.error("Absence non trouvée"))
                     .build();
             }
             
-            Absence absence = absenceService.justifier(id, request.getDocumentPath());
+            DocumentStocke document = documentStore.enregistrer(contenu);
+            Absence absence = absenceService.justifier(id, document.getReference());
             
             if (absence == null) {
                 return Response.status(Response.Status.NOT_FOUND)
@@ -384,6 +890,20 @@ public class AbsenceResource {
             
             return Response.ok(ApiResponse.success("Absence justifiée", new AbsenceDTO(absence))).build();
             
+        } catch (AbsenceVerrouilleeException e) {
+            return Response.status(Response.Status.CONFLICT)
+                .entity(ApiResponse.error(e.getMessage()))
+                .build();
+        } catch (DocumentRefuseException e) {
+            Response.Status statut = Response.Status.BAD_REQUEST;
+            if (e.getMotif() == DocumentRefuseException.Motif.TROP_VOLUMINEUX) {
+                statut = Response.Status.REQUEST_ENTITY_TOO_LARGE;
+            } else if (e.getMotif() == DocumentRefuseException.Motif.TYPE_NON_AUTORISE) {
+                statut = Response.Status.UNSUPPORTED_MEDIA_TYPE;
+            }
+            return Response.status(statut)
+                .entity(ApiResponse.error(e.getMessage()))
+                .build();
         } catch (Exception e) {
             LOGGER.severe("Erreur : " + e.getMessage());
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
@@ -398,27 +918,83 @@ public class AbsenceResource {
      */
     @DELETE
     @Path("/{id}")
-    public Response delete(@PathParam("id") Long id) {
+    public void delete(@Suspended AsyncResponse reponse, @PathParam("id") Long id) {
         LOGGER.info("DELETE /api/absences/" + id);
         
-        try {
-            Absence absence = absenceService.findById(id);
-            
-            if (absence == null) {
-                return Response.status(Response.Status.NOT_FOUND)
-                    .entity(ApiResponse.error("Absence non trouvée"))
+        executeur.executer(reponse, () -> {
+            try {
+                Absence absence = absenceService.findById(id);
+                
+                if (absence == null) {
+                    return Response.status(Response.Status.NOT_FOUND)
+                        .entity(ApiResponse.error("Absence non trouvée"))
+                        .build();
+                }
+                
+                absenceService.delete(id);
+                
+                return Response.ok(ApiResponse.success("Absence supprimée")).build();
+                
+            } catch (AbsenceVerrouilleeException e) {
+                return Response.status(Response.Status.CONFLICT)
+                    .entity(ApiResponse.error(e.getMessage()))
+                    .build();
+            } catch (Exception e) {
+                LOGGER.severe("Erreur : " + e.getMessage());
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ApiResponse.error("Erreur serveur"))
                     .build();
             }
-            
-            absenceService.delete(id);
-            
-            return Response.ok(ApiResponse.success("Absence supprimée")).build();
-            
-        } catch (Exception e) {
-            LOGGER.severe("Erreur : " + e.getMessage());
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                .entity(ApiResponse.error("Erreur serveur"))
-                .build();
+        });
+    }
+    
+    // ========================================
+    // PAGINATION
+    // ========================================
+    
+    /**
+     * La pagination est activée dès que limit ou cursor est fourni.
+     */
+    private boolean estPagine(String cursor, Integer limit) {
+        return cursor != null || limit != null;
+    }
+    
+    /**
+     * Valide la taille de page demandée.
+     */
+    private int limite(Integer limit) {
+        if (limit == null) {
+            return LIMITE_PAR_DEFAUT;
+        }
+        if (limit < 1 || limit > LIMITE_MAX) {
+            throw new IllegalArgumentException("Le paramètre limit doit être compris entre 1 et " + LIMITE_MAX);
+        }
+        return limit;
+    }
+    
+    /**
+     * Construit la réponse paginée à partir de limite + 1 lignes lues :
+     * la ligne supplémentaire indique seulement qu'une page suivante existe.
+     */
+    private Response page(List<AbsenceDTO> absences, int limite, String message, EntityTag etag) {
+        boolean suite = absences.size() > limite;
+        List<AbsenceDTO> dtos = suite ? absences.subList(0, limite) : absences;
+        String nextCursor = suite ? AbsenceCursor.of(dtos.get(dtos.size() - 1)).encode() : null;
+        
+        return Revisions.ok(ApiResponse.success(message, new PageDTO<>(dtos, nextCursor, limite)), etag);
+    }
+    
+    /**
+     * ID de l'utilisateur connecté (le nom du principal), ou null s'il n'est pas numérique.
+     */
+    private Long utilisateurConnecte() {
+        if (securityContext.getUserPrincipal() == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(securityContext.getUserPrincipal().getName());
+        } catch (NumberFormatException e) {
+            return null;
         }
     }
     
@@ -439,4 +1015,31 @@ public class AbsenceResource {
             this.documentPath = documentPath;
         }
     }
+    
+    /**
+     * Classe interne pour la requête de changement de statut en lot.
+     */
+    public static class StatutRequest {
+        private List<Long> ids;
+        private String statut;
+        
+        public StatutRequest() {
+        }
+        
+        public List<Long> getIds() {
+            return ids;
+        }
+        
+        public void setIds(List<Long> ids) {
+            this.ids = ids;
+        }
+        
+        public String getStatut() {
+            return statut;
+        }
+        
+        public void setStatut(String statut) {
+            this.statut = statut;
+        }
+    }
 }
@@ -0,0 +1,146 @@
+package com.plateforme.absences.rest;
+
+import com.plateforme.absences.dto.AbsenceDTO;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Export XLSX des absences, écrit ligne par ligne sans bibliothèque tierce.
+ * 
+ * Le classeur ne contient qu'une feuille ; les textes y sont écrits en
+ * "inline strings" (pas de table de chaînes partagées à garder en mémoire)
+ * et les dates/heures en texte ISO. L'archive est compressée au fil de l'eau.
+ */
+final class AbsenceXlsxWriter implements AbsenceExportWriter {
+    
+    private static final String CONTENT_TYPES =
+        "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+      + "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+      + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+      + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+      + "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+      + "<Override PartName=\"/xl/worksheets/sheet1.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>"
+      + "</Types>";
+    
+    private static final String RELATIONS =
+        "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+      + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+      + "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" Target=\"xl/workbook.xml\"/>"
+      + "</Relationships>";
+    
+    private static final String CLASSEUR =
+        "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+      + "<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" "
+      + "xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">"
+      + "<sheets><sheet name=\"Absences\" sheetId=\"1\" r:id=\"rId1\"/></sheets>"
+      + "</workbook>";
+    
+    private static final String RELATIONS_CLASSEUR =
+        "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+      + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+      + "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"worksheets/sheet1.xml\"/>"
+      + "</Relationships>";
+    
+    private final ZipOutputStream zip;
+    private final Writer feuille;
+    
+    AbsenceXlsxWriter(OutputStream output) throws IOException {
+        this.zip = new ZipOutputStream(output, StandardCharsets.UTF_8);
+        entree("[Content_Types].xml", CONTENT_TYPES);
+        entree("_rels/.rels", RELATIONS);
+        entree("xl/workbook.xml", CLASSEUR);
+        entree("xl/_rels/workbook.xml.rels", RELATIONS_CLASSEUR);
+        
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+        this.feuille = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), 64 * 1024);
+        feuille.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                    + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>");
+        feuille.write("<row>");
+        for (String colonne : COLONNES) {
+            texte(colonne);
+        }
+        feuille.write("</row>");
+    }
+    
+    @Override
+    public void ecrire(AbsenceDTO dto) {
+        try {
+            feuille.write("<row>");
+            nombre(dto.getEmployeId());
+            texte(dto.getTypeAbsenceNom());
+            texte(dto.getDateAbsence());
+            texte(dto.getHeureDebut());
+            texte(dto.getHeureFin());
+            nombre(dto.getDureeHeures() != null ? dto.getDureeHeures().toPlainString() : null);
+            texte(dto.getMotif());
+            texte(dto.getJustifiee());
+            texte(dto.getStatut());
+            nombre(dto.getId());
+            feuille.write("</row>");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private void nombre(Object valeur) throws IOException {
+        if (valeur == null) {
+            feuille.write("<c/>");
+        } else {
+            feuille.write("<c><v>");
+            feuille.write(valeur.toString());
+            feuille.write("</v></c>");
+        }
+    }
+    
+    private void texte(Object valeur) throws IOException {
+        if (valeur == null) {
+            feuille.write("<c/>");
+            return;
+        }
+        feuille.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+        String texte = valeur.toString();
+        for (int i = 0; i < texte.length(); i++) {
+            char c = texte.charAt(i);
+            switch (c) {
+                case '&' -> feuille.write("&amp;");
+                case '<' -> feuille.write("&lt;");
+                case '>' -> feuille.write("&gt;");
+                case '"' -> feuille.write("&quot;");
+                default -> {
+                    // Caractères de contrôle interdits en XML 1.0
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        feuille.write(c);
+                    }
+                }
+            }
+        }
+        feuille.write("</t></is></c>");
+    }
+    
+    private void entree(String nom, String contenu) throws IOException {
+        zip.putNextEntry(new ZipEntry(nom));
+        zip.write(contenu.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+    
+    @Override
+    public void terminer() throws IOException {
+        feuille.write("</sheetData></worksheet>");
+        feuille.flush();
+        zip.closeEntry();
+        zip.finish();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        zip.close();
+    }
+}
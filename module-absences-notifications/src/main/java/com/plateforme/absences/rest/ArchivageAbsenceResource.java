@@ -0,0 +1,102 @@
+package com.plateforme.absences.rest;
+
+import com.plateforme.absences.dto.ApiResponse;
+import com.plateforme.absences.services.ArchivageAbsenceService;
+
+import jakarta.ejb.EJB;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.logging.Logger;
+
+/**
+ * API REST de l'archivage des absences anciennes (ADMIN).
+ * 
+ * Endpoints :
+ * - GET  /api/absences/archivage                     → Borne d'archivage (dernière date archivée)
+ * - POST /api/absences/archivage?avant=YYYY-MM-DD    → Archive les absences closes antérieures à la date
+ * 
+ * L'archivage s'exécute aussi chaque nuit (absences closes de plus de 2 ans).
+ */
+@Path("/absences/archivage")
+@Produces(MediaType.APPLICATION_JSON)
+public class ArchivageAbsenceResource {
+    
+    private static final Logger LOGGER = Logger.getLogger(ArchivageAbsenceResource.class.getName());
+    
+    @Context
+    private SecurityContext securityContext;
+    
+    @EJB
+    private ArchivageAbsenceService archivageService;
+    
+    /**
+     * GET /api/absences/archivage
+     */
+    @GET
+    public Response borne() {
+        LOGGER.info("GET /api/absences/archivage");
+
+        if (!securityContext.isUserInRole("ADMIN")) {
+            return Response.status(Response.Status.FORBIDDEN)
+                           .entity(ApiResponse.error("Accès refusé : Droits Admin requis"))
+                           .build();
+        }
+        
+        LocalDate borne = archivageService.getBorne();
+        return Response.ok(ApiResponse.success(borne != null ? "Absences archivées jusqu'au " + borne : "Archive vide",
+                                               borne)).build();
+    }
+    
+    /**
+     * POST /api/absences/archivage?avant=2024-01-01
+     */
+    @POST
+    public Response archiver(@QueryParam("avant") String avantStr) {
+        LOGGER.info("POST /api/absences/archivage?avant=" + avantStr);
+
+        if (!securityContext.isUserInRole("ADMIN")) {
+            return Response.status(Response.Status.FORBIDDEN)
+                           .entity(ApiResponse.error("Accès refusé : Droits Admin requis"))
+                           .build();
+        }
+        
+        try {
+            if (avantStr == null) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error("Le paramètre avant est obligatoire"))
+                    .build();
+            }
+            
+            LocalDate avant = LocalDate.parse(avantStr);
+            if (avant.isAfter(LocalDate.now().withDayOfYear(1))) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error("Seules les années civiles terminées peuvent être archivées"))
+                    .build();
+            }
+            
+            if (archivageService.estEnCours()) {
+                return Response.status(Response.Status.CONFLICT)
+                    .entity(ApiResponse.error("Un archivage est déjà en cours"))
+                    .build();
+            }
+            
+            long archivees = archivageService.archiver(avant);
+            return Response.ok(ApiResponse.success(archivees + " absence(s) archivée(s)", archivees)).build();
+            
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error("Format de date invalide (utiliser YYYY-MM-DD)"))
+                .build();
+        } catch (Exception e) {
+            LOGGER.severe("Erreur : " + e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(ApiResponse.error("Erreur serveur"))
+                .build();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.plateforme.absences.rest;
+
+import com.plateforme.absences.dto.ApiResponse;
+import com.plateforme.absences.dto.StatistiquesCacheDTO;
+import com.plateforme.absences.services.StatistiquesCacheService;
+
+import jakarta.ejb.EJB;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
+import java.util.logging.Logger;
+
+/**
+ * API REST d'observation du cache de second niveau (absences et types d'absence).
+ * 
+ * Endpoints :
+ * - GET /api/absences/cache → Succès, défauts et ajouts par région et pour le cache des requêtes
+ */
+@Path("/absences/cache")
+@Produces(MediaType.APPLICATION_JSON)
+public class CacheResource {
+    
+    private static final Logger LOGGER = Logger.getLogger(CacheResource.class.getName());
+    
+    @Context
+    private SecurityContext securityContext;
+    
+    @EJB
+    private StatistiquesCacheService statistiquesCache;
+    
+    /**
+     * GET /api/absences/cache
+     */
+    @GET
+    public Response statistiques() {
+        LOGGER.info("GET /api/absences/cache");
+
+        if (!securityContext.isUserInRole("ADMIN")) {
+            return Response.status(Response.Status.FORBIDDEN)
+                           .entity(ApiResponse.error("Accès refusé : Droits Admin requis"))
+                           .build();
+        }
+        
+        try {
+            StatistiquesCacheDTO stats = statistiquesCache.statistiques();
+            return Response.ok(ApiResponse.success("Statistiques du cache de second niveau", stats)).build();
+            
+        } catch (Exception e) {
+            LOGGER.severe("Erreur lecture statistiques du cache : " + e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(ApiResponse.error("Erreur serveur"))
+                .build();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.plateforme.absences.rest;
+
+import com.plateforme.absences.dto.ApiResponse;
+import com.plateforme.absences.index.CalendrierAbsenceService;
+
+import jakarta.ejb.EJB;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * API REST du calendrier des absences (servi depuis l'index en mémoire).
+ * 
+ * Endpoints :
+ * - GET /api/absences/calendrier/jour?date=         → Employés absents un jour donné
+ * - GET /api/absences/calendrier/periode?debut=&fin= → Employés absents sur une période
+ * - GET /api/absences/calendrier/equipe?debut=&fin=&employeIds=1,2,3&seuil=2
+ *                                                    → Jours où plusieurs membres de l'équipe sont absents
+ * - GET /api/absences/calendrier/index              → Taille et mémoire de l'index
+ */
+@Path("/absences/calendrier")
+@Produces(MediaType.APPLICATION_JSON)
+public class CalendrierAbsenceResource {
+    
+    private static final Logger LOGGER = Logger.getLogger(CalendrierAbsenceResource.class.getName());
+    
+    @Context
+    private SecurityContext securityContext;
+    
+    @EJB
+    private CalendrierAbsenceService calendrierService;
+    
+    /**
+     * GET /api/absences/calendrier/jour?date=2026-02-12
+     */
+    @GET
+    @Path("/jour")
+    public Response absentsLe(@QueryParam("date") String dateStr) {
+        LOGGER.info("GET /api/absences/calendrier/jour?date=" + dateStr);
+
+        if (!securityContext.isUserInRole("MANAGER") && !securityContext.isUserInRole("ADMIN")) {
+            return Response.status(Response.Status.FORBIDDEN)
+                           .entity(ApiResponse.error("Accès refusé : Droits Manager/Admin requis"))
+                           .build();
+        }
+        
+        try {
+            if (dateStr == null) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error("Le paramètre date est obligatoire"))
+                    .build();
+            }
+            
+            List<Long> absents = calendrierService.absentsLe(LocalDate.parse(dateStr));
+            return Response.ok(ApiResponse.success(absents.size() + " employé(s) absent(s)", absents)).build();
+            
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error("Format de date invalide (utiliser YYYY-MM-DD)"))
+                .build();
+        }
+    }
+    
+    /**
+     * GET /api/absences/calendrier/periode?debut=2026-02-09&fin=2026-02-15
+     */
+    @GET
+    @Path("/periode")
+    public Response absentsEntre(
+            @QueryParam("debut") String debutStr,
+            @QueryParam("fin") String finStr) {
+        
+        LOGGER.info("GET /api/absences/calendrier/periode?debut=" + debutStr + "&fin=" + finStr);
+
+        if (!securityContext.isUserInRole("MANAGER") && !securityContext.isUserInRole("ADMIN")) {
+            return Response.status(Response.Status.FORBIDDEN)
+                           .entity(ApiResponse.error("Accès refusé : Droits Manager/Admin requis"))
+                           .build();
+        }
+        
+        try {
+            if (debutStr == null || finStr == null) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error("Les paramètres debut et fin sont obligatoires"))
+                    .build();
+            }
+            
+            List<Long> absents = calendrierService.absentsEntre(LocalDate.parse(debutStr), LocalDate.parse(finStr));
+            return Response.ok(ApiResponse.success(absents.size() + " employé(s) absent(s)", absents)).build();
+            
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error("Format de date invalide (utiliser YYYY-MM-DD)"))
+                .build();
+        }
+    }
+    
+    /**
+     * GET /api/absences/calendrier/equipe?debut=2026-02-09&fin=2026-02-15&employeIds=4,5,6&seuil=2
+     * Jours de la période où au moins "seuil" membres de l'équipe sont absents (2 par défaut).
+     */
+    @GET
+    @Path("/equipe")
+    public Response chevauchements(
+            @QueryParam("debut") String debutStr,
+            @QueryParam("fin") String finStr,
+            @QueryParam("employeIds") String employeIdsStr,
+            @QueryParam("seuil") @DefaultValue("2") int seuil) {
+        
+        LOGGER.info("GET /api/absences/calendrier/equipe?debut=" + debutStr + "&fin=" + finStr);
+
+        if (!securityContext.isUserInRole("MANAGER") && !securityContext.isUserInRole("ADMIN")) {
+            return Response.status(Response.Status.FORBIDDEN)
+                           .entity(ApiResponse.error("Accès refusé : Droits Manager/Admin requis"))
+                           .build();
+        }
+        
+        try {
+            if (debutStr == null || finStr == null || employeIdsStr == null) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error("Les paramètres debut, fin et employeIds sont obligatoires"))
+                    .build();
+            }
+            
+            List<Long> equipe = new ArrayList<>();
+            for (String id : employeIdsStr.split(",")) {
+                if (!id.isBlank()) {
+                    equipe.add(Long.valueOf(id.trim()));
+                }
+            }
+            
+            Map<String, List<Long>> jours = new LinkedHashMap<>();
+            calendrierService.chevauchements(equipe, LocalDate.parse(debutStr), LocalDate.parse(finStr), Math.max(1, seuil))
+                             .forEach((date, absents) -> jours.put(date.toString(), absents));
+            
+            return Response.ok(ApiResponse.success(jours.size() + " jour(s) concerné(s)", jours)).build();
+            
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error("Format de date invalide (utiliser YYYY-MM-DD)"))
+                .build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error("Liste employeIds invalide"))
+                .build();
+        }
+    }
+    
+    /**
+     * GET /api/absences/calendrier/index
+     * Taille et mémoire estimée de l'index.
+     */
+    @GET
+    @Path("/index")
+    public Response statistiquesIndex() {
+        LOGGER.info("GET /api/absences/calendrier/index");
+        
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("absences", calendrierService.getNombreEntrees());
+        stats.put("jours", (long) calendrierService.getNombreJours());
+        stats.put("memoireOctets", calendrierService.getMemoireOctets());
+        
+        return Response.ok(ApiResponse.success("Index du calendrier", stats)).build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.plateforme.absences.rest;
+
+import com.plateforme.absences.dto.ApiResponse;
+import com.plateforme.absences.dto.FluxChangementsDTO;
+import com.plateforme.absences.services.ChangementAbsenceService;
+
+import jakarta.ejb.EJB;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
+import java.util.logging.Logger;
+
+/**
+ * API REST du flux de synchronisation des absences.
+ * 
+ * Endpoints :
+ * - GET /api/absences/changes/token          → Jeton courant (avant une synchronisation complète)
+ * - GET /api/absences/changes?since=&limit=  → Créations, modifications et suppressions après le jeton
+ * 
+ * Première synchronisation : lire le jeton, télécharger toutes les absences
+ * (GET /api/absences/stream), puis appeler /changes?since=jeton. Ensuite,
+ * repasser à chaque appel le jeton renvoyé, tant que "suite" vaut true.
+ */
+@Path("/absences/changes")
+@Produces(MediaType.APPLICATION_JSON)
+public class ChangementAbsenceResource {
+    
+    private static final Logger LOGGER = Logger.getLogger(ChangementAbsenceResource.class.getName());
+    
+    private static final int LIMITE_PAR_DEFAUT = 500;
+    private static final int LIMITE_MAX = 1000;
+    
+    @Context
+    private SecurityContext securityContext;
+    
+    @EJB
+    private ChangementAbsenceService changementService;
+    
+    /**
+     * GET /api/absences/changes?since=1234&limit=500
+     */
+    @GET
+    public Response changements(
+            @QueryParam("since") String since,
+            @QueryParam("limit") Integer limit) {
+        
+        LOGGER.info("GET /api/absences/changes?since=" + since);
+
+        if (!securityContext.isUserInRole("MANAGER") && !securityContext.isUserInRole("ADMIN")) {
+            return Response.status(Response.Status.FORBIDDEN)
+                           .entity(ApiResponse.error("Accès refusé : Droits Manager/Admin requis"))
+                           .build();
+        }
+        
+        try {
+            if (since == null) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error("Le paramètre since est obligatoire (voir /api/absences/changes/token)"))
+                    .build();
+            }
+            
+            long depuis;
+            try {
+                depuis = Long.parseLong(since);
+            } catch (NumberFormatException e) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error("Jeton since invalide"))
+                    .build();
+            }
+            
+            int limite = limit != null ? limit : LIMITE_PAR_DEFAUT;
+            if (limite < 1 || limite > LIMITE_MAX) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error("Le paramètre limit doit être compris entre 1 et " + LIMITE_MAX))
+                    .build();
+            }
+            
+            FluxChangementsDTO flux = changementService.depuis(depuis, limite);
+            return Response.ok(ApiResponse.success(flux.getChangements().size() + " changement(s)", flux)).build();
+            
+        } catch (Exception e) {
+            LOGGER.severe("Erreur : " + e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(ApiResponse.error("Erreur serveur"))
+                .build();
+        }
+    }
+    
+    /**
+     * GET /api/absences/changes/token
+     */
+    @GET
+    @Path("/token")
+    public Response token() {
+        LOGGER.info("GET /api/absences/changes/token");
+
+        if (!securityContext.isUserInRole("MANAGER") && !securityContext.isUserInRole("ADMIN")) {
+            return Response.status(Response.Status.FORBIDDEN)
+                           .entity(ApiResponse.error("Accès refusé : Droits Manager/Admin requis"))
+                           .build();
+        }
+        
+        return Response.ok(ApiResponse.success("Jeton de synchronisation", Long.toString(changementService.plafond()))).build();
+    }
+}
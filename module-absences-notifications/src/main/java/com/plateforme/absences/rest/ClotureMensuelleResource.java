@@ -0,0 +1,159 @@
+package com.plateforme.absences.rest;
+
+import com.plateforme.absences.cloture.ClotureExecution;
+import com.plateforme.absences.cloture.ClotureMensuelleService;
+import com.plateforme.absences.dto.ApiResponse;
+
+import jakarta.ejb.EJB;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.core.UriInfo;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.logging.Logger;
+
+/**
+ * API REST de la clôture mensuelle des absences.
+ * 
+ * Endpoints :
+ * - POST   /api/absences/clotures?mois=YYYY-MM           → Lancer la clôture d'un mois (défaut : mois précédent)
+ * - GET    /api/absences/clotures/{executionId}          → État d'une exécution
+ * - POST   /api/absences/clotures/{executionId}/reprise  → Reprendre une exécution en échec
+ */
+@Path("/absences/clotures")
+@Produces(MediaType.APPLICATION_JSON)
+public class ClotureMensuelleResource {
+    
+    private static final Logger LOGGER = Logger.getLogger(ClotureMensuelleResource.class.getName());
+    
+    @Context
+    private SecurityContext securityContext;
+    
+    @Context
+    private UriInfo uriInfo;
+    
+    @EJB
+    private ClotureMensuelleService clotureMensuelleService;
+    
+    /**
+     * POST /api/absences/clotures?mois=2026-02
+     * Lance la clôture du mois. Répond 202 dès le démarrage du job ;
+     * l'avancement se consulte sur l'URL renvoyée dans l'en-tête Location.
+     */
+    @POST
+    public Response demarrer(@QueryParam("mois") String mois) {
+        LOGGER.info("POST /api/absences/clotures?mois=" + mois);
+        
+        if (!securityContext.isUserInRole("ADMIN")) {
+            return Response.status(Response.Status.FORBIDDEN)
+                           .entity(ApiResponse.error("Accès refusé : Droits Admin requis"))
+                           .build();
+        }
+        
+        try {
+            YearMonth periode = mois != null ? YearMonth.parse(mois) : YearMonth.now().minusMonths(1);
+            long executionId = clotureMensuelleService.demarrer(periode, utilisateurConnecte());
+            
+            return Response.accepted(ApiResponse.success("Clôture de " + periode + " en cours",
+                                                         clotureMensuelleService.trouver(executionId)))
+                .location(uriInfo.getBaseUriBuilder().path(ClotureMensuelleResource.class)
+                                 .path(String.valueOf(executionId)).build())
+                .build();
+            
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error("Mois invalide (format attendu : YYYY-MM)"))
+                .build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error(e.getMessage()))
+                .build();
+        } catch (IllegalStateException e) {
+            return Response.status(Response.Status.CONFLICT)
+                .entity(ApiResponse.error(e.getMessage()))
+                .build();
+        } catch (Exception e) {
+            LOGGER.severe("Erreur : " + e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(ApiResponse.error("Erreur serveur"))
+                .build();
+        }
+    }
+    
+    /**
+     * GET /api/absences/clotures/{executionId}
+     * État d'une exécution : statut, absences lues, écrites, inchangées, commits, signalements.
+     */
+    @GET
+    @Path("/{executionId}")
+    public Response trouver(@PathParam("executionId") long executionId) {
+        LOGGER.info("GET /api/absences/clotures/" + executionId);
+        
+        if (!securityContext.isUserInRole("ADMIN")) {
+            return Response.status(Response.Status.FORBIDDEN)
+                           .entity(ApiResponse.error("Accès refusé : Droits Admin requis"))
+                           .build();
+        }
+        
+        ClotureExecution execution = clotureMensuelleService.trouver(executionId);
+        if (execution == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity(ApiResponse.error("Exécution non trouvée"))
+                .build();
+        }
+        
+        return Response.ok(ApiResponse.success("Clôture " + execution.getStatut(), execution)).build();
+    }
+    
+    /**
+     * POST /api/absences/clotures/{executionId}/reprise
+     * Reprend une exécution en échec ou arrêtée, à partir de ses derniers chunks validés.
+     */
+    @POST
+    @Path("/{executionId}/reprise")
+    public Response reprendre(@PathParam("executionId") long executionId) {
+        LOGGER.info("POST /api/absences/clotures/" + executionId + "/reprise");
+        
+        if (!securityContext.isUserInRole("ADMIN")) {
+            return Response.status(Response.Status.FORBIDDEN)
+                           .entity(ApiResponse.error("Accès refusé : Droits Admin requis"))
+                           .build();
+        }
+        
+        try {
+            Long reprise = clotureMensuelleService.reprendre(executionId);
+            if (reprise == null) {
+                return Response.status(Response.Status.NOT_FOUND)
+                    .entity(ApiResponse.error("Exécution non trouvée"))
+                    .build();
+            }
+            
+            return Response.accepted(ApiResponse.success("Clôture reprise", clotureMensuelleService.trouver(reprise)))
+                .location(uriInfo.getBaseUriBuilder().path(ClotureMensuelleResource.class)
+                                 .path(String.valueOf(reprise)).build())
+                .build();
+            
+        } catch (IllegalStateException e) {
+            return Response.status(Response.Status.CONFLICT)
+                .entity(ApiResponse.error(e.getMessage()))
+                .build();
+        }
+    }
+    
+    /**
+     * ID de l'utilisateur connecté (le nom du principal), ou null s'il n'est pas numérique.
+     */
+    private Long utilisateurConnecte() {
+        if (securityContext.getUserPrincipal() == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(securityContext.getUserPrincipal().getName());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
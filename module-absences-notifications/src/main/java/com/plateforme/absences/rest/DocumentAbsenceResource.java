@@ -0,0 +1,186 @@
+package com.plateforme.absences.rest;
+
+import com.plateforme.absences.documents.DocumentStore;
+import com.plateforme.absences.documents.PlageOctets;
+import com.plateforme.absences.dto.ApiResponse;
+import com.plateforme.absences.entities.Absence;
+import com.plateforme.absences.services.AbsenceService;
+
+import jakarta.ejb.EJB;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Logger;
+
+/**
+ * API REST de consultation des documents justificatifs.
+ * 
+ * Endpoints :
+ * - GET /api/absences/{id}/document → Document justificatif de l'absence (PDF, JPEG ou PNG)
+ * 
+ * Le document est envoyé depuis le fichier par FileChannel.transferTo, sans
+ * être chargé en mémoire. Les requêtes Range (reprise, affichage page par
+ * page d'un PDF) reçoivent une réponse 206. L'ETag est l'empreinte SHA-256
+ * du document : un nouvel affichage revalidé répond 304 sans rien renvoyer.
+ */
+@Path("/absences/{id}/document")
+public class DocumentAbsenceResource {
+    
+    private static final Logger LOGGER = Logger.getLogger(DocumentAbsenceResource.class.getName());
+    
+    // Le document d'une absence peut changer (nouveau justificatif) : revalidation à chaque affichage
+    private static final CacheControl REVALIDER = new CacheControl();
+    
+    static {
+        REVALIDER.setPrivate(true);
+        REVALIDER.setNoCache(true);
+        REVALIDER.setNoTransform(false);
+    }
+    
+    @Context
+    private SecurityContext securityContext;
+    
+    @Context
+    private Request request;
+    
+    @EJB
+    private AbsenceService absenceService;
+    
+    @EJB
+    private DocumentStore documentStore;
+    
+    /**
+     * GET /api/absences/{id}/document
+     */
+    @GET
+    @Produces({ "application/pdf", "image/jpeg", "image/png", MediaType.APPLICATION_JSON })
+    public Response telecharger(
+            @PathParam("id") Long id,
+            @HeaderParam("Range") String range,
+            @HeaderParam("If-Range") String ifRange) {
+        
+        LOGGER.info("GET /api/absences/" + id + "/document" + (range != null ? " (" + range + ")" : ""));
+
+        if (!securityContext.isUserInRole("MANAGER") && !securityContext.isUserInRole("ADMIN")) {
+            return erreur(Response.Status.FORBIDDEN, "Accès refusé : Droits Manager/Admin requis");
+        }
+        
+        try {
+            Absence absence = absenceService.findById(id);
+            if (absence == null) {
+                return erreur(Response.Status.NOT_FOUND, "Absence non trouvée");
+            }
+            
+            java.nio.file.Path fichier = documentStore.trouver(absence.getDocumentJustificatif());
+            if (fichier == null) {
+                return erreur(Response.Status.NOT_FOUND, "Aucun document téléversé pour cette absence");
+            }
+            
+            // Contenu adressé par empreinte : ETag fort, stable tant que le document ne change pas
+            EntityTag etag = new EntityTag(absence.getDocumentJustificatif().substring(DocumentStore.PREFIXE_REFERENCE.length()));
+            Response.ResponseBuilder nonModifie = request.evaluatePreconditions(etag);
+            if (nonModifie != null) {
+                return nonModifie.tag(etag).cacheControl(REVALIDER).build();
+            }
+            
+            long taille;
+            String type;
+            try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.READ)) {
+                taille = canal.size();
+                ByteBuffer debut = ByteBuffer.allocate(8);
+                canal.read(debut, 0);
+                type = DocumentStore.typeMime(debut.array(), debut.position());
+            }
+            
+            // If-Range : la plage ne vaut que pour la version que le client possède déjà (comparaison forte)
+            PlageOctets plage = ifRange == null || !etag.isWeak() && ifRange.trim().equals(valeurEntete(etag))
+                ? PlageOctets.lire(range, taille)
+                : null;
+            
+            if (plage == PlageOctets.INSATISFAISABLE) {
+                return Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header("Content-Range", plage.contentRange(taille))
+                    .build();
+            }
+            
+            long position = plage != null ? plage.getDebut() : 0;
+            long longueur = plage != null ? plage.getLongueur() : taille;
+            
+            StreamingOutput flux = output -> envoyer(fichier, position, longueur, Channels.newChannel(output));
+            
+            Response.ResponseBuilder reponse = (plage != null ? Response.status(Response.Status.PARTIAL_CONTENT) : Response.ok())
+                .entity(flux)
+                .type(type != null ? type : MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_LENGTH, longueur)
+                .header("Accept-Ranges", "bytes")
+                .header("Content-Disposition", "inline; filename=\"justificatif-" + id + extension(type) + "\"")
+                .tag(etag)
+                .cacheControl(REVALIDER);
+            if (plage != null) {
+                reponse.header("Content-Range", plage.contentRange(taille));
+            }
+            return reponse.build();
+            
+        } catch (Exception e) {
+            LOGGER.severe("Erreur : " + e.getMessage());
+            return erreur(Response.Status.INTERNAL_SERVER_ERROR, "Erreur serveur");
+        }
+    }
+    
+    /**
+     * Copie [position, position + longueur[ du fichier vers la réponse.
+     * 
+     * transferTo délègue la copie au système (sendfile) quand le conteneur
+     * expose un canal réseau ; sinon le JDK copie par petits blocs, sans
+     * jamais charger le document entier.
+     */
+    private static void envoyer(java.nio.file.Path fichier, long position, long longueur, WritableByteChannel sortie) throws IOException {
+        try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.READ)) {
+            long envoye = 0;
+            while (envoye < longueur) {
+                long n = canal.transferTo(position + envoye, longueur - envoye, sortie);
+                if (n <= 0) {
+                    break;
+                }
+                envoye += n;
+            }
+        }
+    }
+    
+    /**
+     * Valeur de l'en-tête ETag : entre guillemets, préfixée de W/ si l'ETag est faible.
+     */
+    private static String valeurEntete(EntityTag etag) {
+        return (etag.isWeak() ? "W/" : "") + '"' + etag.getValue() + '"';
+    }
+    
+    private static String extension(String type) {
+        if ("application/pdf".equals(type)) {
+            return ".pdf";
+        }
+        if ("image/jpeg".equals(type)) {
+            return ".jpg";
+        }
+        return "image/png".equals(type) ? ".png" : "";
+    }
+    
+    private Response erreur(Response.Status statut, String message) {
+        return Response.status(statut)
+            .type(MediaType.APPLICATION_JSON)
+            .entity(ApiResponse.error(message))
+            .build();
+    }
+}
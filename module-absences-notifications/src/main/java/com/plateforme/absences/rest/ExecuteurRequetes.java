@@ -0,0 +1,165 @@
+package com.plateforme.absences.rest;
+
+import com.plateforme.absences.dto.ApiResponse;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.enterprise.concurrent.ContextService;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.core.Response;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Exécute le traitement des requêtes REST (AbsenceResource, NotificationResource)
+ * hors des threads du serveur HTTP.
+ * 
+ * Mode "virtuel" (par défaut) : chaque requête suspendue (@Suspended AsyncResponse)
+ * est traitée par un thread virtuel, qui reprend la réponse une fois écrite. Un
+ * thread bloqué sur JDBC ne coûte alors presque rien ; le nombre de traitements
+ * simultanés est borné par un sémaphore de la taille du pool de la DataSource,
+ * pour que l'attente se fasse ici et non sur le pool. Au-delà du délai d'attente
+ * d'un permis : 503 avec Retry-After.
+ * 
+ * Mode "bloquant" : le traitement s'exécute sur le thread de la requête, comme
+ * avant (sert de référence au test de charge, voir ChargeRest).
+ * 
+ * Propriétés système :
+ * - absences.rest.mode          : virtuel | bloquant (défaut : virtuel)
+ * - absences.rest.concurrence   : traitements simultanés (défaut : 20, max-pool-size par défaut de WildFly)
+ * - absences.rest.attente-ms    : attente maximale d'un permis (défaut : 5000)
+ * 
+ * Chaque traitement tient une connexion : au-delà de la taille du pool, des
+ * permis de plus n'augmentent pas le débit, ils déplacent seulement l'attente
+ * dans le pool (blocking-timeout-millis, puis erreur 500) au lieu d'ici (503
+ * après attente-ms). Si le pool de la DataSource change, changer concurrence
+ * avec lui.
+ * 
+ * Épinglage (Java 21) : un thread virtuel qui bloque dans un bloc synchronized
+ * garde son thread porteur, et il n'y a que autant de porteurs que de cœurs.
+ * Connector/J 8.0.33 fait ses E/S sous ReentrantLock, mais le pool, Hibernate
+ * ou le conteneur EJB peuvent encore bloquer sous moniteur : vérifier avec
+ * -Djdk.tracePinnedThreads=short sous charge, et revenir au mode bloquant si
+ * des traces apparaissent sur le chemin JDBC (voir BancExecuteurRequetes).
+ * 
+ * Jakarta EE 10 ne propose pas d'exécuteur géré à threads virtuels : les threads
+ * sont créés par Thread.ofVirtual() et le traitement reçoit le contexte de
+ * l'appelant (nommage, sécurité, chargeur de classes) par le ContextService.
+ * Le SecurityContext et le Request JAX-RS ne sont valables que sur le thread
+ * de la requête : les ressources les lisent avant d'appeler executer.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class ExecuteurRequetes {
+    
+    private static final Logger LOGGER = Logger.getLogger(ExecuteurRequetes.class.getName());
+    
+    public static final String MODE_VIRTUEL = "virtuel";
+    public static final String MODE_BLOQUANT = "bloquant";
+    
+    private static final int CONCURRENCE_PAR_DEFAUT = 20;
+    private static final long ATTENTE_PAR_DEFAUT_MS = 5000;
+    
+    @Resource
+    private ContextService contexte;
+    
+    private boolean virtuel;
+    private Semaphore permis;
+    private long attenteMs;
+    private ExecutorService executeur;
+    
+    @PostConstruct
+    public void demarrer() {
+        String mode = System.getProperty("absences.rest.mode", MODE_VIRTUEL);
+        if (!MODE_VIRTUEL.equals(mode) && !MODE_BLOQUANT.equals(mode)) {
+            LOGGER.warning("absences.rest.mode inconnu (" + mode + "), mode " + MODE_VIRTUEL + " utilisé");
+            mode = MODE_VIRTUEL;
+        }
+        virtuel = MODE_VIRTUEL.equals(mode);
+        
+        int concurrence = Math.max(1, Integer.getInteger("absences.rest.concurrence", CONCURRENCE_PAR_DEFAUT));
+        permis = new Semaphore(concurrence, true);
+        attenteMs = Math.max(0, Long.getLong("absences.rest.attente-ms", ATTENTE_PAR_DEFAUT_MS));
+        
+        if (virtuel) {
+            executeur = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("absences-rest-", 0).factory());
+        }
+        LOGGER.info("Traitement des requêtes REST : mode " + mode
+                    + (virtuel ? ", " + concurrence + " traitement(s) simultané(s), attente max " + attenteMs + " ms" : ""));
+    }
+    
+    @PreDestroy
+    public void arreter() {
+        if (executeur != null) {
+            // Laisse finir les requêtes en cours
+            executeur.close();
+        }
+    }
+    
+    /**
+     * Traite une requête suspendue et y répond.
+     * 
+     * À appeler depuis le thread de la requête : le contexte est capturé ici.
+     * 
+     * @param reponse Réponse suspendue de la ressource
+     * @param traitement Construit la réponse (appels EJB et base compris)
+     */
+    public void executer(AsyncResponse reponse, Supplier<Response> traitement) {
+        if (!virtuel) {
+            reponse.resume(traitement.get());
+            return;
+        }
+        
+        Supplier<Response> contextuel = contexte.contextualSupplier(traitement);
+        try {
+            executeur.execute(() -> traiter(reponse, contextuel));
+        } catch (RejectedExecutionException e) {
+            // Arrêt de l'application en cours
+            reponse.resume(sature());
+        }
+    }
+    
+    private void traiter(AsyncResponse reponse, Supplier<Response> traitement) {
+        boolean acquis = false;
+        try {
+            acquis = permis.tryAcquire(attenteMs, TimeUnit.MILLISECONDS);
+            if (!acquis) {
+                LOGGER.warning("Aucun permis de traitement libre après " + attenteMs + " ms : 503");
+                reponse.resume(sature());
+                return;
+            }
+            // Le permis couvre aussi l'écriture de la réponse : les flux (StreamingOutput) lisent la base à ce moment
+            reponse.resume(traitement.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reponse.resume(sature());
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Erreur lors du traitement de la requête", e);
+            reponse.resume(e);
+        } finally {
+            if (acquis) {
+                permis.release();
+            }
+        }
+    }
+    
+    private static Response sature() {
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+            .header("Retry-After", 1)
+            .entity(ApiResponse.error("Serveur saturé, réessayer plus tard"))
+            .build();
+    }
+}
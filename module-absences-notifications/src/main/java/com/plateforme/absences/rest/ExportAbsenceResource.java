@@ -0,0 +1,105 @@
+package com.plateforme.absences.rest;
+
+import com.plateforme.absences.dto.ApiResponse;
+import com.plateforme.absences.services.AbsenceService;
+
+import jakarta.ejb.EJB;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * API REST de l'export paie des absences.
+ * 
+ * Endpoints :
+ * - GET /api/absences/export?debut=&fin=&format=csv|xlsx → Absences de la période, en fichier
+ * 
+ * Les lignes sont écrites au fil de la lecture en base (mémoire constante quel
+ * que soit le volume). Le CSV est compressé en gzip si le client l'accepte ;
+ * le XLSX est déjà une archive compressée.
+ */
+@Path("/absences/export")
+public class ExportAbsenceResource {
+    
+    private static final Logger LOGGER = Logger.getLogger(ExportAbsenceResource.class.getName());
+    
+    private static final String TYPE_XLSX = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    
+    @Context
+    private SecurityContext securityContext;
+    
+    @EJB
+    private AbsenceService absenceService;
+    
+    /**
+     * GET /api/absences/export?debut=2026-02-01&fin=2026-02-28&format=csv
+     */
+    @GET
+    @Produces({ "text/csv", TYPE_XLSX, MediaType.APPLICATION_JSON })
+    public Response exporter(
+            @QueryParam("debut") String debutStr,
+            @QueryParam("fin") String finStr,
+            @QueryParam("format") @DefaultValue("csv") String format,
+            @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding) {
+        
+        LOGGER.info("GET /api/absences/export?debut=" + debutStr + "&fin=" + finStr + "&format=" + format);
+
+        if (!securityContext.isUserInRole("MANAGER") && !securityContext.isUserInRole("ADMIN")) {
+            return erreur(Response.Status.FORBIDDEN, "Accès refusé : Droits Manager/Admin requis");
+        }
+        
+        if (debutStr == null || finStr == null) {
+            return erreur(Response.Status.BAD_REQUEST, "Les paramètres debut et fin sont obligatoires");
+        }
+        
+        boolean xlsx = "xlsx".equalsIgnoreCase(format);
+        if (!xlsx && !"csv".equalsIgnoreCase(format)) {
+            return erreur(Response.Status.BAD_REQUEST, "Format d'export invalide (csv ou xlsx)");
+        }
+        
+        LocalDate debut;
+        LocalDate fin;
+        try {
+            debut = LocalDate.parse(debutStr);
+            fin = LocalDate.parse(finStr);
+        } catch (DateTimeParseException e) {
+            return erreur(Response.Status.BAD_REQUEST, "Format de date invalide (utiliser YYYY-MM-DD)");
+        }
+        
+        boolean gzip = !xlsx && acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        
+        StreamingOutput flux = output -> {
+            OutputStream sortie = gzip ? new GZIPOutputStream(output, 64 * 1024) : output;
+            try (AbsenceExportWriter writer = xlsx ? new AbsenceXlsxWriter(sortie) : new AbsenceCsvWriter(sortie)) {
+                long total = absenceService.parcourirExport(debut, fin, writer::ecrire);
+                writer.terminer();
+                LOGGER.info("Export du " + debut + " au " + fin + " : " + total + " absence(s)");
+            }
+        };
+        
+        String fichier = "absences_" + debut + "_" + fin + (xlsx ? ".xlsx" : ".csv");
+        Response.ResponseBuilder reponse = Response.ok(flux, xlsx ? TYPE_XLSX : "text/csv; charset=UTF-8")
+            .header("Content-Disposition", "attachment; filename=\"" + fichier + "\"")
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            reponse.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return reponse.build();
+    }
+    
+    private Response erreur(Response.Status statut, String message) {
+        return Response.status(statut)
+            .type(MediaType.APPLICATION_JSON)
+            .entity(ApiResponse.error(message))
+            .build();
+    }
+}
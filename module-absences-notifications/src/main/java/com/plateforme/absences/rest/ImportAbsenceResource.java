@@ -0,0 +1,115 @@
+package com.plateforme.absences.rest;
+
+import com.plateforme.absences.dto.ApiResponse;
+import com.plateforme.absences.imports.ImportAbsenceService;
+import com.plateforme.absences.imports.ImportJob;
+
+import jakarta.ejb.EJB;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.core.UriInfo;
+import java.io.InputStream;
+import java.util.logging.Logger;
+
+/**
+ * API REST pour les imports de fichiers d'absences.
+ * 
+ * Endpoints :
+ * - POST   /api/absences/imports           → Déposer un fichier CSV (traité en arrière-plan)
+ * - GET    /api/absences/imports/{jobId}   → Avancement d'un import
+ */
+@Path("/absences/imports")
+@Produces(MediaType.APPLICATION_JSON)
+public class ImportAbsenceResource {
+    
+    private static final Logger LOGGER = Logger.getLogger(ImportAbsenceResource.class.getName());
+    
+    @Context
+    private SecurityContext securityContext;
+    
+    @Context
+    private UriInfo uriInfo;
+    
+    @EJB
+    private ImportAbsenceService importAbsenceService;
+    
+    /**
+     * POST /api/absences/imports?nom=badgeuse-2026-02.csv
+     * Dépose un fichier CSV d'absences. Répond 202 dès que le fichier est reçu ;
+     * l'avancement se consulte sur l'URL renvoyée dans l'en-tête Location.
+     */
+    @POST
+    @Consumes({"text/csv", MediaType.TEXT_PLAIN, MediaType.APPLICATION_OCTET_STREAM})
+    public Response soumettre(@QueryParam("nom") String nomFichier, InputStream contenu) {
+        LOGGER.info("POST /api/absences/imports?nom=" + nomFichier);
+
+        if (!securityContext.isUserInRole("MANAGER") && !securityContext.isUserInRole("ADMIN")) {
+            return Response.status(Response.Status.FORBIDDEN)
+                           .entity(ApiResponse.error("Accès refusé : Droits Manager/Admin requis"))
+                           .build();
+        }
+        
+        try {
+            ImportJob job = importAbsenceService.soumettre(contenu, nomFichier, utilisateurConnecte());
+            
+            return Response.accepted(ApiResponse.success("Import en cours", job))
+                .location(uriInfo.getAbsolutePathBuilder().path(job.getId()).build())
+                .build();
+            
+        } catch (Exception e) {
+            LOGGER.severe("Erreur : " + e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(ApiResponse.error("Erreur serveur"))
+                .build();
+        }
+    }
+    
+    /**
+     * GET /api/absences/imports/{jobId}
+     * Avancement d'un import : lignes traitées, en erreur, débit.
+     * Réservé à l'utilisateur qui l'a lancé (et aux administrateurs).
+     */
+    @GET
+    @Path("/{jobId}")
+    public Response trouver(@PathParam("jobId") String jobId) {
+        LOGGER.info("GET /api/absences/imports/" + jobId);
+        
+        if (!securityContext.isUserInRole("MANAGER") && !securityContext.isUserInRole("ADMIN")) {
+            return Response.status(Response.Status.FORBIDDEN)
+                           .entity(ApiResponse.error("Accès refusé : Droits Manager/Admin requis"))
+                           .build();
+        }
+        
+        ImportJob job = importAbsenceService.trouver(jobId);
+        if (job == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity(ApiResponse.error("Import non trouvé"))
+                .build();
+        }
+        
+        if (!securityContext.isUserInRole("ADMIN") && !job.estLancePar(utilisateurConnecte())) {
+            return Response.status(Response.Status.FORBIDDEN)
+                           .entity(ApiResponse.error("Accès refusé : import lancé par un autre utilisateur"))
+                           .build();
+        }
+        
+        return Response.ok(ApiResponse.success("Import " + job.getStatut(), job)).build();
+    }
+    
+    /**
+     * ID de l'utilisateur connecté (le nom du principal), ou null s'il n'est pas numérique.
+     */
+    private Long utilisateurConnecte() {
+        if (securityContext.getUserPrincipal() == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(securityContext.getUserPrincipal().getName());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
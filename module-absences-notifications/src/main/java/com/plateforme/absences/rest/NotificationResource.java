@@ -4,11 +4,16 @@ import com.plateforme.absences.dto.ApiResponse;
 import com.plateforme.absences.dto.NotificationDTO;
 import com.plateforme.absences.entities.Notification;
 import com.plateforme.absences.services.NotificationService;
+import com.plateforme.absences.services.RevisionService;
 
 import jakarta.ejb.EJB;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.SecurityContext;
 import java.util.List;
@@ -27,6 +32,12 @@ import java.util.stream.Collectors;
  * - PUT    /api/notifications/tout-lire         → Tout marquer comme lu
  * - DELETE /api/notifications/{id}              → Supprimer une notification
  * - POST   /api/notifications                   → Créer une notification (système)
+ * 
+ * Les lectures par utilisateur portent un ETag (RevisionService) :
+ * If-None-Match → 304 sans requête ni sérialisation.
+ * 
+ * Comme AbsenceResource, les requêtes sont traitées par ExecuteurRequetes
+ * une fois les paramètres, les droits et If-None-Match vérifiés.
  */
 @Path("/notifications")
 @Produces(MediaType.APPLICATION_JSON)
@@ -37,48 +48,68 @@ public class NotificationResource {
     
     @Context
     private SecurityContext securityContext;
+    
+    @Context
+    private Request request;
 
     @EJB
     private NotificationService notificationService;
     
+    @EJB
+    private RevisionService revisions;
+    
+    @EJB
+    private ExecuteurRequetes executeur;
+    
     /**
      * GET /api/notifications?userId={userId}
      * Récupère toutes les notifications d'un utilisateur.
      */
     @GET
-    public Response findByDestinataire(@QueryParam("userId") Long userId) {
+    public void findByDestinataire(@Suspended AsyncResponse reponse, @QueryParam("userId") Long userId) {
         LOGGER.info("GET /api/notifications?userId=" + userId);
         
-        try {
-            if (userId == null) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(ApiResponse.error("Le paramètre userId est obligatoire"))
-                    .build();
-            }
+        if (userId == null) {
+            reponse.resume(Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error("Le paramètre userId est obligatoire"))
+                .build());
+            return;
+        }
 
-            // Vérification de sécurité : un utilisateur ne peut voir que ses propres notifications
-            // sauf s'il est manager ou admin
-            String principalName = securityContext.getUserPrincipal() != null ? securityContext.getUserPrincipal().getName() : null;
-            if (principalName != null && !principalName.equals(userId.toString()) && 
-                !securityContext.isUserInRole("MANAGER") && !securityContext.isUserInRole("ADMIN")) {
-                return Response.status(Response.Status.FORBIDDEN)
-                    .entity(ApiResponse.error("Accès refusé : vous ne pouvez consulter que vos propres notifications"))
+        // Vérification de sécurité : un utilisateur ne peut voir que ses propres notifications
+        // sauf s'il est manager ou admin
+        String principalName = securityContext.getUserPrincipal() != null ? securityContext.getUserPrincipal().getName() : null;
+        if (principalName != null && !principalName.equals(userId.toString()) && 
+            !securityContext.isUserInRole("MANAGER") && !securityContext.isUserInRole("ADMIN")) {
+            reponse.resume(Response.status(Response.Status.FORBIDDEN)
+                .entity(ApiResponse.error("Accès refusé : vous ne pouvez consulter que vos propres notifications"))
+                .build());
+            return;
+        }
+        
+        EntityTag etag = etag(userId);
+        Response nonModifie = Revisions.nonModifie(request, etag);
+        if (nonModifie != null) {
+            reponse.resume(nonModifie);
+            return;
+        }
+        
+        executeur.executer(reponse, () -> {
+            try {
+                List<Notification> notifications = notificationService.findByDestinataire(userId);
+                List<NotificationDTO> dtos = notifications.stream()
+                    .map(NotificationDTO::new)
+                    .collect(Collectors.toList());
+                
+                return Revisions.ok(ApiResponse.success("Notifications récupérées", dtos), etag);
+                
+            } catch (Exception e) {
+                LOGGER.severe("Erreur : " + e.getMessage());
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ApiResponse.error("Erreur serveur"))
                     .build();
             }
-            
-            List<Notification> notifications = notificationService.findByDestinataire(userId);
-            List<NotificationDTO> dtos = notifications.stream()
-                .map(NotificationDTO::new)
-                .collect(Collectors.toList());
-            
-            return Response.ok(ApiResponse.success("Notifications récupérées", dtos)).build();
-            
-        } catch (Exception e) {
-            LOGGER.severe("Erreur : " + e.getMessage());
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                .entity(ApiResponse.error("Erreur serveur"))
-                .build();
-        }
+        });
     }
     
     /**
@@ -87,38 +118,49 @@ public class NotificationResource {
      */
     @GET
     @Path("/non-lues")
-    public Response findNonLues(@QueryParam("userId") Long userId) {
+    public void findNonLues(@Suspended AsyncResponse reponse, @QueryParam("userId") Long userId) {
         LOGGER.info("GET /api/notifications/non-lues?userId=" + userId);
         
-        try {
-            if (userId == null) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(ApiResponse.error("Le paramètre userId est obligatoire"))
-                    .build();
-            }
+        if (userId == null) {
+            reponse.resume(Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error("Le paramètre userId est obligatoire"))
+                .build());
+            return;
+        }
 
-            // Vérification de sécurité
-            String principalName = securityContext.getUserPrincipal() != null ? securityContext.getUserPrincipal().getName() : null;
-            if (principalName != null && !principalName.equals(userId.toString()) && 
-                !securityContext.isUserInRole("MANAGER") && !securityContext.isUserInRole("ADMIN")) {
-                return Response.status(Response.Status.FORBIDDEN)
-                    .entity(ApiResponse.error("Accès refusé : vous ne pouvez consulter que vos propres notifications"))
+        // Vérification de sécurité
+        String principalName = securityContext.getUserPrincipal() != null ? securityContext.getUserPrincipal().getName() : null;
+        if (principalName != null && !principalName.equals(userId.toString()) && 
+            !securityContext.isUserInRole("MANAGER") && !securityContext.isUserInRole("ADMIN")) {
+            reponse.resume(Response.status(Response.Status.FORBIDDEN)
+                .entity(ApiResponse.error("Accès refusé : vous ne pouvez consulter que vos propres notifications"))
+                .build());
+            return;
+        }
+        
+        EntityTag etag = etag(userId);
+        Response nonModifie = Revisions.nonModifie(request, etag);
+        if (nonModifie != null) {
+            reponse.resume(nonModifie);
+            return;
+        }
+        
+        executeur.executer(reponse, () -> {
+            try {
+                List<Notification> notifications = notificationService.findNonLues(userId);
+                List<NotificationDTO> dtos = notifications.stream()
+                    .map(NotificationDTO::new)
+                    .collect(Collectors.toList());
+                
+                return Revisions.ok(ApiResponse.success("Notifications non lues", dtos), etag);
+                
+            } catch (Exception e) {
+                LOGGER.severe("Erreur : " + e.getMessage());
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ApiResponse.error("Erreur serveur"))
                     .build();
             }
-            
-            List<Notification> notifications = notificationService.findNonLues(userId);
-            List<NotificationDTO> dtos = notifications.stream()
-                .map(NotificationDTO::new)
-                .collect(Collectors.toList());
-            
-            return Response.ok(ApiResponse.success("Notifications non lues", dtos)).build();
-            
-        } catch (Exception e) {
-            LOGGER.severe("Erreur : " + e.getMessage());
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                .entity(ApiResponse.error("Erreur serveur"))
-                .build();
-        }
+        });
     }
     
     /**
@@ -127,26 +169,36 @@ public class NotificationResource {
      */
     @GET
     @Path("/count-non-lues")
-    public Response countNonLues(@QueryParam("userId") Long userId) {
+    public void countNonLues(@Suspended AsyncResponse reponse, @QueryParam("userId") Long userId) {
         LOGGER.info("GET /api/notifications/count-non-lues?userId=" + userId);
         
-        try {
-            if (userId == null) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(ApiResponse.error("Le paramètre userId est obligatoire"))
+        if (userId == null) {
+            reponse.resume(Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error("Le paramètre userId est obligatoire"))
+                .build());
+            return;
+        }
+        
+        EntityTag etag = etag(userId);
+        Response nonModifie = Revisions.nonModifie(request, etag);
+        if (nonModifie != null) {
+            reponse.resume(nonModifie);
+            return;
+        }
+        
+        executeur.executer(reponse, () -> {
+            try {
+                Long count = notificationService.countNonLues(userId);
+                
+                return Revisions.ok(ApiResponse.success("Nombre de notifications non lues", count), etag);
+                
+            } catch (Exception e) {
+                LOGGER.severe("Erreur : " + e.getMessage());
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ApiResponse.error("Erreur serveur"))
                     .build();
             }
-            
-            Long count = notificationService.countNonLues(userId);
-            
-            return Response.ok(ApiResponse.success("Nombre de notifications non lues", count)).build();
-            
-        } catch (Exception e) {
-            LOGGER.severe("Erreur : " + e.getMessage());
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                .entity(ApiResponse.error("Erreur serveur"))
-                .build();
-        }
+        });
     }
     
     /**
@@ -155,26 +207,28 @@ public class NotificationResource {
      */
     @GET
     @Path("/{id}")
-    public Response findById(@PathParam("id") Long id) {
+    public void findById(@Suspended AsyncResponse reponse, @PathParam("id") Long id) {
         LOGGER.info("GET /api/notifications/" + id);
         
-        try {
-            Notification notification = notificationService.findById(id);
-            
-            if (notification == null) {
-                return Response.status(Response.Status.NOT_FOUND)
-                    .entity(ApiResponse.error("Notification non trouvée"))
+        executeur.executer(reponse, () -> {
+            try {
+                Notification notification = notificationService.findById(id);
+                
+                if (notification == null) {
+                    return Response.status(Response.Status.NOT_FOUND)
+                        .entity(ApiResponse.error("Notification non trouvée"))
+                        .build();
+                }
+                
+                return Response.ok(ApiResponse.success("Notification trouvée", new NotificationDTO(notification))).build();
+                
+            } catch (Exception e) {
+                LOGGER.severe("Erreur : " + e.getMessage());
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ApiResponse.error("Erreur serveur"))
                     .build();
             }
-            
-            return Response.ok(ApiResponse.success("Notification trouvée", new NotificationDTO(notification))).build();
-            
-        } catch (Exception e) {
-            LOGGER.severe("Erreur : " + e.getMessage());
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                .entity(ApiResponse.error("Erreur serveur"))
-                .build();
-        }
+        });
     }
     
     /**
@@ -191,62 +245,64 @@ public class NotificationResource {
      * }
      */
     @POST
-    public Response create(NotificationDTO dto) {
+    public void create(@Suspended AsyncResponse reponse, NotificationDTO dto) {
         LOGGER.info("POST /api/notifications");
         
-        try {
-            // Validation
-            if (dto.getDestinataireId() == null) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(ApiResponse.error("Le destinataire est obligatoire"))
+        executeur.executer(reponse, () -> {
+            try {
+                // Validation
+                if (dto.getDestinataireId() == null) {
+                    return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(ApiResponse.error("Le destinataire est obligatoire"))
+                        .build();
+                }
+                
+                if (dto.getType() == null || dto.getType().trim().isEmpty()) {
+                    return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(ApiResponse.error("Le type est obligatoire"))
+                        .build();
+                }
+                
+                if (dto.getSujet() == null || dto.getSujet().trim().isEmpty()) {
+                    return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(ApiResponse.error("Le sujet est obligatoire"))
+                        .build();
+                }
+                
+                if (dto.getMessage() == null || dto.getMessage().trim().isEmpty()) {
+                    return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(ApiResponse.error("Le message est obligatoire"))
+                        .build();
+                }
+                
+                // Créer la notification
+                Notification notification = notificationService.creerNotification(
+                    dto.getDestinataireId(),
+                    dto.getExpediteurId(),
+                    dto.getType(),
+                    dto.getSujet(),
+                    dto.getMessage()
+                );
+                
+                if (dto.getReferenceId() != null) {
+                    notification.setReferenceId(dto.getReferenceId());
+                }
+                
+                if (dto.getTypeReference() != null) {
+                    notification.setTypeReference(dto.getTypeReference());
+                }
+                
+                return Response.status(Response.Status.CREATED)
+                    .entity(ApiResponse.success("Notification créée", new NotificationDTO(notification)))
                     .build();
-            }
-            
-            if (dto.getType() == null || dto.getType().trim().isEmpty()) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(ApiResponse.error("Le type est obligatoire"))
+                
+            } catch (Exception e) {
+                LOGGER.severe("Erreur : " + e.getMessage());
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ApiResponse.error("Erreur serveur"))
                     .build();
             }
-            
-            if (dto.getSujet() == null || dto.getSujet().trim().isEmpty()) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(ApiResponse.error("Le sujet est obligatoire"))
-                    .build();
-            }
-            
-            if (dto.getMessage() == null || dto.getMessage().trim().isEmpty()) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(ApiResponse.error("Le message est obligatoire"))
-                    .build();
-            }
-            
-            // Créer la notification
-            Notification notification = notificationService.creerNotification(
-                dto.getDestinataireId(),
-                dto.getExpediteurId(),
-                dto.getType(),
-                dto.getSujet(),
-                dto.getMessage()
-            );
-            
-            if (dto.getReferenceId() != null) {
-                notification.setReferenceId(dto.getReferenceId());
-            }
-            
-            if (dto.getTypeReference() != null) {
-                notification.setTypeReference(dto.getTypeReference());
-            }
-            
-            return Response.status(Response.Status.CREATED)
-                .entity(ApiResponse.success("Notification créée", new NotificationDTO(notification)))
-                .build();
-            
-        } catch (Exception e) {
-            LOGGER.severe("Erreur : " + e.getMessage());
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                .entity(ApiResponse.error("Erreur serveur"))
-                .build();
-        }
+        });
     }
     
     /**
@@ -255,26 +311,28 @@ public class NotificationResource {
      */
     @PUT
     @Path("/{id}/lire")
-    public Response marquerCommeLue(@PathParam("id") Long id) {
+    public void marquerCommeLue(@Suspended AsyncResponse reponse, @PathParam("id") Long id) {
         LOGGER.info("PUT /api/notifications/" + id + "/lire");
         
-        try {
-            Notification notification = notificationService.marquerCommeLue(id);
-            
-            if (notification == null) {
-                return Response.status(Response.Status.NOT_FOUND)
-                    .entity(ApiResponse.error("Notification non trouvée"))
+        executeur.executer(reponse, () -> {
+            try {
+                Notification notification = notificationService.marquerCommeLue(id);
+                
+                if (notification == null) {
+                    return Response.status(Response.Status.NOT_FOUND)
+                        .entity(ApiResponse.error("Notification non trouvée"))
+                        .build();
+                }
+                
+                return Response.ok(ApiResponse.success("Notification marquée comme lue", new NotificationDTO(notification))).build();
+                
+            } catch (Exception e) {
+                LOGGER.severe("Erreur : " + e.getMessage());
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ApiResponse.error("Erreur serveur"))
                     .build();
             }
-            
-            return Response.ok(ApiResponse.success("Notification marquée comme lue", new NotificationDTO(notification))).build();
-            
-        } catch (Exception e) {
-            LOGGER.severe("Erreur : " + e.getMessage());
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                .entity(ApiResponse.error("Erreur serveur"))
-                .build();
-        }
+        });
     }
     
     /**
@@ -283,26 +341,28 @@ public class NotificationResource {
      */
     @PUT
     @Path("/tout-lire")
-    public Response marquerToutesCommeLues(@QueryParam("userId") Long userId) {
+    public void marquerToutesCommeLues(@Suspended AsyncResponse reponse, @QueryParam("userId") Long userId) {
         LOGGER.info("PUT /api/notifications/tout-lire?userId=" + userId);
         
-        try {
-            if (userId == null) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(ApiResponse.error("Le paramètre userId est obligatoire"))
+        executeur.executer(reponse, () -> {
+            try {
+                if (userId == null) {
+                    return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(ApiResponse.error("Le paramètre userId est obligatoire"))
+                        .build();
+                }
+                
+                int count = notificationService.marquerToutesCommeLues(userId);
+                
+                return Response.ok(ApiResponse.success(count + " notification(s) marquée(s) comme lue(s)", count)).build();
+                
+            } catch (Exception e) {
+                LOGGER.severe("Erreur : " + e.getMessage());
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ApiResponse.error("Erreur serveur"))
                     .build();
             }
-            
-            int count = notificationService.marquerToutesCommeLues(userId);
-            
-            return Response.ok(ApiResponse.success(count + " notification(s) marquée(s) comme lue(s)", count)).build();
-            
-        } catch (Exception e) {
-            LOGGER.severe("Erreur : " + e.getMessage());
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                .entity(ApiResponse.error("Erreur serveur"))
-                .build();
-        }
+        });
     }
     
     /**
@@ -311,26 +371,28 @@ public class NotificationResource {
      */
     @DELETE
     @Path("/{id}")
-    public Response delete(@PathParam("id") Long id) {
+    public void delete(@Suspended AsyncResponse reponse, @PathParam("id") Long id) {
         LOGGER.info("DELETE /api/notifications/" + id);
         
-        try {
-            boolean deleted = notificationService.delete(id);
-            
-            if (!deleted) {
-                return Response.status(Response.Status.NOT_FOUND)
-                    .entity(ApiResponse.error("Notification non trouvée"))
+        executeur.executer(reponse, () -> {
+            try {
+                boolean deleted = notificationService.delete(id);
+                
+                if (!deleted) {
+                    return Response.status(Response.Status.NOT_FOUND)
+                        .entity(ApiResponse.error("Notification non trouvée"))
+                        .build();
+                }
+                
+                return Response.ok(ApiResponse.success("Notification supprimée")).build();
+                
+            } catch (Exception e) {
+                LOGGER.severe("Erreur : " + e.getMessage());
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ApiResponse.error("Erreur serveur"))
                     .build();
             }
-            
-            return Response.ok(ApiResponse.success("Notification supprimée")).build();
-            
-        } catch (Exception e) {
-            LOGGER.severe("Erreur : " + e.getMessage());
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                .entity(ApiResponse.error("Erreur serveur"))
-                .build();
-        }
+        });
     }
     
     /**
@@ -339,31 +401,49 @@ public class NotificationResource {
      */
     @GET
     @Path("/statistiques")
-    public Response getStatistiques(@QueryParam("userId") Long userId) {
+    public void getStatistiques(@Suspended AsyncResponse reponse, @QueryParam("userId") Long userId) {
         LOGGER.info("GET /api/notifications/statistiques?userId=" + userId);
         
-        try {
-            if (userId == null) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(ApiResponse.error("Le paramètre userId est obligatoire"))
+        if (userId == null) {
+            reponse.resume(Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error("Le paramètre userId est obligatoire"))
+                .build());
+            return;
+        }
+        
+        EntityTag etag = etag(userId);
+        Response nonModifie = Revisions.nonModifie(request, etag);
+        if (nonModifie != null) {
+            reponse.resume(nonModifie);
+            return;
+        }
+        
+        executeur.executer(reponse, () -> {
+            try {
+                Long[] stats = notificationService.getStatistiques(userId);
+                
+                StatistiquesResponse response = new StatistiquesResponse();
+                response.setTotal(stats[0]);
+                response.setNonLues(stats[1]);
+                response.setLues(stats[2]);
+                
+                return Revisions.ok(ApiResponse.success("Statistiques", response), etag);
+                
+            } catch (Exception e) {
+                LOGGER.severe("Erreur : " + e.getMessage());
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ApiResponse.error("Erreur serveur"))
                     .build();
             }
-            
-            Long[] stats = notificationService.getStatistiques(userId);
-            
-            StatistiquesResponse response = new StatistiquesResponse();
-            response.setTotal(stats[0]);
-            response.setNonLues(stats[1]);
-            response.setLues(stats[2]);
-            
-            return Response.ok(ApiResponse.success("Statistiques", response)).build();
-            
-        } catch (Exception e) {
-            LOGGER.severe("Erreur : " + e.getMessage());
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                .entity(ApiResponse.error("Erreur serveur"))
-                .build();
-        }
+        });
+    }
+    
+    /**
+     * ETag des notifications d'un utilisateur.
+     */
+    private EntityTag etag(Long userId) {
+        return Revisions.etag(revisions.jeton(RevisionService.NOTIFICATIONS,
+                                              RevisionService.notificationsUtilisateur(userId)));
     }
     
     /**
@@ -0,0 +1,104 @@
+package com.plateforme.absences.rest;
+
+import com.plateforme.absences.dto.AbsenceDTO;
+import com.plateforme.absences.dto.ApiResponse;
+import com.plateforme.absences.dto.RechercheAbsenceDTO;
+import com.plateforme.absences.index.RechercheAbsenceService;
+import com.plateforme.absences.index.RechercheIndex;
+
+import jakarta.ejb.EJB;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * API REST de recherche plein texte des absences (servie depuis l'index en mémoire).
+ * 
+ * Endpoints :
+ * - GET /api/absences/search?q=&employeId=&debut=&fin=&offset=&limit=
+ *       → Absences dont le motif ou le type contient tous les mots de q, par pertinence
+ */
+@Path("/absences/search")
+@Produces(MediaType.APPLICATION_JSON)
+public class RechercheAbsenceResource {
+    
+    private static final Logger LOGGER = Logger.getLogger(RechercheAbsenceResource.class.getName());
+    
+    private static final int LIMITE_PAR_DEFAUT = 20;
+    private static final int LIMITE_MAX = 100;
+    
+    // Au-delà, affiner la recherche plutôt que paginer
+    private static final int OFFSET_MAX = 1000;
+    
+    @Context
+    private SecurityContext securityContext;
+    
+    @EJB
+    private RechercheAbsenceService rechercheService;
+    
+    /**
+     * GET /api/absences/search?q=rendez-vous medical&employeId=4&debut=2026-01-01&fin=2026-03-31&offset=0&limit=20
+     */
+    @GET
+    public Response rechercher(
+            @QueryParam("q") String q,
+            @QueryParam("employeId") Long employeId,
+            @QueryParam("debut") String debutStr,
+            @QueryParam("fin") String finStr,
+            @QueryParam("offset") @DefaultValue("0") int offset,
+            @QueryParam("limit") Integer limit) {
+        
+        LOGGER.info("GET /api/absences/search?q=" + q);
+
+        if (!securityContext.isUserInRole("MANAGER") && !securityContext.isUserInRole("ADMIN")) {
+            return Response.status(Response.Status.FORBIDDEN)
+                           .entity(ApiResponse.error("Accès refusé : Droits Manager/Admin requis"))
+                           .build();
+        }
+        
+        try {
+            if (q == null || RechercheIndex.termes(q).isEmpty()) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error("Le paramètre q doit contenir au moins un mot"))
+                    .build();
+            }
+            
+            int limite = limit != null ? limit : LIMITE_PAR_DEFAUT;
+            if (limite < 1 || limite > LIMITE_MAX) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error("Le paramètre limit doit être compris entre 1 et " + LIMITE_MAX))
+                    .build();
+            }
+            if (offset < 0 || offset > OFFSET_MAX) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error("Le paramètre offset doit être compris entre 0 et " + OFFSET_MAX))
+                    .build();
+            }
+            
+            LocalDate debut = debutStr != null ? LocalDate.parse(debutStr) : null;
+            LocalDate fin = finStr != null ? LocalDate.parse(finStr) : null;
+            
+            RechercheIndex.Resultats resultats = rechercheService.rechercher(q, employeId, debut, fin, offset, limite);
+            List<AbsenceDTO> absences = rechercheService.charger(resultats.getResultats());
+            
+            RechercheAbsenceDTO page = new RechercheAbsenceDTO(absences, resultats.getTotal(), offset, limite);
+            return Response.ok(ApiResponse.success(resultats.getTotal() + " résultat(s)", page)).build();
+            
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error("Format de date invalide (utiliser YYYY-MM-DD)"))
+                .build();
+        } catch (Exception e) {
+            LOGGER.severe("Erreur : " + e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(ApiResponse.error("Erreur serveur"))
+                .build();
+        }
+    }
+}
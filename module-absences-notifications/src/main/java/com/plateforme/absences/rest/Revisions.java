@@ -0,0 +1,46 @@
+package com.plateforme.absences.rest;
+
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * GET conditionnels à partir des jetons de RevisionService.
+ * 
+ * Les réponses portent un ETag faible et "Cache-Control: private, no-cache" :
+ * le navigateur garde la réponse et la revalide (If-None-Match) à chaque appel,
+ * ce qui suffit au polling des pages sans modifier le JavaScript.
+ */
+final class Revisions {
+    
+    private static final CacheControl REVALIDER = new CacheControl();
+    
+    static {
+        REVALIDER.setPrivate(true);
+        REVALIDER.setNoCache(true);
+        REVALIDER.setNoTransform(false);
+    }
+    
+    private Revisions() {
+    }
+    
+    static EntityTag etag(String jeton) {
+        return new EntityTag(jeton, true);
+    }
+    
+    /**
+     * Réponse 304 si le client a déjà cette version (If-None-Match), sinon null.
+     */
+    static Response nonModifie(Request request, EntityTag etag) {
+        Response.ResponseBuilder reponse = request.evaluatePreconditions(etag);
+        return reponse != null ? reponse.tag(etag).cacheControl(REVALIDER).build() : null;
+    }
+    
+    /**
+     * Réponse 200 portant l'ETag de la version renvoyée.
+     */
+    static Response ok(Object entite, EntityTag etag) {
+        return Response.ok(entite).tag(etag).cacheControl(REVALIDER).build();
+    }
+}
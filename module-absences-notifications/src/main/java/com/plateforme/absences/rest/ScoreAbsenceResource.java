@@ -0,0 +1,94 @@
+package com.plateforme.absences.rest;
+
+import com.plateforme.absences.dto.ApiResponse;
+import com.plateforme.absences.dto.ScoresAbsenceDTO;
+import com.plateforme.absences.scores.ScoreAbsenceService;
+
+import jakarta.ejb.EJB;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.logging.Logger;
+
+/**
+ * API REST des scores d'absentéisme (facteur de Bradford et taux).
+ * 
+ * Endpoints :
+ * - GET /api/absences/scores?debut=&fin=&tri=bradford|taux&top=50
+ *       → Employés les plus absents de la période, avec épisodes, jours, Bradford et taux
+ * 
+ * Sans debut/fin, la période est les 52 dernières semaines (jusqu'à aujourd'hui).
+ */
+@Path("/absences/scores")
+@Produces(MediaType.APPLICATION_JSON)
+public class ScoreAbsenceResource {
+    
+    private static final Logger LOGGER = Logger.getLogger(ScoreAbsenceResource.class.getName());
+    
+    private static final int TOP_MAX = 20000;
+    private static final int ANNEES_MAX = 5;
+    
+    @Context
+    private SecurityContext securityContext;
+    
+    @EJB
+    private ScoreAbsenceService scoreService;
+    
+    /**
+     * GET /api/absences/scores?debut=2025-01-01&fin=2025-12-31&tri=bradford&top=50
+     */
+    @GET
+    public Response scores(
+            @QueryParam("debut") String debutStr,
+            @QueryParam("fin") String finStr,
+            @QueryParam("tri") @DefaultValue(ScoreAbsenceService.TRI_BRADFORD) String tri,
+            @QueryParam("top") @DefaultValue("50") int top) {
+        
+        LOGGER.info("GET /api/absences/scores?debut=" + debutStr + "&fin=" + finStr + "&tri=" + tri);
+
+        if (!securityContext.isUserInRole("MANAGER") && !securityContext.isUserInRole("ADMIN")) {
+            return Response.status(Response.Status.FORBIDDEN)
+                           .entity(ApiResponse.error("Accès refusé : Droits Manager/Admin requis"))
+                           .build();
+        }
+        
+        if (!ScoreAbsenceService.TRI_BRADFORD.equals(tri) && !ScoreAbsenceService.TRI_TAUX.equals(tri)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error("Tri invalide (bradford ou taux)"))
+                .build();
+        }
+        
+        try {
+            LocalDate fin = finStr != null ? LocalDate.parse(finStr) : LocalDate.now();
+            LocalDate debut = debutStr != null ? LocalDate.parse(debutStr) : fin.minusWeeks(52).plusDays(1);
+            
+            if (fin.isBefore(debut)) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error("La date de fin doit être postérieure à la date de début"))
+                    .build();
+            }
+            if (debut.isBefore(fin.minusYears(ANNEES_MAX))) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error("Période limitée à " + ANNEES_MAX + " ans"))
+                    .build();
+            }
+            
+            ScoresAbsenceDTO scores = scoreService.classement(debut, fin, tri, Math.max(1, Math.min(top, TOP_MAX)));
+            return Response.ok(ApiResponse.success("Scores d'absentéisme", scores)).build();
+            
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error("Format de date invalide (utiliser YYYY-MM-DD)"))
+                .build();
+        } catch (Exception e) {
+            LOGGER.severe("Erreur calcul scores : " + e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(ApiResponse.error("Erreur serveur"))
+                .build();
+        }
+    }
+}
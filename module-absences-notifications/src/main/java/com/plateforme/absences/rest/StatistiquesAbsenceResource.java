@@ -0,0 +1,85 @@
+package com.plateforme.absences.rest;
+
+import com.plateforme.absences.dto.ApiResponse;
+import com.plateforme.absences.dto.StatistiquesAbsenceDTO;
+import com.plateforme.absences.services.StatistiquesAbsenceService;
+
+import jakarta.ejb.EJB;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.logging.Logger;
+
+/**
+ * API REST des statistiques d'absences (agrégées côté serveur).
+ * 
+ * Endpoints :
+ * - GET /api/absences/statistiques?debut=&fin=&typeAbsenceId=&employeId=&top=20
+ *       → Totaux, répartition par type, par mois, par employé et par justification
+ * 
+ * Sans debut/fin, la période est l'année civile en cours.
+ */
+@Path("/absences/statistiques")
+@Produces(MediaType.APPLICATION_JSON)
+public class StatistiquesAbsenceResource {
+    
+    private static final Logger LOGGER = Logger.getLogger(StatistiquesAbsenceResource.class.getName());
+    
+    private static final int TOP_MAX = 500;
+    
+    @Context
+    private SecurityContext securityContext;
+    
+    @EJB
+    private StatistiquesAbsenceService statistiquesService;
+    
+    /**
+     * GET /api/absences/statistiques?debut=2026-01-01&fin=2026-12-31
+     */
+    @GET
+    public Response statistiques(
+            @QueryParam("debut") String debutStr,
+            @QueryParam("fin") String finStr,
+            @QueryParam("typeAbsenceId") Long typeAbsenceId,
+            @QueryParam("employeId") Long employeId,
+            @QueryParam("top") @DefaultValue("20") int top) {
+        
+        LOGGER.info("GET /api/absences/statistiques?debut=" + debutStr + "&fin=" + finStr);
+
+        if (!securityContext.isUserInRole("MANAGER") && !securityContext.isUserInRole("ADMIN")) {
+            return Response.status(Response.Status.FORBIDDEN)
+                           .entity(ApiResponse.error("Accès refusé : Droits Manager/Admin requis"))
+                           .build();
+        }
+        
+        try {
+            LocalDate aujourdhui = LocalDate.now();
+            LocalDate debut = debutStr != null ? LocalDate.parse(debutStr) : aujourdhui.withDayOfYear(1);
+            LocalDate fin = finStr != null ? LocalDate.parse(finStr) : aujourdhui.withDayOfYear(aujourdhui.lengthOfYear());
+            
+            if (fin.isBefore(debut)) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error("La date de fin doit être postérieure à la date de début"))
+                    .build();
+            }
+            
+            StatistiquesAbsenceDTO stats = statistiquesService.calculer(debut, fin, typeAbsenceId, employeId,
+                                                                        Math.max(1, Math.min(top, TOP_MAX)));
+            return Response.ok(ApiResponse.success("Statistiques des absences", stats)).build();
+            
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error("Format de date invalide (utiliser YYYY-MM-DD)"))
+                .build();
+        } catch (Exception e) {
+            LOGGER.severe("Erreur calcul statistiques : " + e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(ApiResponse.error("Erreur serveur"))
+                .build();
+        }
+    }
+}
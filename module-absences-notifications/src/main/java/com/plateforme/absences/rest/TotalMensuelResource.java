@@ -0,0 +1,157 @@
+package com.plateforme.absences.rest;
+
+import com.plateforme.absences.dto.ApiResponse;
+import com.plateforme.absences.dto.TotalMensuelDTO;
+import com.plateforme.absences.services.TotalMensuelService;
+
+import jakarta.ejb.EJB;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * API REST des totaux mensuels d'absences (table de synthèse).
+ * 
+ * Endpoints :
+ * - GET  /api/absences/totaux?employeId=&debut=YYYY-MM&fin=YYYY-MM → Totaux d'un employé par mois et par type
+ * - GET  /api/absences/totaux/verification?debut=&fin=           → Écarts avec la table absences (ADMIN)
+ * - POST /api/absences/totaux/reconstruction?debut=&fin=         → Recalcul de la période (ADMIN)
+ * 
+ * Sans debut/fin, la période est l'année civile en cours.
+ */
+@Path("/absences/totaux")
+@Produces(MediaType.APPLICATION_JSON)
+public class TotalMensuelResource {
+    
+    private static final Logger LOGGER = Logger.getLogger(TotalMensuelResource.class.getName());
+    
+    @Context
+    private SecurityContext securityContext;
+    
+    @EJB
+    private TotalMensuelService totalMensuelService;
+    
+    /**
+     * GET /api/absences/totaux?employeId=4&debut=2026-01&fin=2026-06
+     */
+    @GET
+    public Response totauxEmploye(
+            @QueryParam("employeId") Long employeId,
+            @QueryParam("debut") String debutStr,
+            @QueryParam("fin") String finStr) {
+        
+        LOGGER.info("GET /api/absences/totaux?employeId=" + employeId);
+
+        if (!securityContext.isUserInRole("MANAGER") && !securityContext.isUserInRole("ADMIN")) {
+            return Response.status(Response.Status.FORBIDDEN)
+                           .entity(ApiResponse.error("Accès refusé : Droits Manager/Admin requis"))
+                           .build();
+        }
+        
+        try {
+            if (employeId == null) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error("Le paramètre employeId est obligatoire"))
+                    .build();
+            }
+            
+            List<TotalMensuelDTO> totaux = totalMensuelService.findByEmploye(employeId, debut(debutStr), fin(finStr))
+                .stream()
+                .map(TotalMensuelDTO::new)
+                .collect(Collectors.toList());
+            
+            return Response.ok(ApiResponse.success(totaux.size() + " total(aux) mensuel(s)", totaux)).build();
+            
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error("Format de mois invalide (utiliser YYYY-MM)"))
+                .build();
+        } catch (Exception e) {
+            LOGGER.severe("Erreur : " + e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(ApiResponse.error("Erreur serveur"))
+                .build();
+        }
+    }
+    
+    /**
+     * GET /api/absences/totaux/verification?debut=2026-01&fin=2026-12
+     */
+    @GET
+    @Path("/verification")
+    public Response verifier(
+            @QueryParam("debut") String debutStr,
+            @QueryParam("fin") String finStr) {
+        
+        LOGGER.info("GET /api/absences/totaux/verification?debut=" + debutStr + "&fin=" + finStr);
+
+        if (!securityContext.isUserInRole("ADMIN")) {
+            return Response.status(Response.Status.FORBIDDEN)
+                           .entity(ApiResponse.error("Accès refusé : Droits Admin requis"))
+                           .build();
+        }
+        
+        try {
+            List<String> ecarts = totalMensuelService.verifier(debut(debutStr), fin(finStr));
+            return Response.ok(ApiResponse.success(ecarts.size() + " écart(s)", ecarts)).build();
+            
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error("Format de mois invalide (utiliser YYYY-MM)"))
+                .build();
+        } catch (Exception e) {
+            LOGGER.severe("Erreur : " + e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(ApiResponse.error("Erreur serveur"))
+                .build();
+        }
+    }
+    
+    /**
+     * POST /api/absences/totaux/reconstruction?debut=2026-01&fin=2026-12
+     */
+    @POST
+    @Path("/reconstruction")
+    public Response reconstruire(
+            @QueryParam("debut") String debutStr,
+            @QueryParam("fin") String finStr) {
+        
+        LOGGER.info("POST /api/absences/totaux/reconstruction?debut=" + debutStr + "&fin=" + finStr);
+
+        if (!securityContext.isUserInRole("ADMIN")) {
+            return Response.status(Response.Status.FORBIDDEN)
+                           .entity(ApiResponse.error("Accès refusé : Droits Admin requis"))
+                           .build();
+        }
+        
+        try {
+            int lignes = totalMensuelService.reconstruire(debut(debutStr), fin(finStr));
+            return Response.ok(ApiResponse.success(lignes + " ligne(s) de totaux reconstruite(s)", lignes)).build();
+            
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error("Format de mois invalide (utiliser YYYY-MM)"))
+                .build();
+        } catch (Exception e) {
+            LOGGER.severe("Erreur : " + e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(ApiResponse.error("Erreur serveur"))
+                .build();
+        }
+    }
+    
+    private YearMonth debut(String debutStr) {
+        return debutStr != null ? YearMonth.parse(debutStr) : YearMonth.now().withMonth(1);
+    }
+    
+    private YearMonth fin(String finStr) {
+        return finStr != null ? YearMonth.parse(finStr) : YearMonth.now().withMonth(12);
+    }
+}
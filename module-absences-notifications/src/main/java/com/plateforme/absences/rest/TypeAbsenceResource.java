@@ -7,7 +7,11 @@ import com.plateforme.absences.services.TypeAbsenceService;
 
 import jakarta.ejb.EJB;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import java.util.List;
 import java.util.logging.Logger;
@@ -22,6 +26,10 @@ import java.util.stream.Collectors;
  * - POST   /api/absences/types         → Créer un type (ADMIN)
  * - PUT    /api/absences/types/{id}    → Modifier un type (ADMIN)
  * - DELETE /api/absences/types/{id}    → Supprimer un type (ADMIN)
+ * 
+ * Les lectures sont servies par l'instantané de TypeAbsenceService et portent
+ * l'empreinte des types comme ETag (la même sur tous les nœuds) : le navigateur
+ * garde la réponse 5 minutes, puis la revalide (If-None-Match → 304).
  */
 @Path("/absences/types")
 @Produces(MediaType.APPLICATION_JSON)
@@ -30,6 +38,16 @@ public class TypeAbsenceResource {
     
     private static final Logger LOGGER = Logger.getLogger(TypeAbsenceResource.class.getName());
     
+    private static final CacheControl CACHE_TYPES = new CacheControl();
+    
+    static {
+        CACHE_TYPES.setMaxAge(300);
+        CACHE_TYPES.setNoTransform(false);
+    }
+    
+    @Context
+    private Request request;
+    
     @EJB
     private TypeAbsenceService typeAbsenceService;
     
@@ -42,12 +60,18 @@ public class TypeAbsenceResource {
         LOGGER.info("GET /api/absences/types");
         
         try {
+            EntityTag etag = new EntityTag(typeAbsenceService.getEmpreinte());
+            Response nonModifie = nonModifie(etag);
+            if (nonModifie != null) {
+                return nonModifie;
+            }
+            
             List<TypeAbsence> types = typeAbsenceService.findAll();
             List<TypeAbsenceDTO> dtos = types.stream()
                 .map(TypeAbsenceDTO::new)
                 .collect(Collectors.toList());
             
-            return Response.ok(ApiResponse.success("Types récupérés", dtos)).build();
+            return Response.ok(ApiResponse.success("Types récupérés", dtos)).tag(etag).cacheControl(CACHE_TYPES).build();
             
         } catch (Exception e) {
             LOGGER.severe("Erreur : " + e.getMessage());
@@ -67,6 +91,12 @@ public class TypeAbsenceResource {
         LOGGER.info("GET /api/absences/types/" + id);
         
         try {
+            EntityTag etag = new EntityTag(typeAbsenceService.getEmpreinte());
+            Response nonModifie = nonModifie(etag);
+            if (nonModifie != null) {
+                return nonModifie;
+            }
+            
             TypeAbsence type = typeAbsenceService.findById(id);
             
             if (type == null) {
@@ -75,7 +105,7 @@ public class TypeAbsenceResource {
                     .build();
             }
             
-            return Response.ok(ApiResponse.success("Type trouvé", new TypeAbsenceDTO(type))).build();
+            return Response.ok(ApiResponse.success("Type trouvé", new TypeAbsenceDTO(type))).tag(etag).cacheControl(CACHE_TYPES).build();
             
         } catch (Exception e) {
             LOGGER.severe("Erreur : " + e.getMessage());
@@ -186,4 +216,12 @@ public class TypeAbsenceResource {
                 .build();
         }
     }
+    
+    /**
+     * Réponse 304 si le client a déjà cette version des types (If-None-Match), sinon null.
+     */
+    private Response nonModifie(EntityTag etag) {
+        Response.ResponseBuilder reponse = request.evaluatePreconditions(etag);
+        return reponse != null ? reponse.tag(etag).cacheControl(CACHE_TYPES).build() : null;
+    }
 }
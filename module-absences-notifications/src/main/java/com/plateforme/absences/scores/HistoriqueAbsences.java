@@ -0,0 +1,120 @@
+package com.plateforme.absences.scores;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Jours d'absence par employé sur une période, en tableaux primitifs.
+ * 
+ * Disposition en lignes compactes : employes[i] a les jours
+ * jours[debuts[i]] .. jours[debuts[i + 1] - 1] (epoch day, croissants, sans
+ * doublon). Construit en un seul passage sur des absences triées par
+ * (employé, date) : plusieurs absences le même jour comptent pour un jour.
+ * 
+ * Non thread-safe pendant la construction ; à lire seulement après terminer().
+ */
+public class HistoriqueAbsences {
+    
+    private final LocalDate debut;
+    private final LocalDate fin;
+    private final long premierJour;
+    private final long dernierJour;
+    
+    private long[] employes = new long[1024];
+    private int[] debuts = new int[1025];
+    private int[] jours = new int[16384];
+    private int nombreEmployes;
+    private int nombreJours;
+    private boolean termine;
+    
+    public HistoriqueAbsences(LocalDate debut, LocalDate fin) {
+        if (fin.isBefore(debut)) {
+            throw new IllegalArgumentException("Période vide : " + debut + " > " + fin);
+        }
+        this.debut = debut;
+        this.fin = fin;
+        this.premierJour = debut.toEpochDay();
+        this.dernierJour = fin.toEpochDay();
+    }
+    
+    /**
+     * Ajoute une absence ; les appels doivent suivre l'ordre (employé, date) croissant.
+     * Les dates hors de la période sont ignorées.
+     * 
+     * @throws IllegalArgumentException si l'absence précède la dernière ajoutée
+     */
+    public void ajouter(long employeId, LocalDate date) {
+        if (termine) {
+            throw new IllegalStateException("Historique déjà terminé");
+        }
+        long jour = date.toEpochDay();
+        if (jour < premierJour || jour > dernierJour) {
+            return;
+        }
+        
+        if (nombreEmployes == 0 || employeId != employes[nombreEmployes - 1]) {
+            if (nombreEmployes > 0 && employeId < employes[nombreEmployes - 1]) {
+                throw new IllegalArgumentException("Absences non triées par employé : " + employeId
+                                                   + " après " + employes[nombreEmployes - 1]);
+            }
+            if (nombreEmployes + 1 == employes.length) {
+                employes = Arrays.copyOf(employes, employes.length * 2);
+                debuts = Arrays.copyOf(debuts, employes.length + 1);
+            }
+            employes[nombreEmployes] = employeId;
+            debuts[nombreEmployes] = nombreJours;
+            nombreEmployes++;
+        } else {
+            int precedent = jours[nombreJours - 1];
+            if (jour == precedent) {
+                return;
+            }
+            if (jour < precedent) {
+                throw new IllegalArgumentException("Absences de l'employé " + employeId + " non triées par date : "
+                                                   + date + " après " + LocalDate.ofEpochDay(precedent));
+            }
+        }
+        
+        if (nombreJours == jours.length) {
+            jours = Arrays.copyOf(jours, jours.length * 2);
+        }
+        jours[nombreJours++] = (int) jour;
+    }
+    
+    /**
+     * Termine la construction (les tableaux sont ramenés à leur taille utile).
+     */
+    public HistoriqueAbsences terminer() {
+        if (!termine) {
+            debuts[nombreEmployes] = nombreJours;
+            employes = Arrays.copyOf(employes, nombreEmployes);
+            debuts = Arrays.copyOf(debuts, nombreEmployes + 1);
+            jours = Arrays.copyOf(jours, nombreJours);
+            termine = true;
+        }
+        return this;
+    }
+    
+    public LocalDate getDebut() { return debut; }
+    public LocalDate getFin() { return fin; }
+    
+    /** Nombre d'employés ayant au moins une absence sur la période. */
+    public int getNombreEmployes() { return nombreEmployes; }
+    
+    /** Nombre de jours d'absence (employé, jour) distincts. */
+    public int getNombreJours() { return nombreJours; }
+    
+    /**
+     * Estimation de la mémoire occupée par les tableaux.
+     */
+    public long getMemoireOctets() {
+        return employes.length * 8L + debuts.length * 4L + jours.length * 4L;
+    }
+    
+    long employe(int i) { return employes[i]; }
+    int debut(int i) { return debuts[i]; }
+    int fin(int i) { return debuts[i + 1]; }
+    int jour(int position) { return jours[position]; }
+    
+    boolean estTermine() { return termine; }
+}
@@ -0,0 +1,188 @@
+package com.plateforme.absences.scores;
+
+import com.plateforme.absences.dto.ScoresAbsenceDTO;
+import com.plateforme.absences.dto.ScoresAbsenceDTO.Score;
+import com.plateforme.absences.services.ArchivageAbsenceService;
+import com.plateforme.absences.services.RevisionService;
+import com.plateforme.absences.services.RoutageLectureService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Classement des employés par facteur de Bradford ou taux d'absentéisme.
+ * 
+ * L'historique de la période (absences et archive, hors absences rejetées) est
+ * lu en un seul passage trié par (employé, date) dans un HistoriqueAbsences,
+ * puis gardé tant que la révision "absences" ne change pas : un classement
+ * répété sur la même période ne relit pas la base. Les scores sont recalculés
+ * à chaque appel par ScoresAbsences sur un ForkJoinPool dédié.
+ * 
+ * Propriété système :
+ * - absences.scores.parallelisme : threads du calcul (défaut : nombre de processeurs)
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.SUPPORTS)
+public class ScoreAbsenceService {
+    
+    private static final Logger LOGGER = Logger.getLogger(ScoreAbsenceService.class.getName());
+    
+    public static final String TRI_BRADFORD = "bradford";
+    public static final String TRI_TAUX = "taux";
+    
+    // Absences refusées par le manager : non comptées
+    private static final String STATUT_EXCLU = "REJETE";
+    
+    private static final int TAILLE_FETCH = 5000;
+    
+    private static final Comparator<Object[]> ORDRE =
+        Comparator.comparing((Object[] ligne) -> (Long) ligne[0]).thenComparing(ligne -> (LocalDate) ligne[1]);
+    
+    @EJB
+    private RoutageLectureService lectures;
+    
+    @EJB
+    private RevisionService revisions;
+    
+    @EJB
+    private ArchivageAbsenceService archivage;
+    
+    private ForkJoinPool pool;
+    
+    // Dernier historique chargé (période et révision des absences à la lecture)
+    private volatile Charge derniere;
+    
+    private static final class Charge {
+        private final LocalDate debut;
+        private final LocalDate fin;
+        private final String jeton;
+        private final HistoriqueAbsences historique;
+        
+        Charge(LocalDate debut, LocalDate fin, String jeton, HistoriqueAbsences historique) {
+            this.debut = debut;
+            this.fin = fin;
+            this.jeton = jeton;
+            this.historique = historique;
+        }
+        
+        boolean correspond(LocalDate debut, LocalDate fin, String jeton) {
+            return this.debut.equals(debut) && this.fin.equals(fin) && this.jeton.equals(jeton);
+        }
+    }
+    
+    @PostConstruct
+    public void demarrer() {
+        int parallelisme = Math.max(1, Integer.getInteger("absences.scores.parallelisme",
+                                                          Runtime.getRuntime().availableProcessors()));
+        pool = new ForkJoinPool(parallelisme);
+        LOGGER.info("Calcul des scores d'absence sur " + parallelisme + " thread(s)");
+    }
+    
+    @PreDestroy
+    public void arreter() {
+        pool.shutdown();
+    }
+    
+    /**
+     * Les {@code top} premiers employés de la période, par Bradford ou par taux.
+     * 
+     * Seuls les employés ayant au moins une absence sur la période figurent dans le classement.
+     */
+    public ScoresAbsenceDTO classement(LocalDate debut, LocalDate fin, String tri, int top) {
+        ScoresAbsences scores = calculer(debut, fin);
+        int[] rangs = scores.classement(TRI_TAUX.equals(tri), top);
+        
+        List<Score> classement = new ArrayList<>(rangs.length);
+        for (int r = 0; r < rangs.length; r++) {
+            int i = rangs[r];
+            classement.add(new Score(r + 1, scores.getEmployeId(i), scores.getEpisodes(i), scores.getJours(i),
+                                     scores.getBradford(i), Math.round(scores.getTaux(i) * 100) / 100.0));
+        }
+        
+        ScoresAbsenceDTO dto = new ScoresAbsenceDTO(debut, fin, tri);
+        dto.setJoursOuvres(scores.getJoursOuvres());
+        dto.setEmployesAbsents(scores.getNombreEmployes());
+        dto.setClassement(classement);
+        return dto;
+    }
+    
+    /**
+     * Scores de tous les employés absents sur la période.
+     */
+    public ScoresAbsences calculer(LocalDate debut, LocalDate fin) {
+        HistoriqueAbsences historique = historique(debut, fin);
+        long t0 = System.nanoTime();
+        ScoresAbsences scores = ScoresAbsences.calculer(historique, pool);
+        LOGGER.info("Scores d'absence du " + debut + " au " + fin + " : " + scores.getNombreEmployes()
+                    + " employé(s) en " + (System.nanoTime() - t0) / 1_000_000 + " ms");
+        return scores;
+    }
+    
+    private HistoriqueAbsences historique(LocalDate debut, LocalDate fin) {
+        // Jeton lu avant le chargement : une écriture pendant la lecture force un rechargement au prochain appel
+        String jeton = revisions.jeton(RevisionService.ABSENCES);
+        Charge charge = derniere;
+        if (charge != null && charge.correspond(debut, fin, jeton)) {
+            return charge.historique;
+        }
+        
+        long t0 = System.currentTimeMillis();
+        HistoriqueAbsences historique = lectures.lire(lecture -> charger(lecture, debut, fin), RevisionService.ABSENCES);
+        derniere = new Charge(debut, fin, jeton, historique);
+        LOGGER.info("Historique des absences du " + debut + " au " + fin + " chargé : "
+                    + historique.getNombreJours() + " jour(s), " + historique.getNombreEmployes() + " employé(s), ~"
+                    + historique.getMemoireOctets() / 1024 + " Ko, en " + (System.currentTimeMillis() - t0) + " ms");
+        return historique;
+    }
+    
+    /**
+     * Un passage sur les deux flux triés (table absences et archive si la période la recouvre).
+     */
+    private HistoriqueAbsences charger(EntityManager lecture, LocalDate debut, LocalDate fin) {
+        HistoriqueAbsences historique = new HistoriqueAbsences(debut, fin);
+        try (Stream<Object[]> lignes = lignes(lecture, "Absence.scores", debut, fin);
+             Stream<Object[]> archivees = archivage.concerne(debut)
+                 ? lignes(lecture, "AbsenceArchive.scores", debut, fin)
+                 : Stream.empty()) {
+            Iterator<Object[]> a = lignes.iterator();
+            Iterator<Object[]> b = archivees.iterator();
+            Object[] x = a.hasNext() ? a.next() : null;
+            Object[] y = b.hasNext() ? b.next() : null;
+            while (x != null || y != null) {
+                if (y == null || (x != null && ORDRE.compare(x, y) <= 0)) {
+                    historique.ajouter((Long) x[0], (LocalDate) x[1]);
+                    x = a.hasNext() ? a.next() : null;
+                } else {
+                    historique.ajouter((Long) y[0], (LocalDate) y[1]);
+                    y = b.hasNext() ? b.next() : null;
+                }
+            }
+        }
+        return historique.terminer();
+    }
+    
+    private static Stream<Object[]> lignes(EntityManager lecture, String requete, LocalDate debut, LocalDate fin) {
+        return lecture.createNamedQuery(requete, Object[].class)
+                      .setParameter("debut", debut)
+                      .setParameter("fin", fin)
+                      .setParameter("exclu", STATUT_EXCLU)
+                      .setHint("org.hibernate.fetchSize", TAILLE_FETCH)
+                      .getResultStream();
+    }
+}
@@ -0,0 +1,195 @@
+package com.plateforme.absences.scores;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Facteur de Bradford et taux d'absentéisme de chaque employé d'un HistoriqueAbsences.
+ * 
+ * - Épisode (S) : suite de jours d'absence consécutifs ; un week-end (samedi,
+ *   dimanche) entre deux jours d'absence ne l'interrompt pas.
+ * - Jours (D) : jours d'absence distincts.
+ * - Bradford : S² × D.
+ * - Taux : D / jours ouvrés (lundi à vendredi) de la période, en pourcentage.
+ * 
+ * Le calcul est réparti par tranches d'employés sur un ForkJoinPool ; chaque
+ * tâche écrit ses propres cases des tableaux de résultats.
+ */
+public class ScoresAbsences {
+    
+    /** Employés par tâche en dessous duquel une tranche n'est plus découpée. */
+    static final int SEUIL_DECOUPAGE = 512;
+    
+    // Index d'employé sur 24 bits dans les clés de classement (voir classement)
+    private static final int BITS_INDEX = 24;
+    private static final long MASQUE_INDEX = (1L << BITS_INDEX) - 1;
+    
+    private final HistoriqueAbsences historique;
+    private final int joursOuvres;
+    private final int[] episodes;
+    private final int[] jours;
+    private final long[] bradford;
+    
+    private ScoresAbsences(HistoriqueAbsences historique) {
+        this.historique = historique;
+        this.joursOuvres = joursOuvres(historique.getDebut(), historique.getFin());
+        int n = historique.getNombreEmployes();
+        this.episodes = new int[n];
+        this.jours = new int[n];
+        this.bradford = new long[n];
+    }
+    
+    /**
+     * Calcule les scores de tous les employés de l'historique (terminé).
+     */
+    public static ScoresAbsences calculer(HistoriqueAbsences historique, ForkJoinPool pool) {
+        if (!historique.estTermine()) {
+            throw new IllegalStateException("Historique en cours de construction");
+        }
+        ScoresAbsences scores = new ScoresAbsences(historique);
+        if (historique.getNombreEmployes() > 0) {
+            pool.invoke(scores.new Tranche(0, historique.getNombreEmployes()));
+        }
+        return scores;
+    }
+    
+    /**
+     * Tranche [debut, fin[ des employés, découpée en deux tant qu'elle dépasse SEUIL_DECOUPAGE.
+     */
+    private final class Tranche extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        private final int debut;
+        private final int fin;
+        
+        Tranche(int debut, int fin) {
+            this.debut = debut;
+            this.fin = fin;
+        }
+        
+        @Override
+        protected void compute() {
+            if (fin - debut <= SEUIL_DECOUPAGE) {
+                for (int i = debut; i < fin; i++) {
+                    calculerEmploye(i);
+                }
+                return;
+            }
+            int milieu = (debut + fin) >>> 1;
+            invokeAll(new Tranche(debut, milieu), new Tranche(milieu, fin));
+        }
+    }
+    
+    private void calculerEmploye(int i) {
+        int debut = historique.debut(i);
+        int fin = historique.fin(i);
+        int s = 1;
+        int precedent = historique.jour(debut);
+        for (int p = debut + 1; p < fin; p++) {
+            int jour = historique.jour(p);
+            if (!prolonge(precedent, jour)) {
+                s++;
+            }
+            precedent = jour;
+        }
+        int d = fin - debut;
+        episodes[i] = s;
+        jours[i] = d;
+        bradford[i] = (long) s * s * d;
+    }
+    
+    /**
+     * Vrai si le jour suivant prolonge l'épisode : lendemain, ou seuls des jours de week-end entre les deux.
+     */
+    static boolean prolonge(int precedent, int suivant) {
+        if (suivant - precedent > 3) {
+            return false;
+        }
+        for (int jour = precedent + 1; jour < suivant; jour++) {
+            if (!weekEnd(jour)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    // Epoch day 0 (1970-01-01) est un jeudi : lundi = 0 ... dimanche = 6
+    private static boolean weekEnd(long epochDay) {
+        return Math.floorMod(epochDay + 3, 7) >= 5;
+    }
+    
+    static int joursOuvres(LocalDate debut, LocalDate fin) {
+        int ouvres = 0;
+        for (long jour = debut.toEpochDay(); jour <= fin.toEpochDay(); jour++) {
+            if (!weekEnd(jour)) {
+                ouvres++;
+            }
+        }
+        return ouvres;
+    }
+    
+    /**
+     * Index des employés du plus absent au moins absent, limités à {@code top}.
+     * 
+     * Tri par facteur de Bradford, ou par taux d'absentéisme (c'est-à-dire par
+     * jours, le dénominateur étant commun) ; à égalité, par ID employé croissant.
+     * Le tri porte sur des clés long (score << 24 | index inversé) : pas d'objet
+     * par employé.
+     */
+    public int[] classement(boolean parTaux, int top) {
+        int n = historique.getNombreEmployes();
+        if (n > MASQUE_INDEX) {
+            throw new IllegalStateException("Trop d'employés pour le classement : " + n);
+        }
+        long[] cles = new long[n];
+        for (int i = 0; i < n; i++) {
+            long score = parTaux ? jours[i] : bradford[i];
+            // Index inversé : à score égal, le plus petit index (ID employé) est en fin de tableau trié
+            cles[i] = (score << BITS_INDEX) | (MASQUE_INDEX - i);
+        }
+        Arrays.sort(cles);
+        
+        int[] rangs = new int[Math.min(Math.max(top, 0), n)];
+        for (int r = 0; r < rangs.length; r++) {
+            rangs[r] = (int) (MASQUE_INDEX - (cles[n - 1 - r] & MASQUE_INDEX));
+        }
+        return rangs;
+    }
+    
+    public int getNombreEmployes() { return historique.getNombreEmployes(); }
+    public int getJoursOuvres() { return joursOuvres; }
+    
+    public long getEmployeId(int i) { return historique.employe(i); }
+    public int getEpisodes(int i) { return episodes[i]; }
+    public int getJours(int i) { return jours[i]; }
+    public long getBradford(int i) { return bradford[i]; }
+    
+    /**
+     * Taux d'absentéisme en pourcentage des jours ouvrés (0 si la période n'en compte aucun).
+     */
+    public double getTaux(int i) {
+        return joursOuvres == 0 ? 0 : 100.0 * jours[i] / joursOuvres;
+    }
+    
+    /**
+     * Index d'un employé dans l'historique (et les résultats), ou -1 s'il n'a aucune absence sur la période.
+     */
+    public int indexDe(long employeId) {
+        int bas = 0;
+        int haut = historique.getNombreEmployes() - 1;
+        while (bas <= haut) {
+            int milieu = (bas + haut) >>> 1;
+            long id = historique.employe(milieu);
+            if (id < employeId) {
+                bas = milieu + 1;
+            } else if (id > employeId) {
+                haut = milieu - 1;
+            } else {
+                return milieu;
+            }
+        }
+        return -1;
+    }
+}
@@ -1,16 +1,58 @@
 package com.plateforme.absences.services;
 
+import com.plateforme.absences.dto.AbsenceCursor;
+import com.plateforme.absences.dto.AbsenceDTO;
 import com.plateforme.absences.entities.Absence;
+import com.plateforme.absences.entities.TypeAbsence;
+import com.plateforme.absences.events.AbsenceEvent;
+import com.plateforme.absences.index.ChevauchementException;
+import com.plateforme.absences.index.IntervalleAbsenceService;
+import com.plateforme.absences.index.IntervalleIndex.Intervalle;
+import com.plateforme.absences.jms.NotificationEvent;
+import com.plateforme.absences.jms.NotificationOutbox;
 import com.plateforme.absences.jms.NotificationProducer;
 
+import jakarta.annotation.Resource;
 import jakarta.ejb.EJB;
+import jakarta.ejb.SessionContext;
 import jakarta.ejb.Stateless;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
 import jakarta.persistence.TypedQuery;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
 
 /**
  * Service EJB pour gérer les absences.
@@ -20,11 +62,88 @@ public class AbsenceService {
     
     private static final Logger LOGGER = Logger.getLogger(AbsenceService.class.getName());
     
+    /**
+     * Nombre de lignes rapatriées par aller-retour JDBC lors des lectures en flux.
+     * (Avec MySQL, nécessite useCursorFetch=true sur la DataSource.)
+     */
+    private static final int TAILLE_FETCH = 500;
+    
+    /**
+     * Nombre d'INSERT envoyés par executeBatch lors des créations en masse.
+     * Avec rewriteBatchedStatements=true sur la DataSource, Connector/J les
+     * réécrit en INSERT multi-lignes (quelques allers-retours au lieu d'un par ligne).
+     */
+    private static final int TAILLE_LOT_JDBC = 500;
+    
+    /**
+     * Nombre maximum d'IDs liés dans un même IN de findByEquipe (puissance de 2).
+     */
+    private static final int TAILLE_LOT_EQUIPE = 512;
+    
+    /**
+     * Nombre de lots de findByEquipe exécutés en parallèle pour une même recherche.
+     */
+    private static final int PARALLELISME_EQUIPE = 4;
+    
+    private static final Comparator<Absence> ORDRE_EQUIPE =
+        Comparator.comparing(Absence::getDateAbsence).thenComparing(Absence::getId).reversed();
+    
+    // Ordres (date_absence, id) des requêtes fusionnées avec l'archive
+    private static final Comparator<AbsenceDTO> ORDRE_CROISSANT =
+        Comparator.comparing(AbsenceDTO::getDateAbsence).thenComparing(AbsenceDTO::getId);
+    private static final Comparator<AbsenceDTO> ORDRE_DECROISSANT = ORDRE_CROISSANT.reversed();
+    private static final Comparator<Object[]> ORDRE_EXPORT =
+        Comparator.comparing((Object[] ligne) -> (LocalDate) ligne[3]).thenComparing(ligne -> (Long) ligne[0]);
+    
+    /** Statut d'une absence qui attend la décision d'un manager. */
+    public static final String EN_ATTENTE = "EN_ATTENTE";
+    
+    /** Statut d'une absence encore en attente à la clôture de son mois (ClotureMensuelleService). */
+    public static final String VERROUILLE = "VERROUILLE";
+    
+    /** Statuts qu'un manager peut donner à une absence en attente. */
+    public static final Set<String> STATUTS_DECISION = Set.of("VALIDE", "REJETE");
+    
+    private static final String INSERT_ABSENCE =
+        "INSERT INTO absences (employe_id, type_absence_id, date_absence, heure_debut, heure_fin, "
+      + "duree_heures, motif, statut, justifiee, document_justificatif, enregistre_par, date_creation) "
+      + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
     @PersistenceContext(unitName = "absencesPU")
     private EntityManager em;
     
     @EJB
-    private NotificationProducer notificationProducer;
+    private NotificationOutbox notificationOutbox;
+    
+    @EJB
+    private IntervalleAbsenceService intervalles;
+    
+    @EJB
+    private TotalMensuelService totaux;
+    
+    @EJB
+    private ChangementAbsenceService changements;
+    
+    @EJB
+    private ArchivageAbsenceService archivage;
+    
+    // Listes lues sur la réplique hors transaction (sauf collection modifiée récemment)
+    @EJB
+    private RoutageLectureService lectures;
+    
+    // Même DataSource que absencesPU : les INSERT en lot participent à la transaction JTA
+    @Resource(lookup = "java:/gestion_rh_jeeDS")
+    private DataSource dataSource;
+    
+    @Resource
+    private SessionContext sessionContext;
+    
+    @Resource
+    private ManagedExecutorService executor;
+    
+    // Écritures publiées aux index et caches en mémoire (après commit)
+    @Inject
+    private Event<AbsenceEvent> absenceEvents;
     
     /**
      * Récupère toutes les absences.
@@ -66,11 +185,68 @@ public class AbsenceService {
     
     /**
      * Trouve les absences d'une équipe (liste d'employés).
+     * 
+     * Les IDs sont découpés en lots d'au plus TAILLE_LOT_EQUIPE ; au-delà d'un lot,
+     * les requêtes partent en parallèle (PARALLELISME_EQUIPE à la fois) et les
+     * résultats sont fusionnés par date décroissante.
      */
     public List<Absence> findByEquipe(List<Long> employeIds) {
-        LOGGER.info("Recherche des absences de l'équipe");
+        List<Long> ids = employeIds.stream().distinct().sorted().toList();
+        LOGGER.info("Recherche des absences de l'équipe (" + ids.size() + " employé(s))");
+        
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (ids.size() <= TAILLE_LOT_EQUIPE) {
+            return findByEquipeLot(ids);
+        }
+        
+        // Passer par le proxy EJB : chaque lot s'exécute dans sa propre transaction
+        AbsenceService self = sessionContext.getBusinessObject(AbsenceService.class);
+        List<Callable<List<Absence>>> taches = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += TAILLE_LOT_EQUIPE) {
+            List<Long> lot = ids.subList(i, Math.min(i + TAILLE_LOT_EQUIPE, ids.size()));
+            taches.add(() -> self.findByEquipeLot(lot));
+        }
+        
+        List<Absence> absences = new ArrayList<>();
+        try {
+            for (int i = 0; i < taches.size(); i += PARALLELISME_EQUIPE) {
+                for (Future<List<Absence>> resultat : executor.invokeAll(
+                        taches.subList(i, Math.min(i + PARALLELISME_EQUIPE, taches.size())))) {
+                    absences.addAll(resultat.get());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PersistenceException("Recherche des absences de l'équipe interrompue", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new PersistenceException("Erreur lors de la recherche des absences de l'équipe", e.getCause());
+        }
+        
+        absences.sort(ORDRE_EQUIPE);
+        return absences;
+    }
+    
+    /**
+     * Absences d'un lot d'au plus TAILLE_LOT_EQUIPE employés.
+     * 
+     * La liste est complétée (en répétant le dernier ID) jusqu'à la puissance de 2
+     * supérieure : la requête ne prend que quelques formes et reste en cache.
+     */
+    public List<Absence> findByEquipeLot(List<Long> employeIds) {
+        int taille = Math.max(8, Integer.highestOneBit(employeIds.size() - 1) << 1);
+        List<Long> parametres = new ArrayList<>(taille);
+        parametres.addAll(employeIds);
+        while (parametres.size() < taille) {
+            parametres.add(employeIds.get(employeIds.size() - 1));
+        }
+        
         TypedQuery<Absence> query = em.createNamedQuery("Absence.findByEquipe", Absence.class);
-        query.setParameter("employeIds", employeIds);
+        query.setParameter("employeIds", parametres);
         return query.getResultList();
     }
     
@@ -83,31 +259,488 @@ public class AbsenceService {
                  .getResultList();
     }
     
+    // ========================================
+    // LECTURES PROJETÉES (AbsenceDTO)
+    // ========================================
+    // Les requêtes "AbsenceDTO.*" construisent directement les DTO : pas
+    // d'entité gérée, pas d'instantané de dirty-checking, une seule jointure
+    // vers types_absences.
+    
+    /**
+     * Récupère toutes les absences, projetées en DTO (date décroissante).
+     */
+    @TransactionAttribute(TransactionAttributeType.SUPPORTS)
+    public List<AbsenceDTO> findAllDTO() {
+        LOGGER.info("Récupération de toutes les absences (projection)");
+        return lectures.lire(lecture -> lecture.createNamedQuery("AbsenceDTO.findAll", AbsenceDTO.class)
+                                               .getResultList(),
+                             RevisionService.TYPES_ABSENCE, RevisionService.ABSENCES);
+    }
+    
+    /**
+     * Trouve les absences d'un employé, projetées en DTO.
+     * 
+     * @param inclureArchive true pour ajouter les absences archivées (historique complet)
+     */
+    @TransactionAttribute(TransactionAttributeType.SUPPORTS)
+    public List<AbsenceDTO> findByEmployeDTO(Long employeId, boolean inclureArchive) {
+        LOGGER.info("Recherche des absences de l'employé ID : " + employeId + " (projection)");
+        boolean archive = inclureArchive && archivage.getBorne() != null;
+        return lectures.lire(lecture -> {
+            List<AbsenceDTO> absences = lecture.createNamedQuery("AbsenceDTO.findByEmploye", AbsenceDTO.class)
+                                               .setParameter("employeId", employeId)
+                                               .getResultList();
+            if (!archive) {
+                return absences;
+            }
+            List<AbsenceDTO> archivees = lecture.createNamedQuery("AbsenceArchiveDTO.findByEmploye", AbsenceDTO.class)
+                                                .setParameter("employeId", employeId)
+                                                .getResultList();
+            return fusionner(absences, archivees, ORDRE_DECROISSANT, Integer.MAX_VALUE);
+        }, RevisionService.TYPES_ABSENCE, RevisionService.absencesEmploye(employeId));
+    }
+    
+    /**
+     * Trouve les absences sur une période, projetées en DTO (archive comprise si la période la recouvre).
+     */
+    @TransactionAttribute(TransactionAttributeType.SUPPORTS)
+    public List<AbsenceDTO> findByPeriodeDTO(LocalDate debut, LocalDate fin) {
+        LOGGER.info("Recherche des absences entre " + debut + " et " + fin + " (projection)");
+        boolean archive = archivage.concerne(debut);
+        return lectures.lire(lecture -> {
+            List<AbsenceDTO> absences = lecture.createNamedQuery("AbsenceDTO.findByPeriode", AbsenceDTO.class)
+                                               .setParameter("debut", debut)
+                                               .setParameter("fin", fin)
+                                               .getResultList();
+            if (!archive) {
+                return absences;
+            }
+            List<AbsenceDTO> archivees = lecture.createNamedQuery("AbsenceArchiveDTO.findByPeriode", AbsenceDTO.class)
+                                                .setParameter("debut", debut)
+                                                .setParameter("fin", fin)
+                                                .getResultList();
+            return fusionner(absences, archivees, ORDRE_CROISSANT, Integer.MAX_VALUE);
+        }, RevisionService.TYPES_ABSENCE, RevisionService.ABSENCES);
+    }
+    
+    /**
+     * Trouve les absences non justifiées, projetées en DTO.
+     */
+    @TransactionAttribute(TransactionAttributeType.SUPPORTS)
+    public List<AbsenceDTO> findNonJustifieesDTO() {
+        LOGGER.info("Recherche des absences non justifiées (projection)");
+        return lectures.lire(lecture -> lecture.createNamedQuery("AbsenceDTO.findNonJustifiees", AbsenceDTO.class)
+                                               .getResultList(),
+                             RevisionService.TYPES_ABSENCE, RevisionService.ABSENCES);
+    }
+    
+    // ========================================
+    // PAGINATION PAR CURSEUR (date_absence, id)
+    // ========================================
+    
     /**
-     * Crée une nouvelle absence ET envoie une notification asynchrone.
+     * Récupère une page de toutes les absences (date décroissante).
+     * 
+     * @param apres Position de la dernière ligne déjà lue (null pour la première page)
+     * @param max Nombre maximum de lignes à lire
+     */
+    @TransactionAttribute(TransactionAttributeType.SUPPORTS)
+    public List<AbsenceDTO> findAll(AbsenceCursor apres, int max) {
+        LOGGER.info("Récupération d'une page d'absences après " + (apres != null ? apres.getId() : "début"));
+        return lectures.lire(lecture -> {
+            TypedQuery<AbsenceDTO> query = apres == null
+                ? lecture.createNamedQuery("AbsenceDTO.findAll", AbsenceDTO.class)
+                : positionner(lecture.createNamedQuery("AbsenceDTO.findAllApres", AbsenceDTO.class), apres);
+            return query.setMaxResults(max).getResultList();
+        }, RevisionService.TYPES_ABSENCE, RevisionService.ABSENCES);
+    }
+    
+    /**
+     * Récupère une page des absences d'un employé (date décroissante).
+     * 
+     * @param inclureArchive true pour poursuivre dans les absences archivées
+     */
+    @TransactionAttribute(TransactionAttributeType.SUPPORTS)
+    public List<AbsenceDTO> findByEmploye(Long employeId, AbsenceCursor apres, int max, boolean inclureArchive) {
+        LOGGER.info("Recherche d'une page d'absences de l'employé ID : " + employeId);
+        boolean archive = inclureArchive && archivage.getBorne() != null;
+        return lectures.lire(lecture -> {
+            List<AbsenceDTO> absences = pageEmploye(lecture, "AbsenceDTO", employeId, apres, max);
+            if (!archive) {
+                return absences;
+            }
+            return fusionner(absences, pageEmploye(lecture, "AbsenceArchiveDTO", employeId, apres, max),
+                             ORDRE_DECROISSANT, max);
+        }, RevisionService.TYPES_ABSENCE, RevisionService.absencesEmploye(employeId));
+    }
+    
+    private List<AbsenceDTO> pageEmploye(EntityManager lecture, String prefixe, Long employeId, AbsenceCursor apres, int max) {
+        TypedQuery<AbsenceDTO> query = apres == null
+            ? lecture.createNamedQuery(prefixe + ".findByEmploye", AbsenceDTO.class)
+            : positionner(lecture.createNamedQuery(prefixe + ".findByEmployeApres", AbsenceDTO.class), apres);
+        query.setParameter("employeId", employeId);
+        return query.setMaxResults(max).getResultList();
+    }
+    
+    /**
+     * Récupère une page des absences sur une période (date croissante).
+     * 
+     * Si la période commence avant la borne d'archivage, la même page est lue
+     * dans l'archive et les deux sont fusionnées selon (date_absence, id).
+     */
+    @TransactionAttribute(TransactionAttributeType.SUPPORTS)
+    public List<AbsenceDTO> findByPeriode(LocalDate debut, LocalDate fin, AbsenceCursor apres, int max) {
+        LOGGER.info("Recherche d'une page d'absences entre " + debut + " et " + fin);
+        boolean archive = archivage.concerne(debut);
+        return lectures.lire(lecture -> {
+            List<AbsenceDTO> absences = pagePeriode(lecture, "AbsenceDTO", debut, fin, apres, max);
+            if (!archive) {
+                return absences;
+            }
+            return fusionner(absences, pagePeriode(lecture, "AbsenceArchiveDTO", debut, fin, apres, max),
+                             ORDRE_CROISSANT, max);
+        }, RevisionService.TYPES_ABSENCE, RevisionService.ABSENCES);
+    }
+    
+    private List<AbsenceDTO> pagePeriode(EntityManager lecture, String prefixe, LocalDate debut, LocalDate fin,
+                                         AbsenceCursor apres, int max) {
+        TypedQuery<AbsenceDTO> query = apres == null
+            ? lecture.createNamedQuery(prefixe + ".findByPeriode", AbsenceDTO.class)
+            : positionner(lecture.createNamedQuery(prefixe + ".findByPeriodeApres", AbsenceDTO.class), apres);
+        query.setParameter("debut", debut);
+        query.setParameter("fin", fin);
+        return query.setMaxResults(max).getResultList();
+    }
+    
+    /**
+     * Récupère une page des absences non justifiées (date décroissante).
+     */
+    @TransactionAttribute(TransactionAttributeType.SUPPORTS)
+    public List<AbsenceDTO> findNonJustifiees(AbsenceCursor apres, int max) {
+        LOGGER.info("Recherche d'une page d'absences non justifiées");
+        return lectures.lire(lecture -> {
+            TypedQuery<AbsenceDTO> query = apres == null
+                ? lecture.createNamedQuery("AbsenceDTO.findNonJustifiees", AbsenceDTO.class)
+                : positionner(lecture.createNamedQuery("AbsenceDTO.findNonJustifieesApres", AbsenceDTO.class), apres);
+            return query.setMaxResults(max).getResultList();
+        }, RevisionService.TYPES_ABSENCE, RevisionService.ABSENCES);
+    }
+    
+    /**
+     * Lie la position du curseur aux paramètres :date et :id de la requête.
+     */
+    private TypedQuery<AbsenceDTO> positionner(TypedQuery<AbsenceDTO> query, AbsenceCursor apres) {
+        query.setParameter("date", apres.getDateAbsence());
+        query.setParameter("id", apres.getId());
+        return query;
+    }
+    
+    /**
+     * Fusionne deux listes triées selon {@code ordre} en gardant au plus {@code max} éléments.
+     */
+    private static List<AbsenceDTO> fusionner(List<AbsenceDTO> a, List<AbsenceDTO> b,
+                                              Comparator<AbsenceDTO> ordre, int max) {
+        if (b.isEmpty()) {
+            return a;
+        }
+        List<AbsenceDTO> resultat = new ArrayList<>(Math.min(max, a.size() + b.size()));
+        fusionner(a.iterator(), b.iterator(), ordre, absence -> {
+            if (resultat.size() < max) {
+                resultat.add(absence);
+            }
+        });
+        return resultat;
+    }
+    
+    /**
+     * Parcourt deux flux triés selon {@code ordre} (table absences et archive) dans cet ordre.
+     * 
+     * @return Nombre d'éléments transmis au consommateur
+     */
+    private static <T> long fusionner(Iterator<T> a, Iterator<T> b, Comparator<? super T> ordre,
+                                      Consumer<? super T> consommateur) {
+        long total = 0;
+        T x = a.hasNext() ? a.next() : null;
+        T y = b.hasNext() ? b.next() : null;
+        while (x != null || y != null) {
+            if (y == null || (x != null && ordre.compare(x, y) <= 0)) {
+                consommateur.accept(x);
+                x = a.hasNext() ? a.next() : null;
+            } else {
+                consommateur.accept(y);
+                y = b.hasNext() ? b.next() : null;
+            }
+            total++;
+        }
+        return total;
+    }
+    
+    // ========================================
+    // LECTURE EN FLUX (exports volumineux)
+    // ========================================
+    
+    /**
+     * Parcourt toutes les absences en flux, sans les charger en mémoire.
+     * 
+     * Les lignes sont des projections (aucune entité gérée) : le contexte de
+     * persistance ne grossit pas avec le volume lu.
+     * 
+     * @param consommateur Traitement appliqué à chaque absence (écriture de la réponse)
+     * @return Nombre d'absences lues
+     */
+    public long parcourirTout(Consumer<AbsenceDTO> consommateur) {
+        LOGGER.info("Lecture en flux de toutes les absences");
+        return parcourir(em.createNamedQuery("AbsenceDTO.findAll", AbsenceDTO.class), consommateur);
+    }
+    
+    /**
+     * Parcourt en flux les absences d'une période pour l'export paie.
+     * 
+     * Les lignes sont lues sans jointure : le nom du type vient d'une table
+     * ID → nom chargée une fois (quelques lignes) au début de l'export. Si la
+     * période recouvre l'archive, les deux flux sont fusionnés par (date, id).
+     * 
+     * @return Nombre d'absences exportées
+     */
+    public long parcourirExport(LocalDate debut, LocalDate fin, Consumer<AbsenceDTO> consommateur) {
+        LOGGER.info("Export des absences entre " + debut + " et " + fin);
+        Map<Long, String> nomsTypes = new HashMap<>();
+        for (TypeAbsence type : em.createNamedQuery("TypeAbsence.findAll", TypeAbsence.class).getResultList()) {
+            nomsTypes.put(type.getId(), type.getNom());
+        }
+        
+        try (Stream<Object[]> lignes = lignesExport("Absence.export", debut, fin);
+             Stream<Object[]> archivees = archivage.concerne(debut)
+                 ? lignesExport("AbsenceArchive.export", debut, fin)
+                 : Stream.empty()) {
+            AbsenceDTO dto = new AbsenceDTO();
+            return fusionner(lignes.iterator(), archivees.iterator(), ORDRE_EXPORT, ligne -> {
+                // Un seul DTO réutilisé : le consommateur l'écrit aussitôt
+                dto.setId((Long) ligne[0]);
+                dto.setEmployeId((Long) ligne[1]);
+                dto.setTypeAbsenceId((Long) ligne[2]);
+                dto.setTypeAbsenceNom(nomsTypes.get((Long) ligne[2]));
+                dto.setDateAbsence((LocalDate) ligne[3]);
+                dto.setHeureDebut((LocalTime) ligne[4]);
+                dto.setHeureFin((LocalTime) ligne[5]);
+                dto.setDureeHeures((BigDecimal) ligne[6]);
+                dto.setMotif((String) ligne[7]);
+                dto.setJustifiee((Boolean) ligne[8]);
+                dto.setStatut((String) ligne[9]);
+                consommateur.accept(dto);
+            });
+        }
+    }
+    
+    private Stream<Object[]> lignesExport(String requete, LocalDate debut, LocalDate fin) {
+        return em.createNamedQuery(requete, Object[].class)
+                 .setParameter("debut", debut)
+                 .setParameter("fin", fin)
+                 .setHint("org.hibernate.fetchSize", TAILLE_FETCH)
+                 .getResultStream();
+    }
+    
+    /**
+     * Parcourt en flux les absences d'une période (date croissante, archive comprise si besoin).
+     */
+    public long parcourirPeriode(LocalDate debut, LocalDate fin, Consumer<AbsenceDTO> consommateur) {
+        LOGGER.info("Lecture en flux des absences entre " + debut + " et " + fin);
+        TypedQuery<AbsenceDTO> query = em.createNamedQuery("AbsenceDTO.findByPeriode", AbsenceDTO.class);
+        query.setParameter("debut", debut);
+        query.setParameter("fin", fin);
+        if (!archivage.concerne(debut)) {
+            return parcourir(query, consommateur);
+        }
+        
+        TypedQuery<AbsenceDTO> archive = em.createNamedQuery("AbsenceArchiveDTO.findByPeriode", AbsenceDTO.class);
+        archive.setParameter("debut", debut);
+        archive.setParameter("fin", fin);
+        try (Stream<AbsenceDTO> absences = query.setHint("org.hibernate.fetchSize", TAILLE_FETCH).getResultStream();
+             Stream<AbsenceDTO> archivees = archive.setHint("org.hibernate.fetchSize", TAILLE_FETCH).getResultStream()) {
+            return fusionner(absences.iterator(), archivees.iterator(), ORDRE_CROISSANT, consommateur);
+        }
+    }
+    
+    private long parcourir(TypedQuery<AbsenceDTO> query, Consumer<AbsenceDTO> consommateur) {
+        query.setHint("org.hibernate.fetchSize", TAILLE_FETCH);
+        
+        long total = 0;
+        try (Stream<AbsenceDTO> flux = query.getResultStream()) {
+            Iterator<AbsenceDTO> it = flux.iterator();
+            while (it.hasNext()) {
+                consommateur.accept(it.next());
+                total++;
+            }
+        }
+        return total;
+    }
+    
+    /**
+     * Crée une nouvelle absence ET sa notification (envoyée après le commit).
      */
     public Absence create(Absence absence) {
         LOGGER.info("Création d'une absence pour l'employé ID : " + absence.getEmployeId());
+        archivage.verifierModifiable(absence.getDateAbsence());
+        
+        // 1. Réserver la plage (ChevauchementException si l'employé est déjà absent)
+        Intervalle plage = intervalles.reserver(absence, null);
         
-        // 1. Persister l'absence
+        // 2. Persister l'absence
         em.persist(absence);
         em.flush(); // Force l'INSERT pour avoir l'ID
+        plage.setAbsenceId(absence.getId());
+        AbsenceDTO creee = new AbsenceDTO(absence);
+        totaux.appliquer(null, creee);
+        AbsenceEvent event = AbsenceEvent.creation(creee);
+        changements.journaliser(event);
+        absenceEvents.fire(event);
         
-        // 2. Envoyer une notification JMS asynchrone
-        try {
-            notificationProducer.envoyerNotificationAbsence(
+        // 3. Notification envoyée après le commit (boîte d'envoi, même transaction)
+        notificationOutbox.ajouter(NotificationProducer.evenementAbsence(
+            absence.getEmployeId(),
+            absence.getEnregistrePar(),
+            absence.getId(),
+            absence.getTypeAbsence().getNom(),
+            absence.getDateAbsence().toString()
+        ));
+        
+        return absence;
+    }
+    
+    /**
+     * Lignes d'un lot qui chevauchent une absence existante ou une autre ligne du lot,
+     * ou qui tombent dans une période archivée.
+     * 
+     * @return Message d'erreur par position dans la liste
+     */
+    public Map<Integer, String> verifierChevauchements(List<Absence> absences) {
+        LocalDate borne = archivage.getBorne();
+        if (borne == null) {
+            return intervalles.verifierLot(absences);
+        }
+        
+        Map<Integer, String> erreurs = new HashMap<>();
+        List<Absence> aVerifier = new ArrayList<>(absences.size());
+        List<Integer> positions = new ArrayList<>(absences.size());
+        for (int i = 0; i < absences.size(); i++) {
+            if (absences.get(i).getDateAbsence().isAfter(borne)) {
+                aVerifier.add(absences.get(i));
+                positions.add(i);
+            } else {
+                erreurs.put(i, new PeriodeArchiveeException(borne).getMessage());
+            }
+        }
+        for (Map.Entry<Integer, String> erreur : intervalles.verifierLot(aVerifier).entrySet()) {
+            erreurs.put(positions.get(erreur.getKey()), erreur.getValue());
+        }
+        return erreurs;
+    }
+    
+    /**
+     * Crée un lot d'absences et leurs notifications (envoyées après le commit).
+     * 
+     * Les ID étant générés par IDENTITY, Hibernate ne regroupe pas les INSERT :
+     * le lot passe donc directement par JDBC (addBatch / executeBatch), dans la
+     * même transaction. Les absences doivent déjà être validées, chevauchements
+     * compris (voir verifierChevauchements).
+     * 
+     * @param absences Absences à créer (leur ID et leur date de création sont renseignés)
+     * @return Les absences créées
+     * @throws ChevauchementException si une absence chevauche malgré tout (tout le lot est annulé)
+     * @throws PeriodeArchiveeException si une absence tombe dans une période archivée (idem)
+     */
+    public List<Absence> createBatch(List<Absence> absences) {
+        LOGGER.info("Création en lot de " + absences.size() + " absence(s)");
+        if (absences.isEmpty()) {
+            return absences;
+        }
+        
+        // 1. Réserver les plages (les lignes en chevauchement doivent être écartées avant l'appel)
+        LocalDate premiere = absences.get(0).getDateAbsence();
+        for (Absence absence : absences) {
+            if (absence.getDateAbsence().isBefore(premiere)) {
+                premiere = absence.getDateAbsence();
+            }
+        }
+        archivage.verifierModifiable(premiere);
+        List<Intervalle> plages = intervalles.reserver(absences);
+        
+        // 2. INSERT par lots JDBC
+        LocalDateTime maintenant = LocalDateTime.now();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(INSERT_ABSENCE, Statement.RETURN_GENERATED_KEYS)) {
+            
+            int debutLot = 0;
+            for (int i = 0; i < absences.size(); i++) {
+                Absence absence = absences.get(i);
+                absence.setDateCreation(maintenant);
+                lier(ps, absence);
+                ps.addBatch();
+                
+                if (i + 1 - debutLot == TAILLE_LOT_JDBC || i == absences.size() - 1) {
+                    ps.executeBatch();
+                    // Une clé par ligne, dans l'ordre du lot, y compris pour un INSERT multi-lignes réécrit :
+                    // MySQL attribue des identifiants consécutifs à un INSERT dont le nombre de lignes est connu
+                    try (ResultSet cles = ps.getGeneratedKeys()) {
+                        int j = debutLot;
+                        while (j <= i && cles.next()) {
+                            absences.get(j).setId(cles.getLong(1));
+                            plages.get(j).setAbsenceId(cles.getLong(1));
+                            j++;
+                        }
+                        if (j <= i) {
+                            throw new SQLException((j - debutLot) + " clé(s) générée(s) pour " + (i + 1 - debutLot) + " ligne(s)");
+                        }
+                    }
+                    debutLot = i + 1;
+                }
+            }
+        } catch (SQLException e) {
+            throw new PersistenceException("Erreur lors de l'insertion du lot d'absences", e);
+        }
+        List<AbsenceDTO> creees = new ArrayList<>(absences.size());
+        for (Absence absence : absences) {
+            creees.add(new AbsenceDTO(absence));
+        }
+        totaux.appliquerCreations(creees);
+        List<AbsenceEvent> evenements = new ArrayList<>(creees.size());
+        for (AbsenceDTO creee : creees) {
+            evenements.add(AbsenceEvent.creation(creee));
+        }
+        changements.journaliser(evenements);
+        for (AbsenceEvent event : evenements) {
+            absenceEvents.fire(event);
+        }
+        
+        // 3. Notifications du lot, envoyées après le commit
+        List<NotificationEvent> events = new ArrayList<>(absences.size());
+        for (Absence absence : absences) {
+            events.add(NotificationProducer.evenementAbsence(
                 absence.getEmployeId(),
                 absence.getEnregistrePar(),
                 absence.getId(),
                 absence.getTypeAbsence().getNom(),
                 absence.getDateAbsence().toString()
-            );
-        } catch (Exception e) {
-            LOGGER.warning("Erreur lors de l'envoi de la notification JMS : " + e.getMessage());
-            // On ne bloque pas si la notification échoue
+            ));
         }
+        notificationOutbox.ajouter(events);
         
-        return absence;
+        return absences;
+    }
+    
+    private void lier(PreparedStatement ps, Absence absence) throws SQLException {
+        ps.setLong(1, absence.getEmployeId());
+        ps.setLong(2, absence.getTypeAbsence().getId());
+        ps.setObject(3, absence.getDateAbsence());
+        ps.setObject(4, absence.getHeureDebut(), Types.TIME);
+        ps.setObject(5, absence.getHeureFin(), Types.TIME);
+        ps.setBigDecimal(6, absence.getDureeHeures());
+        ps.setString(7, absence.getMotif());
+        ps.setString(8, absence.getStatut());
+        ps.setBoolean(9, Boolean.TRUE.equals(absence.getJustifiee()));
+        ps.setString(10, absence.getDocumentJustificatif());
+        ps.setObject(11, absence.getEnregistrePar(), Types.BIGINT);
+        ps.setObject(12, absence.getDateCreation());
     }
     
     /**
@@ -115,7 +748,30 @@ public class AbsenceService {
      */
     public Absence update(Absence absence) {
         LOGGER.info("Mise à jour de l'absence ID : " + absence.getId());
-        return em.merge(absence);
+        if (absence.getId() != null) {
+            verifierNonVerrouillee(absence.getId());
+        }
+        Absence existante = absence.getId() != null ? em.find(Absence.class, absence.getId()) : null;
+        AbsenceDTO avant = existante != null ? new AbsenceDTO(existante) : null;
+        if (avant == null || !avant.getDateAbsence().equals(absence.getDateAbsence())) {
+            archivage.verifierModifiable(absence.getDateAbsence());
+        }
+        
+        // Nouvelle plage réservée ; l'ancienne n'est libérée qu'au commit
+        intervalles.reserver(absence, absence.getId());
+        if (avant != null) {
+            intervalles.liberer(avant);
+        }
+        
+        Absence resultat = em.merge(absence);
+        AbsenceDTO apres = new AbsenceDTO(resultat);
+        totaux.appliquer(avant, apres);
+        AbsenceEvent event = avant != null
+            ? AbsenceEvent.modification(avant, apres)
+            : AbsenceEvent.creation(apres);
+        changements.journaliser(event);
+        absenceEvents.fire(event);
+        return resultat;
     }
     
     /**
@@ -123,9 +779,33 @@ public class AbsenceService {
      */
     public void delete(Long id) {
         LOGGER.info("Suppression de l'absence ID : " + id);
+        verifierNonVerrouillee(id);
         Absence absence = findById(id);
         if (absence != null) {
+            AbsenceDTO avant = new AbsenceDTO(absence);
             em.remove(absence);
+            intervalles.liberer(avant);
+            totaux.appliquer(avant, null);
+            AbsenceEvent event = AbsenceEvent.suppression(avant);
+            changements.journaliser(event);
+            absenceEvents.fire(event);
+        }
+    }
+    
+    /**
+     * Verrouille la ligne de l'absence jusqu'au commit (seulement dans absences) et refuse
+     * l'écriture si la clôture mensuelle l'a passée à VERROUILLE. Le statut est relu en
+     * base sous le verrou, pas dans le cache de second niveau.
+     * 
+     * @throws AbsenceVerrouilleeException si l'absence est VERROUILLE
+     */
+    private void verifierNonVerrouillee(Long id) {
+        List<String> statut = em.createNamedQuery("Absence.statut", String.class)
+                                .setParameter("id", id)
+                                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                                .getResultList();
+        if (!statut.isEmpty() && VERROUILLE.equals(statut.get(0))) {
+            throw new AbsenceVerrouilleeException(id);
         }
     }
     
@@ -134,12 +814,124 @@ public class AbsenceService {
      */
     public Absence justifier(Long id, String documentPath) {
         LOGGER.info("Justification de l'absence ID : " + id);
+        verifierNonVerrouillee(id);
         Absence absence = findById(id);
         if (absence != null) {
+            AbsenceDTO avant = new AbsenceDTO(absence);
             absence.setJustifiee(true);
             absence.setDocumentJustificatif(documentPath);
-            return em.merge(absence);
+            Absence resultat = em.merge(absence);
+            AbsenceDTO apres = new AbsenceDTO(resultat);
+            totaux.appliquer(avant, apres);
+            AbsenceEvent event = AbsenceEvent.modification(avant, apres);
+            changements.journaliser(event);
+            absenceEvents.fire(event);
+            return resultat;
         }
         return null;
     }
+    
+    /**
+     * Valide ou rejette un lot d'absences en attente, en un seul UPDATE.
+     * 
+     * Les lignes demandées sont lues et verrouillées (FOR UPDATE) pour établir le
+     * résultat de chacune ; l'UPDATE porte lui-même les mêmes conditions : absence
+     * en attente et, sauf pour un administrateur, pas une absence du validateur.
+     * Chaque employé concerné reçoit une seule notification, écrite dans la
+     * boîte d'envoi avec le changement de statut.
+     * 
+     * @param ids IDs des absences (les doublons sont ignorés)
+     * @param statut Statut cible (voir STATUTS_DECISION)
+     * @param validateurId ID de l'utilisateur qui décide (null s'il est inconnu)
+     * @param admin true si le validateur peut traiter ses propres absences
+     * @return Raison du refus, par ID ; les IDs absents de la map sont au statut demandé
+     */
+    public Map<Long, String> changerStatut(Collection<Long> ids, String statut, Long validateurId, boolean admin) {
+        LOGGER.info("Passage de " + ids.size() + " absence(s) au statut " + statut);
+        if (!STATUTS_DECISION.contains(statut)) {
+            throw new IllegalArgumentException("Statut invalide : " + statut);
+        }
+        Set<Long> demandes = new LinkedHashSet<>(ids);
+        Map<Long, String> refus = new LinkedHashMap<>();
+        if (demandes.isEmpty()) {
+            return refus;
+        }
+        
+        // 1. Lignes verrouillées jusqu'au commit (seulement dans absences : pas types_absences),
+        //    puis leur état actuel
+        List<Long> verrouillees = em.createNamedQuery("Absence.verrouiller", Long.class)
+                                    .setParameter("ids", demandes)
+                                    .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                                    .getResultList();
+        Map<Long, AbsenceDTO> actuelles = new HashMap<>();
+        if (!verrouillees.isEmpty()) {
+            for (AbsenceDTO dto : em.createNamedQuery("AbsenceDTO.findByIds", AbsenceDTO.class)
+                                    .setParameter("ids", verrouillees)
+                                    .getResultList()) {
+                actuelles.put(dto.getId(), dto);
+            }
+        }
+        
+        List<AbsenceDTO> aModifier = new ArrayList<>();
+        for (Long id : demandes) {
+            AbsenceDTO avant = actuelles.get(id);
+            if (avant == null) {
+                refus.put(id, "Absence non trouvée");
+            } else if (statut.equals(avant.getStatut())) {
+                continue; // Déjà au statut demandé : rien à écrire ni à notifier
+            } else if (!EN_ATTENTE.equals(avant.getStatut())) {
+                refus.put(id, "Absence déjà traitée (statut " + avant.getStatut() + ")");
+            } else if (!admin && avant.getEmployeId().equals(validateurId)) {
+                refus.put(id, "Un manager ne peut pas traiter ses propres absences");
+            } else {
+                aModifier.add(avant);
+            }
+        }
+        if (aModifier.isEmpty()) {
+            return refus;
+        }
+        
+        // 2. Un seul UPDATE, filtré comme ci-dessus
+        List<Long> idsAModifier = new ArrayList<>(aModifier.size());
+        for (AbsenceDTO avant : aModifier) {
+            idsAModifier.add(avant.getId());
+        }
+        int modifiees = em.createNamedQuery("Absence.changerStatut")
+                          .setParameter("statut", statut)
+                          .setParameter("ids", idsAModifier)
+                          .setParameter("enAttente", EN_ATTENTE)
+                          .setParameter("admin", admin)
+                          .setParameter("validateurId", validateurId != null ? validateurId : -1L)
+                          .executeUpdate();
+        if (modifiees != aModifier.size()) {
+            // Impossible sous verrou : on annule plutôt que de publier des événements faux
+            throw new PersistenceException("Changement de statut incohérent : " + modifiees + " ligne(s) modifiée(s) sur "
+                                           + aModifier.size());
+        }
+        
+        // 3. Événements (index, caches, flux de synchronisation)
+        List<AbsenceEvent> evenements = new ArrayList<>(aModifier.size());
+        Map<Long, List<AbsenceDTO>> parEmploye = new LinkedHashMap<>();
+        for (AbsenceDTO avant : aModifier) {
+            AbsenceDTO apres = new AbsenceDTO(avant.getId(), avant.getEmployeId(), avant.getTypeAbsenceId(),
+                avant.getTypeAbsenceNom(), avant.getDateAbsence(), avant.getHeureDebut(), avant.getHeureFin(),
+                avant.getDureeHeures(), avant.getMotif(), avant.getJustifiee(), avant.getDocumentJustificatif(),
+                avant.getEnregistrePar(), statut, avant.getDateCreation());
+            evenements.add(AbsenceEvent.modification(avant, apres));
+            parEmploye.computeIfAbsent(avant.getEmployeId(), e -> new ArrayList<>()).add(apres);
+        }
+        changements.journaliser(evenements);
+        for (AbsenceEvent event : evenements) {
+            absenceEvents.fire(event);
+        }
+        
+        // 4. Une notification par employé, envoyées après le commit
+        List<NotificationEvent> notifications = new ArrayList<>(parEmploye.size());
+        for (Map.Entry<Long, List<AbsenceDTO>> employe : parEmploye.entrySet()) {
+            notifications.add(NotificationProducer.evenementStatut(employe.getKey(), validateurId, employe.getValue(), statut));
+        }
+        notificationOutbox.ajouter(notifications);
+        
+        return refus;
+    }
 }
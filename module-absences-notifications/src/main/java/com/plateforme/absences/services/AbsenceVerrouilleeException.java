@@ -0,0 +1,17 @@
+package com.plateforme.absences.services;
+
+import jakarta.ejb.ApplicationException;
+
+/**
+ * Levée quand une écriture vise une absence VERROUILLE (mois clos par la clôture mensuelle).
+ * 
+ * Exception applicative : elle remonte telle quelle jusqu'à la ressource REST
+ * (pas d'EJBException) et annule la transaction en cours.
+ */
+@ApplicationException(rollback = true)
+public class AbsenceVerrouilleeException extends RuntimeException {
+    
+    public AbsenceVerrouilleeException(Long absenceId) {
+        super("L'absence " + absenceId + " appartient à un mois clôturé et ne peut plus être modifiée ni supprimée");
+    }
+}
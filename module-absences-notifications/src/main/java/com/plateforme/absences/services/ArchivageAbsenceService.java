@@ -0,0 +1,369 @@
+package com.plateforme.absences.services;
+
+import com.plateforme.absences.dto.AbsenceCursor;
+import com.plateforme.absences.dto.AbsenceDTO;
+import com.plateforme.absences.entities.Absence;
+import com.plateforme.absences.index.CalendrierAbsenceService;
+import com.plateforme.absences.index.IntervalleAbsenceService;
+import com.plateforme.absences.index.RechercheAbsenceService;
+
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.SessionContext;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.Startup;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+import jakarta.jms.Topic;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+
+/**
+ * Archivage des absences anciennes (table absences → absences_archive).
+ * 
+ * Chaque nuit, les absences closes de plus de {@value #ANNEES_CONSERVATION} ans
+ * sont déplacées par lots de {@value #TAILLE_LOT}, chaque lot dans sa propre
+ * transaction courte : la table absences et ses index ne contiennent plus que
+ * l'historique récent. Une absence est close quand elle n'attend plus de
+ * décision (statut autre que EN_ATTENTE) ni de justificatif (justifiée, ou
+ * type sans justificatif requis) ; les autres restent dans la table absences,
+ * où elles peuvent encore être validées ou justifiées.
+ * 
+ * Les lectures par période ne consultent l'archive que si la période commence
+ * avant la borne (date de la plus récente absence archivée, voir concerne()).
+ * Les écritures à une date archivée sont refusées (PeriodeArchiveeException).
+ * La borne est gardée {@value #VALIDITE_BORNE_MS} ms entre deux lectures en
+ * base (MAX sur idx_archive_date_id), et oubliée après chaque lot.
+ * 
+ * Après chaque lot, les ID archivés sont publiés sur le topic
+ * ArchivageAbsencesTopic : les autres nœuds retirent ces absences de leurs
+ * index en mémoire et de leur cache de second niveau, et relisent la borne.
+ * Si le message se perd, la borne d'un autre nœud est relue au plus tard à
+ * l'expiration ; une écriture acceptée entre-temps à une date tout juste
+ * archivée reste dans la table absences (aucune perte).
+ */
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class ArchivageAbsenceService {
+    
+    private static final Logger LOGGER = Logger.getLogger(ArchivageAbsenceService.class.getName());
+    
+    /** Ancienneté (en années) au-delà de laquelle une absence close est archivée. */
+    static final int ANNEES_CONSERVATION = 2;
+    
+    /** Nombre d'absences déplacées par transaction. */
+    static final int TAILLE_LOT = 500;
+    
+    /** Durée pendant laquelle la borne lue en base est réutilisée. */
+    static final long VALIDITE_BORNE_MS = 5000;
+    
+    /** Propriété JMS portant le nœud qui a archivé le lot (ignoré par ce nœud). */
+    public static final String PROPRIETE_NOEUD = "noeud";
+    
+    // Parcours par (date_absence, id) sur idx_absences_date_id ; seules les lignes du lot sont verrouillées
+    private static final String SELECTION_LOT =
+        "SELECT a.id, a.employe_id, a.date_absence, a.heure_debut, a.heure_fin, a.duree_heures, a.motif "
+      + "FROM absences a JOIN types_absences t ON t.id = a.type_absence_id "
+      + "WHERE a.date_absence < ? AND (a.date_absence > ? OR (a.date_absence = ? AND a.id > ?)) "
+      + "AND a.statut <> 'EN_ATTENTE' AND (a.justifiee = TRUE OR t.justification_requise = FALSE) "
+      + "ORDER BY a.date_absence, a.id LIMIT ? FOR UPDATE OF a";
+    
+    private static final String COLONNES =
+        "id, employe_id, type_absence_id, date_absence, heure_debut, heure_fin, duree_heures, "
+      + "motif, statut, justifiee, document_justificatif, enregistre_par, date_creation";
+    
+    @PersistenceContext(unitName = "absencesPU")
+    private EntityManager em;
+    
+    // Même DataSource que absencesPU : chaque lot est une transaction JTA
+    @Resource(lookup = "java:/gestion_rh_jeeDS")
+    private DataSource dataSource;
+    
+    @Resource
+    private SessionContext sessionContext;
+    
+    @EJB
+    private IntervalleAbsenceService intervalles;
+    
+    @EJB
+    private CalendrierAbsenceService calendrier;
+    
+    @EJB
+    private RechercheAbsenceService recherche;
+    
+    @EJB
+    private RevisionService revisions;
+    
+    @Resource(lookup = "java:/ConnectionFactory")
+    private ConnectionFactory connectionFactory;
+    
+    @Resource(lookup = "java:/jms/topic/ArchivageAbsencesTopic")
+    private Topic archivages;
+    
+    private final String noeud = UUID.randomUUID().toString();
+    
+    private final AtomicBoolean enCours = new AtomicBoolean();
+    
+    // Dernière borne lue en base (null : à relire)
+    private volatile Borne borne;
+    
+    /**
+     * Borne lue en base (sa date peut être null : archive vide) et instant de la lecture.
+     */
+    private static final class Borne {
+        private final LocalDate date;
+        private final long lueNanos = System.nanoTime();
+        
+        Borne(LocalDate date) {
+            this.date = date;
+        }
+        
+        boolean estValide() {
+            return System.nanoTime() - lueNanos < TimeUnit.MILLISECONDS.toNanos(VALIDITE_BORNE_MS);
+        }
+    }
+    
+    /**
+     * Date de la plus récente absence archivée, ou null si l'archive est vide
+     * (lue en base au plus toutes les {@value #VALIDITE_BORNE_MS} ms).
+     */
+    public LocalDate getBorne() {
+        Borne courante = borne;
+        if (courante == null || !courante.estValide()) {
+            courante = new Borne(em.createNamedQuery("AbsenceArchive.borne", LocalDate.class).getSingleResult());
+            borne = courante;
+        }
+        return courante.date;
+    }
+    
+    /**
+     * Indique si un archivage est en train de s'exécuter.
+     */
+    public boolean estEnCours() {
+        return enCours.get();
+    }
+    
+    /**
+     * Indique si une période commençant à {@code debut} peut contenir des absences archivées.
+     */
+    public boolean concerne(LocalDate debut) {
+        LocalDate borne = getBorne();
+        return borne != null && !debut.isAfter(borne);
+    }
+    
+    /**
+     * Refuse une écriture à une date archivée.
+     * 
+     * @throws PeriodeArchiveeException si la date est antérieure ou égale à la borne
+     */
+    public void verifierModifiable(LocalDate dateAbsence) {
+        LocalDate borne = getBorne();
+        if (borne != null && !dateAbsence.isAfter(borne)) {
+            throw new PeriodeArchiveeException(borne);
+        }
+    }
+    
+    /**
+     * Archivage nocturne des absences closes de plus de {@value #ANNEES_CONSERVATION} ans.
+     */
+    @Schedule(hour = "2", minute = "30", persistent = false)
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void archiverChaqueNuit() {
+        archiver(LocalDate.now().minusYears(ANNEES_CONSERVATION));
+    }
+    
+    /**
+     * Archive les absences closes antérieures à {@code avant}, lot par lot.
+     * 
+     * @return Nombre d'absences archivées
+     * @throws IllegalStateException si un archivage est déjà en cours
+     */
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public long archiver(LocalDate avant) {
+        if (!enCours.compareAndSet(false, true)) {
+            throw new IllegalStateException("Un archivage est déjà en cours");
+        }
+        try {
+            long t0 = System.currentTimeMillis();
+            ArchivageAbsenceService self = sessionContext.getBusinessObject(ArchivageAbsenceService.class);
+            AbsenceCursor position = new AbsenceCursor(LocalDate.of(1000, 1, 1), 0L);
+            long total = 0;
+            
+            List<AbsenceDTO> lot;
+            do {
+                lot = self.archiverLot(avant, position);
+                if (!lot.isEmpty()) {
+                    total += lot.size();
+                    position = AbsenceCursor.of(lot.get(lot.size() - 1));
+                    apresLot(lot);
+                }
+            } while (lot.size() == TAILLE_LOT);
+            
+            LOGGER.info("Archivage des absences antérieures au " + avant + " : " + total + " absence(s) en "
+                        + (System.currentTimeMillis() - t0) + " ms");
+            return total;
+        } finally {
+            enCours.set(false);
+        }
+    }
+    
+    /**
+     * Déplace un lot d'absences closes (après {@code position}) vers absences_archive,
+     * dans une transaction dédiée.
+     * 
+     * @return Les absences déplacées (ID, employé, date et plage horaire), dans l'ordre (date, id)
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public List<AbsenceDTO> archiverLot(LocalDate avant, AbsenceCursor position) {
+        try (Connection connection = dataSource.getConnection()) {
+            List<AbsenceDTO> lot = new ArrayList<>(TAILLE_LOT);
+            try (PreparedStatement selection = connection.prepareStatement(SELECTION_LOT)) {
+                selection.setObject(1, avant);
+                selection.setObject(2, position.getDateAbsence());
+                selection.setObject(3, position.getDateAbsence());
+                selection.setLong(4, position.getId());
+                selection.setInt(5, TAILLE_LOT);
+                try (ResultSet rs = selection.executeQuery()) {
+                    while (rs.next()) {
+                        AbsenceDTO absence = new AbsenceDTO();
+                        absence.setId(rs.getLong(1));
+                        absence.setEmployeId(rs.getLong(2));
+                        absence.setDateAbsence(rs.getObject(3, LocalDate.class));
+                        absence.setHeureDebut(rs.getObject(4, LocalTime.class));
+                        absence.setHeureFin(rs.getObject(5, LocalTime.class));
+                        absence.setDureeHeures(rs.getObject(6, BigDecimal.class));
+                        absence.setMotif(rs.getString(7));
+                        lot.add(absence);
+                    }
+                }
+            }
+            if (lot.isEmpty()) {
+                return lot;
+            }
+            
+            String ids = parametres(lot.size());
+            try (PreparedStatement copie = connection.prepareStatement(
+                     "INSERT INTO absences_archive (" + COLONNES + ", date_archivage) SELECT " + COLONNES
+                     + ", ? FROM absences WHERE id IN (" + ids + ")");
+                 PreparedStatement suppression = connection.prepareStatement(
+                     "DELETE FROM absences WHERE id IN (" + ids + ")")) {
+                copie.setObject(1, LocalDateTime.now());
+                for (int i = 0; i < lot.size(); i++) {
+                    copie.setLong(i + 2, lot.get(i).getId());
+                    suppression.setLong(i + 1, lot.get(i).getId());
+                }
+                copie.executeUpdate();
+                suppression.executeUpdate();
+            }
+            
+            Set<String> cles = new HashSet<>();
+            cles.add(RevisionService.ABSENCES);
+            for (AbsenceDTO absence : lot) {
+                cles.add(RevisionService.absencesEmploye(absence.getEmployeId()));
+            }
+            revisions.incrementerAuCommit(cles.toArray(new String[0]));
+            return lot;
+        } catch (SQLException e) {
+            throw new PersistenceException("Erreur lors de l'archivage d'un lot d'absences", e);
+        }
+    }
+    
+    /**
+     * Archivage fait sur un autre nœud : retire les absences archivées des index
+     * en mémoire et du cache de second niveau de ce nœud.
+     * 
+     * @param origine Nœud qui a archivé le lot (rien à faire si c'est celui-ci)
+     * @param ids ID des absences archivées
+     */
+    public void oublierDepuis(String origine, List<Long> ids) {
+        if (noeud.equals(origine) || ids.isEmpty()) {
+            return;
+        }
+        List<AbsenceDTO> lot = em.createNamedQuery("AbsenceArchiveDTO.findByIds", AbsenceDTO.class)
+                                 .setParameter("ids", ids)
+                                 .getResultList();
+        LOGGER.fine(lot.size() + " absence(s) archivée(s) sur le nœud " + origine + " retirée(s) des index");
+        oublier(lot);
+    }
+    
+    /**
+     * Après le commit d'un lot : met à jour ce nœud, puis prévient les autres.
+     */
+    private void apresLot(List<AbsenceDTO> lot) {
+        oublier(lot);
+        publier(lot);
+    }
+    
+    /**
+     * Retire les absences des index en mémoire et du cache de second niveau
+     * (supprimées en JDBC, à l'insu de JPA) ; la borne sera relue.
+     */
+    private void oublier(List<AbsenceDTO> lot) {
+        borne = null;
+        intervalles.oublier(lot);
+        calendrier.oublier(lot);
+        recherche.oublier(lot);
+        
+        Cache cache = em.getEntityManagerFactory().getCache();
+        for (AbsenceDTO absence : lot) {
+            cache.evict(Absence.class, absence.getId());
+        }
+    }
+    
+    private void publier(List<AbsenceDTO> lot) {
+        jakarta.jms.Connection connection = null;
+        try {
+            connection = connectionFactory.createConnection();
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            MessageProducer producer = session.createProducer(archivages);
+            TextMessage message = session.createTextMessage(
+                lot.stream().map(absence -> absence.getId().toString()).collect(Collectors.joining(",")));
+            message.setStringProperty(PROPRIETE_NOEUD, noeud);
+            producer.send(message);
+        } catch (JMSException e) {
+            // Les autres nœuds relisent la borne à son expiration ; leurs index gardent ces absences
+            LOGGER.log(Level.WARNING, "Impossible de publier un lot archivé aux autres nœuds", e);
+        } finally {
+            try {
+                if (connection != null) connection.close();
+            } catch (JMSException e) {
+                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources JMS", e);
+            }
+        }
+    }
+    
+    private static String parametres(int nombre) {
+        return String.join(", ", Collections.nCopies(nombre, "?"));
+    }
+}
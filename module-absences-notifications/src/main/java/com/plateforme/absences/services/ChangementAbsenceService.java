@@ -0,0 +1,232 @@
+package com.plateforme.absences.services;
+
+import com.plateforme.absences.dto.AbsenceDTO;
+import com.plateforme.absences.dto.ChangementDTO;
+import com.plateforme.absences.dto.FluxChangementsDTO;
+import com.plateforme.absences.entities.ChangementAbsence;
+import com.plateforme.absences.events.AbsenceEvent;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.Singleton;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * Journal des changements d'absences et flux de synchronisation.
+ * 
+ * AbsenceService y écrit une ligne par écriture, dans sa transaction. Les
+ * clients (entrepôt de données, application mobile) relisent ensuite
+ * uniquement les changements postérieurs à leur jeton.
+ * 
+ * Les ID AUTO_INCREMENT sont attribués à l'INSERT mais visibles au commit :
+ * sans précaution, une transaction lente pourrait valider l'ID 10 après qu'un
+ * lecteur a vu l'ID 11. Les lignes d'une transaction sont donc insérées juste
+ * avant son commit, datées par l'horloge de la base, et le flux ne sert que
+ * les ID écrits depuis plus de absences.changements.delai-ms (défaut 2000) :
+ * une transaction valide ses lignes quelques millisecondes après leur INSERT,
+ * donc bien avant ce délai, et tout ID servi implique que les ID inférieurs
+ * sont déjà validés (ou annulés). Aucun verrou n'est pris : les écritures des
+ * différents nœuds ne sont pas sérialisées. Un commit qui arriverait après le
+ * délai est signalé dans les logs.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class ChangementAbsenceService {
+    
+    private static final Logger LOGGER = Logger.getLogger(ChangementAbsenceService.class.getName());
+    
+    private static final long DELAI_PAR_DEFAUT_MS = 2000;
+    
+    private static final String INSERT_CHANGEMENT =
+        "INSERT INTO absences_changements (absence_id, employe_id, operation, date_changement) VALUES (?, ?, ?, NOW(3))";
+    
+    // Parcours de la clé primaire à rebours : s'arrête sur le premier ID assez ancien
+    private static final String PLAFOND =
+        "SELECT id FROM absences_changements WHERE date_changement <= NOW(3) - INTERVAL ? MICROSECOND "
+      + "ORDER BY id DESC LIMIT 1";
+    
+    @PersistenceContext(unitName = "absencesPU")
+    private EntityManager em;
+    
+    // Même DataSource que absencesPU : le journal participe à la transaction JTA
+    @Resource(lookup = "java:/gestion_rh_jeeDS")
+    private DataSource dataSource;
+    
+    @Resource
+    private TransactionSynchronizationRegistry registre;
+    
+    private long delaiMs;
+    
+    @PostConstruct
+    public void configurer() {
+        delaiMs = Math.max(0, Long.getLong("absences.changements.delai-ms", DELAI_PAR_DEFAUT_MS));
+    }
+    
+    // ========================================
+    // ÉCRITURE
+    // ========================================
+    
+    /**
+     * Journalise des écritures d'absences dans la transaction courante
+     * (lignes insérées juste avant son commit).
+     */
+    public void journaliser(List<AbsenceEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        aJournaliser().addAll(events);
+    }
+    
+    public void journaliser(AbsenceEvent event) {
+        journaliser(List.of(event));
+    }
+    
+    /**
+     * Écritures à journaliser de la transaction courante (synchronisation inscrite au premier appel).
+     */
+    @SuppressWarnings("unchecked")
+    private List<AbsenceEvent> aJournaliser() {
+        List<AbsenceEvent> events = (List<AbsenceEvent>) registre.getResource(ChangementAbsenceService.class);
+        if (events != null) {
+            return events;
+        }
+        List<AbsenceEvent> transaction = new ArrayList<>();
+        registre.putResource(ChangementAbsenceService.class, transaction);
+        registre.registerInterposedSynchronization(new Synchronization() {
+            private long ecritNanos;
+            
+            @Override
+            public void beforeCompletion() {
+                if (registre.getTransactionStatus() != Status.STATUS_MARKED_ROLLBACK) {
+                    ecrire(transaction);
+                    ecritNanos = System.nanoTime();
+                }
+            }
+            
+            @Override
+            public void afterCompletion(int status) {
+                long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - ecritNanos);
+                if (status == Status.STATUS_COMMITTED && ecritNanos != 0 && ms > delaiMs) {
+                    LOGGER.warning(transaction.size() + " changement(s) validé(s) " + ms + " ms après leur écriture, "
+                                   + "au-delà de absences.changements.delai-ms (" + delaiMs + " ms) : "
+                                   + "un client a pu les sauter");
+                }
+            }
+        });
+        return transaction;
+    }
+    
+    private void ecrire(List<AbsenceEvent> events) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(INSERT_CHANGEMENT)) {
+            for (AbsenceEvent event : events) {
+                AbsenceDTO absence = event.getApres() != null ? event.getApres() : event.getAvant();
+                ps.setLong(1, absence.getId());
+                ps.setLong(2, absence.getEmployeId());
+                ps.setString(3, event.getOperation().name());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            throw new PersistenceException("Erreur lors de l'écriture du journal des changements", e);
+        }
+    }
+    
+    // ========================================
+    // LECTURE
+    // ========================================
+    
+    /**
+     * Plus grand ID de changement lisible sans risque d'en sauter un : le plus
+     * grand ID écrit depuis plus que le délai (voir la classe).
+     */
+    public long plafond() {
+        @SuppressWarnings("unchecked")
+        List<Number> ids = em.createNativeQuery(PLAFOND)
+                             .setParameter(1, TimeUnit.MILLISECONDS.toMicros(delaiMs))
+                             .getResultList();
+        return ids.isEmpty() ? 0 : ids.get(0).longValue();
+    }
+    
+    /**
+     * Changements d'ID dans ]depuis, plafond()], au plus {@code limite}.
+     * 
+     * Dans une page, une absence n'apparaît qu'une fois avec sa dernière
+     * opération et son état actuel (une absence supprimée depuis est
+     * renvoyée comme SUPPRESSION ; une absence archivée garde son état).
+     */
+    public FluxChangementsDTO depuis(long depuis, int limite) {
+        long plafond = plafond();
+        List<ChangementAbsence> lignes = em.createNamedQuery("ChangementAbsence.depuis", ChangementAbsence.class)
+                                            .setParameter("depuis", depuis)
+                                            .setParameter("plafond", plafond)
+                                            .setMaxResults(limite + 1)
+                                            .getResultList();
+        boolean suite = lignes.size() > limite;
+        if (suite) {
+            lignes = lignes.subList(0, limite);
+        }
+        long token = lignes.isEmpty() ? Math.max(depuis, 0) : lignes.get(lignes.size() - 1).getId();
+        
+        // Dernier changement de chaque absence dans la page
+        Map<Long, ChangementAbsence> derniers = new LinkedHashMap<>();
+        for (ChangementAbsence ligne : lignes) {
+            derniers.remove(ligne.getAbsenceId());
+            derniers.put(ligne.getAbsenceId(), ligne);
+        }
+        
+        // État actuel des absences non supprimées, en une requête
+        List<Long> aCharger = new ArrayList<>();
+        for (ChangementAbsence ligne : derniers.values()) {
+            if (!AbsenceEvent.Operation.SUPPRESSION.name().equals(ligne.getOperation())) {
+                aCharger.add(ligne.getAbsenceId());
+            }
+        }
+        Map<Long, AbsenceDTO> etats = new HashMap<>();
+        if (!aCharger.isEmpty()) {
+            for (AbsenceDTO dto : em.createNamedQuery("AbsenceDTO.findByIds", AbsenceDTO.class)
+                                    .setParameter("ids", aCharger)
+                                    .getResultList()) {
+                etats.put(dto.getId(), dto);
+            }
+            // Une absence archivée depuis n'est pas supprimée : son état se lit dans l'archive
+            if (etats.size() < aCharger.size()) {
+                aCharger.removeAll(etats.keySet());
+                for (AbsenceDTO dto : em.createNamedQuery("AbsenceArchiveDTO.findByIds", AbsenceDTO.class)
+                                        .setParameter("ids", aCharger)
+                                        .getResultList()) {
+                    etats.put(dto.getId(), dto);
+                }
+            }
+        }
+        
+        List<ChangementDTO> changements = new ArrayList<>(derniers.size());
+        for (ChangementAbsence ligne : derniers.values()) {
+            AbsenceDTO etat = etats.get(ligne.getAbsenceId());
+            String operation = etat != null ? ligne.getOperation() : AbsenceEvent.Operation.SUPPRESSION.name();
+            changements.add(new ChangementDTO(operation, ligne.getAbsenceId(), ligne.getEmployeId(),
+                                              ligne.getDateChangement(), etat));
+        }
+        
+        LOGGER.info("Flux des changements depuis " + depuis + " : " + changements.size() + " changement(s), jeton " + token);
+        return new FluxChangementsDTO(changements, Long.toString(token), suite);
+    }
+}
@@ -2,7 +2,10 @@ package com.plateforme.absences.services;
 
 import com.plateforme.absences.entities.Notification;
 
+import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
@@ -23,6 +26,14 @@ public class NotificationService {
     @PersistenceContext(unitName = "absencesPU")
     private EntityManager em;
     
+    // ETag des listes de notifications (incrémentés après commit)
+    @EJB
+    private RevisionService revisions;
+    
+    // Listes et compteurs lus sur la réplique (hors transaction)
+    @EJB
+    private RoutageLectureService lectures;
+    
     // ========================================
     // MÉTHODES DE RECHERCHE
     // ========================================
@@ -33,14 +44,17 @@ public class NotificationService {
      * @param userId ID de l'utilisateur destinataire
      * @return Liste des notifications (triées par date décroissante)
      */
+    @TransactionAttribute(TransactionAttributeType.SUPPORTS)
     public List<Notification> findByDestinataire(Long userId) {
         LOGGER.info("Récupération des notifications pour l'utilisateur ID : " + userId);
-        TypedQuery<Notification> query = em.createNamedQuery(
-            "Notification.findByDestinataire", 
-            Notification.class
-        );
-        query.setParameter("userId", userId);
-        return query.getResultList();
+        return lectures.lire(lecture -> {
+            TypedQuery<Notification> query = lecture.createNamedQuery(
+                "Notification.findByDestinataire", 
+                Notification.class
+            );
+            query.setParameter("userId", userId);
+            return query.getResultList();
+        }, cles(userId));
     }
     
     /**
@@ -49,14 +63,17 @@ public class NotificationService {
      * @param userId ID de l'utilisateur
      * @return Liste des notifications non lues
      */
+    @TransactionAttribute(TransactionAttributeType.SUPPORTS)
     public List<Notification> findNonLues(Long userId) {
         LOGGER.info("Récupération des notifications non lues pour l'utilisateur ID : " + userId);
-        TypedQuery<Notification> query = em.createNamedQuery(
-            "Notification.findNonLues", 
-            Notification.class
-        );
-        query.setParameter("userId", userId);
-        return query.getResultList();
+        return lectures.lire(lecture -> {
+            TypedQuery<Notification> query = lecture.createNamedQuery(
+                "Notification.findNonLues", 
+                Notification.class
+            );
+            query.setParameter("userId", userId);
+            return query.getResultList();
+        }, cles(userId));
     }
     
     /**
@@ -65,9 +82,14 @@ public class NotificationService {
      * @param userId ID de l'utilisateur
      * @return Nombre de notifications non lues
      */
+    @TransactionAttribute(TransactionAttributeType.SUPPORTS)
     public Long countNonLues(Long userId) {
         LOGGER.info("Comptage des notifications non lues pour l'utilisateur ID : " + userId);
-        TypedQuery<Long> query = em.createNamedQuery(
+        return lectures.lire(lecture -> compterNonLues(lecture, userId), cles(userId));
+    }
+    
+    private static Long compterNonLues(EntityManager lecture, Long userId) {
+        TypedQuery<Long> query = lecture.createNamedQuery(
             "Notification.countNonLues", 
             Long.class
         );
@@ -75,6 +97,13 @@ public class NotificationService {
         return query.getSingleResult();
     }
     
+    /**
+     * Clés de révision des notifications d'un utilisateur (mêmes clés que leur ETag).
+     */
+    private static String[] cles(Long userId) {
+        return new String[] {RevisionService.NOTIFICATIONS, RevisionService.notificationsUtilisateur(userId)};
+    }
+    
     /**
      * Trouve une notification par son ID.
      * 
@@ -122,6 +151,7 @@ public class NotificationService {
                    + notification.getDestinataireId());
         em.persist(notification);
         em.flush(); // Force l'insertion pour obtenir l'ID
+        revisions.incrementerAuCommit(RevisionService.notificationsUtilisateur(notification.getDestinataireId()));
         return notification;
     }
     
@@ -257,6 +287,7 @@ public class NotificationService {
         Notification notification = findById(notificationId);
         if (notification != null && !notification.getLue()) {
             notification.marquerCommeLue(); // Utilise la méthode de l'entité
+            revisions.incrementerAuCommit(RevisionService.notificationsUtilisateur(notification.getDestinataireId()));
             return em.merge(notification);
         }
         return notification;
@@ -275,9 +306,13 @@ public class NotificationService {
                      "SET n.lue = true, n.dateLecture = CURRENT_TIMESTAMP " +
                      "WHERE n.destinataireId = :userId AND n.lue = false";
         
-        return em.createQuery(jpql)
-                 .setParameter("userId", userId)
-                 .executeUpdate();
+        int modifiees = em.createQuery(jpql)
+                          .setParameter("userId", userId)
+                          .executeUpdate();
+        if (modifiees > 0) {
+            revisions.incrementerAuCommit(RevisionService.notificationsUtilisateur(userId));
+        }
+        return modifiees;
     }
     
     // ========================================
@@ -296,6 +331,7 @@ public class NotificationService {
         Notification notification = findById(id);
         if (notification != null) {
             em.remove(notification);
+            revisions.incrementerAuCommit(RevisionService.notificationsUtilisateur(notification.getDestinataireId()));
             return true;
         }
         return false;
@@ -312,9 +348,13 @@ public class NotificationService {
         
         String jpql = "DELETE FROM Notification n WHERE n.destinataireId = :userId";
         
-        return em.createQuery(jpql)
-                 .setParameter("userId", userId)
-                 .executeUpdate();
+        int supprimees = em.createQuery(jpql)
+                           .setParameter("userId", userId)
+                           .executeUpdate();
+        if (supprimees > 0) {
+            revisions.incrementerAuCommit(RevisionService.notificationsUtilisateur(userId));
+        }
+        return supprimees;
     }
     
     /**
@@ -329,7 +369,12 @@ public class NotificationService {
                      "WHERE n.lue = true " +
                      "AND n.dateLecture < CURRENT_TIMESTAMP - 30";
         
-        return em.createQuery(jpql).executeUpdate();
+        // Purge tous utilisateurs confondus : invalide toutes les listes
+        int supprimees = em.createQuery(jpql).executeUpdate();
+        if (supprimees > 0) {
+            revisions.incrementerAuCommit(RevisionService.NOTIFICATIONS);
+        }
+        return supprimees;
     }
     
     // ========================================
@@ -342,17 +387,20 @@ public class NotificationService {
      * @param userId ID de l'utilisateur
      * @return Tableau [total, non_lues, lues]
      */
+    @TransactionAttribute(TransactionAttributeType.SUPPORTS)
     public Long[] getStatistiques(Long userId) {
         LOGGER.info("Récupération des statistiques pour utilisateur ID : " + userId);
         
-        Long total = em.createQuery(
-            "SELECT COUNT(n) FROM Notification n WHERE n.destinataireId = :userId", 
-            Long.class
-        ).setParameter("userId", userId).getSingleResult();
-        
-        Long nonLues = countNonLues(userId);
-        Long lues = total - nonLues;
-        
-        return new Long[]{total, nonLues, lues};
+        return lectures.lire(lecture -> {
+            Long total = lecture.createQuery(
+                "SELECT COUNT(n) FROM Notification n WHERE n.destinataireId = :userId", 
+                Long.class
+            ).setParameter("userId", userId).getSingleResult();
+            
+            Long nonLues = compterNonLues(lecture, userId);
+            Long lues = total - nonLues;
+            
+            return new Long[]{total, nonLues, lues};
+        }, cles(userId));
     }
 }
@@ -0,0 +1,18 @@
+package com.plateforme.absences.services;
+
+import jakarta.ejb.ApplicationException;
+import java.time.LocalDate;
+
+/**
+ * Levée quand une écriture vise une date déjà archivée (absences_archive).
+ * 
+ * Exception applicative : elle remonte telle quelle jusqu'à la ressource REST
+ * (pas d'EJBException) et annule la transaction en cours.
+ */
+@ApplicationException(rollback = true)
+public class PeriodeArchiveeException extends RuntimeException {
+    
+    public PeriodeArchiveeException(LocalDate borne) {
+        super("Les absences jusqu'au " + borne + " sont archivées et ne peuvent plus être modifiées");
+    }
+}
@@ -0,0 +1,176 @@
+package com.plateforme.absences.services;
+
+import com.plateforme.absences.dto.AbsenceDTO;
+import com.plateforme.absences.events.AbsenceEvent;
+
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.enterprise.event.Observes;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import javax.sql.DataSource;
+
+/**
+ * Compteurs de révision des collections lues en boucle par le front-end.
+ * 
+ * Chaque écriture incrémente, dans sa transaction, le compteur de la
+ * collection concernée (toutes les absences, absences d'un employé,
+ * notifications d'un utilisateur...). Les ressources REST en déduisent un
+ * ETag sans exécuter la requête, et répondent 304 tant que rien n'a changé.
+ * 
+ * Les compteurs sont en base (table absences_revisions) : tous les nœuds
+ * voient les mêmes révisions, et un nouvel ETag n'est visible qu'une fois
+ * l'écriture validée. Les incréments d'une transaction sont faits juste avant
+ * son commit, dans l'ordre des clés : les lignes de compteur restent
+ * verrouillées le moins longtemps possible, sans interblocage.
+ * 
+ * Les compteurs étant répliqués avec les données qu'ils décrivent,
+ * RoutageLectureService compare ceux de la réplique à ceux du primaire avant
+ * d'y lire une collection.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.SUPPORTS)
+public class RevisionService {
+    
+    public static final String ABSENCES = "absences";
+    public static final String TYPES_ABSENCE = "types-absence";
+    public static final String NOTIFICATIONS = "notifications";
+    
+    private static final String INCREMENT =
+        "INSERT INTO absences_revisions (cle, revision) VALUES (?, 1) ON DUPLICATE KEY UPDATE revision = revision + 1";
+    
+    @PersistenceContext(unitName = "absencesPU")
+    private EntityManager em;
+    
+    // Même DataSource que absencesPU : les incréments participent à la transaction de l'écriture
+    @Resource(lookup = "java:/gestion_rh_jeeDS")
+    private DataSource dataSource;
+    
+    @Resource
+    private TransactionSynchronizationRegistry registre;
+    
+    public static String absencesEmploye(Long employeId) {
+        return ABSENCES + ":" + employeId;
+    }
+    
+    public static String notificationsUtilisateur(Long userId) {
+        return NOTIFICATIONS + ":" + userId;
+    }
+    
+    /**
+     * Jeton d'ETag combinant les révisions des clés données (lues sur le primaire).
+     */
+    public String jeton(String... cles) {
+        return jetonSur(em, cles);
+    }
+    
+    /**
+     * Jeton des clés données, tel que le voit {@code source} (primaire ou réplique).
+     */
+    public String jetonSur(EntityManager source, String... cles) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> lignes = source.createNativeQuery("SELECT cle, revision FROM absences_revisions WHERE cle IN (:cles)")
+                                  .setParameter("cles", Arrays.asList(cles))
+                                  .getResultList();
+        Map<String, Long> revisions = new HashMap<>();
+        for (Object[] ligne : lignes) {
+            revisions.put((String) ligne[0], ((Number) ligne[1]).longValue());
+        }
+        
+        StringBuilder jeton = new StringBuilder();
+        for (String cle : cles) {
+            if (jeton.length() > 0) {
+                jeton.append('-');
+            }
+            jeton.append(revisions.getOrDefault(cle, 0L));
+        }
+        return jeton.toString();
+    }
+    
+    /**
+     * Incrémente les révisions dans la transaction courante, juste avant son commit
+     * (immédiatement s'il n'y en a pas).
+     */
+    public void incrementerAuCommit(String... cles) {
+        int statut = registre.getTransactionStatus();
+        if (statut == Status.STATUS_NO_TRANSACTION) {
+            incrementer(new TreeSet<>(Arrays.asList(cles)));
+            return;
+        }
+        if (statut != Status.STATUS_ACTIVE) {
+            // Transaction vouée à l'annulation : rien ne sera validé
+            return;
+        }
+        
+        @SuppressWarnings("unchecked")
+        SortedSet<String> enAttente = (SortedSet<String>) registre.getResource(RevisionService.class);
+        if (enAttente == null) {
+            SortedSet<String> aIncrementer = new TreeSet<>();
+            enAttente = aIncrementer;
+            registre.putResource(RevisionService.class, aIncrementer);
+            registre.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                    if (registre.getTransactionStatus() != Status.STATUS_MARKED_ROLLBACK) {
+                        incrementer(aIncrementer);
+                    }
+                }
+                
+                @Override
+                public void afterCompletion(int status) {
+                }
+            });
+        }
+        enAttente.addAll(Arrays.asList(cles));
+    }
+    
+    /**
+     * Écritures d'absences (dans la transaction qui les fait).
+     */
+    public void surAbsenceModifiee(@Observes AbsenceEvent event) {
+        AbsenceDTO avant = event.getAvant();
+        AbsenceDTO apres = event.getApres();
+        Set<String> cles = new HashSet<>();
+        cles.add(ABSENCES);
+        if (avant != null) {
+            cles.add(absencesEmploye(avant.getEmployeId()));
+        }
+        if (apres != null) {
+            cles.add(absencesEmploye(apres.getEmployeId()));
+        }
+        incrementerAuCommit(cles.toArray(new String[0]));
+    }
+    
+    private void incrementer(SortedSet<String> cles) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(INCREMENT)) {
+            for (String cle : cles) {
+                ps.setString(1, cle);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            throw new PersistenceException("Erreur lors de l'incrément des révisions", e);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.plateforme.absences.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.PersistenceUnit;
+import jakarta.transaction.Status;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * Oriente les lectures seules vers la réplique (absencesLecturePU) ou le primaire (absencesPU).
+ * 
+ * Une lecture ne va sur la réplique que si :
+ * - elle s'exécute hors transaction (une transaction a pu écrire sans avoir encore validé) ;
+ * - le retard de réplication est connu et ne dépasse pas absences.replique.retard-max-ms ;
+ * - la réplique a les mêmes révisions que le primaire pour les collections lues
+ *   (RevisionService) : elle a reçu toutes les écritures, de tous les nœuds,
+ *   dont tient compte l'ETag calculé sur le primaire par la ressource.
+ * Sinon (retard inconnu ou trop grand, révisions en retard, réplique désactivée
+ * ou en erreur), la lecture se fait sur le primaire.
+ * 
+ * Le retard est mesuré chaque seconde par battement : l'heure écrite sur le
+ * primaire dans absences_replication_battement est relue sur la réplique, et
+ * son âge (horloge du primaire) donne le retard, à une seconde près.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.SUPPORTS)
+public class RoutageLectureService {
+    
+    private static final Logger LOGGER = Logger.getLogger(RoutageLectureService.class.getName());
+    
+    private static final long RETARD_MAX_PAR_DEFAUT_MS = 2000;
+    
+    // Sans mesure plus récente (battement arrêté, réplique injoignable), le retard est inconnu
+    private static final long VALIDITE_MESURE_NANOS = TimeUnit.SECONDS.toNanos(3);
+    
+    private static final String BATTEMENT =
+        "INSERT INTO absences_replication_battement (id, battement) VALUES (1, NOW(3)) "
+      + "ON DUPLICATE KEY UPDATE battement = NOW(3)";
+    
+    private static final String AGE_BATTEMENT = "SELECT TIMESTAMPDIFF(MICROSECOND, ?, NOW(3))";
+    
+    @PersistenceContext(unitName = "absencesPU")
+    private EntityManager primaire;
+    
+    @PersistenceUnit(unitName = "absencesLecturePU")
+    private EntityManagerFactory replique;
+    
+    @Resource(lookup = "java:/gestion_rh_jeeDS")
+    private DataSource dataSource;
+    
+    @EJB
+    private RevisionService revisions;
+    
+    @Resource
+    private TransactionSynchronizationRegistry registre;
+    
+    private boolean active;
+    private long retardMaxMs;
+    
+    // Dernier retard mesuré (-1 : inconnu) et instant de la mesure (System.nanoTime())
+    private volatile long retardMs = -1;
+    private volatile long mesureNanos;
+    
+    @PostConstruct
+    public void configurer() {
+        active = Boolean.parseBoolean(System.getProperty("absences.replique.active", "true"));
+        retardMaxMs = Math.max(0, Long.getLong("absences.replique.retard-max-ms", RETARD_MAX_PAR_DEFAUT_MS));
+        LOGGER.info("Lectures sur réplique : " + (active ? "actives, retard maximal " + retardMaxMs + " ms" : "désactivées"));
+    }
+    
+    /**
+     * Exécute une lecture seule sur la réplique si elle est assez à jour pour les collections lues.
+     * 
+     * @param lecture Requêtes à exécuter (ne doit rien écrire ; les entités renvoyées sont détachées)
+     * @param cles Clés de révision des collections lues (RevisionService)
+     */
+    public <T> T lire(Function<EntityManager, T> lecture, String... cles) {
+        if (surReplique()) {
+            EntityManager em = null;
+            try {
+                em = replique.createEntityManager();
+                // Révisions lues avant les données : la réponse est au moins aussi récente que l'ETag
+                if (cles.length == 0 || revisions.jetonSur(em, cles).equals(revisions.jeton(cles))) {
+                    return lecture.apply(em);
+                }
+            } catch (PersistenceException e) {
+                // Réplique indisponible : la lecture se fait sur le primaire
+                LOGGER.log(Level.WARNING, "Lecture sur la réplique impossible, lecture sur le primaire", e);
+            } finally {
+                if (em != null) {
+                    em.close();
+                }
+            }
+        }
+        return lecture.apply(primaire);
+    }
+    
+    /**
+     * Dernier retard de réplication mesuré, en millisecondes (-1 si inconnu).
+     */
+    public long getRetardMs() {
+        return System.nanoTime() - mesureNanos <= VALIDITE_MESURE_NANOS ? retardMs : -1;
+    }
+    
+    /**
+     * Mesure le retard de la réplique (âge du dernier battement reçu) puis écrit un nouveau battement.
+     */
+    @Schedule(hour = "*", minute = "*", second = "*", persistent = false)
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void mesurerRetard() {
+        if (!active) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            LocalDateTime recu = battementReplique();
+            if (recu != null) {
+                try (PreparedStatement ps = connection.prepareStatement(AGE_BATTEMENT)) {
+                    ps.setObject(1, recu);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        rs.next();
+                        retardMs = Math.max(0, rs.getLong(1) / 1000);
+                        mesureNanos = System.nanoTime();
+                    }
+                }
+            }
+            try (PreparedStatement ps = connection.prepareStatement(BATTEMENT)) {
+                ps.executeUpdate();
+            }
+        } catch (SQLException | PersistenceException e) {
+            // Pas de nouvelle mesure : au-delà de la validité de la dernière, les lectures vont au primaire
+            LOGGER.fine("Mesure du retard de la réplique impossible : " + e.getMessage());
+        }
+    }
+    
+    private LocalDateTime battementReplique() {
+        EntityManager em = replique.createEntityManager();
+        try {
+            @SuppressWarnings("unchecked")
+            List<LocalDateTime> battements = em.createNativeQuery(
+                    "SELECT battement FROM absences_replication_battement WHERE id = 1", LocalDateTime.class)
+                .getResultList();
+            return battements.isEmpty() ? null : battements.get(0);
+        } finally {
+            em.close();
+        }
+    }
+    
+    private boolean surReplique() {
+        if (!active) {
+            return false;
+        }
+        if (registre.getTransactionStatus() != Status.STATUS_NO_TRANSACTION) {
+            return false;
+        }
+        long retard = getRetardMs();
+        return retard >= 0 && retard <= retardMaxMs;
+    }
+}
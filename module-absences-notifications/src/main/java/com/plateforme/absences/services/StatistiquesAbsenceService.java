@@ -0,0 +1,220 @@
+package com.plateforme.absences.services;
+
+import com.plateforme.absences.dto.StatistiquesAbsenceDTO;
+import com.plateforme.absences.dto.StatistiquesAbsenceDTO.Ligne;
+import com.plateforme.absences.events.AbsenceEvent;
+
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Statistiques d'absences calculées en base (GROUP BY) et mises en cache.
+ * 
+ * Le cache est indexé par (période, filtres, révision des absences) et vidé
+ * après chaque écriture validée sur ce nœud ; la révision (RevisionService)
+ * écarte aussi les résultats antérieurs à une écriture faite sur un autre
+ * nœud. Un compteur de génération empêche de remettre en cache un résultat
+ * calculé avant une invalidation. Les agrégats sont lus sur la réplique quand
+ * elle est à jour (RoutageLectureService).
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class StatistiquesAbsenceService {
+    
+    private static final Logger LOGGER = Logger.getLogger(StatistiquesAbsenceService.class.getName());
+    
+    private static final int TAILLE_CACHE_MAX = 200;
+    
+    @EJB
+    private ArchivageAbsenceService archivage;
+    
+    @EJB
+    private RoutageLectureService lectures;
+    
+    @EJB
+    private RevisionService revisions;
+    
+    private final Map<String, StatistiquesAbsenceDTO> cache = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    
+    /**
+     * Statistiques sur [debut, fin], éventuellement restreintes à un type et/ou un employé.
+     * 
+     * @param topEmployes nombre maximum d'employés retournés dans parEmploye (les plus absents)
+     */
+    @TransactionAttribute(TransactionAttributeType.SUPPORTS)
+    public StatistiquesAbsenceDTO calculer(LocalDate debut, LocalDate fin, Long typeAbsenceId,
+                                           Long employeId, int topEmployes) {
+        String cle = debut + "|" + fin + "|" + typeAbsenceId + "|" + employeId + "|" + topEmployes + "|"
+                   + revisions.jeton(RevisionService.TYPES_ABSENCE, RevisionService.ABSENCES);
+        StatistiquesAbsenceDTO stats = cache.get(cle);
+        if (stats != null) {
+            return stats;
+        }
+        
+        long gen = generation.get();
+        stats = lectures.lire(lecture -> agreger(lecture, debut, fin, typeAbsenceId, employeId, topEmployes),
+                              RevisionService.TYPES_ABSENCE, RevisionService.ABSENCES);
+        
+        if (generation.get() == gen) {
+            if (cache.size() >= TAILLE_CACHE_MAX) {
+                cache.clear();
+            }
+            cache.put(cle, stats);
+        }
+        return stats;
+    }
+    
+    /**
+     * Vide le cache après chaque création, modification ou suppression validée.
+     */
+    public void surAbsenceModifiee(@Observes(during = TransactionPhase.AFTER_SUCCESS) AbsenceEvent event) {
+        generation.incrementAndGet();
+        cache.clear();
+    }
+    
+    // ========================================
+    // AGRÉGATS
+    // ========================================
+    
+    private StatistiquesAbsenceDTO agreger(EntityManager em, LocalDate debut, LocalDate fin, Long typeAbsenceId,
+                                           Long employeId, int topEmployes) {
+        long t0 = System.currentTimeMillis();
+        String filtres = (typeAbsenceId != null ? " AND t.id = :typeAbsenceId" : "")
+                       + (employeId != null ? " AND a.employeId = :employeId" : "");
+        
+        // L'archive n'est interrogée que si la période la recouvre ; les agrégats des deux tables s'additionnent
+        boolean archive = archivage.concerne(debut);
+        List<String> entites = archive ? List.of("Absence", "AbsenceArchive") : List.of("Absence");
+        
+        StatistiquesAbsenceDTO stats = new StatistiquesAbsenceDTO(debut, fin);
+        
+        // Par statut de justification (donne aussi les totaux)
+        long total = 0;
+        BigDecimal heures = BigDecimal.ZERO;
+        for (String entite : entites) {
+            for (Object[] ligne : requete(em, "SELECT a.justifiee, COUNT(a), SUM(a.dureeHeures)" + depuis(entite) + filtres
+                                          + " GROUP BY a.justifiee",
+                                          debut, fin, typeAbsenceId, employeId).getResultList()) {
+                long nombre = (Long) ligne[1];
+                total += nombre;
+                heures = heures.add(heures(ligne[2]));
+                if (Boolean.TRUE.equals(ligne[0])) {
+                    stats.setJustifiees(stats.getJustifiees() + nombre);
+                } else {
+                    stats.setNonJustifiees(stats.getNonJustifiees() + nombre);
+                }
+            }
+        }
+        stats.setTotalAbsences(total);
+        stats.setTotalHeures(heures);
+        
+        // Par type
+        Map<String, Ligne> parType = new LinkedHashMap<>();
+        for (String entite : entites) {
+            for (Object[] ligne : requete(em, "SELECT t.nom, COUNT(a), SUM(a.dureeHeures)" + depuis(entite) + filtres
+                                          + " GROUP BY t.nom ORDER BY COUNT(a) DESC",
+                                          debut, fin, typeAbsenceId, employeId).getResultList()) {
+                cumuler(parType, (String) ligne[0], (Long) ligne[1], heures(ligne[2]));
+            }
+        }
+        stats.setParType(trier(parType.values(), Comparator.comparing(Ligne::getCle), Integer.MAX_VALUE));
+        
+        // Par mois (clé AAAA-MM : l'ordre alphabétique est l'ordre chronologique)
+        Map<String, Ligne> parMois = new TreeMap<>();
+        for (String entite : entites) {
+            for (Object[] ligne : requete(em, "SELECT EXTRACT(YEAR FROM a.dateAbsence), EXTRACT(MONTH FROM a.dateAbsence),"
+                                          + " COUNT(a), SUM(a.dureeHeures)" + depuis(entite) + filtres
+                                          + " GROUP BY EXTRACT(YEAR FROM a.dateAbsence), EXTRACT(MONTH FROM a.dateAbsence)",
+                                          debut, fin, typeAbsenceId, employeId).getResultList()) {
+                String mois = String.format("%04d-%02d", ((Number) ligne[0]).intValue(), ((Number) ligne[1]).intValue());
+                cumuler(parMois, mois, (Long) ligne[2], heures(ligne[3]));
+            }
+        }
+        stats.setParMois(new ArrayList<>(parMois.values()));
+        
+        // Par employé (les plus absents) ; avec l'archive, le classement se fait après addition
+        Map<String, Ligne> parEmploye = new LinkedHashMap<>();
+        for (String entite : entites) {
+            TypedQuery<Object[]> query = requete(em, "SELECT a.employeId, COUNT(a), SUM(a.dureeHeures)" + depuis(entite) + filtres
+                                                 + " GROUP BY a.employeId ORDER BY COUNT(a) DESC, a.employeId",
+                                                 debut, fin, typeAbsenceId, employeId);
+            if (!archive) {
+                query.setMaxResults(topEmployes);
+            }
+            for (Object[] ligne : query.getResultList()) {
+                cumuler(parEmploye, String.valueOf(ligne[0]), (Long) ligne[1], heures(ligne[2]));
+            }
+        }
+        stats.setParEmploye(trier(parEmploye.values(), Comparator.comparing(ligne -> Long.valueOf(ligne.getCle())),
+                                  topEmployes));
+        
+        LOGGER.info("Statistiques calculées du " + debut + " au " + fin + " : " + total + " absence(s) en "
+                    + (System.currentTimeMillis() - t0) + " ms" + (archive ? " (archive comprise)" : ""));
+        return stats;
+    }
+    
+    private static String depuis(String entite) {
+        return " FROM " + entite + " a JOIN a.typeAbsence t WHERE a.dateAbsence BETWEEN :debut AND :fin";
+    }
+    
+    private static void cumuler(Map<String, Ligne> lignes, String cle, long nombre, BigDecimal heures) {
+        Ligne ligne = lignes.get(cle);
+        if (ligne == null) {
+            lignes.put(cle, new Ligne(cle, nombre, heures));
+        } else {
+            ligne.setNombre(ligne.getNombre() + nombre);
+            ligne.setHeures(ligne.getHeures().add(heures));
+        }
+    }
+    
+    /**
+     * Lignes par nombre d'absences décroissant (puis selon {@code egalite}), limitées à {@code max}.
+     */
+    private static List<Ligne> trier(Collection<Ligne> lignes, Comparator<Ligne> egalite, int max) {
+        List<Ligne> triees = new ArrayList<>(lignes);
+        triees.sort(Comparator.comparingLong(Ligne::getNombre).reversed().thenComparing(egalite));
+        return triees.size() > max ? new ArrayList<>(triees.subList(0, max)) : triees;
+    }
+    
+    private static TypedQuery<Object[]> requete(EntityManager em, String jpql, LocalDate debut, LocalDate fin,
+                                                Long typeAbsenceId, Long employeId) {
+        TypedQuery<Object[]> query = em.createQuery(jpql, Object[].class)
+                                        .setParameter("debut", debut)
+                                        .setParameter("fin", fin);
+        if (typeAbsenceId != null) {
+            query.setParameter("typeAbsenceId", typeAbsenceId);
+        }
+        if (employeId != null) {
+            query.setParameter("employeId", employeId);
+        }
+        return query;
+    }
+    
+    private static BigDecimal heures(Object somme) {
+        if (somme == null) {
+            return BigDecimal.ZERO;
+        }
+        return somme instanceof BigDecimal ? (BigDecimal) somme : new BigDecimal(somme.toString());
+    }
+}
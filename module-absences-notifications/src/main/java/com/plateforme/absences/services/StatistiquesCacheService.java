@@ -0,0 +1,65 @@
+package com.plateforme.absences.services;
+
+import com.plateforme.absences.dto.StatistiquesCacheDTO;
+import com.plateforme.absences.dto.StatistiquesCacheDTO.Region;
+
+import jakarta.ejb.Stateless;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Statistiques du cache de second niveau de absencesPU (Hibernate, hibernate.generate_statistics).
+ * 
+ * Les compteurs sont ceux de ce nœud, cumulés depuis le démarrage.
+ */
+@Stateless
+@TransactionAttribute(TransactionAttributeType.SUPPORTS)
+public class StatistiquesCacheService {
+    
+    @PersistenceContext(unitName = "absencesPU")
+    private EntityManager em;
+    
+    public StatistiquesCacheDTO statistiques() {
+        Statistics stats = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        
+        StatistiquesCacheDTO dto = new StatistiquesCacheDTO();
+        dto.setActif(stats.isStatisticsEnabled());
+        dto.setSucces(stats.getSecondLevelCacheHitCount());
+        dto.setDefauts(stats.getSecondLevelCacheMissCount());
+        dto.setAjouts(stats.getSecondLevelCachePutCount());
+        dto.setRequetesSucces(stats.getQueryCacheHitCount());
+        dto.setRequetesDefauts(stats.getQueryCacheMissCount());
+        dto.setRequetesAjouts(stats.getQueryCachePutCount());
+        
+        List<Region> regions = new ArrayList<>();
+        String[] noms = stats.getSecondLevelCacheRegionNames();
+        Arrays.sort(noms);
+        for (String nom : noms) {
+            CacheRegionStatistics region = regionEntites(stats, nom);
+            if (region != null) {
+                long elements = region.getElementCountInMemory();
+                regions.add(new Region(nom, region.getHitCount(), region.getMissCount(), region.getPutCount(),
+                                       elements < 0 ? -1 : elements));
+            }
+        }
+        dto.setRegions(regions);
+        return dto;
+    }
+    
+    // null pour les régions qui ne portent pas d'entités (résultats de requêtes, horodatages)
+    private static CacheRegionStatistics regionEntites(Statistics stats, String nom) {
+        try {
+            return stats.getDomainDataRegionStatistics(nom);
+        } catch (IllegalArgumentException | ClassCastException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.plateforme.absences.services;
+
+import com.plateforme.absences.dto.AbsenceDTO;
+import com.plateforme.absences.entities.TotalMensuelAbsence;
+import com.plateforme.absences.entities.TotalMensuelAbsence.Cle;
+import com.plateforme.absences.events.AbsenceEvent;
+
+import jakarta.annotation.Resource;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.Stateless;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * Service des totaux mensuels d'absences (table absences_totaux_mensuels).
+ * 
+ * AbsenceService y applique des deltas dans la transaction de chaque écriture :
+ * un total mensuel se lit alors en une ligne au lieu d'un SUM sur l'historique.
+ * reconstruire() recalcule une période depuis la table absences (reprise,
+ * correction) et verifier() compare les deux sans rien modifier.
+ */
+@Stateless
+public class TotalMensuelService {
+    
+    private static final Logger LOGGER = Logger.getLogger(TotalMensuelService.class.getName());
+    
+    // Les deltas sont commutatifs : deux transactions concurrentes sur la même ligne s'additionnent
+    private static final String APPLIQUER_DELTA =
+        "INSERT INTO absences_totaux_mensuels (employe_id, mois, type_absence_id, nombre, heures, "
+      + "nombre_justifiees, heures_justifiees) VALUES (?, ?, ?, ?, ?, ?, ?) "
+      + "ON DUPLICATE KEY UPDATE nombre = nombre + VALUES(nombre), heures = heures + VALUES(heures), "
+      + "nombre_justifiees = nombre_justifiees + VALUES(nombre_justifiees), "
+      + "heures_justifiees = heures_justifiees + VALUES(heures_justifiees)";
+    
+    private static final String SUPPRIMER_PERIODE =
+        "DELETE FROM absences_totaux_mensuels WHERE mois BETWEEN ? AND ?";
+    
+    private static final String RECALCULER_PERIODE =
+        "INSERT INTO absences_totaux_mensuels (employe_id, mois, type_absence_id, nombre, heures, "
+      + "nombre_justifiees, heures_justifiees) "
+      + "SELECT employe_id, DATE_FORMAT(date_absence, '%Y-%m-01'), type_absence_id, COUNT(*), "
+      + "COALESCE(SUM(duree_heures), 0), SUM(justifiee), "
+      + "COALESCE(SUM(CASE WHEN justifiee THEN duree_heures END), 0) "
+      + "FROM absences WHERE date_absence BETWEEN ? AND ? "
+      + "GROUP BY employe_id, DATE_FORMAT(date_absence, '%Y-%m-01'), type_absence_id";
+    
+    // Les absences archivées s'ajoutent aux lignes recalculées depuis la table absences
+    private static final String RECALCULER_PERIODE_ARCHIVE =
+        "INSERT INTO absences_totaux_mensuels (employe_id, mois, type_absence_id, nombre, heures, "
+      + "nombre_justifiees, heures_justifiees) "
+      + "SELECT employe_id, DATE_FORMAT(date_absence, '%Y-%m-01'), type_absence_id, COUNT(*), "
+      + "COALESCE(SUM(duree_heures), 0), SUM(justifiee), "
+      + "COALESCE(SUM(CASE WHEN justifiee THEN duree_heures END), 0) "
+      + "FROM absences_archive WHERE date_absence BETWEEN ? AND ? "
+      + "GROUP BY employe_id, DATE_FORMAT(date_absence, '%Y-%m-01'), type_absence_id "
+      + "ON DUPLICATE KEY UPDATE nombre = nombre + VALUES(nombre), heures = heures + VALUES(heures), "
+      + "nombre_justifiees = nombre_justifiees + VALUES(nombre_justifiees), "
+      + "heures_justifiees = heures_justifiees + VALUES(heures_justifiees)";
+    
+    @PersistenceContext(unitName = "absencesPU")
+    private EntityManager em;
+    
+    // Même DataSource que absencesPU : les deltas participent à la transaction JTA
+    @Resource(lookup = "java:/gestion_rh_jeeDS")
+    private DataSource dataSource;
+    
+    @EJB
+    private ArchivageAbsenceService archivage;
+    
+    /**
+     * Totaux d'un employé, mois par mois et type par type, sur [debut, fin].
+     */
+    public List<TotalMensuelAbsence> findByEmploye(Long employeId, YearMonth debut, YearMonth fin) {
+        LOGGER.info("Totaux mensuels de l'employé ID : " + employeId + " de " + debut + " à " + fin);
+        return em.createNamedQuery("TotalMensuelAbsence.findByEmploye", TotalMensuelAbsence.class)
+                 .setParameter("employeId", employeId)
+                 .setParameter("debut", debut.atDay(1))
+                 .setParameter("fin", fin.atDay(1))
+                 .getResultList();
+    }
+    
+    // ========================================
+    // DELTAS
+    // ========================================
+    
+    /**
+     * Répercute une écriture : retire l'état {@code avant} et ajoute l'état {@code apres}
+     * (l'un ou l'autre peut être null pour une création ou une suppression).
+     */
+    public void appliquer(AbsenceDTO avant, AbsenceDTO apres) {
+        Map<Cle, Delta> deltas = new LinkedHashMap<>();
+        if (avant != null) {
+            ajouter(deltas, avant, -1);
+        }
+        if (apres != null) {
+            ajouter(deltas, apres, 1);
+        }
+        ecrire(deltas.values());
+    }
+    
+    /**
+     * Répercute la création d'un lot d'absences (un delta par employé, mois et type).
+     */
+    public void appliquerCreations(Collection<AbsenceDTO> absences) {
+        Map<Cle, Delta> deltas = new LinkedHashMap<>();
+        for (AbsenceDTO absence : absences) {
+            ajouter(deltas, absence, 1);
+        }
+        ecrire(deltas.values());
+    }
+    
+    /**
+     * Répercute un lot d'écritures (un delta par employé, mois et type).
+     */
+    public void appliquer(List<AbsenceEvent> events) {
+        Map<Cle, Delta> deltas = new LinkedHashMap<>();
+        for (AbsenceEvent event : events) {
+            if (event.getAvant() != null) {
+                ajouter(deltas, event.getAvant(), -1);
+            }
+            if (event.getApres() != null) {
+                ajouter(deltas, event.getApres(), 1);
+            }
+        }
+        ecrire(deltas.values());
+    }
+    
+    private void ajouter(Map<Cle, Delta> deltas, AbsenceDTO absence, int signe) {
+        Cle cle = new Cle(absence.getEmployeId(), absence.getDateAbsence().withDayOfMonth(1), absence.getTypeAbsenceId());
+        BigDecimal heures = absence.getDureeHeures() != null ? absence.getDureeHeures() : BigDecimal.ZERO;
+        if (signe < 0) {
+            heures = heures.negate();
+        }
+        boolean justifiee = Boolean.TRUE.equals(absence.getJustifiee());
+        
+        Delta delta = deltas.computeIfAbsent(cle, Delta::new);
+        delta.nombre += signe;
+        delta.heures = delta.heures.add(heures);
+        if (justifiee) {
+            delta.nombreJustifiees += signe;
+            delta.heuresJustifiees = delta.heuresJustifiees.add(heures);
+        }
+    }
+    
+    private void ecrire(Collection<Delta> deltas) {
+        List<Delta> nonNuls = new ArrayList<>(deltas.size());
+        for (Delta delta : deltas) {
+            if (!delta.estNul()) {
+                nonNuls.add(delta);
+            }
+        }
+        if (nonNuls.isEmpty()) {
+            return;
+        }
+        
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(APPLIQUER_DELTA)) {
+            for (Delta delta : nonNuls) {
+                ps.setLong(1, delta.cle.getEmployeId());
+                ps.setObject(2, delta.cle.getMois());
+                ps.setLong(3, delta.cle.getTypeAbsenceId());
+                ps.setLong(4, delta.nombre);
+                ps.setBigDecimal(5, delta.heures);
+                ps.setLong(6, delta.nombreJustifiees);
+                ps.setBigDecimal(7, delta.heuresJustifiees);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            throw new PersistenceException("Erreur lors de la mise à jour des totaux mensuels", e);
+        }
+    }
+    
+    // ========================================
+    // RECONSTRUCTION ET VÉRIFICATION
+    // ========================================
+    
+    /**
+     * Recalcule les totaux de [debut, fin] depuis la table absences (et l'archive si besoin).
+     * 
+     * @return Nombre de lignes de totaux écrites
+     */
+    public int reconstruire(YearMonth debut, YearMonth fin) {
+        LOGGER.info("Reconstruction des totaux mensuels de " + debut + " à " + fin);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement suppression = connection.prepareStatement(SUPPRIMER_PERIODE);
+             PreparedStatement recalcul = connection.prepareStatement(RECALCULER_PERIODE)) {
+            
+            suppression.setObject(1, debut.atDay(1));
+            suppression.setObject(2, fin.atDay(1));
+            suppression.executeUpdate();
+            
+            recalcul.setObject(1, debut.atDay(1));
+            recalcul.setObject(2, fin.atEndOfMonth());
+            int lignes = recalcul.executeUpdate();
+            
+            if (archivage.concerne(debut.atDay(1))) {
+                try (PreparedStatement archive = connection.prepareStatement(RECALCULER_PERIODE_ARCHIVE)) {
+                    archive.setObject(1, debut.atDay(1));
+                    archive.setObject(2, fin.atEndOfMonth());
+                    lignes += archive.executeUpdate();
+                }
+            }
+            
+            LOGGER.info(lignes + " ligne(s) de totaux reconstruite(s)");
+            return lignes;
+        } catch (SQLException e) {
+            throw new PersistenceException("Erreur lors de la reconstruction des totaux mensuels", e);
+        }
+    }
+    
+    /**
+     * Compare les totaux de [debut, fin] à un recalcul depuis la table absences (et l'archive si besoin).
+     * 
+     * @return Un message par ligne divergente (liste vide si tout concorde)
+     */
+    public List<String> verifier(YearMonth debut, YearMonth fin) {
+        Map<Cle, TotalMensuelAbsence> attendus = new HashMap<>();
+        cumuler(attendus, "Absence", debut, fin);
+        if (archivage.concerne(debut.atDay(1))) {
+            cumuler(attendus, "AbsenceArchive", debut, fin);
+        }
+        
+        List<String> ecarts = new ArrayList<>();
+        for (TotalMensuelAbsence total : em.createNamedQuery("TotalMensuelAbsence.findByPeriode", TotalMensuelAbsence.class)
+                                           .setParameter("debut", debut.atDay(1))
+                                           .setParameter("fin", fin.atDay(1))
+                                           .getResultList()) {
+            Cle cle = new Cle(total.getEmployeId(), total.getMois(), total.getTypeAbsenceId());
+            TotalMensuelAbsence attendu = attendus.remove(cle);
+            if (attendu == null) {
+                attendu = new TotalMensuelAbsence();
+                attendu.setHeures(BigDecimal.ZERO);
+                attendu.setHeuresJustifiees(BigDecimal.ZERO);
+            }
+            if (!concordent(attendu, total)) {
+                ecarts.add(cle + " : attendu " + resume(attendu) + ", trouvé " + resume(total));
+            }
+        }
+        for (Map.Entry<Cle, TotalMensuelAbsence> manquant : attendus.entrySet()) {
+            ecarts.add(manquant.getKey() + " : attendu " + resume(manquant.getValue()) + ", ligne de totaux absente");
+        }
+        return ecarts;
+    }
+    
+    /**
+     * Ajoute aux totaux attendus les agrégats de l'entité donnée (Absence ou AbsenceArchive).
+     */
+    private void cumuler(Map<Cle, TotalMensuelAbsence> attendus, String entite, YearMonth debut, YearMonth fin) {
+        for (Object[] ligne : em.createQuery(
+                "SELECT a.employeId, EXTRACT(YEAR FROM a.dateAbsence), EXTRACT(MONTH FROM a.dateAbsence), a.typeAbsence.id, "
+              + "COUNT(a), SUM(a.dureeHeures), "
+              + "SUM(CASE WHEN a.justifiee = true THEN 1 ELSE 0 END), "
+              + "SUM(CASE WHEN a.justifiee = true THEN a.dureeHeures ELSE 0 END) "
+              + "FROM " + entite + " a WHERE a.dateAbsence BETWEEN :debut AND :fin "
+              + "GROUP BY a.employeId, EXTRACT(YEAR FROM a.dateAbsence), EXTRACT(MONTH FROM a.dateAbsence), a.typeAbsence.id",
+                Object[].class)
+                .setParameter("debut", debut.atDay(1))
+                .setParameter("fin", fin.atEndOfMonth())
+                .getResultList()) {
+            Long employeId = (Long) ligne[0];
+            LocalDate mois = LocalDate.of(((Number) ligne[1]).intValue(), ((Number) ligne[2]).intValue(), 1);
+            Long typeAbsenceId = (Long) ligne[3];
+            TotalMensuelAbsence attendu = attendus.computeIfAbsent(new Cle(employeId, mois, typeAbsenceId), cle -> {
+                TotalMensuelAbsence total = new TotalMensuelAbsence();
+                total.setEmployeId(employeId);
+                total.setMois(mois);
+                total.setTypeAbsenceId(typeAbsenceId);
+                total.setHeures(BigDecimal.ZERO);
+                total.setHeuresJustifiees(BigDecimal.ZERO);
+                return total;
+            });
+            attendu.setNombre(attendu.getNombre() + ((Number) ligne[4]).longValue());
+            attendu.setHeures(attendu.getHeures().add(heures(ligne[5])));
+            attendu.setNombreJustifiees(attendu.getNombreJustifiees() + ((Number) ligne[6]).longValue());
+            attendu.setHeuresJustifiees(attendu.getHeuresJustifiees().add(heures(ligne[7])));
+        }
+    }
+    
+    private static boolean concordent(TotalMensuelAbsence a, TotalMensuelAbsence b) {
+        return a.getNombre() == b.getNombre()
+            && a.getNombreJustifiees() == b.getNombreJustifiees()
+            && a.getHeures().compareTo(b.getHeures()) == 0
+            && a.getHeuresJustifiees().compareTo(b.getHeuresJustifiees()) == 0;
+    }
+    
+    private static String resume(TotalMensuelAbsence total) {
+        return total.getNombre() + " absence(s) / " + total.getHeures() + " h (justifiées : "
+               + total.getNombreJustifiees() + " / " + total.getHeuresJustifiees() + " h)";
+    }
+    
+    private static BigDecimal heures(Object somme) {
+        if (somme == null) {
+            return BigDecimal.ZERO;
+        }
+        return somme instanceof BigDecimal ? (BigDecimal) somme : new BigDecimal(somme.toString());
+    }
+    
+    /**
+     * Vérification nocturne du mois précédent et du mois en cours.
+     */
+    @Schedule(hour = "3", minute = "15", persistent = false)
+    public void verifierChaqueNuit() {
+        YearMonth courant = YearMonth.now();
+        List<String> ecarts = verifier(courant.minusMonths(1), courant);
+        if (ecarts.isEmpty()) {
+            LOGGER.info("Totaux mensuels vérifiés : aucun écart");
+        } else {
+            LOGGER.warning(ecarts.size() + " écart(s) dans les totaux mensuels (relancer la reconstruction) : "
+                           + ecarts.subList(0, Math.min(10, ecarts.size())));
+        }
+    }
+    
+    /**
+     * Variation à appliquer à une ligne de totaux.
+     */
+    private static final class Delta {
+        private final Cle cle;
+        private long nombre;
+        private BigDecimal heures = BigDecimal.ZERO;
+        private long nombreJustifiees;
+        private BigDecimal heuresJustifiees = BigDecimal.ZERO;
+        
+        Delta(Cle cle) {
+            this.cle = cle;
+        }
+        
+        boolean estNul() {
+            return nombre == 0 && nombreJustifiees == 0
+                && heures.signum() == 0 && heuresJustifiees.signum() == 0;
+        }
+    }
+}
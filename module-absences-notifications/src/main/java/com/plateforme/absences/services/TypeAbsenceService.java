@@ -2,50 +2,158 @@ package com.plateforme.absences.services;
 
 import com.plateforme.absences.entities.TypeAbsence;
 
-import jakarta.ejb.Stateless;
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+import jakarta.jms.Topic;
+import jakarta.persistence.Cache;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
-import jakarta.persistence.TypedQuery;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.CRC32;
 
 /**
  * Service EJB pour gérer les types d'absences.
+ * 
+ * Les types changent quelques fois par an mais sont lus à chaque écriture
+ * d'absence : les lectures sont servies par un instantané immuable de tous
+ * les types (par ID et par nom), chargé en une requête à la première lecture.
+ * Une écriture validée remplace l'instantané d'un bloc sur ce nœud et publie
+ * une invalidation sur le topic TypesAbsenceTopic pour les autres nœuds.
+ * 
+ * Les lectures renvoient des copies détachées : l'appelant peut les modifier
+ * (puis appeler update) sans toucher à l'instantané partagé.
  */
-@Stateless
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
 public class TypeAbsenceService {
     
     private static final Logger LOGGER = Logger.getLogger(TypeAbsenceService.class.getName());
     
+    /** Propriété JMS portant le nœud émetteur d'une invalidation (ignorée par ce nœud). */
+    public static final String PROPRIETE_NOEUD = "noeud";
+    
     @PersistenceContext(unitName = "absencesPU")
     private EntityManager em;
     
+    // Le nom du type figure dans les listes d'absences : un renommage change leur ETag
+    @EJB
+    private RevisionService revisions;
+    
+    @Resource
+    private TransactionSynchronizationRegistry registre;
+    
+    @Resource(lookup = "java:/ConnectionFactory")
+    private ConnectionFactory connectionFactory;
+    
+    @Resource(lookup = "java:/jms/topic/TypesAbsenceTopic")
+    private Topic invalidations;
+    
+    private final String noeud = UUID.randomUUID().toString();
+    
+    // null = à recharger ; generation empêche d'installer un instantané lu avant une invalidation
+    private volatile Instantane instantane;
+    private long generation;
+    
+    /**
+     * Tous les types à un instant donné (jamais modifié après construction).
+     */
+    private static final class Instantane {
+        private final List<TypeAbsence> types;
+        private final Map<Long, TypeAbsence> parId = new HashMap<>();
+        private final Map<String, TypeAbsence> parNom = new HashMap<>();
+        private final String empreinte;
+        
+        Instantane(List<TypeAbsence> types) {
+            this.types = Collections.unmodifiableList(new ArrayList<>(types));
+            CRC32 crc = new CRC32();
+            for (TypeAbsence type : types) {
+                parId.put(type.getId(), type);
+                parNom.put(cleNom(type.getNom()), type);
+                crc.update((type.getId() + "|" + type.getNom() + "|" + type.getDescription() + "|"
+                            + type.getJustificationRequise() + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            this.empreinte = types.size() + "-" + Long.toHexString(crc.getValue());
+        }
+    }
+    
     /**
-     * Récupère tous les types d'absences.
+     * Récupère tous les types d'absences (triés par nom).
      */
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
     public List<TypeAbsence> findAll() {
-        LOGGER.info("Récupération de tous les types d'absences");
-        TypedQuery<TypeAbsence> query = em.createNamedQuery("TypeAbsence.findAll", TypeAbsence.class);
-        return query.getResultList();
+        List<TypeAbsence> types = new ArrayList<>();
+        for (TypeAbsence type : instantane().types) {
+            types.add(copie(type));
+        }
+        return types;
     }
     
     /**
      * Trouve un type par son ID.
      */
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
     public TypeAbsence findById(Long id) {
-        LOGGER.info("Recherche du type d'absence avec ID : " + id);
-        return em.find(TypeAbsence.class, id);
+        return id != null ? copie(instantane().parId.get(id)) : null;
+    }
+    
+    /**
+     * Trouve plusieurs types.
+     * 
+     * @param ids IDs recherchés
+     * @return Types trouvés, indexés par ID (les IDs inconnus sont absents)
+     */
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public Map<Long, TypeAbsence> findByIds(Collection<Long> ids) {
+        Map<Long, TypeAbsence> types = new HashMap<>();
+        Instantane courant = instantane();
+        for (Long id : ids) {
+            TypeAbsence type = courant.parId.get(id);
+            if (type != null) {
+                types.put(id, copie(type));
+            }
+        }
+        return types;
     }
     
     /**
-     * Trouve un type par son nom.
+     * Trouve un type par son nom (sans tenir compte de la casse, comme la collation de la table).
      */
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
     public TypeAbsence findByNom(String nom) {
-        LOGGER.info("Recherche du type d'absence : " + nom);
-        TypedQuery<TypeAbsence> query = em.createNamedQuery("TypeAbsence.findByNom", TypeAbsence.class);
-        query.setParameter("nom", nom);
-        List<TypeAbsence> results = query.getResultList();
-        return results.isEmpty() ? null : results.get(0);
+        return nom != null ? copie(instantane().parNom.get(cleNom(nom))) : null;
+    }
+    
+    /**
+     * Empreinte du contenu de la table : identique sur tous les nœuds pour les mêmes types
+     * (sert d'ETag à GET /api/absences/types).
+     */
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public String getEmpreinte() {
+        return instantane().empreinte;
     }
     
     /**
@@ -54,6 +162,7 @@ public class TypeAbsenceService {
     public TypeAbsence create(TypeAbsence type) {
         LOGGER.info("Création d'un nouveau type d'absence : " + type.getNom());
         em.persist(type);
+        invaliderApresCommit();
         return type;
     }
     
@@ -62,7 +171,9 @@ public class TypeAbsenceService {
      */
     public TypeAbsence update(TypeAbsence type) {
         LOGGER.info("Mise à jour du type d'absence ID : " + type.getId());
-        return em.merge(type);
+        TypeAbsence resultat = em.merge(type);
+        invaliderApresCommit();
+        return resultat;
     }
     
     /**
@@ -70,9 +181,111 @@ public class TypeAbsenceService {
      */
     public void delete(Long id) {
         LOGGER.info("Suppression du type d'absence ID : " + id);
-        TypeAbsence type = findById(id);
+        TypeAbsence type = em.find(TypeAbsence.class, id);
         if (type != null) {
             em.remove(type);
+            invaliderApresCommit();
+        }
+    }
+    
+    /**
+     * Invalidation reçue d'un nœud (TypeAbsenceInvalidationMDB) ; sans effet si elle vient de celui-ci.
+     */
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void invaliderDepuis(String origine) {
+        if (noeud.equals(origine)) {
+            return;
+        }
+        LOGGER.info("Types d'absence modifiés sur le nœud " + origine + " : instantané invalidé");
+        // Le cache de second niveau de ce nœud n'a pas vu l'écriture (sauf cache invalidé en cluster)
+        Cache cache = em.getEntityManagerFactory().getCache();
+        cache.evict(TypeAbsence.class);
+        cache.unwrap(org.hibernate.Cache.class).evictQueryRegions();
+        invalider();
+    }
+    
+    private Instantane instantane() {
+        Instantane courant = instantane;
+        if (courant != null) {
+            return courant;
+        }
+        
+        long lue;
+        synchronized (this) {
+            lue = generation;
+        }
+        // Hors transaction : les entités lues sont détachées et ne reflètent que des écritures validées
+        Instantane charge = new Instantane(em.createNamedQuery("TypeAbsence.findAll", TypeAbsence.class).getResultList());
+        synchronized (this) {
+            if (generation == lue) {
+                instantane = charge;
+            }
+        }
+        LOGGER.info("Instantané des types d'absence chargé : " + charge.types.size() + " type(s)");
+        return charge;
+    }
+    
+    private synchronized void invalider() {
+        generation++;
+        instantane = null;
+    }
+    
+    /**
+     * Au commit : nouvel instantané à la prochaine lecture, ETag des listes changé,
+     * et invalidation publiée pour les autres nœuds.
+     */
+    private void invaliderApresCommit() {
+        revisions.incrementerAuCommit(RevisionService.TYPES_ABSENCE);
+        if (registre.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            invalider();
+            publierInvalidation();
+            return;
+        }
+        registre.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+            
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    invalider();
+                    publierInvalidation();
+                }
+            }
+        });
+    }
+    
+    private void publierInvalidation() {
+        Connection connection = null;
+        try {
+            connection = connectionFactory.createConnection();
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            MessageProducer producer = session.createProducer(invalidations);
+            Message message = session.createMessage();
+            message.setStringProperty(PROPRIETE_NOEUD, noeud);
+            producer.send(message);
+        } catch (JMSException e) {
+            // Les autres nœuds garderont leur instantané jusqu'à la prochaine invalidation ou redémarrage
+            LOGGER.log(Level.WARNING, "Impossible de publier l'invalidation des types d'absence", e);
+        } finally {
+            try {
+                if (connection != null) connection.close();
+            } catch (JMSException e) {
+                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources JMS", e);
+            }
+        }
+    }
+    
+    private static String cleNom(String nom) {
+        return nom.toLowerCase(Locale.ROOT);
+    }
+    
+    private static TypeAbsence copie(TypeAbsence type) {
+        if (type == null) {
+            return null;
         }
+        return new TypeAbsence(type.getId(), type.getNom(), type.getDescription(), type.getJustificationRequise(),
+                               type.getDateCreation());
     }
 }
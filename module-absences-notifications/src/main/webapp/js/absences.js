@@ -4,11 +4,12 @@
 const AbsenceAPI = {
     
     /**
-     * Récupère toutes les absences.
+     * Récupère toutes les absences (ou la première page si limit est fourni).
      */
-    getAll: async function() {
+    getAll: async function(limit) {
         try {
-            const response = await fetch(`${CONFIG.API_BASE_URL}/absences`);
+            const query = limit ? `?limit=${limit}` : '';
+            const response = await fetch(`${CONFIG.API_BASE_URL}/absences${query}`);
             const data = await response.json();
             
             if (data.success) {
@@ -63,11 +64,35 @@ const AbsenceAPI = {
     },
     
     /**
-     * Récupère les absences non justifiées.
+     * Récupère les absences non justifiées (ou la première page si limit est fourni).
      */
-    getNonJustifiees: async function() {
+    getNonJustifiees: async function(limit) {
         try {
-            const response = await fetch(`${CONFIG.API_BASE_URL}/absences/non-justifiees`);
+            const query = limit ? `?limit=${limit}` : '';
+            const response = await fetch(`${CONFIG.API_BASE_URL}/absences/non-justifiees${query}`);
+            const data = await response.json();
+            
+            if (data.success) {
+                return data.data;
+            } else {
+                throw new Error(data.message);
+            }
+        } catch (error) {
+            console.error('Erreur:', error);
+            throw error;
+        }
+    },
+    
+    /**
+     * Récupère les statistiques agrégées côté serveur (année en cours par défaut).
+     */
+    getStatistiques: async function(debut, fin) {
+        try {
+            const params = new URLSearchParams();
+            if (debut) params.append('debut', debut);
+            if (fin) params.append('fin', fin);
+            const query = params.toString() ? `?${params}` : '';
+            const response = await fetch(`${CONFIG.API_BASE_URL}/absences/statistiques${query}`);
             const data = await response.json();
             
             if (data.success) {
@@ -133,6 +158,33 @@ const AbsenceAPI = {
         }
     },
     
+    /**
+     * Valide ou rejette plusieurs absences en attente (statut : 'VALIDE' ou 'REJETE').
+     * Retourne le résultat de chaque ID.
+     */
+    changerStatut: async function(ids, statut) {
+        try {
+            const response = await fetch(`${CONFIG.API_BASE_URL}/absences/statut`, {
+                method: 'POST',
+                headers: {
+                    'Content-Type': 'application/json'
+                },
+                body: JSON.stringify({ ids, statut })
+            });
+            
+            const data = await response.json();
+            
+            if (data.success) {
+                return data.data;
+            } else {
+                throw new Error(data.message);
+            }
+        } catch (error) {
+            console.error('Erreur lors du changement de statut:', error);
+            throw error;
+        }
+    },
+    
     /**
      * Justifie une absence.
      */
@@ -159,6 +211,32 @@ const AbsenceAPI = {
         }
     },
     
+    /**
+     * Justifie une absence en téléversant le document (PDF, JPEG ou PNG).
+     */
+    justifierAvecDocument: async function(id, fichier) {
+        try {
+            const formulaire = new FormData();
+            formulaire.append('document', fichier);
+            
+            const response = await fetch(`${CONFIG.API_BASE_URL}/absences/${id}/justifier`, {
+                method: 'PUT',
+                body: formulaire
+            });
+            
+            const data = await response.json();
+            
+            if (data.success) {
+                return data.data;
+            } else {
+                throw new Error(data.message);
+            }
+        } catch (error) {
+            console.error('Erreur lors du téléversement du justificatif:', error);
+            throw error;
+        }
+    },
+    
     /**
      * Supprime une absence.
      */
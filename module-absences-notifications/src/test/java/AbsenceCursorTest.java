@@ -0,0 +1,33 @@
+import com.plateforme.absences.dto.AbsenceCursor;
+import org.junit.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.Assert.*;
+
+public class AbsenceCursorTest {
+    
+    @Test
+    public void testEncodeDecode() {
+        // Arrange
+        AbsenceCursor cursor = new AbsenceCursor(LocalDate.of(2026, 2, 12), 42L);
+        
+        // Act
+        AbsenceCursor result = AbsenceCursor.decode(cursor.encode());
+        
+        // Assert
+        assertEquals(LocalDate.of(2026, 2, 12), result.getDateAbsence());
+        assertEquals(Long.valueOf(42L), result.getId());
+    }
+    
+    @Test
+    public void testDecodeVide() {
+        assertNull(AbsenceCursor.decode(null));
+        assertNull(AbsenceCursor.decode("  "));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodeInvalide() {
+        AbsenceCursor.decode("pas-un-curseur");
+    }
+}
@@ -0,0 +1,194 @@
+import com.plateforme.absences.dto.AbsenceDTO;
+import com.plateforme.absences.events.AbsenceEvent;
+import com.plateforme.absences.jms.NotificationEvent;
+import com.plateforme.absences.jms.NotificationOutbox;
+import com.plateforme.absences.services.AbsenceService;
+import com.plateforme.absences.services.AbsenceVerrouilleeException;
+import com.plateforme.absences.services.ChangementAbsenceService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import jakarta.enterprise.event.Event;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class AbsenceServiceTest {
+    
+    private static final Long VALIDATEUR = 9L;
+    
+    @Mock
+    private EntityManager em;
+    
+    @Mock
+    private TypedQuery<Long> requeteVerrou;
+    
+    @Mock
+    private TypedQuery<AbsenceDTO> requeteEtats;
+    
+    @Mock
+    private Query requeteMiseAJour;
+    
+    @Mock
+    private ChangementAbsenceService changements;
+    
+    @Mock
+    private NotificationOutbox notificationOutbox;
+    
+    @Mock
+    private Event<AbsenceEvent> absenceEvents;
+    
+    @InjectMocks
+    private AbsenceService absenceService;
+    
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        
+        when(em.createNamedQuery("Absence.verrouiller", Long.class)).thenReturn(requeteVerrou);
+        when(requeteVerrou.setParameter(anyString(), any())).thenReturn(requeteVerrou);
+        when(requeteVerrou.setLockMode(any())).thenReturn(requeteVerrou);
+        when(em.createNamedQuery("AbsenceDTO.findByIds", AbsenceDTO.class)).thenReturn(requeteEtats);
+        when(requeteEtats.setParameter(anyString(), any())).thenReturn(requeteEtats);
+        when(em.createNamedQuery("Absence.changerStatut")).thenReturn(requeteMiseAJour);
+        when(requeteMiseAJour.setParameter(anyString(), any())).thenReturn(requeteMiseAJour);
+        
+        // 1 : en attente ; 2 : inexistante ; 3 : déjà validée ; 4 : rejetée ; 5 : absence du validateur
+        when(requeteVerrou.getResultList()).thenReturn(Arrays.asList(1L, 3L, 4L, 5L));
+        when(requeteEtats.getResultList()).thenReturn(Arrays.asList(
+            absence(1L, 7L, "EN_ATTENTE"),
+            absence(3L, 7L, "VALIDE"),
+            absence(4L, 8L, "REJETE"),
+            absence(5L, VALIDATEUR, "EN_ATTENTE")
+        ));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testChangerStatutRepartitLesIdsDemandes() {
+        // Arrange
+        when(requeteMiseAJour.executeUpdate()).thenReturn(1);
+        
+        // Act
+        Map<Long, String> refus = absenceService.changerStatut(Arrays.asList(1L, 2L, 3L, 4L, 5L, 1L), "VALIDE",
+                                                               VALIDATEUR, false);
+        
+        // Assert : verrou sur les IDs demandés (sans doublon), états relus pour les lignes trouvées
+        ArgumentCaptor<Collection<Long>> verrouillees = ArgumentCaptor.forClass(Collection.class);
+        verify(requeteVerrou).setParameter(eq("ids"), verrouillees.capture());
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L), new ArrayList<>(verrouillees.getValue()));
+        verify(requeteVerrou).setLockMode(LockModeType.PESSIMISTIC_WRITE);
+        verify(requeteEtats).setParameter("ids", Arrays.asList(1L, 3L, 4L, 5L));
+        
+        // Refus dans l'ordre de la demande ; 3 est déjà au statut demandé (ni refus, ni écriture)
+        assertEquals(Arrays.asList(2L, 4L, 5L), new ArrayList<>(refus.keySet()));
+        assertEquals("Absence non trouvée", refus.get(2L));
+        assertEquals("Absence déjà traitée (statut REJETE)", refus.get(4L));
+        assertEquals("Un manager ne peut pas traiter ses propres absences", refus.get(5L));
+        
+        // Un seul UPDATE, pour la seule absence modifiable
+        verify(requeteMiseAJour).setParameter("ids", Arrays.asList(1L));
+        verify(requeteMiseAJour).setParameter("statut", "VALIDE");
+        verify(requeteMiseAJour).setParameter("validateurId", VALIDATEUR);
+        verify(requeteMiseAJour).setParameter("admin", false);
+        
+        ArgumentCaptor<List<AbsenceEvent>> evenements = ArgumentCaptor.forClass(List.class);
+        verify(changements).journaliser(evenements.capture());
+        assertEquals(1, evenements.getValue().size());
+        assertEquals("EN_ATTENTE", evenements.getValue().get(0).getAvant().getStatut());
+        assertEquals("VALIDE", evenements.getValue().get(0).getApres().getStatut());
+        verify(absenceEvents, times(1)).fire(any(AbsenceEvent.class));
+        
+        ArgumentCaptor<List<NotificationEvent>> notifications = ArgumentCaptor.forClass(List.class);
+        verify(notificationOutbox).ajouter(notifications.capture());
+        assertEquals(1, notifications.getValue().size());
+    }
+    
+    @Test
+    public void testChangerStatutAdminTraiteSesPropresAbsences() {
+        // Arrange
+        when(requeteMiseAJour.executeUpdate()).thenReturn(2);
+        
+        // Act
+        Map<Long, String> refus = absenceService.changerStatut(Arrays.asList(1L, 5L), "REJETE", VALIDATEUR, true);
+        
+        // Assert
+        assertTrue(refus.toString(), refus.isEmpty());
+        verify(requeteMiseAJour).setParameter("ids", Arrays.asList(1L, 5L));
+        verify(requeteMiseAJour).setParameter("admin", true);
+    }
+    
+    @Test
+    public void testChangerStatutSansLigneModifiable() {
+        // Act
+        Map<Long, String> refus = absenceService.changerStatut(Arrays.asList(2L, 3L, 4L), "VALIDE", VALIDATEUR, false);
+        
+        // Assert : aucun UPDATE, aucun événement
+        assertEquals(2, refus.size());
+        verify(em, never()).createNamedQuery("Absence.changerStatut");
+        verifyNoInteractions(changements, notificationOutbox, absenceEvents);
+    }
+    
+    @Test
+    public void testChangerStatutNombreDeLignesIncoherent() {
+        // Arrange : l'UPDATE ne trouve pas la ligne attendue
+        when(requeteMiseAJour.executeUpdate()).thenReturn(0);
+        
+        // Act
+        try {
+            absenceService.changerStatut(Arrays.asList(1L), "VALIDE", VALIDATEUR, false);
+            fail("PersistenceException attendue");
+        } catch (PersistenceException e) {
+            // Assert : rien n'est publié pour une transaction vouée à l'annulation
+            verifyNoInteractions(changements, notificationOutbox, absenceEvents);
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testChangerStatutInvalide() {
+        absenceService.changerStatut(Arrays.asList(1L), "EN_ATTENTE", VALIDATEUR, false);
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testJustifierAbsenceVerrouillee() {
+        // Arrange : la clôture mensuelle est passée sur l'absence
+        TypedQuery<String> requeteStatut = mock(TypedQuery.class);
+        when(em.createNamedQuery("Absence.statut", String.class)).thenReturn(requeteStatut);
+        when(requeteStatut.setParameter(anyString(), any())).thenReturn(requeteStatut);
+        when(requeteStatut.setLockMode(any())).thenReturn(requeteStatut);
+        when(requeteStatut.getResultList()).thenReturn(Arrays.asList("VERROUILLE"));
+        
+        // Act
+        try {
+            absenceService.justifier(1L, "doc-1");
+            fail("AbsenceVerrouilleeException attendue");
+        } catch (AbsenceVerrouilleeException e) {
+            // Assert : statut relu sous verrou, rien n'est écrit
+            verify(requeteStatut).setLockMode(LockModeType.PESSIMISTIC_WRITE);
+            verify(em, never()).merge(any());
+            verifyNoInteractions(changements, absenceEvents);
+        }
+    }
+    
+    private static AbsenceDTO absence(Long id, Long employeId, String statut) {
+        return new AbsenceDTO(id, employeId, 3L, "Maladie", LocalDate.of(2026, 3, 2), null, null,
+                              null, null, false, null, null, statut, null);
+    }
+}
@@ -0,0 +1,197 @@
+import com.plateforme.absences.rest.ExecuteurRequetes;
+
+import jakarta.enterprise.concurrent.ContextService;
+import jakarta.ws.rs.container.AsyncResponse;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Banc d'essai simulé d'ExecuteurRequetes (non exécuté par mvn test) : modes
+ * bloquant et virtuel, sans serveur ni base.
+ * 
+ * Chaque requête prend une connexion dans un pool simulé (taille de la
+ * DataSource, attente bornée comme blocking-timeout-millis) puis « exécute une
+ * requête » : une attente de quelques millisecondes, connexion tenue par un
+ * verrou, comme le pilote JDBC pendant l'aller-retour réseau. Le verrou est
+ * au choix :
+ * - ReentrantLock : un thread virtuel qui attend libère son porteur ;
+ * - synchronized : le thread virtuel reste épinglé à son porteur pendant
+ *   l'attente (Java 21), comme avec un pilote ou un pool qui fait ses E/S sous
+ *   moniteur. Les porteurs étant aussi nombreux que les cœurs, au plus
+ *   « cœurs » requêtes avancent à la fois.
+ * 
+ * Les requêtes arrivent sur un pool fixe de threads plateforme (les workers
+ * HTTP d'Undertow, task-max-threads = 16 × cœurs par défaut), qui appellent
+ * ExecuteurRequetes.executer comme le font les ressources ; des clients en
+ * boucle fermée (threads plateforme) attendent chaque réponse. Affiche pour
+ * chaque combinaison le débit et les percentiles de latence après la chauffe.
+ * 
+ *   java -cp "target/test-classes:target/classes:$(cat cp.txt)" BancExecuteurRequetes 200 10
+ *   java -Djdk.tracePinnedThreads=short -cp ... BancExecuteurRequetes 200 10
+ * 
+ * Arguments : clients simultanés (défaut 200), durée mesurée en secondes
+ * (défaut 10), chauffe en secondes (défaut 3), durée d'une requête en ms
+ * (défaut 5), connexions du pool (défaut 20), permis d'ExecuteurRequetes
+ * (défaut : connexions du pool), workers HTTP (défaut 16 × cœurs).
+ * 
+ * Les chiffres dépendent du nombre de cœurs (porteurs des threads virtuels) :
+ * ils comparent les modes entre eux, pas le serveur réel (voir ChargeRest).
+ */
+public class BancExecuteurRequetes {
+    
+    /**
+     * Pool de connexions simulé : file bloquante (ReentrantLock, pas d'épinglage pendant l'attente).
+     */
+    static final class BaseSimulee {
+        private final BlockingQueue<ReentrantLock> connexions;
+        private final long requeteMs;
+        private final boolean epingle;
+        
+        BaseSimulee(int taillePool, long requeteMs, boolean epingle) {
+            this.connexions = new ArrayBlockingQueue<>(taillePool, true);
+            for (int i = 0; i < taillePool; i++) {
+                connexions.add(new ReentrantLock());
+            }
+            this.requeteMs = requeteMs;
+            this.epingle = epingle;
+        }
+        
+        void requete() throws InterruptedException {
+            ReentrantLock connexion = connexions.poll(30, TimeUnit.SECONDS);
+            if (connexion == null) {
+                throw new IllegalStateException("Aucune connexion libre après 30 s");
+            }
+            try {
+                if (epingle) {
+                    synchronized (connexion) {
+                        Thread.sleep(requeteMs);
+                    }
+                } else {
+                    connexion.lock();
+                    try {
+                        Thread.sleep(requeteMs);
+                    } finally {
+                        connexion.unlock();
+                    }
+                }
+            } finally {
+                connexions.add(connexion);
+            }
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        int coeurs = Runtime.getRuntime().availableProcessors();
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int duree = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int chauffe = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        long requeteMs = args.length > 3 ? Long.parseLong(args[3]) : 5;
+        int taillePool = args.length > 4 ? Integer.parseInt(args[4]) : 20;
+        int permis = args.length > 5 ? Integer.parseInt(args[5]) : taillePool;
+        int workers = args.length > 6 ? Integer.parseInt(args[6]) : 16 * coeurs;
+        
+        System.out.println(String.format("%d cœur(s), %d client(s), %d worker(s) HTTP, pool de %d connexion(s), "
+                                         + "%d permis, requête de %d ms", coeurs, clients, workers, taillePool,
+                                         permis, requeteMs));
+        for (boolean epingle : new boolean[] {false, true}) {
+            for (String mode : Arrays.asList(ExecuteurRequetes.MODE_BLOQUANT, ExecuteurRequetes.MODE_VIRTUEL)) {
+                BaseSimulee base = new BaseSimulee(taillePool, requeteMs, epingle);
+                String libelle = mode + (epingle ? ", E/S sous synchronized" : ", E/S sous ReentrantLock");
+                System.out.println(libelle + " : " + executer(mode, permis, workers, base, clients, chauffe, duree));
+            }
+        }
+    }
+    
+    static String executer(String mode, int permis, int workers, BaseSimulee base, int clients,
+                           int chauffe, int duree) throws Exception {
+        System.setProperty("absences.rest.mode", mode);
+        System.setProperty("absences.rest.concurrence", String.valueOf(permis));
+        ExecuteurRequetes executeur = executeur();
+        ExecutorService http = Executors.newFixedThreadPool(workers);
+        try {
+            charge(executeur, http, base, clients, chauffe);
+            List<ChargeRest.Mesures> mesures = charge(executeur, http, base, clients, duree);
+            return ChargeRest.rapport(mesures, duree).replace('\n', ' ');
+        } finally {
+            http.shutdown();
+            executeur.arreter();
+        }
+    }
+    
+    /**
+     * Clients en boucle fermée : chacun envoie une requête et attend sa réponse avant la suivante.
+     */
+    static List<ChargeRest.Mesures> charge(ExecuteurRequetes executeur, ExecutorService http, BaseSimulee base,
+                                           int clients, int dureeSecondes) throws InterruptedException {
+        long fin = System.nanoTime() + TimeUnit.SECONDS.toNanos(dureeSecondes);
+        List<ChargeRest.Mesures> mesures = new ArrayList<>(clients);
+        try (ExecutorService executeurClients = Executors.newThreadPerTaskExecutor(Thread.ofPlatform().factory())) {
+            for (int i = 0; i < clients; i++) {
+                ChargeRest.Mesures m = new ChargeRest.Mesures();
+                mesures.add(m);
+                executeurClients.execute(() -> {
+                    while (System.nanoTime() < fin) {
+                        CompletableFuture<Object> reponse = new CompletableFuture<>();
+                        long debut = System.nanoTime();
+                        http.execute(() -> executeur.executer(reponse(reponse), () -> {
+                            try {
+                                base.requete();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                throw new IllegalStateException(e);
+                            }
+                            // Pas de RuntimeDelegate JAX-RS hors serveur : null tient lieu de 200
+                            return null;
+                        }));
+                        try {
+                            Object resultat = reponse.get();
+                            m.ajouter(System.nanoTime() - debut, resultat instanceof Throwable ? 500 : 200);
+                        } catch (Exception e) {
+                            m.erreurs++;
+                            return;
+                        }
+                    }
+                });
+            }
+        }
+        return mesures;
+    }
+    
+    /**
+     * ExecuteurRequetes démarré comme par le conteneur, sans propagation de contexte.
+     */
+    private static ExecuteurRequetes executeur() throws ReflectiveOperationException {
+        ExecuteurRequetes executeur = new ExecuteurRequetes();
+        Field contexte = ExecuteurRequetes.class.getDeclaredField("contexte");
+        contexte.setAccessible(true);
+        contexte.set(executeur, Proxy.newProxyInstance(ContextService.class.getClassLoader(),
+                                                       new Class<?>[] {ContextService.class},
+                                                       (proxy, methode, arguments) -> arguments[0]));
+        executeur.demarrer();
+        return executeur;
+    }
+    
+    /**
+     * AsyncResponse qui transmet la réponse (ou l'exception) reprise au client en attente.
+     */
+    private static AsyncResponse reponse(CompletableFuture<Object> attente) {
+        return (AsyncResponse) Proxy.newProxyInstance(AsyncResponse.class.getClassLoader(),
+                                                      new Class<?>[] {AsyncResponse.class},
+                                                      (proxy, methode, arguments) -> {
+            if ("resume".equals(methode.getName())) {
+                return attente.complete(arguments[0]);
+            }
+            throw new UnsupportedOperationException(methode.getName());
+        });
+    }
+}
@@ -0,0 +1,138 @@
+import com.mysql.cj.jdbc.MysqlDataSource;
+import com.plateforme.absences.dto.AbsenceDTO;
+import com.plateforme.absences.entities.Absence;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Banc d'essai des lectures d'absences (non exécuté par mvn test) : entités
+ * contre projections AbsenceDTO.
+ * 
+ * Lit la même période de deux façons, chaque lecture dans un EntityManager neuf
+ * (comme une requête REST) :
+ * - entités : Absence.findByPeriode (TypeAbsence EAGER, entités gérées et leurs
+ *   instantanés de dirty-checking), puis copie en AbsenceDTO comme avant ;
+ * - projection : AbsenceDTO.findByPeriode (constructeur JPQL, une jointure).
+ * Affiche pour chacune le temps moyen, le meilleur temps et la mémoire allouée
+ * par lecture, mesurés après la chauffe.
+ * 
+ *   mvn dependency:build-classpath -Dmdep.outputFile=cp.txt
+ *   java -cp "target/test-classes:target/classes:$(cat cp.txt)" BancProjection \
+ *        "jdbc:mysql://localhost:3306/gestion_rh_jee?useCursorFetch=true" rh rh 2025-01-01 2025-12-31 50
+ * 
+ * Arguments : URL JDBC, utilisateur, mot de passe, début et fin de la période,
+ * lectures mesurées par variante (défaut 50). L'unité absencesPU est utilisée
+ * hors serveur d'application : transactions locales sur une DataSource créée
+ * ici, sans cache de second niveau (chaque lecture va en base).
+ */
+public class BancProjection {
+    
+    private final EntityManagerFactory emf;
+    private final LocalDate debut;
+    private final LocalDate fin;
+    
+    BancProjection(EntityManagerFactory emf, LocalDate debut, LocalDate fin) {
+        this.emf = emf;
+        this.debut = debut;
+        this.fin = fin;
+    }
+    
+    public static void main(String[] args) {
+        if (args.length < 5) {
+            System.err.println("Usage : BancProjection <url jdbc> <utilisateur> <mot de passe> <début> <fin> [lectures]");
+            System.exit(1);
+        }
+        MysqlDataSource dataSource = new MysqlDataSource();
+        dataSource.setURL(args[0]);
+        dataSource.setUser(args[1]);
+        dataSource.setPassword(args[2]);
+        LocalDate debut = LocalDate.parse(args[3]);
+        LocalDate fin = LocalDate.parse(args[4]);
+        int lectures = args.length > 5 ? Integer.parseInt(args[5]) : 50;
+        
+        Map<String, Object> proprietes = new HashMap<>();
+        proprietes.put("jakarta.persistence.transactionType", "RESOURCE_LOCAL");
+        proprietes.put("jakarta.persistence.nonJtaDataSource", dataSource);
+        proprietes.put("jakarta.persistence.sharedCache.mode", "NONE");
+        proprietes.put("hibernate.cache.use_second_level_cache", "false");
+        proprietes.put("hibernate.cache.use_query_cache", "false");
+        proprietes.put("hibernate.generate_statistics", "false");
+        proprietes.put("hibernate.show_sql", "false");
+        proprietes.put("hibernate.format_sql", "false");
+        
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory("absencesPU", proprietes);
+        try {
+            BancProjection banc = new BancProjection(emf, debut, fin);
+            System.out.println("Absences du " + debut + " au " + fin + " : " + banc.lire(banc::projection));
+            int chauffe = Math.max(5, lectures / 5);
+            System.out.println(banc.mesurer("Entités + AbsenceDTO(Absence)", banc::entites, chauffe, lectures));
+            System.out.println(banc.mesurer("Projection AbsenceDTO       ", banc::projection, chauffe, lectures));
+        } finally {
+            emf.close();
+        }
+    }
+    
+    private int entites(EntityManager em) {
+        List<Absence> absences = em.createNamedQuery("Absence.findByPeriode", Absence.class)
+                                   .setParameter("debut", debut)
+                                   .setParameter("fin", fin)
+                                   .getResultList();
+        List<AbsenceDTO> dtos = new ArrayList<>(absences.size());
+        for (Absence absence : absences) {
+            dtos.add(new AbsenceDTO(absence));
+        }
+        return dtos.size();
+    }
+    
+    private int projection(EntityManager em) {
+        return em.createNamedQuery("AbsenceDTO.findByPeriode", AbsenceDTO.class)
+                 .setParameter("debut", debut)
+                 .setParameter("fin", fin)
+                 .getResultList()
+                 .size();
+    }
+    
+    /**
+     * Temps et mémoire allouée (thread courant) par lecture, après {@code chauffe} lectures non mesurées.
+     */
+    String mesurer(String nom, Function<EntityManager, Integer> lecture, int chauffe, int lectures) {
+        for (int i = 0; i < chauffe; i++) {
+            lire(lecture);
+        }
+        
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long meilleur = Long.MAX_VALUE;
+        long total = 0;
+        long octets0 = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < lectures; i++) {
+            long t0 = System.nanoTime();
+            lire(lecture);
+            long duree = System.nanoTime() - t0;
+            total += duree;
+            meilleur = Math.min(meilleur, duree);
+        }
+        long octets = (threads.getCurrentThreadAllocatedBytes() - octets0) / lectures;
+        
+        return String.format("%s : moyenne %.1f ms, meilleur %.1f ms, %.1f Mo alloués par lecture",
+                             nom, total / (double) lectures / 1_000_000, meilleur / 1_000_000.0,
+                             octets / (1024.0 * 1024.0));
+    }
+    
+    private int lire(Function<EntityManager, Integer> lecture) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return lecture.apply(em);
+        } finally {
+            em.close();
+        }
+    }
+}
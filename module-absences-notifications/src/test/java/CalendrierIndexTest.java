@@ -0,0 +1,65 @@
+import com.plateforme.absences.index.CalendrierIndex;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class CalendrierIndexTest {
+    
+    private static final LocalDate LUNDI = LocalDate.of(2026, 2, 9);
+    private static final LocalDate MARDI = LUNDI.plusDays(1);
+    
+    private CalendrierIndex index;
+    
+    @Before
+    public void setUp() {
+        index = new CalendrierIndex();
+        index.ajouter(4L, LUNDI);
+        index.ajouter(5L, LUNDI);
+        index.ajouter(6L, MARDI);
+    }
+    
+    @Test
+    public void testAbsentsLe() {
+        assertEquals(Arrays.asList(4L, 5L), index.absentsLe(LUNDI));
+        assertEquals(Collections.singletonList(6L), index.absentsLe(MARDI));
+        assertTrue(index.absentsLe(LUNDI.minusDays(1)).isEmpty());
+    }
+    
+    @Test
+    public void testAbsentsEntre() {
+        assertEquals(Arrays.asList(4L, 5L, 6L), index.absentsEntre(LUNDI, MARDI));
+    }
+    
+    @Test
+    public void testRetirerAvecDoublon() {
+        // Arrange : deux absences de l'employé 4 le même jour
+        index.ajouter(4L, LUNDI);
+        
+        // Act
+        index.retirer(4L, LUNDI);
+        
+        // Assert : l'employé reste absent grâce à la seconde absence
+        assertEquals(Arrays.asList(4L, 5L), index.absentsLe(LUNDI));
+        
+        index.retirer(4L, LUNDI);
+        assertEquals(Collections.singletonList(5L), index.absentsLe(LUNDI));
+        assertEquals(2, index.getNombreEntrees());
+    }
+    
+    @Test
+    public void testChevauchements() {
+        // Act
+        Map<LocalDate, List<Long>> jours = index.chevauchements(Arrays.asList(4L, 5L, 6L), LUNDI, MARDI, 2);
+        
+        // Assert : seul le lundi a deux absents
+        assertEquals(1, jours.size());
+        assertEquals(Arrays.asList(4L, 5L), jours.get(LUNDI));
+    }
+}
@@ -0,0 +1,162 @@
+import com.plateforme.absences.dto.AbsenceDTO;
+import com.plateforme.absences.dto.ChangementDTO;
+import com.plateforme.absences.dto.FluxChangementsDTO;
+import com.plateforme.absences.entities.ChangementAbsence;
+import com.plateforme.absences.services.ChangementAbsenceService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ChangementAbsenceServiceTest {
+    
+    @Mock
+    private EntityManager em;
+    
+    @Mock
+    private Query requetePlafond;
+    
+    @Mock
+    private TypedQuery<ChangementAbsence> requeteDepuis;
+    
+    @Mock
+    private TypedQuery<AbsenceDTO> requeteEtats;
+    
+    @InjectMocks
+    private ChangementAbsenceService changementService;
+    
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        changementService.configurer();
+        
+        when(em.createNativeQuery(anyString())).thenReturn(requetePlafond);
+        when(requetePlafond.setParameter(anyInt(), any())).thenReturn(requetePlafond);
+        when(em.createNamedQuery("ChangementAbsence.depuis", ChangementAbsence.class)).thenReturn(requeteDepuis);
+        when(requeteDepuis.setParameter(anyString(), any())).thenReturn(requeteDepuis);
+        when(requeteDepuis.setMaxResults(anyInt())).thenReturn(requeteDepuis);
+        when(em.createNamedQuery("AbsenceDTO.findByIds", AbsenceDTO.class)).thenReturn(requeteEtats);
+        when(requeteEtats.setParameter(anyString(), any())).thenReturn(requeteEtats);
+    }
+    
+    @Test
+    public void testPlafondIgnoreLesEcrituresDuDelai() {
+        // Arrange
+        when(requetePlafond.getResultList()).thenReturn(Collections.singletonList(BigInteger.valueOf(42)));
+        
+        // Act
+        long plafond = changementService.plafond();
+        
+        // Assert : plus grand ID écrit avant NOW(3) - délai (2000 ms par défaut), sans verrou
+        assertEquals(42, plafond);
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(em).createNativeQuery(sql.capture());
+        assertTrue(sql.getValue(), sql.getValue().contains("date_changement <= NOW(3) - INTERVAL ? MICROSECOND"));
+        assertTrue(sql.getValue(), sql.getValue().endsWith("ORDER BY id DESC LIMIT 1"));
+        assertFalse(sql.getValue(), sql.getValue().contains("FOR UPDATE"));
+        verify(requetePlafond).setParameter(1, 2_000_000L);
+    }
+    
+    @Test
+    public void testPlafondJournalVide() {
+        // Arrange
+        when(requetePlafond.getResultList()).thenReturn(Collections.emptyList());
+        
+        // Act & Assert
+        assertEquals(0, changementService.plafond());
+    }
+    
+    @Test
+    public void testDepuisLitJusquAuPlafondDansLOrdreDesId() {
+        // Arrange
+        when(requetePlafond.getResultList()).thenReturn(Collections.singletonList(BigInteger.valueOf(7)));
+        when(requeteDepuis.getResultList()).thenReturn(Arrays.asList(
+            changement(5L, 10L, "CREATION"),
+            changement(6L, 11L, "SUPPRESSION"),
+            changement(7L, 10L, "MODIFICATION")
+        ));
+        when(requeteEtats.getResultList()).thenReturn(Collections.singletonList(absence(10L)));
+        
+        // Act
+        FluxChangementsDTO flux = changementService.depuis(4, 100);
+        
+        // Assert : ]4, 7], une entrée par absence à la place de son dernier changement
+        verify(requeteDepuis).setParameter("depuis", 4L);
+        verify(requeteDepuis).setParameter("plafond", 7L);
+        assertEquals("7", flux.getToken());
+        assertFalse(flux.isSuite());
+        List<ChangementDTO> changements = flux.getChangements();
+        assertEquals(2, changements.size());
+        assertEquals(Long.valueOf(11), changements.get(0).getAbsenceId());
+        assertEquals("SUPPRESSION", changements.get(0).getOperation());
+        assertNull(changements.get(0).getAbsence());
+        assertEquals(Long.valueOf(10), changements.get(1).getAbsenceId());
+        assertEquals("MODIFICATION", changements.get(1).getOperation());
+        assertEquals(Long.valueOf(10), changements.get(1).getAbsence().getId());
+    }
+    
+    @Test
+    public void testDepuisPagineSurLeDernierIdServi() {
+        // Arrange : une ligne de plus que la limite signale une suite
+        when(requetePlafond.getResultList()).thenReturn(Collections.singletonList(BigInteger.valueOf(9)));
+        when(requeteDepuis.getResultList()).thenReturn(Arrays.asList(
+            changement(5L, 10L, "SUPPRESSION"),
+            changement(6L, 11L, "SUPPRESSION"),
+            changement(8L, 12L, "SUPPRESSION")
+        ));
+        
+        // Act
+        FluxChangementsDTO flux = changementService.depuis(4, 2);
+        
+        // Assert
+        verify(requeteDepuis).setMaxResults(3);
+        assertTrue(flux.isSuite());
+        assertEquals("6", flux.getToken());
+        assertEquals(2, flux.getChangements().size());
+    }
+    
+    @Test
+    public void testDepuisSansNouveauChangementGardeLeJeton() {
+        // Arrange
+        when(requetePlafond.getResultList()).thenReturn(Collections.singletonList(BigInteger.valueOf(4)));
+        when(requeteDepuis.getResultList()).thenReturn(Collections.emptyList());
+        
+        // Act
+        FluxChangementsDTO flux = changementService.depuis(4, 100);
+        
+        // Assert
+        assertEquals("4", flux.getToken());
+        assertTrue(flux.getChangements().isEmpty());
+    }
+    
+    private static ChangementAbsence changement(Long id, Long absenceId, String operation) {
+        ChangementAbsence changement = new ChangementAbsence();
+        changement.setId(id);
+        changement.setAbsenceId(absenceId);
+        changement.setEmployeId(1L);
+        changement.setOperation(operation);
+        changement.setDateChangement(LocalDateTime.of(2026, 3, 2, 9, 0));
+        return changement;
+    }
+    
+    private static AbsenceDTO absence(Long id) {
+        return new AbsenceDTO(id, 1L, 3L, "Maladie", LocalDate.of(2026, 3, 2), null, null,
+                              null, null, false, null, null, "EN_ATTENTE", null);
+    }
+}
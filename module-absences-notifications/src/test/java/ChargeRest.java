@@ -0,0 +1,193 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Test de charge des API absences et notifications (non exécuté par mvn test).
+ * 
+ * Des clients en boucle fermée envoient un mélange de lectures (absence par ID,
+ * absences d'un employé, compteur de notifications non lues) sans If-None-Match,
+ * pour que chaque requête atteigne la base. Affiche le débit et les percentiles
+ * de latence mesurés après la chauffe.
+ * 
+ * Pour comparer les deux modes d'ExecuteurRequetes, lancer le même test contre
+ * le serveur démarré avec -Dabsences.rest.mode=bloquant, puis avec
+ * -Dabsences.rest.mode=virtuel :
+ * 
+ *   java -cp target/test-classes ChargeRest http://localhost:8080/absences-notifications/api 200 60
+ * 
+ * Arguments : URL de base, clients simultanés (défaut 200), durée mesurée en
+ * secondes (défaut 30), chauffe en secondes (défaut 10), plus grand ID
+ * d'absence/employé tiré au hasard (défaut 1000).
+ * -Dcharge.auth=utilisateur:motdepasse ajoute une authentification Basic.
+ */
+public class ChargeRest {
+    
+    private final HttpClient client;
+    private final String base;
+    private final String authorization;
+    private final int idMax;
+    
+    ChargeRest(String base, int idMax, String auth) {
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+        this.base = base.endsWith("/") ? base.substring(0, base.length() - 1) : base;
+        this.idMax = idMax;
+        this.authorization = auth != null
+            ? "Basic " + Base64.getEncoder().encodeToString(auth.getBytes(StandardCharsets.UTF_8))
+            : null;
+    }
+    
+    /**
+     * Mesures d'un client (un seul thread : pas de synchronisation).
+     */
+    static final class Mesures {
+        long[] latences = new long[1 << 14];
+        int nombre;
+        final Map<Integer, Integer> statuts = new TreeMap<>();
+        int erreurs;
+        
+        void ajouter(long nanos, int statut) {
+            if (nombre == latences.length) {
+                latences = Arrays.copyOf(latences, nombre * 2);
+            }
+            latences[nombre++] = nanos;
+            statuts.merge(statut, 1, Integer::sum);
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage : ChargeRest <url de base> [clients] [durée s] [chauffe s] [id max]");
+            System.exit(1);
+        }
+        String base = args[0];
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int duree = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int chauffe = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        int idMax = args.length > 4 ? Integer.parseInt(args[4]) : 1000;
+        
+        ChargeRest charge = new ChargeRest(base, idMax, System.getProperty("charge.auth"));
+        System.out.println("Chauffe : " + clients + " client(s), " + chauffe + " s");
+        charge.executer(clients, chauffe);
+        System.out.println("Mesure : " + clients + " client(s), " + duree + " s");
+        List<Mesures> mesures = charge.executer(clients, duree);
+        System.out.println(rapport(mesures, duree));
+    }
+    
+    /**
+     * Lance les clients pendant la durée donnée et renvoie leurs mesures.
+     */
+    List<Mesures> executer(int clients, int dureeSecondes) throws InterruptedException {
+        long fin = System.nanoTime() + Duration.ofSeconds(dureeSecondes).toNanos();
+        List<Mesures> mesures = new ArrayList<>(clients);
+        try (ExecutorService executeur = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                Mesures m = new Mesures();
+                mesures.add(m);
+                executeur.execute(() -> boucle(m, fin));
+            }
+        }
+        return mesures;
+    }
+    
+    private void boucle(Mesures mesures, long fin) {
+        while (System.nanoTime() < fin) {
+            HttpRequest requete = requete();
+            long debut = System.nanoTime();
+            try {
+                HttpResponse<Void> reponse = client.send(requete, HttpResponse.BodyHandlers.discarding());
+                mesures.ajouter(System.nanoTime() - debut, reponse.statusCode());
+            } catch (Exception e) {
+                mesures.erreurs++;
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Une requête du mélange : 50 % absence par ID, 30 % absences d'un employé,
+     * 20 % compteur de notifications non lues.
+     */
+    private HttpRequest requete() {
+        ThreadLocalRandom aleatoire = ThreadLocalRandom.current();
+        int id = 1 + aleatoire.nextInt(idMax);
+        int tirage = aleatoire.nextInt(10);
+        String chemin;
+        if (tirage < 5) {
+            chemin = "/absences/" + id;
+        } else if (tirage < 8) {
+            chemin = "/absences/employe/" + id + "?limit=20";
+        } else {
+            chemin = "/notifications/count-non-lues?userId=" + id;
+        }
+        
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(base + chemin))
+            .timeout(Duration.ofSeconds(30))
+            .header("Accept", "application/json")
+            .GET();
+        if (authorization != null) {
+            builder.header("Authorization", authorization);
+        }
+        return builder.build();
+    }
+    
+    /**
+     * Débit, percentiles de latence et répartition des statuts HTTP.
+     */
+    static String rapport(List<Mesures> mesures, int dureeSecondes) {
+        int total = 0;
+        int erreurs = 0;
+        Map<Integer, Integer> statuts = new TreeMap<>();
+        for (Mesures m : mesures) {
+            total += m.nombre;
+            erreurs += m.erreurs;
+            m.statuts.forEach((statut, n) -> statuts.merge(statut, n, Integer::sum));
+        }
+        
+        long[] latences = new long[total];
+        int position = 0;
+        for (Mesures m : mesures) {
+            System.arraycopy(m.latences, 0, latences, position, m.nombre);
+            position += m.nombre;
+        }
+        Arrays.sort(latences);
+        
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Requêtes : %d (%.1f req/s), erreurs réseau : %d%n",
+                                total, total / (double) dureeSecondes, erreurs));
+        sb.append("Statuts : ").append(statuts).append('\n');
+        sb.append(String.format("Latence (ms) : p50=%.1f p95=%.1f p99=%.1f p99.9=%.1f max=%.1f",
+                                percentile(latences, 50), percentile(latences, 95), percentile(latences, 99),
+                                percentile(latences, 99.9), percentile(latences, 100)));
+        return sb.toString();
+    }
+    
+    /**
+     * Percentile (méthode du rang le plus proche) d'un tableau trié, en millisecondes.
+     */
+    static double percentile(long[] tries, double p) {
+        if (tries.length == 0) {
+            return 0;
+        }
+        int rang = (int) Math.ceil(p / 100.0 * tries.length);
+        return tries[Math.max(0, Math.min(tries.length, rang) - 1)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,125 @@
+import com.plateforme.absences.cloture.ClotureAbsence;
+import com.plateforme.absences.cloture.ClotureProcessor;
+import com.plateforme.absences.dto.AbsenceDTO;
+import com.plateforme.absences.entities.TypeAbsence;
+import com.plateforme.absences.services.TypeAbsenceService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ClotureProcessorTest {
+    
+    @Mock
+    private TypeAbsenceService typeAbsenceService;
+    
+    @InjectMocks
+    private ClotureProcessor processor;
+    
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        
+        when(typeAbsenceService.findById(3L)).thenReturn(new TypeAbsence(3L, "Maladie", null, true, null));
+        when(typeAbsenceService.findById(4L)).thenReturn(new TypeAbsence(4L, "Congé", null, false, null));
+    }
+    
+    @Test
+    public void testEnAttenteVerrouillee() {
+        // Arrange
+        AbsenceDTO avant = absence(4L, "EN_ATTENTE", null, null, "8", false);
+        
+        // Act
+        ClotureAbsence cloture = (ClotureAbsence) processor.processItem(avant);
+        
+        // Assert : seul le statut change
+        assertTrue(cloture.estModifiee());
+        assertFalse(cloture.estNonJustifiee());
+        assertEquals("VERROUILLE", cloture.getApres().getStatut());
+        assertEquals(new BigDecimal("8"), cloture.getApres().getDureeHeures());
+    }
+    
+    @Test
+    public void testStatutDecideConserve() {
+        // Arrange : validée, durée cohérente avec les heures (8 h = 8.00, échelles différentes)
+        AbsenceDTO avant = absence(4L, "VALIDE", "08:00", "16:00", "8", false);
+        
+        // Act & Assert : rien à modifier ni à signaler, filtrée
+        assertNull(processor.processItem(avant));
+    }
+    
+    @Test
+    public void testDureeRecalculeeDepuisLesHeures() {
+        // Arrange : 8 h 20 saisies comme 8 h
+        AbsenceDTO avant = absence(4L, "VALIDE", "08:00", "16:20", "8", false);
+        
+        // Act
+        ClotureAbsence cloture = (ClotureAbsence) processor.processItem(avant);
+        
+        // Assert : 500 minutes = 8.33 h, statut inchangé
+        assertTrue(cloture.estModifiee());
+        assertEquals(new BigDecimal("8.33"), cloture.getApres().getDureeHeures());
+        assertEquals("VALIDE", cloture.getApres().getStatut());
+    }
+    
+    @Test
+    public void testDureeSaisieSiHeuresIncompletesOuInversees() {
+        // Arrange
+        AbsenceDTO sansFin = absence(4L, "VALIDE", "08:00", null, "4", false);
+        AbsenceDTO inversee = absence(4L, "VALIDE", "16:00", "08:00", "4", false);
+        
+        // Act & Assert : la durée saisie est conservée, rien à modifier
+        assertNull(processor.processItem(sansFin));
+        assertNull(processor.processItem(inversee));
+    }
+    
+    @Test
+    public void testDureeNulleConservee() {
+        // Arrange : ni heures ni durée
+        AbsenceDTO avant = absence(4L, "VALIDE", null, null, null, false);
+        
+        // Act & Assert
+        assertNull(processor.processItem(avant));
+    }
+    
+    @Test
+    public void testJustificatifManquantSignaleSansModification() {
+        // Arrange : type exigeant un justificatif, absence validée non justifiée
+        AbsenceDTO avant = absence(3L, "VALIDE", null, null, "8", false);
+        
+        // Act
+        ClotureAbsence cloture = (ClotureAbsence) processor.processItem(avant);
+        
+        // Assert
+        assertFalse(cloture.estModifiee());
+        assertTrue(cloture.estNonJustifiee());
+    }
+    
+    @Test
+    public void testAbsenceRejeteeOuJustifieeNonSignalee() {
+        // Arrange
+        AbsenceDTO rejetee = absence(3L, "REJETE", null, null, "8", false);
+        AbsenceDTO justifiee = absence(3L, "VALIDE", null, null, "8", true);
+        
+        // Act & Assert
+        assertNull(processor.processItem(rejetee));
+        assertNull(processor.processItem(justifiee));
+        verify(typeAbsenceService, never()).findById(anyLong());
+    }
+    
+    private static AbsenceDTO absence(Long typeId, String statut, String debut, String fin, String heures,
+                                      boolean justifiee) {
+        return new AbsenceDTO(1L, 7L, typeId, "Type", LocalDate.of(2026, 3, 2),
+                              debut != null ? LocalTime.parse(debut) : null, fin != null ? LocalTime.parse(fin) : null,
+                              heures != null ? new BigDecimal(heures) : null, null, justifiee, null, null, statut, null);
+    }
+}
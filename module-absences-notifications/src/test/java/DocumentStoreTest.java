@@ -0,0 +1,109 @@
+import com.plateforme.absences.documents.DocumentRefuseException;
+import com.plateforme.absences.documents.DocumentStocke;
+import com.plateforme.absences.documents.DocumentStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class DocumentStoreTest {
+    
+    private Path racine;
+    private DocumentStore store;
+    
+    @Before
+    public void setUp() throws IOException {
+        racine = Files.createTempDirectory("documents-test");
+        System.setProperty("absences.documents.dir", racine.toString());
+        store = new DocumentStore();
+        store.initialiser();
+    }
+    
+    @After
+    public void tearDown() throws IOException {
+        System.clearProperty("absences.documents.dir");
+        try (Stream<Path> fichiers = Files.walk(racine)) {
+            fichiers.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+        }
+    }
+    
+    @Test
+    public void testEnregistrerCalculeEmpreinte() throws Exception {
+        // Arrange : un PDF de 200 Ko (plusieurs tampons)
+        byte[] pdf = pdf(200 * 1024);
+        
+        // Act
+        DocumentStocke document = store.enregistrer(new ByteArrayInputStream(pdf));
+        
+        // Assert
+        String empreinte = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(pdf));
+        assertEquals("sha256:" + empreinte, document.getReference());
+        assertEquals("application/pdf", document.getTypeMime());
+        assertEquals(pdf.length, document.getTaille());
+        assertFalse(document.isDejaPresent());
+        assertArrayEquals(pdf, Files.readAllBytes(store.trouver(document.getReference())));
+    }
+    
+    @Test
+    public void testEnregistrerDedoublonne() throws Exception {
+        byte[] pdf = pdf(1000);
+        
+        DocumentStocke premier = store.enregistrer(new ByteArrayInputStream(pdf));
+        DocumentStocke second = store.enregistrer(new ByteArrayInputStream(pdf));
+        
+        assertEquals(premier.getReference(), second.getReference());
+        assertTrue(second.isDejaPresent());
+        try (Stream<Path> temporaires = Files.list(racine.resolve("tmp"))) {
+            assertEquals(0, temporaires.count());
+        }
+    }
+    
+    @Test
+    public void testEnregistrerRefuseTypeInconnu() throws Exception {
+        try {
+            store.enregistrer(new ByteArrayInputStream("Bonjour".getBytes(StandardCharsets.UTF_8)));
+            fail("Type non autorisé accepté");
+        } catch (DocumentRefuseException e) {
+            assertEquals(DocumentRefuseException.Motif.TYPE_NON_AUTORISE, e.getMotif());
+        }
+        try (Stream<Path> temporaires = Files.list(racine.resolve("tmp"))) {
+            assertEquals(0, temporaires.count());
+        }
+    }
+    
+    @Test
+    public void testEnregistrerRefuseDocumentVide() throws Exception {
+        try {
+            store.enregistrer(new ByteArrayInputStream(new byte[0]));
+            fail("Document vide accepté");
+        } catch (DocumentRefuseException e) {
+            assertEquals(DocumentRefuseException.Motif.VIDE, e.getMotif());
+        }
+    }
+    
+    @Test
+    public void testTrouverReferenceInconnue() {
+        assertNull(store.trouver("/uploads/certificat.pdf"));
+        assertNull(store.trouver("sha256:../../etc/passwd"));
+    }
+    
+    private static byte[] pdf(int taille) {
+        byte[] contenu = new byte[taille];
+        Arrays.fill(contenu, (byte) 'x');
+        byte[] entete = "%PDF-1.7\n".getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(entete, 0, contenu, 0, entete.length);
+        return contenu;
+    }
+}
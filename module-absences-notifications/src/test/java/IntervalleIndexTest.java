@@ -0,0 +1,77 @@
+import com.plateforme.absences.index.IntervalleIndex;
+import com.plateforme.absences.index.IntervalleIndex.Intervalle;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.Assert.*;
+
+public class IntervalleIndexTest {
+    
+    private static final LocalDate LUNDI = LocalDate.of(2026, 2, 9);
+    
+    private IntervalleIndex index;
+    
+    @Before
+    public void setUp() {
+        index = new IntervalleIndex();
+        // Employé 4 : lundi 09:00-12:00 (absence #1)
+        index.ajouter(IntervalleIndex.plage(4L, LUNDI, LocalTime.of(9, 0), LocalTime.of(12, 0), null, 1L));
+    }
+    
+    @Test
+    public void testChevauchementMemeEmploye() {
+        Intervalle apresMidi = IntervalleIndex.plage(4L, LUNDI, LocalTime.of(11, 0), LocalTime.of(14, 0), null, null);
+        Intervalle existante = index.chevauchement(apresMidi, null);
+        assertNotNull(existante);
+        assertEquals(Long.valueOf(1L), existante.getAbsenceId());
+    }
+    
+    @Test
+    public void testPlagesContiguesAcceptees() {
+        Intervalle apresMidi = IntervalleIndex.plage(4L, LUNDI, LocalTime.of(12, 0), LocalTime.of(17, 0), null, null);
+        assertNull(index.chevauchement(apresMidi, null));
+    }
+    
+    @Test
+    public void testAutreEmployeEtAutreJour() {
+        assertNull(index.chevauchement(IntervalleIndex.plage(5L, LUNDI, null, null, null, null), null));
+        assertNull(index.chevauchement(IntervalleIndex.plage(4L, LUNDI.plusDays(1), null, null, null, null), null));
+    }
+    
+    @Test
+    public void testJourneeEntiereSansHeures() {
+        assertNotNull(index.chevauchement(IntervalleIndex.plage(4L, LUNDI, null, null, null, null), null));
+    }
+    
+    @Test
+    public void testDureeSansHeureDeFin() {
+        // 07:00 + 2 h = 09:00 : touche l'absence #1 sans la chevaucher
+        Intervalle matin = IntervalleIndex.plage(4L, LUNDI, LocalTime.of(7, 0), null, new BigDecimal("2"), null);
+        assertNull(index.chevauchement(matin, null));
+        
+        Intervalle plusLongue = IntervalleIndex.plage(4L, LUNDI, LocalTime.of(7, 0), null, new BigDecimal("2.5"), null);
+        assertNotNull(index.chevauchement(plusLongue, null));
+    }
+    
+    @Test
+    public void testModificationIgnoreSaPropreAbsence() {
+        Intervalle decalee = IntervalleIndex.plage(4L, LUNDI, LocalTime.of(10, 0), LocalTime.of(13, 0), null, 1L);
+        assertNull(index.chevauchement(decalee, 1L));
+        assertNotNull(index.chevauchement(decalee, 2L));
+    }
+    
+    @Test
+    public void testRetirer() {
+        Intervalle plage = index.trouver(4L, IntervalleIndex.plage(4L, LUNDI, LocalTime.of(9, 0), null, null, null).getDebut(), 1L);
+        assertNotNull(plage);
+        
+        index.retirer(plage);
+        assertEquals(0, index.getNombreEntrees());
+        assertEquals(0, index.getNombreEmployes());
+        assertNull(index.chevauchement(IntervalleIndex.plage(4L, LUNDI, null, null, null, null), null));
+    }
+}
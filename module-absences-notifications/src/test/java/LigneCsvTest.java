@@ -0,0 +1,35 @@
+import com.plateforme.absences.imports.LigneCsv;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LigneCsvTest {
+    
+    @Test
+    public void testDetecterSeparateur() {
+        assertEquals(';', LigneCsv.detecterSeparateur("employeId;typeAbsence;dateAbsence"));
+        assertEquals(',', LigneCsv.detecterSeparateur("employeId,typeAbsence,dateAbsence"));
+    }
+    
+    @Test
+    public void testDecouper() {
+        // Act
+        List<String> champs = LigneCsv.decouper("4; Maladie ;2026-02-12;;;8,5", ';');
+        
+        // Assert
+        assertEquals(Arrays.asList("4", "Maladie", "2026-02-12", "", "", "8,5"), champs);
+    }
+    
+    @Test
+    public void testDecouperGuillemets() {
+        // Act
+        List<String> champs = LigneCsv.decouper("4,1,2026-02-12,\"Grippe, fièvre \"\"forte\"\"\"", ',');
+        
+        // Assert
+        assertEquals(4, champs.size());
+        assertEquals("Grippe, fièvre \"forte\"", champs.get(3));
+    }
+}
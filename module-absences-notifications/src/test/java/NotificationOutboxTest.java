@@ -0,0 +1,137 @@
+import com.plateforme.absences.jms.NotificationEvent;
+import com.plateforme.absences.jms.NotificationOutbox;
+import com.plateforme.absences.jms.NotificationProducer;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import jakarta.ejb.SessionContext;
+import jakarta.jms.JMSException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.List;
+import javax.sql.DataSource;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class NotificationOutboxTest {
+    
+    @Mock
+    private DataSource dataSource;
+    
+    @Mock
+    private Connection connection;
+    
+    @Mock
+    private PreparedStatement selection;
+    
+    @Mock
+    private PreparedStatement suppression;
+    
+    @Mock
+    private ResultSet rs;
+    
+    @Mock
+    private SessionContext sessionContext;
+    
+    @Mock
+    private NotificationProducer notificationProducer;
+    
+    @InjectMocks
+    private NotificationOutbox outbox;
+    
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        
+        when(sessionContext.getBusinessObject(NotificationOutbox.class)).thenReturn(outbox);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(startsWith("SELECT"))).thenReturn(selection);
+        when(connection.prepareStatement(startsWith("DELETE"))).thenReturn(suppression);
+        when(selection.executeQuery()).thenReturn(rs);
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRelayerLotEnvoiePuisSupprimeDansLOrdreDesId() throws Exception {
+        // Arrange : deux notifications en attente
+        preparerLignes(10L, 11L);
+        
+        // Act
+        int envoyees = outbox.relayerLot();
+        
+        // Assert : lot pris sous verrou dans l'ordre des ID, envoyé avant d'être supprimé
+        assertEquals(2, envoyees);
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(connection, atLeastOnce()).prepareStatement(sql.capture());
+        assertTrue(sql.getAllValues().get(0),
+                   sql.getAllValues().get(0).endsWith("FROM notifications_outbox ORDER BY id LIMIT ? FOR UPDATE"));
+        verify(selection).setInt(1, 500);
+        
+        ArgumentCaptor<List<NotificationEvent>> events = ArgumentCaptor.forClass(List.class);
+        InOrder ordre = inOrder(notificationProducer, suppression);
+        ordre.verify(notificationProducer).transmettre(events.capture());
+        ordre.verify(suppression).executeUpdate();
+        assertEquals(Long.valueOf(1010), events.getValue().get(0).getDestinataireId());
+        assertEquals(Long.valueOf(1011), events.getValue().get(1).getDestinataireId());
+        assertEquals("DELETE FROM notifications_outbox WHERE id IN (?, ?)", sql.getAllValues().get(1));
+        verify(suppression).setLong(1, 10L);
+        verify(suppression).setLong(2, 11L);
+    }
+    
+    @Test
+    public void testRelayerLotBoiteVide() throws Exception {
+        // Arrange
+        when(rs.next()).thenReturn(false);
+        
+        // Act & Assert : rien à envoyer ni à supprimer
+        assertEquals(0, outbox.relayerLot());
+        verifyNoInteractions(notificationProducer);
+        verify(connection, never()).prepareStatement(startsWith("DELETE"));
+    }
+    
+    @Test
+    public void testEnvoiEnEchecGardeLeLotPourLePassageSuivant() throws Exception {
+        // Arrange : le broker refuse le premier envoi
+        preparerLignes(10L, 11L);
+        doThrow(new JMSException("broker indisponible")).doNothing()
+            .when(notificationProducer).transmettre(anyList());
+        
+        // Act : premier passage en échec (intercepté), le suivant renvoie le même lot
+        long premier = outbox.relayer();
+        preparerLignes(10L, 11L);
+        long second = outbox.relayer();
+        
+        // Assert : aucune suppression tant que l'envoi n'a pas réussi
+        assertEquals(0, premier);
+        assertEquals(2, second);
+        verify(notificationProducer, times(2)).transmettre(anyList());
+        verify(suppression, times(1)).executeUpdate();
+    }
+    
+    /**
+     * Le ResultSet renvoie une ligne par ID, destinataire 1000 + ID.
+     */
+    private void preparerLignes(Long... ids) throws Exception {
+        Boolean[] suivantes = new Boolean[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            suivantes[i] = i < ids.length - 1;
+        }
+        when(rs.next()).thenReturn(true, suivantes);
+        Long[] destinataires = new Long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            destinataires[i] = 1000 + ids[i];
+        }
+        when(rs.getLong(1)).thenReturn(ids[0], Arrays.copyOfRange(ids, 1, ids.length));
+        when(rs.getLong(2)).thenReturn(destinataires[0], Arrays.copyOfRange(destinataires, 1, ids.length));
+        when(rs.getString(4)).thenReturn("ABSENCE");
+    }
+}
@@ -0,0 +1,103 @@
+import com.plateforme.absences.jms.NotificationEvent;
+import com.plateforme.absences.jms.NotificationProducer;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.ObjectMessage;
+import jakarta.jms.Queue;
+import jakarta.jms.Session;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class NotificationProducerTest {
+    
+    @Mock
+    private ConnectionFactory connectionFactory;
+    
+    @Mock
+    private Queue notificationQueue;
+    
+    @Mock
+    private Connection connection;
+    
+    @Mock
+    private Session session;
+    
+    @Mock
+    private MessageProducer producer;
+    
+    @InjectMocks
+    private NotificationProducer notificationProducer;
+    
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        
+        when(connectionFactory.createConnection()).thenReturn(connection);
+        when(connection.createSession(false, Session.AUTO_ACKNOWLEDGE)).thenReturn(session);
+        when(session.createProducer(notificationQueue)).thenReturn(producer);
+    }
+    
+    @Test
+    public void testTransmettreGroupeParDestinataireDansLOrdre() throws Exception {
+        // Arrange
+        NotificationEvent premier = evenement(7L);
+        NotificationEvent second = evenement(8L);
+        NotificationEvent troisieme = evenement(7L);
+        ObjectMessage m1 = mock(ObjectMessage.class);
+        ObjectMessage m2 = mock(ObjectMessage.class);
+        ObjectMessage m3 = mock(ObjectMessage.class);
+        when(session.createObjectMessage(premier)).thenReturn(m1);
+        when(session.createObjectMessage(second)).thenReturn(m2);
+        when(session.createObjectMessage(troisieme)).thenReturn(m3);
+        
+        // Act
+        notificationProducer.transmettre(Arrays.asList(premier, second, troisieme));
+        
+        // Assert : un groupe JMS par destinataire, envoi dans l'ordre de la liste
+        verify(m1).setStringProperty("JMSXGroupID", "destinataire-7");
+        verify(m2).setStringProperty("JMSXGroupID", "destinataire-8");
+        verify(m3).setStringProperty("JMSXGroupID", "destinataire-7");
+        InOrder ordre = inOrder(producer);
+        ordre.verify(producer).send(m1);
+        ordre.verify(producer).send(m2);
+        ordre.verify(producer).send(m3);
+        verify(session).close();
+        verify(connection).close();
+    }
+    
+    @Test
+    public void testTransmettrePropageLEchec() throws Exception {
+        // Arrange
+        ObjectMessage message = mock(ObjectMessage.class);
+        when(session.createObjectMessage(any(NotificationEvent.class))).thenReturn(message);
+        doThrow(new JMSException("broker indisponible")).when(producer).send(message);
+        
+        // Act
+        try {
+            notificationProducer.transmettre(Arrays.asList(evenement(7L)));
+            fail("JMSException attendue");
+        } catch (JMSException e) {
+            // Assert : l'appelant (relais) voit l'échec, les ressources sont fermées
+            verify(connection).close();
+        }
+    }
+    
+    private static NotificationEvent evenement(Long destinataireId) {
+        NotificationEvent event = new NotificationEvent();
+        event.setDestinataireId(destinataireId);
+        event.setType("ABSENCE");
+        return event;
+    }
+}
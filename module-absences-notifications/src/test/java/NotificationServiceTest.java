@@ -1,5 +1,7 @@
 import com.plateforme.absences.entities.Notification;
 import com.plateforme.absences.services.NotificationService;
+import com.plateforme.absences.services.RevisionService;
+import com.plateforme.absences.services.RoutageLectureService;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
@@ -10,6 +12,7 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Function;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -22,12 +25,24 @@ public class NotificationServiceTest {
     @Mock
     private TypedQuery<Notification> query;
     
+    @Mock
+    private RevisionService revisions;
+    
+    @Mock
+    private RoutageLectureService lectures;
+    
     @InjectMocks
     private NotificationService notificationService;
     
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
+        
+        // Lectures exécutées sur l'EntityManager simulé
+        when(lectures.lire(any(), any())).thenAnswer(invocation -> {
+            Function<EntityManager, ?> lecture = invocation.getArgument(0);
+            return lecture.apply(em);
+        });
     }
     
     @Test
@@ -0,0 +1,46 @@
+import com.plateforme.absences.documents.PlageOctets;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PlageOctetsTest {
+    
+    @Test
+    public void testPlageBornee() {
+        PlageOctets plage = PlageOctets.lire("bytes=0-499", 1000);
+        
+        assertEquals(0, plage.getDebut());
+        assertEquals(499, plage.getFin());
+        assertEquals(500, plage.getLongueur());
+        assertEquals("bytes 0-499/1000", plage.contentRange(1000));
+    }
+    
+    @Test
+    public void testPlageOuverteEtSuffixe() {
+        PlageOctets ouverte = PlageOctets.lire("bytes=900-", 1000);
+        assertEquals(900, ouverte.getDebut());
+        assertEquals(999, ouverte.getFin());
+        
+        PlageOctets suffixe = PlageOctets.lire("bytes=-100", 1000);
+        assertEquals(900, suffixe.getDebut());
+        assertEquals(100, suffixe.getLongueur());
+        
+        // Fin au-delà du document : ramenée au dernier octet
+        assertEquals(999, PlageOctets.lire("bytes=500-5000", 1000).getFin());
+    }
+    
+    @Test
+    public void testPlageInsatisfaisable() {
+        assertSame(PlageOctets.INSATISFAISABLE, PlageOctets.lire("bytes=1000-", 1000));
+        assertEquals("bytes */1000", PlageOctets.INSATISFAISABLE.contentRange(1000));
+    }
+    
+    @Test
+    public void testPlageIgnoree() {
+        assertNull(PlageOctets.lire(null, 1000));
+        assertNull(PlageOctets.lire("bytes=0-10,20-30", 1000));
+        assertNull(PlageOctets.lire("bytes=abc", 1000));
+        assertNull(PlageOctets.lire("bytes=50-10", 1000));
+        assertNull(PlageOctets.lire("items=0-10", 1000));
+    }
+}
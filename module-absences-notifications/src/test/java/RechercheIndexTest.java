@@ -0,0 +1,127 @@
+import com.plateforme.absences.index.RechercheIndex;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class RechercheIndexTest {
+    
+    private static final LocalDate JOUR = LocalDate.of(2026, 2, 12);
+    
+    private RechercheIndex index;
+    private Map<Long, String> types;
+    
+    @Before
+    public void setUp() {
+        index = new RechercheIndex();
+        types = new HashMap<>();
+        types.put(1L, "Maladie");
+        types.put(2L, "Congé payé");
+    }
+    
+    @Test
+    public void testTermesNormalises() {
+        assertEquals(Arrays.asList("rendez", "vous", "medical", "hopital"),
+                     RechercheIndex.termes("Rendez-vous MÉDICAL à l'hôpital"));
+        assertTrue(RechercheIndex.termes(null).isEmpty());
+        assertTrue(RechercheIndex.termes("de la").isEmpty());
+    }
+    
+    @Test
+    public void testTousLesMotsRequis() {
+        index.ajouter(1, 10, 1, JOUR, "Rendez-vous médical");
+        index.ajouter(2, 11, 1, JOUR, "Rendez-vous chez le notaire");
+        
+        assertEquals(Arrays.asList(1L), ids("rendez medical"));
+        assertEquals(Arrays.asList(1L, 2L), ids("rendez vous")); // motif le plus court d'abord
+        assertTrue(ids("medical notaire").isEmpty());
+    }
+    
+    @Test
+    public void testDernierMotEnPrefixe() {
+        index.ajouter(1, 10, 1, JOUR, "Consultation médicale");
+        index.ajouter(2, 11, 1, JOUR, "Médecin traitant");
+        
+        assertEquals(2, index.rechercher("med", types, null, null, null, 0, 10).getTotal());
+        // Seul le dernier mot est cherché comme préfixe
+        assertTrue(ids("med consultation").isEmpty());
+        assertEquals(Arrays.asList(1L), ids("consultation med"));
+    }
+    
+    @Test
+    public void testNomDuType() {
+        index.ajouter(1, 10, 2, JOUR, "Vacances en famille");
+        index.ajouter(2, 11, 1, JOUR, "Grippe");
+        
+        assertEquals(Arrays.asList(1L), ids("conge"));
+        assertEquals(Arrays.asList(2L), ids("maladie grippe"));
+        
+        // Le nom est résolu à chaque recherche : un renommage est pris en compte sans réindexer
+        types.put(1L, "Arrêt maladie");
+        assertEquals(Arrays.asList(2L), ids("arret"));
+    }
+    
+    @Test
+    public void testClassementParPertinence() {
+        index.ajouter(1, 10, 1, JOUR, "Formation sécurité puis réunion d'équipe et point hebdomadaire");
+        index.ajouter(2, 11, 1, JOUR, "Formation");
+        index.ajouter(3, 12, 1, JOUR, "Formation formation");
+        
+        // Motif court ou terme répété avant un motif long
+        assertEquals(Arrays.asList(3L, 2L, 1L), ids("formation"));
+    }
+    
+    @Test
+    public void testFiltresEtPagination() {
+        for (long id = 1; id <= 30; id++) {
+            index.ajouter(id, id % 3, 1, JOUR.plusDays(id), "Télétravail impossible");
+        }
+        
+        RechercheIndex.Resultats employe = index.rechercher("teletravail", types, 1L, null, null, 0, 100);
+        assertEquals(10, employe.getTotal());
+        
+        RechercheIndex.Resultats periode = index.rechercher("teletravail", types, null, JOUR.plusDays(1), JOUR.plusDays(5), 0, 100);
+        assertEquals(5, periode.getTotal());
+        
+        // Scores égaux : les plus récentes d'abord, pages contiguës
+        RechercheIndex.Resultats page1 = index.rechercher("teletravail", types, null, null, null, 0, 10);
+        RechercheIndex.Resultats page2 = index.rechercher("teletravail", types, null, null, null, 10, 10);
+        assertEquals(30, page1.getTotal());
+        assertEquals(30L, page1.getResultats().get(0).getAbsenceId());
+        assertEquals(20L, page2.getResultats().get(0).getAbsenceId());
+        assertEquals(10, page2.getResultats().size());
+    }
+    
+    @Test
+    public void testModificationEtRetrait() {
+        index.ajouter(5, 10, 1, JOUR, "Panne de voiture");
+        index.ajouter(3, 11, 1, JOUR, "Panne de train");
+        
+        index.retirer(5, "Panne de voiture");
+        index.ajouter(5, 10, 1, JOUR, "Grève des transports");
+        
+        assertEquals(Arrays.asList(3L), ids("panne"));
+        assertEquals(Arrays.asList(5L), ids("greve"));
+        assertTrue(ids("voiture").isEmpty());
+        assertEquals(2, index.getNombreEntrees());
+        
+        index.retirer(3, "Panne de train");
+        assertTrue(ids("panne").isEmpty());
+        assertEquals(2, index.getNombreTermes()); // "greve" et "transports"
+    }
+    
+    private List<Long> ids(String requete) {
+        List<Long> ids = new ArrayList<>();
+        for (RechercheIndex.Resultat resultat : index.rechercher(requete, types, null, null, null, 0, 100).getResultats()) {
+            ids.add(resultat.getAbsenceId());
+        }
+        return ids;
+    }
+}
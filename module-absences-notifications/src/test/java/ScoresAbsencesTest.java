@@ -0,0 +1,167 @@
+import com.plateforme.absences.scores.HistoriqueAbsences;
+import com.plateforme.absences.scores.ScoresAbsences;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class ScoresAbsencesTest {
+    
+    // Lundi 2 février au dimanche 1er mars 2026 : 4 semaines, 20 jours ouvrés
+    private static final LocalDate DEBUT = LocalDate.of(2026, 2, 2);
+    private static final LocalDate FIN = LocalDate.of(2026, 3, 1);
+    
+    private static ForkJoinPool pool;
+    
+    @BeforeClass
+    public static void demarrer() {
+        pool = new ForkJoinPool(4);
+    }
+    
+    @AfterClass
+    public static void arreter() {
+        pool.shutdown();
+    }
+    
+    private static ScoresAbsences exemple() {
+        HistoriqueAbsences historique = new HistoriqueAbsences(DEBUT, FIN);
+        // Employé 3 : mardi et jeudi (le mercredi sépare deux épisodes)
+        historique.ajouter(3L, LocalDate.of(2026, 2, 3));
+        historique.ajouter(3L, LocalDate.of(2026, 2, 5));
+        // Employé 7 : vendredi + lundi (un épisode, week-end compris), puis un mercredi saisi deux fois
+        historique.ajouter(7L, LocalDate.of(2026, 2, 6));
+        historique.ajouter(7L, LocalDate.of(2026, 2, 9));
+        historique.ajouter(7L, LocalDate.of(2026, 2, 18));
+        historique.ajouter(7L, LocalDate.of(2026, 2, 18));
+        // Employé 9 : une semaine complète
+        for (int i = 0; i < 5; i++) {
+            historique.ajouter(9L, DEBUT.plusDays(i));
+        }
+        return ScoresAbsences.calculer(historique.terminer(), pool);
+    }
+    
+    @Test
+    public void testScoresBradford() {
+        ScoresAbsences scores = exemple();
+        
+        assertEquals(3, scores.getNombreEmployes());
+        assertEquals(20, scores.getJoursOuvres());
+        
+        int i = scores.indexDe(7L);
+        assertEquals(2, scores.getEpisodes(i));
+        assertEquals(3, scores.getJours(i));
+        assertEquals(12, scores.getBradford(i));
+        assertEquals(15.0, scores.getTaux(i), 1e-9);
+        
+        i = scores.indexDe(3L);
+        assertEquals(2, scores.getEpisodes(i));
+        assertEquals(8, scores.getBradford(i));
+        
+        i = scores.indexDe(9L);
+        assertEquals(1, scores.getEpisodes(i));
+        assertEquals(5, scores.getBradford(i));
+        
+        assertEquals(-1, scores.indexDe(4L));
+    }
+    
+    @Test
+    public void testClassement() {
+        ScoresAbsences scores = exemple();
+        
+        int[] parBradford = scores.classement(false, 10);
+        assertEquals(3, parBradford.length);
+        assertEquals(7L, scores.getEmployeId(parBradford[0]));
+        assertEquals(3L, scores.getEmployeId(parBradford[1]));
+        assertEquals(9L, scores.getEmployeId(parBradford[2]));
+        
+        int[] parTaux = scores.classement(true, 2);
+        assertEquals(2, parTaux.length);
+        assertEquals(9L, scores.getEmployeId(parTaux[0]));
+        assertEquals(7L, scores.getEmployeId(parTaux[1]));
+    }
+    
+    @Test
+    public void testClassementEgaliteParIdEmploye() {
+        HistoriqueAbsences historique = new HistoriqueAbsences(DEBUT, FIN);
+        historique.ajouter(10L, DEBUT);
+        historique.ajouter(20L, DEBUT);
+        ScoresAbsences scores = ScoresAbsences.calculer(historique.terminer(), pool);
+        
+        int[] rangs = scores.classement(false, 2);
+        assertEquals(10L, scores.getEmployeId(rangs[0]));
+        assertEquals(20L, scores.getEmployeId(rangs[1]));
+    }
+    
+    @Test
+    public void testDatesHorsPeriodeIgnorees() {
+        HistoriqueAbsences historique = new HistoriqueAbsences(DEBUT, FIN);
+        historique.ajouter(5L, DEBUT.minusDays(1));
+        historique.ajouter(5L, FIN.plusDays(1));
+        
+        assertEquals(0, historique.terminer().getNombreEmployes());
+        assertEquals(0, ScoresAbsences.calculer(historique, pool).classement(false, 10).length);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testAbsencesNonTriees() {
+        HistoriqueAbsences historique = new HistoriqueAbsences(DEBUT, FIN);
+        historique.ajouter(7L, DEBUT);
+        historique.ajouter(3L, DEBUT);
+    }
+    
+    @Test
+    public void testCalculParalleleIdentiqueAuCalculDirect() {
+        // Arrange : assez d'employés pour découper le calcul en plusieurs tâches
+        LocalDate debut = LocalDate.of(2021, 1, 1);
+        LocalDate fin = LocalDate.of(2025, 12, 31);
+        int employes = 5000;
+        int periode = (int) (fin.toEpochDay() - debut.toEpochDay()) + 1;
+        Random aleatoire = new Random(42);
+        
+        HistoriqueAbsences historique = new HistoriqueAbsences(debut, fin);
+        long[][] attendus = new long[employes][];
+        for (int e = 0; e < employes; e++) {
+            long s = 0;
+            long d = 0;
+            LocalDate precedente = null;
+            for (int jour = aleatoire.nextInt(60); jour < periode; jour += 1 + aleatoire.nextInt(40)) {
+                LocalDate date = debut.plusDays(jour);
+                historique.ajouter(e, date);
+                if (precedente == null || !memeEpisode(precedente, date)) {
+                    s++;
+                }
+                d++;
+                precedente = date;
+            }
+            attendus[e] = new long[] {s, d, s * s * d};
+        }
+        
+        // Act
+        ScoresAbsences scores = ScoresAbsences.calculer(historique.terminer(), pool);
+        
+        // Assert
+        assertEquals(employes, scores.getNombreEmployes());
+        for (int e = 0; e < employes; e++) {
+            int i = scores.indexDe(e);
+            assertEquals(attendus[e][0], scores.getEpisodes(i));
+            assertEquals(attendus[e][1], scores.getJours(i));
+            assertEquals(attendus[e][2], scores.getBradford(i));
+        }
+    }
+    
+    // Référence : même épisode si seuls des samedis et dimanches séparent les deux dates
+    private static boolean memeEpisode(LocalDate precedente, LocalDate date) {
+        for (LocalDate jour = precedente.plusDays(1); jour.isBefore(date); jour = jour.plusDays(1)) {
+            if (jour.getDayOfWeek() != DayOfWeek.SATURDAY && jour.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,237 @@
+import com.plateforme.absences.dto.AbsenceDTO;
+import com.plateforme.absences.entities.TotalMensuelAbsence;
+import com.plateforme.absences.services.ArchivageAbsenceService;
+import com.plateforme.absences.services.TotalMensuelService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TotalMensuelServiceTest {
+    
+    @Mock
+    private EntityManager em;
+    
+    @Mock
+    private DataSource dataSource;
+    
+    @Mock
+    private Connection connection;
+    
+    @Mock
+    private PreparedStatement ps;
+    
+    @Mock
+    private ArchivageAbsenceService archivage;
+    
+    @InjectMocks
+    private TotalMensuelService totalMensuelService;
+    
+    // Paramètres de chaque ligne ajoutée au batch des deltas (index JDBC → valeur)
+    private final Map<Integer, Object> ligne = new HashMap<>();
+    private final List<Map<Integer, Object>> lignes = new ArrayList<>();
+    
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(ps);
+        doAnswer(invocation -> ligne.put(invocation.getArgument(0), invocation.getArgument(1)))
+            .when(ps).setLong(anyInt(), anyLong());
+        doAnswer(invocation -> ligne.put(invocation.getArgument(0), invocation.getArgument(1)))
+            .when(ps).setObject(anyInt(), any());
+        doAnswer(invocation -> ligne.put(invocation.getArgument(0), invocation.getArgument(1)))
+            .when(ps).setBigDecimal(anyInt(), any());
+        doAnswer(invocation -> {
+            lignes.add(new HashMap<>(ligne));
+            ligne.clear();
+            return null;
+        }).when(ps).addBatch();
+    }
+    
+    @Test
+    public void testAppliquerCreationsRegroupeParEmployeEtMois() throws Exception {
+        // Arrange
+        List<AbsenceDTO> absences = Arrays.asList(
+            absence(1L, "2026-03-02", "8", true),
+            absence(1L, "2026-03-15", "4", false),
+            absence(1L, "2026-04-01", "8", false),
+            absence(2L, "2026-03-02", "8", false)
+        );
+        
+        // Act
+        totalMensuelService.appliquerCreations(absences);
+        
+        // Assert : une ligne par (employé, mois, type), dans l'ordre de première apparition
+        assertEquals(3, lignes.size());
+        verifierLigne(lignes.get(0), 1L, "2026-03-01", 2, "12", 1, "8");
+        verifierLigne(lignes.get(1), 1L, "2026-04-01", 1, "8", 0, "0");
+        verifierLigne(lignes.get(2), 2L, "2026-03-01", 1, "8", 0, "0");
+        verify(ps, times(1)).executeBatch();
+    }
+    
+    @Test
+    public void testAppliquerDeplacementEntreMois() throws Exception {
+        // Arrange
+        AbsenceDTO avant = absence(1L, "2026-03-31", "8", true);
+        AbsenceDTO apres = absence(1L, "2026-04-01", "8", true);
+        
+        // Act
+        totalMensuelService.appliquer(avant, apres);
+        
+        // Assert : retirée de mars, ajoutée à avril
+        assertEquals(2, lignes.size());
+        verifierLigne(lignes.get(0), 1L, "2026-03-01", -1, "-8", -1, "-8");
+        verifierLigne(lignes.get(1), 1L, "2026-04-01", 1, "8", 1, "8");
+    }
+    
+    @Test
+    public void testAppliquerSansEffetSurLesTotaux() throws Exception {
+        // Arrange : même mois, même durée, seul le jour change
+        AbsenceDTO avant = absence(1L, "2026-03-02", "8", false);
+        AbsenceDTO apres = absence(1L, "2026-03-20", "8", false);
+        
+        // Act
+        totalMensuelService.appliquer(avant, apres);
+        
+        // Assert : delta nul, aucune requête
+        verify(dataSource, never()).getConnection();
+    }
+    
+    @Test
+    public void testReconstruireAjouteLArchive() throws Exception {
+        // Arrange
+        PreparedStatement suppression = mock(PreparedStatement.class);
+        PreparedStatement recalcul = mock(PreparedStatement.class);
+        PreparedStatement archive = mock(PreparedStatement.class);
+        when(connection.prepareStatement(startsWith("DELETE"))).thenReturn(suppression);
+        when(connection.prepareStatement(contains("FROM absences WHERE"))).thenReturn(recalcul);
+        when(connection.prepareStatement(contains("FROM absences_archive WHERE"))).thenReturn(archive);
+        when(recalcul.executeUpdate()).thenReturn(10);
+        when(archive.executeUpdate()).thenReturn(4);
+        when(archivage.concerne(LocalDate.of(2025, 1, 1))).thenReturn(true);
+        
+        // Act
+        int resultat = totalMensuelService.reconstruire(YearMonth.of(2025, 1), YearMonth.of(2025, 3));
+        
+        // Assert : suppression, recalcul depuis absences, puis cumul de l'archive sur la même période
+        assertEquals(14, resultat);
+        verify(suppression).executeUpdate();
+        verify(archive).setObject(1, LocalDate.of(2025, 1, 1));
+        verify(archive).setObject(2, LocalDate.of(2025, 3, 31));
+        verify(archive).executeUpdate();
+    }
+    
+    @Test
+    public void testReconstruireSansArchive() throws Exception {
+        // Arrange
+        when(ps.executeUpdate()).thenReturn(10);
+        when(archivage.concerne(any())).thenReturn(false);
+        
+        // Act
+        int resultat = totalMensuelService.reconstruire(YearMonth.of(2026, 1), YearMonth.of(2026, 3));
+        
+        // Assert
+        assertEquals(10, resultat);
+        verify(connection, never()).prepareStatement(contains("absences_archive"));
+    }
+    
+    @Test
+    public void testVerifierCumuleAbsencesEtArchive() {
+        // Arrange : 2 absences en table, 1 archivée, pour le même employé, mois et type
+        preparerAgregats(new Object[] {1L, 2025, 1, 3L, 2L, new BigDecimal("16"), 1L, new BigDecimal("8")},
+                         new Object[] {1L, 2025, 1, 3L, 1L, new BigDecimal("4"), 0L, BigDecimal.ZERO});
+        preparerTotaux(total(3, "20", 1, "8"));
+        
+        // Act
+        List<String> ecarts = totalMensuelService.verifier(YearMonth.of(2025, 1), YearMonth.of(2025, 1));
+        
+        // Assert
+        assertTrue(ecarts.toString(), ecarts.isEmpty());
+    }
+    
+    @Test
+    public void testVerifierSignaleLArchiveManquante() {
+        // Arrange : totaux calculés sans l'absence archivée
+        preparerAgregats(new Object[] {1L, 2025, 1, 3L, 2L, new BigDecimal("16"), 1L, new BigDecimal("8")},
+                         new Object[] {1L, 2025, 1, 3L, 1L, new BigDecimal("4"), 0L, BigDecimal.ZERO});
+        preparerTotaux(total(2, "16", 1, "8"));
+        
+        // Act
+        List<String> ecarts = totalMensuelService.verifier(YearMonth.of(2025, 1), YearMonth.of(2025, 1));
+        
+        // Assert
+        assertEquals(1, ecarts.size());
+        assertTrue(ecarts.get(0), ecarts.get(0).contains("attendu 3 absence(s) / 20 h"));
+    }
+    
+    private static AbsenceDTO absence(Long employeId, String date, String heures, boolean justifiee) {
+        return new AbsenceDTO(null, employeId, 3L, "Maladie", LocalDate.parse(date), null, null,
+                              new BigDecimal(heures), null, justifiee, null, null, "VALIDE", null);
+    }
+    
+    private static void verifierLigne(Map<Integer, Object> ligne, Long employeId, String mois, long nombre,
+                                      String heures, long nombreJustifiees, String heuresJustifiees) {
+        assertEquals(employeId, ligne.get(1));
+        assertEquals(LocalDate.parse(mois), ligne.get(2));
+        assertEquals(3L, ligne.get(3));
+        assertEquals(nombre, ligne.get(4));
+        assertEquals(0, new BigDecimal(heures).compareTo((BigDecimal) ligne.get(5)));
+        assertEquals(nombreJustifiees, ligne.get(6));
+        assertEquals(0, new BigDecimal(heuresJustifiees).compareTo((BigDecimal) ligne.get(7)));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void preparerAgregats(Object[] absences, Object[] archivees) {
+        TypedQuery<Object[]> requeteAbsences = mock(TypedQuery.class);
+        TypedQuery<Object[]> requeteArchive = mock(TypedQuery.class);
+        when(em.createQuery(contains("FROM Absence a"), eq(Object[].class))).thenReturn(requeteAbsences);
+        when(em.createQuery(contains("FROM AbsenceArchive a"), eq(Object[].class))).thenReturn(requeteArchive);
+        when(requeteAbsences.setParameter(anyString(), any())).thenReturn(requeteAbsences);
+        when(requeteArchive.setParameter(anyString(), any())).thenReturn(requeteArchive);
+        when(requeteAbsences.getResultList()).thenReturn(Collections.singletonList(absences));
+        when(requeteArchive.getResultList()).thenReturn(Collections.singletonList(archivees));
+        when(archivage.concerne(LocalDate.of(2025, 1, 1))).thenReturn(true);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void preparerTotaux(TotalMensuelAbsence... totaux) {
+        TypedQuery<TotalMensuelAbsence> requete = mock(TypedQuery.class);
+        when(em.createNamedQuery("TotalMensuelAbsence.findByPeriode", TotalMensuelAbsence.class)).thenReturn(requete);
+        when(requete.setParameter(anyString(), any())).thenReturn(requete);
+        when(requete.getResultList()).thenReturn(Arrays.asList(totaux));
+    }
+    
+    private static TotalMensuelAbsence total(long nombre, String heures, long nombreJustifiees, String heuresJustifiees) {
+        TotalMensuelAbsence total = new TotalMensuelAbsence();
+        total.setEmployeId(1L);
+        total.setMois(LocalDate.of(2025, 1, 1));
+        total.setTypeAbsenceId(3L);
+        total.setNombre(nombre);
+        total.setHeures(new BigDecimal(heures));
+        total.setNombreJustifiees(nombreJustifiees);
+        total.setHeuresJustifiees(new BigDecimal(heuresJustifiees));
+        return total;
+    }
+}
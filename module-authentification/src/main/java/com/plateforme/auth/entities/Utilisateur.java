@@ -6,6 +6,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "utilisateurs")
+@Cacheable
 public class Utilisateur implements Serializable {
 
     @Id
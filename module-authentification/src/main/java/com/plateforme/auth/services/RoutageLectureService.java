@@ -0,0 +1,222 @@
+package com.plateforme.auth.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.PersistenceUnit;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * Oriente les lectures seules vers la réplique (authLecturePU) ou le primaire (authPU).
+ *
+ * Une lecture ne va sur la réplique que si :
+ * - elle s'exécute hors transaction ;
+ * - le retard de réplication est connu et ne dépasse pas auth.replique.retard-max-ms (défaut 2000) ;
+ * - la réplique a la même révision des utilisateurs que le primaire.
+ *
+ * La révision (table auth_revisions) est incrémentée dans la transaction de
+ * chaque écriture sur les utilisateurs, juste avant son commit : elle est
+ * répliquée avec les données. Une réplique qui n'a pas encore reçu une
+ * écriture validée, faite sur n'importe quel nœud, a une révision plus
+ * ancienne, et la lecture se fait sur le primaire.
+ *
+ * Le retard est mesuré chaque seconde par battement : l'heure écrite sur le
+ * primaire dans auth_replication_battement est relue sur la réplique, et son
+ * âge (horloge du primaire) donne le retard. Sans mesure récente, les lectures
+ * vont au primaire.
+ *
+ * Avec -Dauth.replique.active=false, tout est lu sur le primaire et le battement est arrêté.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.SUPPORTS)
+public class RoutageLectureService {
+
+    private static final Logger LOGGER = Logger.getLogger(RoutageLectureService.class.getName());
+
+    private static final long RETARD_MAX_PAR_DEFAUT_MS = 2000;
+
+    // Sans mesure plus récente (battement arrêté, réplique injoignable), le retard est inconnu
+    private static final long VALIDITE_MESURE_NANOS = TimeUnit.SECONDS.toNanos(3);
+
+    private static final String BATTEMENT =
+            "INSERT INTO auth_replication_battement (id, battement) VALUES (1, NOW(3)) "
+            + "ON DUPLICATE KEY UPDATE battement = NOW(3)";
+
+    private static final String CLE_UTILISATEURS = "utilisateurs";
+
+    private static final String INCREMENT =
+            "INSERT INTO auth_revisions (cle, revision) VALUES (?, 1) ON DUPLICATE KEY UPDATE revision = revision + 1";
+
+    private static final String REVISION = "SELECT revision FROM auth_revisions WHERE cle = ?1";
+
+    @PersistenceContext(unitName = "authPU")
+    private EntityManager primaire;
+
+    @PersistenceUnit(unitName = "authLecturePU")
+    private EntityManagerFactory replique;
+
+    // Même DataSource que authPU : l'incrément participe à la transaction de l'écriture
+    @Resource(lookup = "java:/gestion_rh_jeeDS")
+    private DataSource dataSource;
+
+    @Resource
+    private TransactionSynchronizationRegistry registre;
+
+    private boolean active;
+    private long retardMaxMs;
+
+    // Dernier retard mesuré (-1 : inconnu) et instant de la mesure (System.nanoTime())
+    private volatile long retardMs = -1;
+    private volatile long mesureNanos;
+
+    @PostConstruct
+    public void configurer() {
+        active = Boolean.parseBoolean(System.getProperty("auth.replique.active", "true"));
+        retardMaxMs = Math.max(0, Long.getLong("auth.replique.retard-max-ms", RETARD_MAX_PAR_DEFAUT_MS));
+        LOGGER.info("Lectures sur réplique : " + (active ? "actives, retard maximal " + retardMaxMs + " ms" : "désactivées"));
+    }
+
+    /**
+     * Exécute une lecture seule, sur la réplique si elle a reçu toutes les écritures validées sur les utilisateurs.
+     */
+    public <T> T lire(Function<EntityManager, T> lecture) {
+        if (!active
+                || registre.getTransactionStatus() != Status.STATUS_NO_TRANSACTION
+                || !repliqueAJour()) {
+            return lecture.apply(primaire);
+        }
+
+        EntityManager em = null;
+        try {
+            em = replique.createEntityManager();
+            // Révision lue sur la réplique avant les données : la réponse est au moins aussi récente
+            if (revision(em) == revision(primaire)) {
+                return lecture.apply(em);
+            }
+        } catch (PersistenceException e) {
+            LOGGER.log(Level.WARNING, "Lecture sur la réplique impossible, lecture sur le primaire", e);
+        } finally {
+            if (em != null) {
+                em.close();
+            }
+        }
+        return lecture.apply(primaire);
+    }
+
+    /**
+     * Mesure le retard de la réplique (âge du dernier battement reçu) puis écrit un nouveau battement.
+     */
+    @Schedule(hour = "*", minute = "*", second = "*", persistent = false)
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void mesurerRetard() {
+        if (!active) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            LocalDateTime recu = battementReplique();
+            if (recu != null) {
+                try (PreparedStatement ps = connection.prepareStatement("SELECT TIMESTAMPDIFF(MICROSECOND, ?, NOW(3))")) {
+                    ps.setObject(1, recu);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        rs.next();
+                        retardMs = Math.max(0, rs.getLong(1) / 1000);
+                        mesureNanos = System.nanoTime();
+                    }
+                }
+            }
+            try (PreparedStatement ps = connection.prepareStatement(BATTEMENT)) {
+                ps.executeUpdate();
+            }
+        } catch (SQLException | PersistenceException e) {
+            LOGGER.fine("Mesure du retard de la réplique impossible : " + e.getMessage());
+        }
+    }
+
+    private LocalDateTime battementReplique() {
+        EntityManager em = replique.createEntityManager();
+        try {
+            @SuppressWarnings("unchecked")
+            List<LocalDateTime> battements = em.createNativeQuery(
+                    "SELECT battement FROM auth_replication_battement WHERE id = 1", LocalDateTime.class)
+                    .getResultList();
+            return battements.isEmpty() ? null : battements.get(0);
+        } finally {
+            em.close();
+        }
+    }
+
+    private boolean repliqueAJour() {
+        long retard = retardMs;
+        return retard >= 0 && retard <= retardMaxMs && System.nanoTime() - mesureNanos <= VALIDITE_MESURE_NANOS;
+    }
+
+    private static long revision(EntityManager source) {
+        @SuppressWarnings("unchecked")
+        List<Number> revisions = source.createNativeQuery(REVISION)
+                .setParameter(1, CLE_UTILISATEURS)
+                .getResultList();
+        return revisions.isEmpty() ? 0 : revisions.get(0).longValue();
+    }
+
+    /**
+     * Incrémente la révision des utilisateurs dans la transaction courante, juste avant
+     * son commit (immédiatement s'il n'y en a pas).
+     */
+    public void incrementerRevision() {
+        int statut = registre.getTransactionStatus();
+        if (statut == Status.STATUS_NO_TRANSACTION) {
+            incrementer();
+            return;
+        }
+        if (statut != Status.STATUS_ACTIVE || registre.getResource(RoutageLectureService.class) != null) {
+            // Transaction vouée à l'annulation, ou incrément déjà prévu
+            return;
+        }
+        registre.putResource(RoutageLectureService.class, Boolean.TRUE);
+        registre.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+                if (registre.getTransactionStatus() != Status.STATUS_MARKED_ROLLBACK) {
+                    incrementer();
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+            }
+        });
+    }
+
+    private void incrementer() {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(INCREMENT)) {
+            ps.setString(1, CLE_UTILISATEURS);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new PersistenceException("Erreur lors de l'incrément de la révision des utilisateurs", e);
+        }
+    }
+}
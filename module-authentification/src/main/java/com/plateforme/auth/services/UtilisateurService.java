@@ -3,6 +3,8 @@ package com.plateforme.auth.services;
 import com.plateforme.auth.entities.Utilisateur;
 import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import java.util.List;
@@ -16,12 +18,16 @@ public class UtilisateurService {
     @EJB
     private SecurityService securityService;
 
+    @EJB
+    private RoutageLectureService lectures;
+
     /**
      * Crée un nouvel utilisateur en hachant son mot de passe.
      */
     public Utilisateur create(Utilisateur utilisateur) {
         utilisateur.setMotDePasse(securityService.hashPassword(utilisateur.getMotDePasse()));
         em.persist(utilisateur);
+        lectures.incrementerRevision();
         return utilisateur;
     }
 
@@ -33,12 +39,13 @@ public class UtilisateurService {
     }
 
     /**
-     * Récupère un utilisateur par son nom d'utilisateur.
+     * Récupère un utilisateur par son nom d'utilisateur (résultat en cache de requêtes).
      */
     public Utilisateur findByUsername(String username) {
         try {
             return em.createQuery("SELECT u FROM Utilisateur u WHERE u.nomUtilisateur = :username", Utilisateur.class)
                     .setParameter("username", username)
+                    .setHint("org.hibernate.cacheable", true)
                     .getSingleResult();
         } catch (Exception e) {
             return null;
@@ -46,16 +53,19 @@ public class UtilisateurService {
     }
 
     /**
-     * Liste tous les utilisateurs.
+     * Liste tous les utilisateurs (sur la réplique hors transaction).
      */
+    @TransactionAttribute(TransactionAttributeType.SUPPORTS)
     public List<Utilisateur> findAll() {
-        return em.createQuery("SELECT u FROM Utilisateur u", Utilisateur.class).getResultList();
+        return lectures.lire(lecture -> lecture.createQuery("SELECT u FROM Utilisateur u", Utilisateur.class)
+                .getResultList());
     }
 
     /**
      * Met à jour un utilisateur.
      */
     public Utilisateur update(Utilisateur utilisateur) {
+        lectures.incrementerRevision();
         return em.merge(utilisateur);
     }
 
@@ -67,6 +77,7 @@ public class UtilisateurService {
         if (u != null) {
             u.setMotDePasse(securityService.hashPassword(newPassword));
             em.merge(u);
+            lectures.incrementerRevision();
             return true;
         }
         return false;
@@ -79,6 +90,7 @@ public class UtilisateurService {
         Utilisateur u = findById(id);
         if (u != null) {
             em.remove(u);
+            lectures.incrementerRevision();
         }
     }
 }